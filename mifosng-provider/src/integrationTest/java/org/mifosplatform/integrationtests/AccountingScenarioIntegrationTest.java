@@ -329,6 +329,11 @@ public class AccountingScenarioIntegrationTest {
 
         // Verifying Balance after applying Charge for Withdrawal Fee
         assertEquals("Verifying Balance", balance, summary.get("accountBalance"));
+
+        // the daily balances summed by the trial balance agree with the journal entries
+        this.journalEntryHelper.checkTrialBalanceMatchesJournalEntries(assetAccount, null, this.TRANSACTION_DATE);
+        this.journalEntryHelper.checkTrialBalanceMatchesJournalEntries(liabilityAccount, null, this.TRANSACTION_DATE);
+        this.journalEntryHelper.checkTrialBalanceMatchesJournalEntries(incomeAccount, this.TRANSACTION_DATE, this.TRANSACTION_DATE);
     }
 
     @Test
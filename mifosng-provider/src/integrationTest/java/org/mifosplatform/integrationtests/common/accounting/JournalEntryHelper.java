@@ -5,10 +5,13 @@
  */
 package org.mifosplatform.integrationtests.common.accounting;
 
+import static org.hamcrest.Matchers.comparesEqualTo;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashMap;
 
@@ -50,6 +53,38 @@ public class JournalEntryHelper {
         checkJournalEntry(officeId, liabilityAccount, date, accountEntries);
     }
 
+    /**
+     * Checks that the trial balance, which sums the daily balances of the GL
+     * accounts, has the debits and credits of the journal entries of the
+     * account; entries from the first one if no from date is given.
+     */
+    public void checkTrialBalanceMatchesJournalEntries(final Account account, final String fromDate, final String toDate) {
+        BigDecimal debits = BigDecimal.ZERO;
+        BigDecimal credits = BigDecimal.ZERO;
+        final ArrayList<HashMap> entries = Utils.performServerGet(this.requestSpec, this.responseSpec,
+                createURLForGettingAccountEntries(account, fromDate, toDate), "pageItems");
+        for (int i = 0; i < entries.size(); i++) {
+            final BigDecimal amount = new BigDecimal(getTransactionAmountFromJournalEntry(entries, i).toString());
+            if (JournalEntry.TransactionType.DEBIT.toString().equals(getEntryValueFromJournalEntry(entries, i))) {
+                debits = debits.add(amount);
+            } else {
+                credits = credits.add(amount);
+            }
+        }
+
+        final ArrayList<HashMap> lines = Utils.performServerGet(this.requestSpec, this.responseSpec,
+                createURLForGettingTrialBalance(fromDate, toDate), "accounts");
+        HashMap accountLine = null;
+        for (final HashMap line : lines) {
+            if (account.getAccountID().equals(line.get("glAccountId"))) {
+                accountLine = line;
+            }
+        }
+        assertNotNull("Trial balance has no line for account " + account.getAccountID(), accountLine);
+        assertThat(new BigDecimal(accountLine.get("debits").toString()), comparesEqualTo(debits));
+        assertThat(new BigDecimal(accountLine.get("credits").toString()), comparesEqualTo(credits));
+    }
+
     public void ensureNoAccountingTransactionsWithTransactionId(final String transactionId) {
         ArrayList<HashMap> transactions = getJournalEntriesByTransactionId(transactionId);
         assertTrue("Tranasactions are is not empty", transactions.isEmpty());
@@ -84,6 +119,24 @@ public class JournalEntryHelper {
         return url;
     }
 
+    private String createURLForGettingAccountEntries(final Account account, final String fromDate, final String toDate) {
+        String url = "/mifosng-provider/api/v1/journalentries?glAccountId=" + account.getAccountID() + "&toDate=" + toDate
+                + "&tenantIdentifier=default&limit=200&locale=en&dateFormat=dd MMMM yyyy";
+        if (fromDate != null) {
+            url = url + "&fromDate=" + fromDate;
+        }
+        return url;
+    }
+
+    private String createURLForGettingTrialBalance(final String fromDate, final String toDate) {
+        String url = "/mifosng-provider/api/v1/journalentries/trialbalance?toDate=" + toDate
+                + "&tenantIdentifier=default&locale=en&dateFormat=dd MMMM yyyy";
+        if (fromDate != null) {
+            url = url + "&fromDate=" + fromDate;
+        }
+        return url;
+    }
+
     private ArrayList<HashMap> getJournalEntriesByTransactionId(final String transactionId) {
         final String url = createURLForGettingAccountEntriesByTransactionId(transactionId);
         final ArrayList<HashMap> response = Utils.performServerGet(this.requestSpec, this.responseSpec, url, "pageItems");
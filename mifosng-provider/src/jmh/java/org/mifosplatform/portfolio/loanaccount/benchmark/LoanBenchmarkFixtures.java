@@ -0,0 +1,228 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.benchmark;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.mifosplatform.infrastructure.core.api.JsonCommand;
+import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
+import org.mifosplatform.organisation.holiday.domain.Holiday;
+import org.mifosplatform.organisation.monetary.domain.ApplicationCurrency;
+import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
+import org.mifosplatform.organisation.monetary.domain.Money;
+import org.mifosplatform.organisation.workingdays.domain.RepaymentRescheduleType;
+import org.mifosplatform.organisation.workingdays.domain.WorkingDays;
+import org.mifosplatform.portfolio.charge.domain.Charge;
+import org.mifosplatform.portfolio.charge.domain.ChargeCalculationType;
+import org.mifosplatform.portfolio.charge.domain.ChargePaymentMode;
+import org.mifosplatform.portfolio.charge.domain.ChargeTimeType;
+import org.mifosplatform.portfolio.common.domain.DaysInMonthType;
+import org.mifosplatform.portfolio.common.domain.DaysInYearType;
+import org.mifosplatform.portfolio.common.domain.NthDayType;
+import org.mifosplatform.portfolio.common.domain.PeriodFrequencyType;
+import org.mifosplatform.portfolio.loanaccount.data.DisbursementData;
+import org.mifosplatform.portfolio.loanaccount.data.HolidayDetailDTO;
+import org.mifosplatform.portfolio.loanaccount.data.LoanTermVariationsData;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanCharge;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanTermVariationType;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanTransaction;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanApplicationTerms;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleModelPeriod;
+import org.mifosplatform.portfolio.loanproduct.LoanProductConstants;
+import org.mifosplatform.portfolio.loanproduct.domain.AmortizationMethod;
+import org.mifosplatform.portfolio.loanproduct.domain.InterestCalculationPeriodMethod;
+import org.mifosplatform.portfolio.loanproduct.domain.InterestMethod;
+import org.mifosplatform.portfolio.loanproduct.domain.InterestRecalculationCompoundingMethod;
+import org.mifosplatform.portfolio.loanproduct.domain.LoanPreClosureInterestCalculationStrategy;
+import org.mifosplatform.portfolio.loanproduct.domain.LoanProductRelatedDetail;
+import org.mifosplatform.portfolio.loanproduct.domain.LoanRescheduleStrategyMethod;
+import org.mifosplatform.portfolio.loanproduct.domain.RecalculationFrequencyType;
+import org.mifosplatform.portfolio.loanproduct.service.LoanEnumerations;
+
+import com.google.gson.JsonParser;
+
+/**
+ * Builds the loans the benchmarks run against the way the platform assembles
+ * them from a loan application, without a database: a USD loan of 100,000 at
+ * 24% per year with equal installments, disbursed on a Monday and repaid on
+ * the working days Monday to Saturday.
+ */
+final class LoanBenchmarkFixtures {
+
+    /**
+     * The kinds of loans whose schedules are generated differently.
+     */
+    enum LoanProfile {
+        FLAT, //
+        DECLINING_BALANCE, //
+        INTEREST_RECALCULATION, //
+        MULTI_TRANCHE, //
+        WITH_CHARGES;
+    }
+
+    static final MathContext MATH_CONTEXT = new MathContext(8, RoundingMode.HALF_EVEN);
+    static final ApplicationCurrency APPLICATION_CURRENCY = ApplicationCurrency.from("USD", "US Dollar", 2, null, "currency.USD", "$");
+    static final MonetaryCurrency CURRENCY = new MonetaryCurrency("USD", 2, null);
+    static final LocalDate DISBURSEMENT_DATE = new LocalDate(2015, 1, 5);
+
+    private static final BigDecimal PRINCIPAL = BigDecimal.valueOf(100000);
+    private static final BigDecimal INTEREST_RATE_PER_MONTH = BigDecimal.valueOf(2);
+    private static final BigDecimal ANNUAL_INTEREST_RATE = BigDecimal.valueOf(24);
+    private static final int[] TRANCHE_PERCENTAGES = { 50, 30, 20 };
+
+    private LoanBenchmarkFixtures() {
+        //
+    }
+
+    static HolidayDetailDTO holidayDetails() {
+        final WorkingDays workingDays = new WorkingDays("FREQ=WEEKLY;INTERVAL=1;BYDAY=MO,TU,WE,TH,FR,SA",
+                RepaymentRescheduleType.MOVE_TO_NEXT_WORKING_DAY.getValue(), false) {
+            // the constructor is only open to subclasses
+        };
+        return new HolidayDetailDTO(false, new ArrayList<Holiday>(), workingDays);
+    }
+
+    static LoanApplicationTerms loanApplicationTerms(final LoanProfile profile, final int numberOfRepayments,
+            final PeriodFrequencyType repaymentFrequency) {
+
+        final boolean interestRecalculation = profile == LoanProfile.INTEREST_RECALCULATION;
+        final InterestMethod interestMethod = profile == LoanProfile.FLAT ? InterestMethod.FLAT : InterestMethod.DECLINING_BALANCE;
+        final InterestCalculationPeriodMethod interestCalculationPeriodMethod = interestRecalculation ? InterestCalculationPeriodMethod.DAILY
+                : InterestCalculationPeriodMethod.SAME_AS_REPAYMENT_PERIOD;
+
+        final LoanProductRelatedDetail loanProductRelatedDetail = new LoanProductRelatedDetail(CURRENCY, PRINCIPAL,
+                INTEREST_RATE_PER_MONTH, PeriodFrequencyType.MONTHS, ANNUAL_INTEREST_RATE, interestMethod,
+                interestCalculationPeriodMethod, 1, repaymentFrequency, numberOfRepayments, 0, 0, 0, AmortizationMethod.EQUAL_INSTALLMENTS,
+                BigDecimal.ZERO, 0, DaysInMonthType.ACTUAL.getValue(), DaysInYearType.ACTUAL.getValue(), interestRecalculation);
+
+        final boolean multiDisburseLoan = profile == LoanProfile.MULTI_TRANCHE;
+        final List<DisbursementData> disbursementData = new ArrayList<>();
+        BigDecimal maxOutstandingBalance = null;
+        BigDecimal principalThresholdForLastInstalment = LoanProductConstants.DEFAULT_PRINCIPAL_THRESHOLD_FOR_SINGLE_DISBURSE_LOAN;
+        if (multiDisburseLoan) {
+            LocalDate trancheDate = DISBURSEMENT_DATE;
+            for (final int percentage : TRANCHE_PERCENTAGES) {
+                final BigDecimal trancheAmount = PRINCIPAL.multiply(BigDecimal.valueOf(percentage)).divide(BigDecimal.valueOf(100));
+                disbursementData.add(new DisbursementData(null, trancheDate, null, trancheAmount, null, null));
+                trancheDate = plusPeriods(trancheDate, repaymentFrequency, 2);
+            }
+            maxOutstandingBalance = PRINCIPAL;
+            principalThresholdForLastInstalment = LoanProductConstants.DEFAULT_PRINCIPAL_THRESHOLD_FOR_MULTI_DISBURSE_LOAN;
+        }
+
+        final List<LoanTermVariationsData> emiAmountVariations = new ArrayList<>();
+        emiAmountVariations.add(new LoanTermVariationsData(null, LoanEnumerations.loanvariationType(LoanTermVariationType.EMI_AMOUNT),
+                DISBURSEMENT_DATE, null));
+
+        RecalculationFrequencyType recalculationFrequencyType = null;
+        InterestRecalculationCompoundingMethod compoundingMethod = null;
+        RecalculationFrequencyType compoundingFrequencyType = null;
+        LoanRescheduleStrategyMethod rescheduleStrategyMethod = null;
+        if (interestRecalculation) {
+            recalculationFrequencyType = RecalculationFrequencyType.SAME_AS_REPAYMENT_PERIOD;
+            compoundingMethod = InterestRecalculationCompoundingMethod.NONE;
+            compoundingFrequencyType = RecalculationFrequencyType.SAME_AS_REPAYMENT_PERIOD;
+            rescheduleStrategyMethod = LoanRescheduleStrategyMethod.REDUCE_EMI_AMOUNT;
+        }
+
+        return LoanApplicationTerms.assembleFrom(APPLICATION_CURRENCY, numberOfRepayments, repaymentFrequency, NthDayType.INVALID, null,
+                DISBURSEMENT_DATE, null, null, Money.zero(CURRENCY), loanProductRelatedDetail, multiDisburseLoan, null,
+                disbursementData, maxOutstandingBalance, emiAmountVariations, null, principalThresholdForLastInstalment, null,
+                recalculationFrequencyType, null, compoundingMethod, null, compoundingFrequencyType,
+                LoanPreClosureInterestCalculationStrategy.TILL_PRE_CLOSURE_DATE, rescheduleStrategyMethod, null);
+    }
+
+    /**
+     * A disbursement fee of 1% of the principal, a flat fee of 5 on every
+     * installment and a late payment penalty of 25 on the third installment
+     * for {@link LoanProfile#WITH_CHARGES}; no charges otherwise.
+     */
+    static Set<LoanCharge> loanCharges(final LoanProfile profile, final int numberOfRepayments,
+            final PeriodFrequencyType repaymentFrequency) {
+        final Set<LoanCharge> loanCharges = new HashSet<>();
+        if (profile != LoanProfile.WITH_CHARGES) { return loanCharges; }
+
+        loanCharges.add(loanCharge("Processing fee", BigDecimal.ONE, ChargeTimeType.DISBURSEMENT,
+                ChargeCalculationType.PERCENT_OF_APPROVED_AMOUNT, false, null, numberOfRepayments));
+        loanCharges.add(loanCharge("Installment fee", BigDecimal.valueOf(5), ChargeTimeType.INSTALMENT_FEE, ChargeCalculationType.FLAT,
+                false, null, numberOfRepayments));
+        loanCharges.add(loanCharge("Late payment", BigDecimal.valueOf(25), ChargeTimeType.SPECIFIED_DUE_DATE, ChargeCalculationType.FLAT,
+                true, plusPeriods(DISBURSEMENT_DATE, repaymentFrequency, 3), numberOfRepayments));
+        return loanCharges;
+    }
+
+    private static LoanCharge loanCharge(final String name, final BigDecimal amount, final ChargeTimeType chargeTime,
+            final ChargeCalculationType chargeCalculation, final boolean penalty, final LocalDate dueDate, final int numberOfRepayments) {
+        final String json = "{\"name\": \"" + name + "\", \"amount\": \"" + amount.toPlainString() + "\", \"locale\": \"en\", "
+                + "\"currencyCode\": \"" + CURRENCY.getCode() + "\", \"chargeAppliesTo\": 1, \"chargeTimeType\": " + chargeTime.getValue()
+                + ", \"chargeCalculationType\": " + chargeCalculation.getValue() + ", \"chargePaymentMode\": "
+                + ChargePaymentMode.REGULAR.getValue() + ", \"penalty\": " + penalty + ", \"active\": true}";
+        final JsonCommand command = JsonCommand.from(json, new JsonParser().parse(json), new FromJsonHelper(), null, null, null, null,
+                null, null, null, null, null, null);
+        return LoanCharge.createNewWithoutLoan(Charge.fromJson(command), PRINCIPAL, amount, chargeTime, chargeCalculation, dueDate,
+                ChargePaymentMode.REGULAR, numberOfRepayments);
+    }
+
+    /**
+     * The repayment schedule of the loan as it is persisted after the
+     * disbursement, which the transaction processors work on.
+     */
+    static List<LoanRepaymentScheduleInstallment> installments(final LoanScheduleModel loanScheduleModel) {
+        final List<LoanRepaymentScheduleInstallment> installments = new ArrayList<>();
+        for (final LoanScheduleModelPeriod period : loanScheduleModel.getPeriods()) {
+            if (period.isRepaymentPeriod()) {
+                installments.add(new LoanRepaymentScheduleInstallment(null, period.periodNumber(), period.periodFromDate(),
+                        period.periodDueDate(), period.principalDue(), period.interestDue(), period.feeChargesDue(),
+                        period.penaltyChargesDue(), period.isRecalculatedInterestComponent()));
+            }
+        }
+        return installments;
+    }
+
+    /**
+     * Repayments of the first half of the schedule of a borrower who is
+     * mostly on time: every fifth installment is paid ten days late and every
+     * seventh only by half, with the shortfall paid together with the next
+     * installment.
+     */
+    static List<LoanTransaction> repayments(final List<LoanRepaymentScheduleInstallment> installments) {
+        final List<LoanTransaction> repayments = new ArrayList<>();
+        final LocalDateTime createdDate = new LocalDateTime(DISBURSEMENT_DATE.toDateTimeAtStartOfDay());
+        Money arrears = Money.zero(CURRENCY);
+        for (int i = 0; i < installments.size() / 2; i++) {
+            final LoanRepaymentScheduleInstallment installment = installments.get(i);
+            final int installmentNumber = i + 1;
+
+            Money amount = installment.getDue(CURRENCY).plus(arrears);
+            arrears = Money.zero(CURRENCY);
+            if (installmentNumber % 7 == 0) {
+                arrears = installment.getDue(CURRENCY).dividedBy(2, RoundingMode.HALF_EVEN);
+                amount = amount.minus(arrears);
+            }
+
+            LocalDate paidOn = installment.getDueDate();
+            if (installmentNumber % 5 == 0) {
+                paidOn = paidOn.plusDays(10);
+            }
+            repayments.add(LoanTransaction.repayment(null, amount, null, paidOn, null, createdDate, null));
+        }
+        return repayments;
+    }
+
+    private static LocalDate plusPeriods(final LocalDate date, final PeriodFrequencyType frequency, final int periods) {
+        return frequency == PeriodFrequencyType.WEEKS ? date.plusWeeks(periods) : date.plusMonths(periods);
+    }
+}
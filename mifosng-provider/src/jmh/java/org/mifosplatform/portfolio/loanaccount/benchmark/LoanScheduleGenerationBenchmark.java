@@ -0,0 +1,93 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.mifosplatform.portfolio.common.domain.PeriodFrequencyType;
+import org.mifosplatform.portfolio.loanaccount.benchmark.LoanBenchmarkFixtures.LoanProfile;
+import org.mifosplatform.portfolio.loanaccount.data.HolidayDetailDTO;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanCharge;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanTransaction;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.LoanRepaymentScheduleTransactionProcessor;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.impl.MifosStyleLoanRepaymentScheduleTransactionProcessor;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.DefaultLoanScheduleGeneratorFactory;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanApplicationTerms;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleGenerator;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
+import org.mifosplatform.portfolio.loanaccount.rescheduleloan.domain.LoanRescheduleRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generation of the repayment schedule of a loan application by the
+ * {@link LoanScheduleGenerator} for its interest method.
+ *
+ * Loans with interest recalculation are rescheduled against the repayments of
+ * the first half of their term, as happens on every repayment of such a loan;
+ * the other loans get the schedule calculated on submitting the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanScheduleGenerationBenchmark {
+
+    @Param({ "FLAT", "DECLINING_BALANCE", "INTEREST_RECALCULATION", "MULTI_TRANCHE", "WITH_CHARGES" })
+    private LoanProfile loanProfile;
+
+    @Param({ "12", "120", "360" })
+    private int numberOfRepayments;
+
+    @Param({ "WEEKS", "MONTHS" })
+    private PeriodFrequencyType repaymentFrequency;
+
+    private LoanScheduleGenerator loanScheduleGenerator;
+    private LoanApplicationTerms loanApplicationTerms;
+    private Set<LoanCharge> loanCharges;
+    private HolidayDetailDTO holidayDetails;
+    private List<LoanTransaction> repayments;
+    private LoanRepaymentScheduleTransactionProcessor transactionProcessor;
+    private final List<LoanRescheduleRequest> loanRescheduleRequests = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        this.loanApplicationTerms = LoanBenchmarkFixtures.loanApplicationTerms(this.loanProfile, this.numberOfRepayments,
+                this.repaymentFrequency);
+        this.loanScheduleGenerator = new DefaultLoanScheduleGeneratorFactory().create(this.loanApplicationTerms.getInterestMethod());
+        this.loanCharges = LoanBenchmarkFixtures.loanCharges(this.loanProfile, this.numberOfRepayments, this.repaymentFrequency);
+        this.holidayDetails = LoanBenchmarkFixtures.holidayDetails();
+        this.transactionProcessor = new MifosStyleLoanRepaymentScheduleTransactionProcessor();
+
+        final LoanScheduleModel originalSchedule = this.loanScheduleGenerator.generate(LoanBenchmarkFixtures.MATH_CONTEXT,
+                this.loanApplicationTerms, this.loanCharges, this.holidayDetails, this.loanRescheduleRequests);
+        this.repayments = LoanBenchmarkFixtures.repayments(LoanBenchmarkFixtures.installments(originalSchedule));
+    }
+
+    @Benchmark
+    public LoanScheduleModel generateSchedule() {
+        if (this.loanApplicationTerms.isInterestRecalculationEnabled()) { return this.loanScheduleGenerator.rescheduleNextInstallments(
+                LoanBenchmarkFixtures.MATH_CONTEXT, this.loanApplicationTerms, this.loanCharges, this.holidayDetails, this.repayments,
+                this.transactionProcessor, this.loanRescheduleRequests); }
+
+        return this.loanScheduleGenerator.generate(LoanBenchmarkFixtures.MATH_CONTEXT, this.loanApplicationTerms, this.loanCharges,
+                this.holidayDetails, this.loanRescheduleRequests);
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.mifosplatform.portfolio.common.domain.PeriodFrequencyType;
+import org.mifosplatform.portfolio.loanaccount.benchmark.LoanBenchmarkFixtures.LoanProfile;
+import org.mifosplatform.portfolio.loanaccount.domain.ChangedTransactionDetail;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanCharge;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanTransaction;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.LoanRepaymentScheduleTransactionProcessor;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.impl.CreocoreLoanRepaymentScheduleTransactionProcessor;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.impl.EarlyPaymentLoanRepaymentScheduleTransactionProcessor;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.impl.HeavensFamilyLoanRepaymentScheduleTransactionProcessor;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.impl.InterestPrincipalPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.impl.MifosStyleLoanRepaymentScheduleTransactionProcessor;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.impl.PrincipalInterestPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.impl.RBILoanRepaymentScheduleTransactionProcessor;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.DefaultLoanScheduleGeneratorFactory;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanApplicationTerms;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
+import org.mifosplatform.portfolio.loanaccount.rescheduleloan.domain.LoanRescheduleRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Processing of the repayments of a loan, half way through its term, by each
+ * of the {@link LoanRepaymentScheduleTransactionProcessor} strategies.
+ *
+ * {@link #reprocessTransactions()} replays all repayments against the
+ * schedule, which is the work <code>Loan.reprocessTransactions()</code>
+ * delegates to the processor on every backdated transaction, adjustment or
+ * charge change; {@link #handleLatestTransaction()} applies one new repayment
+ * to a schedule the earlier repayments were applied to.
+ *
+ * Applying the earlier repayments costs far more than the measured work, so
+ * the schedules for {@link #handleLatestTransaction()} are prepared before
+ * each iteration, which then runs as a single shot of
+ * {@link #PREPARED_SCHEDULES} invocations; its score is the time of all of
+ * them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepaymentProcessingBenchmark {
+
+    static final int PREPARED_SCHEDULES = 200;
+
+    @Param({ "mifos-standard-strategy", "heavensfamily-strategy", "creocore-strategy", "rbi-india-strategy",
+            "principal-interest-penalties-fees-order-strategy", "interest-principal-penalties-fees-order-strategy",
+            "early-repayment-strategy" })
+    private String transactionProcessingStrategy;
+
+    @Param({ "DECLINING_BALANCE", "WITH_CHARGES" })
+    private LoanProfile loanProfile;
+
+    @Param({ "12", "120", "360" })
+    private int numberOfRepayments;
+
+    @Param({ "WEEKS", "MONTHS" })
+    private PeriodFrequencyType repaymentFrequency;
+
+    private LoanRepaymentScheduleTransactionProcessor transactionProcessor;
+    private LoanScheduleModel loanScheduleModel;
+    private List<LoanRepaymentScheduleInstallment> installments;
+    private Set<LoanCharge> loanCharges;
+    private List<LoanTransaction> repayments;
+    private final List<PreparedSchedule> preparedSchedules = new ArrayList<>(PREPARED_SCHEDULES);
+    private int nextPreparedSchedule;
+
+    @Setup
+    public void setUp() {
+        this.transactionProcessor = transactionProcessor(this.transactionProcessingStrategy);
+
+        final LoanApplicationTerms loanApplicationTerms = LoanBenchmarkFixtures.loanApplicationTerms(this.loanProfile,
+                this.numberOfRepayments, this.repaymentFrequency);
+        this.loanCharges = LoanBenchmarkFixtures.loanCharges(this.loanProfile, this.numberOfRepayments, this.repaymentFrequency);
+        this.loanScheduleModel = new DefaultLoanScheduleGeneratorFactory().create(
+                loanApplicationTerms.getInterestMethod()).generate(LoanBenchmarkFixtures.MATH_CONTEXT, loanApplicationTerms,
+                this.loanCharges, LoanBenchmarkFixtures.holidayDetails(), new ArrayList<LoanRescheduleRequest>());
+
+        // the processors sort the installments in place
+        this.installments = new ArrayList<>(LoanBenchmarkFixtures.installments(this.loanScheduleModel));
+        this.repayments = LoanBenchmarkFixtures.repayments(this.installments);
+    }
+
+    /**
+     * Prepares a schedule of its own, with its own charges and repayments, for
+     * every invocation of {@link #handleLatestTransaction()} in the iteration.
+     */
+    @Setup(Level.Iteration)
+    public void prepareSchedules() {
+        this.preparedSchedules.clear();
+        for (int i = 0; i < PREPARED_SCHEDULES; i++) {
+            final List<LoanRepaymentScheduleInstallment> scheduleInstallments = new ArrayList<>(
+                    LoanBenchmarkFixtures.installments(this.loanScheduleModel));
+            final Set<LoanCharge> scheduleCharges = LoanBenchmarkFixtures.loanCharges(this.loanProfile, this.numberOfRepayments,
+                    this.repaymentFrequency);
+            final List<LoanTransaction> scheduleRepayments = LoanBenchmarkFixtures.repayments(scheduleInstallments);
+
+            this.transactionProcessor.handleTransaction(LoanBenchmarkFixtures.DISBURSEMENT_DATE,
+                    new ArrayList<>(scheduleRepayments.subList(0, scheduleRepayments.size() - 1)), LoanBenchmarkFixtures.CURRENCY,
+                    scheduleInstallments, scheduleCharges);
+            this.preparedSchedules.add(new PreparedSchedule(scheduleInstallments, scheduleCharges, scheduleRepayments
+                    .get(scheduleRepayments.size() - 1)));
+        }
+        this.nextPreparedSchedule = 0;
+    }
+
+    @Benchmark
+    public ChangedTransactionDetail reprocessTransactions() {
+        return this.transactionProcessor.handleTransaction(LoanBenchmarkFixtures.DISBURSEMENT_DATE, this.repayments,
+                LoanBenchmarkFixtures.CURRENCY, this.installments, this.loanCharges);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = PREPARED_SCHEDULES)
+    @Measurement(iterations = 10, batchSize = PREPARED_SCHEDULES)
+    public List<LoanRepaymentScheduleInstallment> handleLatestTransaction() {
+        final PreparedSchedule schedule = this.preparedSchedules.get(this.nextPreparedSchedule++);
+        this.transactionProcessor.handleTransaction(schedule.latestRepayment, LoanBenchmarkFixtures.CURRENCY, schedule.installments,
+                schedule.loanCharges);
+        return schedule.installments;
+    }
+
+    private static LoanRepaymentScheduleTransactionProcessor transactionProcessor(final String strategyCode) {
+        switch (strategyCode) {
+            case "heavensfamily-strategy":
+                return new HeavensFamilyLoanRepaymentScheduleTransactionProcessor();
+            case "creocore-strategy":
+                return new CreocoreLoanRepaymentScheduleTransactionProcessor();
+            case "rbi-india-strategy":
+                return new RBILoanRepaymentScheduleTransactionProcessor();
+            case "principal-interest-penalties-fees-order-strategy":
+                return new PrincipalInterestPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor();
+            case "interest-principal-penalties-fees-order-strategy":
+                return new InterestPrincipalPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor();
+            case "early-repayment-strategy":
+                return new EarlyPaymentLoanRepaymentScheduleTransactionProcessor();
+            default:
+                return new MifosStyleLoanRepaymentScheduleTransactionProcessor();
+        }
+    }
+
+    private static final class PreparedSchedule {
+
+        private final List<LoanRepaymentScheduleInstallment> installments;
+        private final Set<LoanCharge> loanCharges;
+        private final LoanTransaction latestRepayment;
+
+        private PreparedSchedule(final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> loanCharges,
+                final LoanTransaction latestRepayment) {
+            this.installments = installments;
+            this.loanCharges = loanCharges;
+            this.latestRepayment = latestRepayment;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.useradministration.domain;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Authorization checks of a user whose roles grant hundreds of permissions,
+ * as made by read resources, datatables and reports several times per
+ * request.
+ *
+ * The <code>scan*</code> benchmarks compare the codes with every permission
+ * of every role, which is how {@link AppUser} checked permissions before they
+ * were compiled into {@link AppUserPermissions}; the <code>compiled*</code>
+ * benchmarks make the same checks through {@link AppUser}. Both check a code
+ * granted by the last role and a code no role grants, so that neither can
+ * stop early.
+ *
+ * Lives in the package of {@link AppUser} to create users without a tenant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppUserPermissionCheckBenchmark {
+
+    private static final String[] ENTITIES = { "CLIENT", "GROUP", "CENTER", "LOAN", "SAVINGSACCOUNT", "OFFICE", "STAFF", "CHARGE",
+            "LOANPRODUCT", "SAVINGSPRODUCT", "JOURNALENTRY", "GLACCOUNT", "VILLAGE", "COLLATERAL", "GUARANTOR", "DOCUMENT", "NOTE",
+            "CALENDAR", "HOLIDAY", "REPORT" };
+    private static final String[] ACTIONS = { "READ", "CREATE", "UPDATE", "DELETE", "APPROVE", "REJECT", "DISBURSE", "REPAYMENT",
+            "WAIVE", "CLOSE" };
+
+    @Param({ "50", "200", "800" })
+    private int permissionsPerRole;
+
+    @Param({ "1", "4" })
+    private int numberOfRoles;
+
+    private AppUser user;
+    private Set<Role> roles;
+    private String grantedCode;
+    private String deniedCode;
+
+    @Setup
+    public void setUp() {
+        this.roles = new HashSet<>();
+        int permissionNumber = 0;
+        for (int roleNumber = 0; roleNumber < this.numberOfRoles; roleNumber++) {
+            final Role role = new Role("Role " + roleNumber, "");
+            for (int i = 0; i < this.permissionsPerRole; i++, permissionNumber++) {
+                final String action = ACTIONS[permissionNumber % ACTIONS.length];
+                final String entity = ENTITIES[(permissionNumber / ACTIONS.length) % ENTITIES.length] + "_" + permissionNumber;
+                role.updatePermission(new Permission("portfolio", entity, action), true);
+                this.grantedCode = action + "_" + entity;
+            }
+            this.roles.add(role);
+        }
+        this.deniedCode = "READ_NOT_GRANTED";
+
+        this.user = new AppUser();
+        this.user.updateRoles(this.roles);
+    }
+
+    @Benchmark
+    public boolean scanGrantedPermission() {
+        return scanHasNotPermissionForAnyOf("ALL_FUNCTIONS", "ALL_FUNCTIONS_READ", this.grantedCode);
+    }
+
+    @Benchmark
+    public boolean scanDeniedPermission() {
+        return scanHasNotPermissionForAnyOf("ALL_FUNCTIONS", "ALL_FUNCTIONS_READ", this.deniedCode);
+    }
+
+    @Benchmark
+    public boolean compiledGrantedPermission() {
+        return this.user.hasNotPermissionForAnyOf("ALL_FUNCTIONS", "ALL_FUNCTIONS_READ", this.grantedCode);
+    }
+
+    @Benchmark
+    public boolean compiledDeniedPermission() {
+        return this.user.hasNotPermissionForAnyOf("ALL_FUNCTIONS", "ALL_FUNCTIONS_READ", this.deniedCode);
+    }
+
+    /**
+     * Permission check of {@link AppUser} before the permissions were
+     * compiled.
+     */
+    private boolean scanHasNotPermissionForAnyOf(final String... permissionCodes) {
+        for (final String permissionCode : permissionCodes) {
+            if (scanHasPermissionTo("ALL_FUNCTIONS") || scanHasPermissionTo(permissionCode)) { return false; }
+        }
+        return true;
+    }
+
+    private boolean scanHasPermissionTo(final String permissionCode) {
+        for (final Role role : this.roles) {
+            if (role.hasPermissionTo(permissionCode)) { return true; }
+        }
+        return false;
+    }
+}
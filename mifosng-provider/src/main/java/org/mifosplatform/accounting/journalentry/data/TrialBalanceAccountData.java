@@ -0,0 +1,68 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.data;
+
+import java.math.BigDecimal;
+
+import org.mifosplatform.infrastructure.core.data.EnumOptionData;
+
+/**
+ * Line of a {@link TrialBalanceData}: the debits and credits to a GL account
+ * in one currency, and the balance they leave on its debit or credit side.
+ */
+public class TrialBalanceAccountData {
+
+    private final Long glAccountId;
+    @SuppressWarnings("unused")
+    private final String glAccountName;
+    @SuppressWarnings("unused")
+    private final String glAccountCode;
+    @SuppressWarnings("unused")
+    private final EnumOptionData glAccountType;
+    private final String currencyCode;
+    private final BigDecimal debits;
+    private final BigDecimal credits;
+    private final BigDecimal debitBalance;
+    private final BigDecimal creditBalance;
+
+    public TrialBalanceAccountData(final Long glAccountId, final String glAccountName, final String glAccountCode,
+            final EnumOptionData glAccountType, final String currencyCode, final BigDecimal debits, final BigDecimal credits) {
+        this.glAccountId = glAccountId;
+        this.glAccountName = glAccountName;
+        this.glAccountCode = glAccountCode;
+        this.glAccountType = glAccountType;
+        this.currencyCode = currencyCode;
+        this.debits = debits;
+        this.credits = credits;
+        final BigDecimal balance = debits.subtract(credits);
+        this.debitBalance = balance.signum() > 0 ? balance : BigDecimal.ZERO;
+        this.creditBalance = balance.signum() < 0 ? balance.negate() : BigDecimal.ZERO;
+    }
+
+    public Long getGlAccountId() {
+        return this.glAccountId;
+    }
+
+    public String getCurrencyCode() {
+        return this.currencyCode;
+    }
+
+    public BigDecimal getDebits() {
+        return this.debits;
+    }
+
+    public BigDecimal getCredits() {
+        return this.credits;
+    }
+
+    public BigDecimal getDebitBalance() {
+        return this.debitBalance;
+    }
+
+    public BigDecimal getCreditBalance() {
+        return this.creditBalance;
+    }
+}
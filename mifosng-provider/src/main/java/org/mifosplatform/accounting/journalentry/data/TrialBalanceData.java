@@ -0,0 +1,49 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.data;
+
+import java.util.List;
+
+import org.joda.time.LocalDate;
+
+/**
+ * Balances of the GL accounts of an office and the offices below it, from the
+ * journal entries between two dates.
+ */
+public class TrialBalanceData {
+
+    @SuppressWarnings("unused")
+    private final Long officeId;
+    private final String officeName;
+    private final LocalDate fromDate;
+    private final LocalDate toDate;
+    private final List<TrialBalanceAccountData> accounts;
+
+    public TrialBalanceData(final Long officeId, final String officeName, final LocalDate fromDate, final LocalDate toDate,
+            final List<TrialBalanceAccountData> accounts) {
+        this.officeId = officeId;
+        this.officeName = officeName;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.accounts = accounts;
+    }
+
+    public String getOfficeName() {
+        return this.officeName;
+    }
+
+    public LocalDate getFromDate() {
+        return this.fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return this.toDate;
+    }
+
+    public List<TrialBalanceAccountData> getAccounts() {
+        return this.accounts;
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.handler;
+
+import org.mifosplatform.accounting.journalentry.service.JournalEntryDailyBalanceWriter;
+import org.mifosplatform.commands.annotation.CommandType;
+import org.mifosplatform.commands.handler.NewCommandSourceHandler;
+import org.mifosplatform.infrastructure.core.api.JsonCommand;
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+@CommandType(entity = "JOURNALENTRY", action = "REBUILDDAILYBALANCES")
+public class RebuildDailyBalancesCommandHandler implements NewCommandSourceHandler {
+
+    private final JournalEntryDailyBalanceWriter dailyBalanceWriter;
+
+    @Autowired
+    public RebuildDailyBalancesCommandHandler(final JournalEntryDailyBalanceWriter dailyBalanceWriter) {
+        this.dailyBalanceWriter = dailyBalanceWriter;
+    }
+
+    @Override
+    public CommandProcessingResult processCommand(final JsonCommand command) {
+        this.dailyBalanceWriter.rebuild();
+        return new CommandProcessingResultBuilder().withCommandId(command.commandId()).build();
+    }
+}
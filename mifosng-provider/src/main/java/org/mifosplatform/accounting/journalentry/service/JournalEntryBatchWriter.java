@@ -0,0 +1,118 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.mifosplatform.accounting.journalentry.domain.JournalEntryType;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Collects the journal entries the accounting processors create for portfolio
+ * transactions and inserts all entries of a transaction with one JDBC batch
+ * just before it commits, instead of flushing every entry through JPA on its
+ * own.
+ *
+ * The entries are only in the database once the transaction commits, so they
+ * cannot be read back within the transaction that creates them. Outside of a
+ * transaction every entry is inserted right away.
+ */
+@Service
+public class JournalEntryBatchWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO acc_gl_journal_entry (account_id, office_id, currency_code, transaction_id, "
+            + "loan_transaction_id, savings_transaction_id, reversed, manual_entry, entry_date, type_enum, amount, entity_type_enum, "
+            + "entity_id, createdby_id, created_date, lastmodifiedby_id, lastmodified_date) "
+            + "VALUES (?, ?, ?, ?, ?, ?, 0, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Used by the auditing of entities when there is no authenticated user,
+     * such as for scheduled jobs.
+     */
+    private static final Long SYSTEM_USER_ID = 1L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JournalEntryDailyBalanceWriter dailyBalanceWriter;
+
+    @Autowired
+    public JournalEntryBatchWriter(final RoutingDataSource dataSource, final JournalEntryDailyBalanceWriter dailyBalanceWriter) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.dailyBalanceWriter = dailyBalanceWriter;
+    }
+
+    public void add(final Long officeId, final Long glAccountId, final String currencyCode, final String transactionId,
+            final Long loanTransactionId, final Long savingsTransactionId, final Date transactionDate, final JournalEntryType type,
+            final BigDecimal amount, final Integer entityType, final Long entityId) {
+        final Long userId = currentUserId();
+        final Date now = new Date();
+        final Object[] entry = new Object[] { glAccountId, officeId, currencyCode, transactionId, loanTransactionId,
+                savingsTransactionId, new java.sql.Date(transactionDate.getTime()), type.getValue(), amount, entityType, entityId, userId,
+                now, userId, now };
+
+        final List<Object[]> pendingEntries = pendingEntries();
+        if (pendingEntries == null) {
+            this.jdbcTemplate.update(INSERT_SQL, entry);
+        } else {
+            pendingEntries.add(entry);
+        }
+        this.dailyBalanceWriter.add(officeId, glAccountId, currencyCode, transactionDate, type, amount);
+    }
+
+    /**
+     * Entries waiting for the commit of the current transaction, or null when
+     * there is no transaction to wait for. The entries are held by a
+     * synchronization of the transaction, so that a transaction suspended for
+     * a new one keeps its own entries.
+     */
+    private List<Object[]> pendingEntries() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) { return null; }
+
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingEntries) {
+                final PendingEntries pendingEntries = (PendingEntries) synchronization;
+                if (pendingEntries.isOf(this)) { return pendingEntries.entries; }
+            }
+        }
+        final PendingEntries pendingEntries = new PendingEntries();
+        TransactionSynchronizationManager.registerSynchronization(pendingEntries);
+        return pendingEntries.entries;
+    }
+
+    private static Long currentUserId() {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AppUser) { return ((AppUser) authentication
+                .getPrincipal()).getId(); }
+        return SYSTEM_USER_ID;
+    }
+
+    private final class PendingEntries extends TransactionSynchronizationAdapter {
+
+        private final List<Object[]> entries = new ArrayList<>();
+
+        private boolean isOf(final JournalEntryBatchWriter writer) {
+            return JournalEntryBatchWriter.this == writer;
+        }
+
+        @Override
+        public void beforeCommit(@SuppressWarnings("unused") final boolean readOnly) {
+            if (this.entries.isEmpty()) { return; }
+            JournalEntryBatchWriter.this.jdbcTemplate.batchUpdate(INSERT_SQL, this.entries);
+            this.entries.clear();
+        }
+    }
+}
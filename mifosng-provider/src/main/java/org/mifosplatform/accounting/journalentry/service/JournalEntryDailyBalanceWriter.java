@@ -0,0 +1,193 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.mifosplatform.accounting.journalentry.domain.JournalEntry;
+import org.mifosplatform.accounting.journalentry.domain.JournalEntryType;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Maintains <code>acc_gl_daily_balance</code>, the debits and credits of
+ * journal entries summed per office, GL account, currency and day, so that
+ * balances over a period are read from a row per day instead of every journal
+ * entry of the period.
+ *
+ * Every journal entry written is to be added here in the transaction writing
+ * it. A reversal is a journal entry of its own, so the table never has to be
+ * decremented. The amounts of a transaction are summed per day in memory and
+ * added to the table just before it commits, in key order, keeping the row
+ * locks on busy accounts short and free of deadlocks.
+ */
+@Service
+public class JournalEntryDailyBalanceWriter {
+
+    private final static Logger logger = LoggerFactory.getLogger(JournalEntryDailyBalanceWriter.class);
+
+    private static final String UPSERT_SQL = "INSERT INTO acc_gl_daily_balance (office_id, account_id, currency_code, entry_date, "
+            + "debit_amount, credit_amount) VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+            + "debit_amount = debit_amount + VALUES(debit_amount), credit_amount = credit_amount + VALUES(credit_amount)";
+
+    private static final String REBUILD_SQL = "INSERT INTO acc_gl_daily_balance (office_id, account_id, currency_code, entry_date, "
+            + "debit_amount, credit_amount) SELECT je.office_id, je.account_id, je.currency_code, je.entry_date, "
+            + "SUM(IF(je.type_enum = 2, je.amount, 0)), SUM(IF(je.type_enum = 1, je.amount, 0)) FROM acc_gl_journal_entry je "
+            + "GROUP BY je.office_id, je.account_id, je.currency_code, je.entry_date";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JournalEntryDailyBalanceWriter(final RoutingDataSource dataSource) {
+        this(new JdbcTemplate(dataSource));
+    }
+
+    JournalEntryDailyBalanceWriter(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void add(final JournalEntry journalEntry) {
+        add(journalEntry.getOffice().getId(), journalEntry.getGlAccount().getId(), journalEntry.getCurrencyCode(),
+                journalEntry.getTransactionDate(), JournalEntryType.fromInt(journalEntry.getType()), journalEntry.getAmount());
+    }
+
+    public void add(final Long officeId, final Long glAccountId, final String currencyCode, final Date entryDate,
+            final JournalEntryType type, final BigDecimal amount) {
+        final DailyBalanceKey key = new DailyBalanceKey(officeId, glAccountId, currencyCode,
+                new java.sql.Date(entryDate.getTime()).toString());
+
+        final Map<DailyBalanceKey, BigDecimal[]> pendingBalances = pendingBalances();
+        if (pendingBalances == null) {
+            this.jdbcTemplate.update(UPSERT_SQL, key.toParameters(type.isDebitType() ? amount : BigDecimal.ZERO,
+                    type.isCreditType() ? amount : BigDecimal.ZERO));
+            return;
+        }
+
+        BigDecimal[] debitAndCredit = pendingBalances.get(key);
+        if (debitAndCredit == null) {
+            debitAndCredit = new BigDecimal[] { BigDecimal.ZERO, BigDecimal.ZERO };
+            pendingBalances.put(key, debitAndCredit);
+        }
+        if (type.isDebitType()) {
+            debitAndCredit[0] = debitAndCredit[0].add(amount);
+        } else {
+            debitAndCredit[1] = debitAndCredit[1].add(amount);
+        }
+    }
+
+    /**
+     * Recomputes the whole table from the journal entries, for after it was
+     * found out of step with them, e.g. after entries were changed directly in
+     * the database.
+     */
+    @Transactional
+    public void rebuild() {
+        final long start = System.currentTimeMillis();
+        this.jdbcTemplate.update("DELETE FROM acc_gl_daily_balance");
+        final int rows = this.jdbcTemplate.update(REBUILD_SQL);
+        logger.info("Rebuilt " + rows + " daily GL balances in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    /**
+     * Sums waiting for the commit of the current transaction, or null when
+     * there is no transaction to wait for.
+     */
+    private Map<DailyBalanceKey, BigDecimal[]> pendingBalances() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) { return null; }
+
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingBalances) {
+                final PendingBalances pendingBalances = (PendingBalances) synchronization;
+                if (pendingBalances.isOf(this)) { return pendingBalances.balances; }
+            }
+        }
+        final PendingBalances pendingBalances = new PendingBalances();
+        TransactionSynchronizationManager.registerSynchronization(pendingBalances);
+        return pendingBalances.balances;
+    }
+
+    private final class PendingBalances extends TransactionSynchronizationAdapter {
+
+        private final Map<DailyBalanceKey, BigDecimal[]> balances = new TreeMap<>();
+
+        private boolean isOf(final JournalEntryDailyBalanceWriter writer) {
+            return JournalEntryDailyBalanceWriter.this == writer;
+        }
+
+        @Override
+        public void beforeCommit(@SuppressWarnings("unused") final boolean readOnly) {
+            if (this.balances.isEmpty()) { return; }
+            final List<Object[]> batch = new ArrayList<>(this.balances.size());
+            for (final Map.Entry<DailyBalanceKey, BigDecimal[]> balance : this.balances.entrySet()) {
+                batch.add(balance.getKey().toParameters(balance.getValue()[0], balance.getValue()[1]));
+            }
+            JournalEntryDailyBalanceWriter.this.jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+            this.balances.clear();
+        }
+    }
+
+    private static final class DailyBalanceKey implements Comparable<DailyBalanceKey> {
+
+        private final Long officeId;
+        private final Long glAccountId;
+        private final String currencyCode;
+        /** yyyy-MM-dd, as the time of day of entry dates varies */
+        private final String entryDate;
+
+        DailyBalanceKey(final Long officeId, final Long glAccountId, final String currencyCode, final String entryDate) {
+            this.officeId = officeId;
+            this.glAccountId = glAccountId;
+            this.currencyCode = currencyCode;
+            this.entryDate = entryDate;
+        }
+
+        Object[] toParameters(final BigDecimal debit, final BigDecimal credit) {
+            return new Object[] { this.officeId, this.glAccountId, this.currencyCode, java.sql.Date.valueOf(this.entryDate), debit,
+                    credit };
+        }
+
+        @Override
+        public int compareTo(final DailyBalanceKey other) {
+            int result = this.officeId.compareTo(other.officeId);
+            if (result == 0) {
+                result = this.glAccountId.compareTo(other.glAccountId);
+            }
+            if (result == 0) {
+                result = this.currencyCode.compareTo(other.currencyCode);
+            }
+            if (result == 0) {
+                result = this.entryDate.compareTo(other.entryDate);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof DailyBalanceKey && compareTo((DailyBalanceKey) obj) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = this.officeId.hashCode();
+            result = 31 * result + this.glAccountId.hashCode();
+            result = 31 * result + this.currencyCode.hashCode();
+            return 31 * result + this.entryDate.hashCode();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.mifosplatform.accounting.producttoaccountmapping.domain.PortfolioProductType;
+import org.mifosplatform.infrastructure.cache.service.TenantCache;
+import org.mifosplatform.infrastructure.cache.service.TenantCacheInvalidator;
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+/**
+ * What the accounting processors look up for every journal entry of a
+ * portfolio transaction: the GL accounts mapped to a product and the latest
+ * accounting closure of an office.
+ *
+ * The mappings of a product are read together on first use and kept per
+ * tenant until any product to GL account mapping of the tenant changes. Only
+ * ids are cached, never entities, so nothing is shared between persistence
+ * contexts. Closing dates are always read from the database, as a journal
+ * entry accepted on a node that missed a new closure would break the books.
+ */
+@Service
+public class JournalEntryLookupCache {
+
+    private static final long PRODUCT_MAPPINGS_TIME_TO_LIVE_MILLIS = 15 * 60 * 1000L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantCache<String, ProductMappings> productMappings;
+
+    @Autowired
+    public JournalEntryLookupCache(final RoutingDataSource dataSource, final TenantCacheInvalidator tenantCacheInvalidator) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.productMappings = tenantCacheInvalidator.newCache("productmappings", PRODUCT_MAPPINGS_TIME_TO_LIVE_MILLIS);
+    }
+
+    /**
+     * GL account of the mapping for the product and account type that is
+     * neither specific to a payment type nor to a charge, or null if there is
+     * no such mapping.
+     */
+    public Long findCoreGLAccountId(final PortfolioProductType productType, final Long productId, final int financialAccountType) {
+        return productMappings(productType, productId).coreAccounts.get(financialAccountType);
+    }
+
+    public Long findPaymentTypeGLAccountId(final PortfolioProductType productType, final Long productId, final int financialAccountType,
+            final Long paymentTypeId) {
+        if (paymentTypeId == null) { return null; }
+        return productMappings(productType, productId).paymentTypeAccounts.get(key(financialAccountType, paymentTypeId));
+    }
+
+    public Long findChargeGLAccountId(final PortfolioProductType productType, final Long productId, final int financialAccountType,
+            final Long chargeId) {
+        if (chargeId == null) { return null; }
+        return productMappings(productType, productId).chargeAccounts.get(key(financialAccountType, chargeId));
+    }
+
+    /**
+     * Closing date of the latest accounting closure of the office, or null if
+     * the books of the office were never closed. Read from the end of the
+     * unique index on office and closing date.
+     */
+    public Date findLatestClosingDate(final Long officeId) {
+        final java.sql.Date closingDate = this.jdbcTemplate.queryForObject(
+                "select max(closing_date) from acc_gl_closure where office_id = ?", java.sql.Date.class, officeId);
+        return closingDate == null ? null : new Date(closingDate.getTime());
+    }
+
+    public void invalidateProductMappings() {
+        this.productMappings.invalidate();
+    }
+
+    private ProductMappings productMappings(final PortfolioProductType productType, final Long productId) {
+        return this.productMappings.get(key(productType.getValue(), productId), new TenantCache.Loader<ProductMappings>() {
+
+            @Override
+            public ProductMappings load() {
+                return loadProductMappings(productType, productId);
+            }
+        });
+    }
+
+    private ProductMappings loadProductMappings(final PortfolioProductType productType, final Long productId) {
+        final ProductMappings loadedMappings = new ProductMappings();
+        final String sql = "select financial_account_type as financialAccountType, payment_type as paymentTypeId, charge_id as chargeId, "
+                + "gl_account_id as glAccountId from acc_product_mapping where product_id = ? and product_type = ? order by id";
+        this.jdbcTemplate.query(sql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final int financialAccountType = rs.getInt("financialAccountType");
+                final Long paymentTypeId = JdbcSupport.getLong(rs, "paymentTypeId");
+                final Long chargeId = JdbcSupport.getLong(rs, "chargeId");
+                final Long glAccountId = JdbcSupport.getLong(rs, "glAccountId");
+                if (glAccountId == null) { return; }
+                if (paymentTypeId != null) {
+                    putIfAbsent(loadedMappings.paymentTypeAccounts, key(financialAccountType, paymentTypeId), glAccountId);
+                } else if (chargeId != null) {
+                    putIfAbsent(loadedMappings.chargeAccounts, key(financialAccountType, chargeId), glAccountId);
+                } else {
+                    putIfAbsent(loadedMappings.coreAccounts, financialAccountType, glAccountId);
+                }
+            }
+        }, productId, productType.getValue());
+
+        return loadedMappings;
+    }
+
+    private static <K> void putIfAbsent(final Map<K, Long> accounts, final K key, final Long glAccountId) {
+        if (!accounts.containsKey(key)) {
+            accounts.put(key, glAccountId);
+        }
+    }
+
+    private static String key(final Integer type, final Long id) {
+        return type + ":" + id;
+    }
+
+    /**
+     * GL accounts mapped to one product; built by a single thread and only
+     * read once published.
+     */
+    private static final class ProductMappings {
+
+        private final Map<Integer, Long> coreAccounts = new HashMap<>();
+        private final Map<String, Long> paymentTypeAccounts = new HashMap<>();
+        private final Map<String, Long> chargeAccounts = new HashMap<>();
+    }
+}
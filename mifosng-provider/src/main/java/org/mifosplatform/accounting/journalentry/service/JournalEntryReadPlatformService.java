@@ -10,6 +10,7 @@ import java.util.Date;
 import org.mifosplatform.accounting.journalentry.data.JournalEntryAssociationParametersData;
 import org.mifosplatform.accounting.journalentry.data.JournalEntryData;
 import org.mifosplatform.accounting.journalentry.data.OfficeOpeningBalancesData;
+import org.mifosplatform.accounting.journalentry.data.TrialBalanceData;
 import org.mifosplatform.infrastructure.core.service.Page;
 import org.mifosplatform.infrastructure.core.service.SearchParameters;
 
@@ -22,4 +23,15 @@ public interface JournalEntryReadPlatformService {
 
     OfficeOpeningBalancesData retrieveOfficeOpeningBalances(Long officeId);
 
+    /**
+     * @param officeId
+     *            office whose entries and those of the offices below it are
+     *            included, all offices when null
+     * @param fromDate
+     *            first day included, from the first entry when null
+     * @param toDate
+     *            last day included, today when null
+     */
+    TrialBalanceData retrieveTrialBalance(Long officeId, Date fromDate, Date toDate);
+
 }
@@ -27,6 +27,8 @@ import org.mifosplatform.accounting.journalentry.data.JournalEntryAssociationPar
 import org.mifosplatform.accounting.journalentry.data.JournalEntryData;
 import org.mifosplatform.accounting.journalentry.data.OfficeOpeningBalancesData;
 import org.mifosplatform.accounting.journalentry.data.TransactionDetailData;
+import org.mifosplatform.accounting.journalentry.data.TrialBalanceAccountData;
+import org.mifosplatform.accounting.journalentry.data.TrialBalanceData;
 import org.mifosplatform.accounting.journalentry.data.TransactionTypeEnumData;
 import org.mifosplatform.accounting.journalentry.exception.JournalEntriesNotFoundException;
 import org.mifosplatform.infrastructure.core.data.EnumOptionData;
@@ -69,7 +71,14 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
     public JournalEntryReadPlatformServiceImpl(final RoutingDataSource dataSource,
             final GLAccountReadPlatformService glAccountReadPlatformService, final OfficeReadPlatformService officeReadPlatformService,
             final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper) {
-        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this(new JdbcTemplate(dataSource), glAccountReadPlatformService, officeReadPlatformService,
+                financialActivityAccountRepositoryWrapper);
+    }
+
+    JournalEntryReadPlatformServiceImpl(final JdbcTemplate jdbcTemplate, final GLAccountReadPlatformService glAccountReadPlatformService,
+            final OfficeReadPlatformService officeReadPlatformService,
+            final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper) {
+        this.jdbcTemplate = jdbcTemplate;
         this.glAccountReadPlatformService = glAccountReadPlatformService;
         this.officeReadPlatformService = officeReadPlatformService;
         this.financialActivityAccountRepositoryWrapper = financialActivityAccountRepositoryWrapper;
@@ -425,6 +434,57 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
         return officeOpeningBalancesData;
     }
 
+    @Override
+    public TrialBalanceData retrieveTrialBalance(final Long officeId, final Date fromDate, final Date toDate) {
+        final LocalDate from = fromDate == null ? null : new LocalDate(fromDate);
+        final LocalDate to = toDate == null ? DateUtils.getLocalDateOfTenant() : new LocalDate(toDate);
+
+        String officeName = null;
+        final List<Object> params = new ArrayList<>();
+        final StringBuilder sql = new StringBuilder(TrialBalanceMapper.SCHEMA);
+        if (officeId != null) {
+            officeName = this.officeReadPlatformService.retrieveOffice(officeId).name();
+            sql.append(" join m_office office on office.id = balance.office_id")
+                    .append(" join m_office parent on parent.id = ? and office.hierarchy like concat(parent.hierarchy, '%')");
+            params.add(officeId);
+        }
+        sql.append(" where balance.entry_date <= ?");
+        params.add(to.toDate());
+        if (from != null) {
+            sql.append(" and balance.entry_date >= ?");
+            params.add(from.toDate());
+        }
+        sql.append(" group by glAccount.id, balance.currency_code order by glAccount.gl_code, balance.currency_code");
+
+        final List<TrialBalanceAccountData> accounts = this.jdbcTemplate.query(sql.toString(), new TrialBalanceMapper(),
+                params.toArray());
+        return new TrialBalanceData(officeId, officeName, from, to, accounts);
+    }
+
+    private static final class TrialBalanceMapper implements RowMapper<TrialBalanceAccountData> {
+
+        /**
+         * Reads the per day sums of acc_gl_daily_balance rather than the
+         * journal entries themselves.
+         */
+        private static final String SCHEMA = "select glAccount.id as glAccountId, glAccount.name as glAccountName, "
+                + "glAccount.gl_code as glAccountCode, glAccount.classification_enum as classification, "
+                + "balance.currency_code as currencyCode, sum(balance.debit_amount) as debits, sum(balance.credit_amount) as credits "
+                + "from acc_gl_daily_balance balance join acc_gl_account glAccount on glAccount.id = balance.account_id";
+
+        @Override
+        public TrialBalanceAccountData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final Long glAccountId = rs.getLong("glAccountId");
+            final String glAccountName = rs.getString("glAccountName");
+            final String glAccountCode = rs.getString("glAccountCode");
+            final EnumOptionData glAccountType = AccountingEnumerations.gLAccountType(JdbcSupport.getInteger(rs, "classification"));
+            final String currencyCode = rs.getString("currencyCode");
+            final BigDecimal debits = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "debits");
+            final BigDecimal credits = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "credits");
+            return new TrialBalanceAccountData(glAccountId, glAccountName, glAccountCode, glAccountType, currencyCode, debits, credits);
+        }
+    }
+
     private List<JournalEntryData> populateOpeningBalances(final List<JournalEntryData> existingOpeningBalanceTransactions,
             final List<JournalEntryData> allOpeningTransactions) {
         final List<JournalEntryData> allOpeningBalnceTransactions = new ArrayList<>(allOpeningTransactions.size());
@@ -8,43 +8,65 @@ package org.mifosplatform.accounting.journalentry.service;
 import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.mifosplatform.accounting.common.AccountingEnumerations;
 import org.mifosplatform.accounting.glaccount.domain.GLAccountType;
 import org.mifosplatform.accounting.journalentry.api.JournalEntryJsonInputParams;
-import org.mifosplatform.accounting.journalentry.data.JournalEntryData;
 import org.mifosplatform.accounting.journalentry.data.JournalEntryDataValidator;
 import org.mifosplatform.accounting.journalentry.domain.JournalEntryType;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
-import org.mifosplatform.infrastructure.core.data.EnumOptionData;
 import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
+import org.mifosplatform.infrastructure.jobs.data.JobPartition;
+import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.jobs.service.JobPartitionExecutor;
+import org.mifosplatform.infrastructure.jobs.service.JobPartitionTask;
+import org.mifosplatform.infrastructure.jobs.service.JobRunPartitionContext;
 import org.mifosplatform.organisation.office.domain.Office;
 import org.mifosplatform.organisation.office.domain.OfficeRepository;
 import org.mifosplatform.organisation.office.exception.OfficeNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Computes the running balances of journal entries in entry date order.
+ *
+ * Entries are read in chunks of {@link #RUNNING_BALANCE_CHUNK_SIZE} with a
+ * keyset cursor on (entry_date, id), and each chunk is written with a single
+ * prepared statement batch committed on its own. The
+ * <code>is_running_balance_calculated</code> flag committed with every chunk
+ * acts as checkpoint: an interrupted run is resumed by the next one from the
+ * earliest entry still flagged as not calculated.
+ *
+ * Office running balances of different offices are independent of each other
+ * and are computed in parallel, one partition per office, before the
+ * organisation running balances.
+ */
 @Service
 public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntryRunningBalanceUpdateService {
 
     private final static Logger logger = LoggerFactory.getLogger(JournalEntryRunningBalanceUpdateServiceImpl.class);
 
+    private static final int RUNNING_BALANCE_CHUNK_SIZE = 1000;
+
     private final JdbcTemplate jdbcTemplate;
 
     private final OfficeRepository officeRepository;
@@ -53,12 +75,16 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
 
     private final FromJsonHelper fromApiJsonHelper;
 
-    private final GLJournalEntryMapper entryMapper = new GLJournalEntryMapper();
-    
-    // if a limit is not added to the running balance select statements below and the resultset is more than 400,000, 
+    private final JobPartitionExecutor jobPartitionExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final RunningBalanceEntryMapper entryMapper = new RunningBalanceEntryMapper();
+
+    // if a limit is not added to the running balance select statements below and the resultset is more than 400,000,
     // the script will eat up all of the server memory
     private final String selectRunningBalanceSqlLimit = "limit 0, 10000";
-    
+
     private final String officeRunningBalanceSql = "select je.office_running_balance as runningBalance,je.account_id as accountId from acc_gl_journal_entry je "
             + "inner join (select max(id) as id from acc_gl_journal_entry where office_id=?  and entry_date < ? group by account_id,entry_date) je2 "
             + "inner join (select max(entry_date) as date from acc_gl_journal_entry where office_id=? and entry_date < ? group by account_id) je3 "
@@ -69,32 +95,40 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
             + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by account_id) je3 "
             + "where je2.id = je.id and je.entry_date = je3.date group by je.id order by je.entry_date DESC " + selectRunningBalanceSqlLimit;
 
-    private final String officesRunningBalanceSql = "select je.office_running_balance as runningBalance,je.account_id as accountId,je.office_id as officeId "
-            + "from acc_gl_journal_entry je "
-            + "inner join (select max(id) as id from acc_gl_journal_entry where entry_date < ? group by office_id,account_id,entry_date) je2 "
-            + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by office_id,account_id) je3 "
-            + "where je2.id = je.id and je.entry_date = je3.date group by je.id order by je.entry_date DESC " + selectRunningBalanceSqlLimit;
+    private final String updateOfficeRunningBalanceSql = "UPDATE acc_gl_journal_entry SET office_running_balance=? WHERE id=?";
+
+    private final String updateOrganizationRunningBalanceSql = "UPDATE acc_gl_journal_entry SET is_running_balance_calculated=1, "
+            + "organization_running_balance=? WHERE id=?";
 
     @Autowired
     public JournalEntryRunningBalanceUpdateServiceImpl(final RoutingDataSource dataSource, final OfficeRepository officeRepository,
-            final JournalEntryDataValidator dataValidator, final FromJsonHelper fromApiJsonHelper) {
+            final JournalEntryDataValidator dataValidator, final FromJsonHelper fromApiJsonHelper,
+            final JobPartitionExecutor jobPartitionExecutor, final TransactionTemplate transactionTemplate) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.officeRepository = officeRepository;
         this.dataValidator = dataValidator;
         this.fromApiJsonHelper = fromApiJsonHelper;
+        this.jobPartitionExecutor = jobPartitionExecutor;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Override
     @CronTarget(jobName = JobName.ACCOUNTING_RUNNING_BALANCE_UPDATE)
-    public void updateRunningBalance() {
-        String dateFinder = "select MIN(je.entry_date) as entityDate from acc_gl_journal_entry  je "
-                + "where je.is_running_balance_calculated=0 ";
-        try {
-            Date entityDate = this.jdbcTemplate.queryForObject(dateFinder, Date.class);
-            updateOrganizationRunningBalance(entityDate);
-        } catch (EmptyResultDataAccessException e) {
+    public void updateRunningBalance() throws JobExecutionException {
+        // entries posted while the job runs are left to its next run
+        final Long maxEntryId = this.jdbcTemplate.queryForObject("select max(je.id) from acc_gl_journal_entry je", Long.class);
+        final String dateFinder = "select MIN(je.entry_date) as entityDate from acc_gl_journal_entry  je "
+                + "where je.is_running_balance_calculated=0 and je.id <= ?";
+        final Date entityDate = maxEntryId == null ? null : this.jdbcTemplate.queryForObject(dateFinder, Date.class, maxEntryId);
+        if (entityDate == null) {
             logger.debug("No results found for updation of running balance ");
+            return;
         }
+
+        final int officeEntries = updateOfficesRunningBalance(maxEntryId);
+        final int organizationEntries = updateOrganizationRunningBalance(entityDate, maxEntryId);
+        logger.info("Running balances updated for " + organizationEntries + " journal entries, office running balances for "
+                + officeEntries);
     }
 
     @Override
@@ -105,120 +139,150 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
         CommandProcessingResultBuilder commandProcessingResultBuilder = new CommandProcessingResultBuilder().withCommandId(command
                 .commandId());
         if (officeId == null) {
-            updateRunningBalance();
+            try {
+                updateRunningBalance();
+            } catch (final JobExecutionException e) {
+                throw new PlatformDataIntegrityException("error.msg.journalentry.running.balance.update.failed",
+                        "Running balance update failed: " + e.getMessage());
+            } finally {
+                // partitions are only recorded for scheduled runs
+                JobRunPartitionContext.drain();
+            }
         } else {
             final Office office = this.officeRepository.findOne(officeId);
             if (office == null) { throw new OfficeNotFoundException(officeId); }
 
+            final Long maxEntryId = this.jdbcTemplate.queryForObject("select max(je.id) from acc_gl_journal_entry je", Long.class);
             String dateFinder = "select MIN(je.entry_date) as entityDate " + "from acc_gl_journal_entry  je "
                     + "where je.is_running_balance_calculated=0  and je.office_id=?";
-            try {
-                Date entityDate = this.jdbcTemplate.queryForObject(dateFinder, Date.class, officeId);
-                updateRunningBalance(officeId, entityDate);
-            } catch (EmptyResultDataAccessException e) {
+            Date entityDate = this.jdbcTemplate.queryForObject(dateFinder, Date.class, officeId);
+            if (entityDate == null) {
                 logger.debug("No results found for updation of office running balance with office id:" + officeId);
+            } else {
+                updateOfficeRunningBalance(officeId, entityDate, maxEntryId);
             }
             commandProcessingResultBuilder.withOfficeId(officeId);
         }
         return commandProcessingResultBuilder.build();
     }
 
-    @Transactional
-    private void updateOrganizationRunningBalance(Date entityDate) {
-        Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
-        Map<Long, Map<Long, BigDecimal>> officesRunningBalance = new HashMap<>();
+    private int updateOfficesRunningBalance(final Long maxEntryId) throws JobExecutionException {
+        final String officeDatesSql = "select je.office_id as officeId, MIN(je.entry_date) as entityDate from acc_gl_journal_entry je "
+                + "where je.is_running_balance_calculated=0 and je.id <= ? group by je.office_id";
+        final Map<Long, Date> officeEntityDates = new HashMap<>();
+        this.jdbcTemplate.query(officeDatesSql, new RowCallbackHandler() {
 
-        List<Map<String, Object>> list = jdbcTemplate.queryForList(organizationRunningBalanceSql, entityDate, entityDate);
-        for (Map<String, Object> entries : list) {
-            Long accountId = (Long) entries.get("accountId");
-            if (!runningBalanceMap.containsKey(accountId)) {
-                runningBalanceMap.put(accountId, (BigDecimal) entries.get("runningBalance"));
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                officeEntityDates.put(rs.getLong("officeId"), rs.getDate("entityDate"));
             }
+        }, maxEntryId);
+
+        final List<JobPartition> partitions = new ArrayList<>(officeEntityDates.size());
+        for (final Long officeId : officeEntityDates.keySet()) {
+            partitions.add(JobPartition.forOffice(officeId));
         }
 
-        List<Map<String, Object>> officesRunningBalanceList = jdbcTemplate.queryForList(officesRunningBalanceSql, entityDate, entityDate);
-        for (Map<String, Object> entries : officesRunningBalanceList) {
-            Long accountId = (Long) entries.get("accountId");
-            Long officeId = (Long) entries.get("officeId");
-            Map<Long, BigDecimal> runningBalance = null;
-            if (officesRunningBalance.containsKey(officeId)) {
-                runningBalance = officesRunningBalance.get(officeId);
-            } else {
-                runningBalance = new HashMap<>();
-                officesRunningBalance.put(officeId, runningBalance);
-            }
-            if (!runningBalance.containsKey(accountId)) {
-                runningBalance.put(accountId, (BigDecimal) entries.get("runningBalance"));
+        return this.jobPartitionExecutor.execute(JobName.ACCOUNTING_RUNNING_BALANCE_UPDATE.name(), partitions, new JobPartitionTask() {
+
+            @Override
+            public int execute(final JobPartition partition) {
+                final Long officeId = partition.getRangeFrom();
+                return updateOfficeRunningBalance(officeId, officeEntityDates.get(officeId), maxEntryId);
             }
-        }
+        });
+    }
 
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.organizationRunningBalanceSchema(), entryMapper,
-                new Object[] { entityDate });
-        if (entryDatas.size() > 0) {
-            // run a batch update of 1000 SQL statements at a time
-            final Integer batchUpdateSize = 1000;
-            final Integer batchUpdateSizeMinusOne = batchUpdateSize - 1;
-            String[] updateSql = new String[batchUpdateSize];
-            int i = 0;
-            for (JournalEntryData entryData : entryDatas) {
-                Map<Long, BigDecimal> officeRunningBalanceMap = null;
-                if (officesRunningBalance.containsKey(entryData.getOfficeId())) {
-                    officeRunningBalanceMap = officesRunningBalance.get(entryData.getOfficeId());
-                } else {
-                    officeRunningBalanceMap = new HashMap<>();
-                    officesRunningBalance.put(entryData.getOfficeId(), officeRunningBalanceMap);
-                }
-                BigDecimal officeRunningBalance = calculateRunningBalance(entryData, officeRunningBalanceMap);
-                BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-                String sql = "UPDATE acc_gl_journal_entry je SET je.is_running_balance_calculated=1, je.organization_running_balance="
-                        + runningBalance + ",je.office_running_balance=" + officeRunningBalance + " WHERE  je.id=" + entryData.getId();
-                updateSql[i++] = sql;
-                
-                if (i == batchUpdateSizeMinusOne) {
-                    // run a batch update of the 1000 update SQL statements
-                    this.jdbcTemplate.batchUpdate(updateSql);
-                    
-                    // reset counter and string array
-                    i = 0;
-                    updateSql = new String[batchUpdateSize];
-                }
+    private int updateOfficeRunningBalance(final Long officeId, final Date entityDate, final Long maxEntryId) {
+        final Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
+
+        List<Map<String, Object>> list = jdbcTemplate.queryForList(officeRunningBalanceSql, officeId, entityDate, officeId, entityDate);
+        for (Map<String, Object> entries : list) {
+            Long accountId = (Long) entries.get("accountId");
+            if (!runningBalanceMap.containsKey(accountId)) {
+                runningBalanceMap.put(accountId, (BigDecimal) entries.get("runningBalance"));
             }
-            this.jdbcTemplate.batchUpdate(updateSql);
         }
 
+        final List<Object> conditionArgs = new ArrayList<>();
+        conditionArgs.add(officeId);
+        conditionArgs.add(entityDate);
+        conditionArgs.add(maxEntryId);
+        return updateEntriesInChunks("je.office_id=? and je.entry_date >= ? and je.id <= ?", conditionArgs,
+                updateOfficeRunningBalanceSql, runningBalanceMap);
     }
 
-    @Transactional
-    private void updateRunningBalance(Long officeId, Date entityDate) {
-        Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
+    private int updateOrganizationRunningBalance(final Date entityDate, final Long maxEntryId) {
+        final Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
 
-        List<Map<String, Object>> list = jdbcTemplate.queryForList(officeRunningBalanceSql, officeId, entityDate, officeId, entityDate);
+        List<Map<String, Object>> list = jdbcTemplate.queryForList(organizationRunningBalanceSql, entityDate, entityDate);
         for (Map<String, Object> entries : list) {
             Long accountId = (Long) entries.get("accountId");
             if (!runningBalanceMap.containsKey(accountId)) {
                 runningBalanceMap.put(accountId, (BigDecimal) entries.get("runningBalance"));
             }
         }
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.officeRunningBalanceSchema(), entryMapper, new Object[] {
-                officeId, entityDate });
-        String[] updateSql = new String[entryDatas.size()];
-        int i = 0;
-        for (JournalEntryData entryData : entryDatas) {
-            BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-            String sql = "UPDATE acc_gl_journal_entry je SET je.office_running_balance=" + runningBalance + " WHERE  je.id="
-                    + entryData.getId();
-            updateSql[i++] = sql;
+
+        final List<Object> conditionArgs = new ArrayList<>();
+        conditionArgs.add(entityDate);
+        conditionArgs.add(maxEntryId);
+        return updateEntriesInChunks("je.entry_date >= ? and je.id <= ?", conditionArgs, updateOrganizationRunningBalanceSql,
+                runningBalanceMap);
+    }
+
+    /**
+     * Walks the entries matching <code>entryCondition</code> in entry date
+     * order and writes their running balance with <code>updateSql</code>,
+     * which takes the balance and the entry id as parameters.
+     */
+    private int updateEntriesInChunks(final String entryCondition, final List<Object> conditionArgs, final String updateSql,
+            final Map<Long, BigDecimal> runningBalanceMap) {
+        int updated = 0;
+        RunningBalanceEntry lastEntry = null;
+        while (true) {
+            final List<Object> args = new ArrayList<>(conditionArgs);
+            final StringBuilder sql = new StringBuilder(this.entryMapper.schema()).append(" and ").append(entryCondition);
+            if (lastEntry != null) {
+                sql.append(" and (je.entry_date > ? or (je.entry_date = ? and je.id > ?))");
+                args.add(lastEntry.entryDate);
+                args.add(lastEntry.entryDate);
+                args.add(lastEntry.id);
+            }
+            sql.append(" order by je.entry_date, je.id limit ").append(RUNNING_BALANCE_CHUNK_SIZE);
+
+            final List<RunningBalanceEntry> entries = this.jdbcTemplate.query(sql.toString(), this.entryMapper, args.toArray());
+            if (entries.isEmpty()) {
+                break;
+            }
+
+            final List<Object[]> batchArgs = new ArrayList<>(entries.size());
+            for (final RunningBalanceEntry entry : entries) {
+                batchArgs.add(new Object[] { calculateRunningBalance(entry, runningBalanceMap), entry.id });
+            }
+            this.transactionTemplate.execute(new TransactionCallback<int[]>() {
+
+                @Override
+                public int[] doInTransaction(@SuppressWarnings("unused") final TransactionStatus status) {
+                    return JournalEntryRunningBalanceUpdateServiceImpl.this.jdbcTemplate.batchUpdate(updateSql, batchArgs);
+                }
+            });
+
+            updated += entries.size();
+            lastEntry = entries.get(entries.size() - 1);
+            if (entries.size() < RUNNING_BALANCE_CHUNK_SIZE) {
+                break;
+            }
         }
-        this.jdbcTemplate.batchUpdate(updateSql);
+        return updated;
     }
 
-    private BigDecimal calculateRunningBalance(JournalEntryData entry, Map<Long, BigDecimal> runningBalanceMap) {
+    private BigDecimal calculateRunningBalance(RunningBalanceEntry entry, Map<Long, BigDecimal> runningBalanceMap) {
         BigDecimal runningBalance = BigDecimal.ZERO;
-        if (runningBalanceMap.containsKey(entry.getGlAccountId())) {
-            runningBalance = runningBalanceMap.get(entry.getGlAccountId());
+        if (runningBalanceMap.containsKey(entry.glAccountId)) {
+            runningBalance = runningBalanceMap.get(entry.glAccountId);
         }
-        GLAccountType accounttype = GLAccountType.fromInt(entry.getGlAccountType().getId().intValue());
-        JournalEntryType entryType = JournalEntryType.fromInt(entry.getEntryType().getId().intValue());
+        GLAccountType accounttype = entry.accountType;
+        JournalEntryType entryType = entry.entryType;
         boolean isIncrease = false;
         switch (accounttype) {
             case ASSET:
@@ -248,44 +312,56 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
             break;
         }
         if (isIncrease) {
-            runningBalance = runningBalance.add(entry.getAmount());
+            runningBalance = runningBalance.add(entry.amount);
         } else {
-            runningBalance = runningBalance.subtract(entry.getAmount());
+            runningBalance = runningBalance.subtract(entry.amount);
         }
-        runningBalanceMap.put(entry.getGlAccountId(), runningBalance);
+        runningBalanceMap.put(entry.glAccountId, runningBalance);
         return runningBalance;
     }
 
-    private static final class GLJournalEntryMapper implements RowMapper<JournalEntryData> {
+    /**
+     * The columns of a journal entry that its running balance depends on.
+     */
+    private static final class RunningBalanceEntry {
 
-        public String officeRunningBalanceSchema() {
-            return "select je.id as id,je.account_id as glAccountId,je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId "
-                    + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.office_id=? and je.entry_date >= ? order by je.entry_date,je.id";
+        private final Long id;
+        private final Long glAccountId;
+        private final GLAccountType accountType;
+        private final JournalEntryType entryType;
+        private final BigDecimal amount;
+        private final Date entryDate;
+
+        RunningBalanceEntry(final Long id, final Long glAccountId, final GLAccountType accountType, final JournalEntryType entryType,
+                final BigDecimal amount, final Date entryDate) {
+            this.id = id;
+            this.glAccountId = glAccountId;
+            this.accountType = accountType;
+            this.entryType = entryType;
+            this.amount = amount;
+            this.entryDate = entryDate;
         }
+    }
+
+    private static final class RunningBalanceEntryMapper implements RowMapper<RunningBalanceEntry> {
 
-        public String organizationRunningBalanceSchema() {
-            return "select je.id as id,je.account_id as glAccountId," + "je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId  "
-                    + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.entry_date >= ? order by je.entry_date,je.id";
+        public String schema() {
+            return "select je.id as id,je.account_id as glAccountId,je.type_enum as entryType,je.amount as amount, "
+                    + "je.entry_date as entryDate,glAccount.classification_enum as classification "
+                    + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id";
         }
 
         @Override
-        public JournalEntryData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+        public RunningBalanceEntry mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
 
             final Long id = rs.getLong("id");
             final Long glAccountId = rs.getLong("glAccountId");
-            final Long officeId = rs.getLong("officeId");
-            final int accountTypeId = JdbcSupport.getInteger(rs, "classification");
-            final EnumOptionData accountType = AccountingEnumerations.gLAccountType(accountTypeId);
+            final GLAccountType accountType = GLAccountType.fromInt(JdbcSupport.getInteger(rs, "classification"));
             final BigDecimal amount = rs.getBigDecimal("amount");
-            final int entryTypeId = JdbcSupport.getInteger(rs, "entryType");
-            final EnumOptionData entryType = AccountingEnumerations.journalEntryType(entryTypeId);
+            final JournalEntryType entryType = JournalEntryType.fromInt(JdbcSupport.getInteger(rs, "entryType"));
+            final Date entryDate = rs.getDate("entryDate");
 
-            return new JournalEntryData(id, officeId, null, null, glAccountId, null, accountType, null, entryType, amount, null, null,
-                    null, null, null, null, null, null, null, null, null, null, null, null, null);
+            return new RunningBalanceEntry(id, glAccountId, accountType, entryType, amount, entryDate);
         }
     }
 
@@ -23,6 +23,8 @@ import javax.ws.rs.core.UriInfo;
 import org.apache.commons.lang.StringUtils;
 import org.mifosplatform.commands.data.AuditData;
 import org.mifosplatform.commands.data.AuditSearchData;
+import org.mifosplatform.commands.data.CommandHandlerStatisticsData;
+import org.mifosplatform.commands.provider.CommandHandlerProvider;
 import org.mifosplatform.commands.service.AuditReadPlatformService;
 import org.mifosplatform.infrastructure.core.api.ApiParameterHelper;
 import org.mifosplatform.infrastructure.core.api.ApiRequestParameterHelper;
@@ -51,16 +53,22 @@ public class AuditsApiResource {
     private final ApiRequestParameterHelper apiRequestParameterHelper;
     private final DefaultToApiJsonSerializer<AuditData> toApiJsonSerializer;
     private final DefaultToApiJsonSerializer<AuditSearchData> toApiJsonSerializerSearchTemplate;
+    private final CommandHandlerProvider commandHandlerProvider;
+    private final DefaultToApiJsonSerializer<CommandHandlerStatisticsData> toApiJsonSerializerHandlerStatistics;
 
     @Autowired
     public AuditsApiResource(final PlatformSecurityContext context, final AuditReadPlatformService auditReadPlatformService,
             final ApiRequestParameterHelper apiRequestParameterHelper, final DefaultToApiJsonSerializer<AuditData> toApiJsonSerializer,
-            final DefaultToApiJsonSerializer<AuditSearchData> toApiJsonSerializerSearchTemplate) {
+            final DefaultToApiJsonSerializer<AuditSearchData> toApiJsonSerializerSearchTemplate,
+            final CommandHandlerProvider commandHandlerProvider,
+            final DefaultToApiJsonSerializer<CommandHandlerStatisticsData> toApiJsonSerializerHandlerStatistics) {
         this.context = context;
         this.auditReadPlatformService = auditReadPlatformService;
         this.apiRequestParameterHelper = apiRequestParameterHelper;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.toApiJsonSerializerSearchTemplate = toApiJsonSerializerSearchTemplate;
+        this.commandHandlerProvider = commandHandlerProvider;
+        this.toApiJsonSerializerHandlerStatistics = toApiJsonSerializerHandlerStatistics;
     }
 
     @GET
@@ -129,6 +137,20 @@ public class AuditsApiResource {
         return this.toApiJsonSerializerSearchTemplate.serialize(settings, auditSearchData, RESPONSE_DATA_PARAMETERS_SEARCH_TEMPLATE);
     }
 
+    @GET
+    @Path("/handlerstatistics")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String retrieveCommandHandlerStatistics(@Context final UriInfo uriInfo) {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+
+        final Collection<CommandHandlerStatisticsData> statistics = this.commandHandlerProvider.retrieveStatistics();
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.toApiJsonSerializerHandlerStatistics.serialize(settings, statistics);
+    }
+
     private String getExtraCriteria(final String actionName, final String entityName, final Long resourceId, final Long makerId,
             final String makerDateTimeFrom, final String makerDateTimeTo, final Long checkerId, final String checkerDateTimeFrom,
             final String checkerDateTimeTo, final Integer processingResult, final Integer officeId, final Integer groupId,
@@ -0,0 +1,45 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.commands.data;
+
+import java.util.Map;
+
+/**
+ * Immutable data object representing the invocations of a command handler on
+ * this node since start-up. The latency histogram maps the upper bound of each
+ * bucket in milliseconds to the number of invocations in it.
+ */
+public class CommandHandlerStatisticsData {
+
+    @SuppressWarnings("unused")
+    private final String entityName;
+    @SuppressWarnings("unused")
+    private final String actionName;
+    @SuppressWarnings("unused")
+    private final String handler;
+    @SuppressWarnings("unused")
+    private final long invocations;
+    @SuppressWarnings("unused")
+    private final long failures;
+    @SuppressWarnings("unused")
+    private final long averageMillis;
+    @SuppressWarnings("unused")
+    private final long maxMillis;
+    @SuppressWarnings("unused")
+    private final Map<String, Long> latencyHistogram;
+
+    public CommandHandlerStatisticsData(final String entityName, final String actionName, final String handler, final long invocations,
+            final long failures, final long averageMillis, final long maxMillis, final Map<String, Long> latencyHistogram) {
+        this.entityName = entityName;
+        this.actionName = actionName;
+        this.handler = handler;
+        this.invocations = invocations;
+        this.failures = failures;
+        this.averageMillis = averageMillis;
+        this.maxMillis = maxMillis;
+        this.latencyHistogram = latencyHistogram;
+    }
+}
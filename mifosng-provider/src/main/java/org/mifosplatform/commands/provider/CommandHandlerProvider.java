@@ -9,8 +9,13 @@ import com.google.common.base.Preconditions;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.mifosplatform.commands.annotation.CommandType;
+import org.mifosplatform.commands.data.CommandHandlerStatisticsData;
+import org.mifosplatform.commands.domain.CommandWrapper;
 import org.mifosplatform.commands.exception.UnsupportedCommandException;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
+import org.mifosplatform.commands.service.CommandWrapperBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -18,13 +23,27 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Nonnull;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * {@link CommandHandlerProvider} provides {@link NewCommandSourceHandler}s for a given entity and action.<br/>
  * <br/>
  * A {@link NewCommandSourceHandler} can be registered and the annotation {@link CommandType} is used to determine
- * the entity and the action the handler is capable to process.
+ * the entity and the action the handler is capable to process.<br/>
+ * <br/>
+ * The registry is built once when the application context is set. Registering two handlers for the same entity
+ * and action fails the start-up, and commands of the {@link CommandWrapperBuilder} without a handler are logged.
+ * Commands whose entity name is not fixed (datatable entries, notes and surveys) are looked up under the
+ * synthetic entities below. Every registered handler keeps invocation counts and a latency histogram.
  *
  * @author Markus Geiss
  * @version 1.0
@@ -36,8 +55,18 @@ import java.util.HashMap;
 @Scope("singleton")
 public class CommandHandlerProvider implements ApplicationContextAware {
 
+    private final static Logger logger = LoggerFactory.getLogger(CommandHandlerProvider.class);
+
+    /**
+     * Entity of the commands on the rows of a datatable, which carry the name of the datatable as entity name.
+     */
+    public static final String DATATABLE_ENTRY_ENTITY = "DATATABLE_ENTRY";
+    public static final String NOTE_ENTITY = "NOTE";
+    public static final String SURVEY_ENTITY = "SURVEY";
+    public static final String ADD_AND_DELETE_DISBURSEMENT_DETAILS_ACTION = "ADDANDDELETE";
+
     private ApplicationContext applicationContext;
-    private HashMap<String, String> registeredHandlers;
+    private HashMap<String, RegisteredCommandHandler> registeredHandlers;
 
     CommandHandlerProvider() {
         super();
@@ -56,11 +85,65 @@ public class CommandHandlerProvider implements ApplicationContextAware {
         Preconditions.checkArgument(StringUtils.isNoneEmpty(entity), "An entity must be given!");
         Preconditions.checkArgument(StringUtils.isNoneEmpty(action), "An action must be given!");
 
-        final String key =  entity + "|" + action;
-        if (!this.registeredHandlers.containsKey(key)) {
-            throw new UnsupportedCommandException(key);
+        final RegisteredCommandHandler handler = this.registeredHandlers.get(key(entity, action));
+        if (handler == null) {
+            throw new UnsupportedCommandException(entity + "|" + action);
+        }
+        return handler;
+    }
+
+    /**
+     * Returns the handler for the given command.<br/>
+     * <br/>
+     * Throws an {@link UnsupportedCommandException} if no handler
+     * for the command can be found.
+     * @param wrapper the command to lookup the handler, must be given.
+     */
+    @Nonnull
+    public NewCommandSourceHandler getHandler(@Nonnull final CommandWrapper wrapper) {
+        final RegisteredCommandHandler handler = this.registeredHandlers.get(key(wrapper));
+        if (handler == null) {
+            throw new UnsupportedCommandException(wrapper.commandName());
+        }
+        return handler;
+    }
+
+    /**
+     * Returns the invocation statistics of all handlers invoked since start-up, ordered by entity and action.
+     */
+    public Collection<CommandHandlerStatisticsData> retrieveStatistics() {
+        final List<RegisteredCommandHandler> handlers = new ArrayList<>(this.registeredHandlers.values());
+        Collections.sort(handlers);
+
+        final Collection<CommandHandlerStatisticsData> statistics = new ArrayList<>();
+        for (final RegisteredCommandHandler handler : handlers) {
+            if (handler.getInvocations() > 0) {
+                statistics.add(handler.toStatisticsData());
+            }
+        }
+        return statistics;
+    }
+
+    private static String key(final String entity, final String action) {
+        return entity.toUpperCase() + "|" + action.toUpperCase();
+    }
+
+    private static String key(final CommandWrapper wrapper) {
+        String entity = wrapper.entityName();
+        String action = wrapper.actionName();
+        if (wrapper.getHref() != null && wrapper.isDatatableResource() && wrapper.resourceId() != null) {
+            entity = DATATABLE_ENTRY_ENTITY;
+            if (wrapper.isUpdateOperation() || wrapper.isDeleteOperation()) {
+                action = action + (wrapper.subresourceId() == null ? "ONETOONE" : "ONETOMANY");
+            }
+        } else if (wrapper.getHref() != null && wrapper.isSurveyResource()) {
+            entity = SURVEY_ENTITY;
+        } else if (wrapper.isNoteResource()) {
+            entity = NOTE_ENTITY;
+        } else if (wrapper.addAndDeleteDisbursementDetails()) {
+            action = ADD_AND_DELETE_DISBURSEMENT_DETAILS_ACTION;
         }
-        return (NewCommandSourceHandler)this.applicationContext.getBean(this.registeredHandlers.get(key));
+        return key(entity, action);
     }
 
     private void initializeHandlerRegistry() {
@@ -70,11 +153,81 @@ public class CommandHandlerProvider implements ApplicationContextAware {
             final String[] commandHandlerBeans = this.applicationContext.getBeanNamesForAnnotation(CommandType.class);
             if (ArrayUtils.isNotEmpty(commandHandlerBeans)) {
                 for (final String commandHandlerName : commandHandlerBeans) {
-                    final CommandType commandType = this.applicationContext.getType(commandHandlerName).getAnnotation(CommandType.class);
-                    this.registeredHandlers.put(commandType.entity() + "|" + commandType.action(), commandHandlerName);
+                    final Class<?> commandHandlerType = this.applicationContext.getType(commandHandlerName);
+                    if (!NewCommandSourceHandler.class.isAssignableFrom(commandHandlerType)) {
+                        throw new IllegalStateException("Command handler " + commandHandlerName + " does not implement "
+                                + NewCommandSourceHandler.class.getSimpleName());
+                    }
+                    final CommandType commandType = commandHandlerType.getAnnotation(CommandType.class);
+                    final String key = key(commandType.entity(), commandType.action());
+                    final RegisteredCommandHandler registeredHandler = new RegisteredCommandHandler(this.applicationContext,
+                            commandHandlerName, commandType.entity(), commandType.action());
+                    final RegisteredCommandHandler previousHandler = this.registeredHandlers.put(key, registeredHandler);
+                    if (previousHandler != null) {
+                        throw new IllegalStateException("Command handlers " + previousHandler.getBeanName() + " and "
+                                + commandHandlerName + " are both registered for " + key);
+                    }
                 }
             }
+
+            final Set<String> unsupportedCommands = findCommandsWithoutHandler();
+            if (!unsupportedCommands.isEmpty()) {
+                logger.warn("No command handler registered for commands " + unsupportedCommands);
+            }
+            logger.info(this.registeredHandlers.size() + " command handlers registered");
+        }
+    }
+
+    /**
+     * Builds every command of the {@link CommandWrapperBuilder} with placeholder arguments and returns the names of
+     * those without a handler.
+     */
+    private Set<String> findCommandsWithoutHandler() {
+        final Set<String> unsupportedCommands = new TreeSet<>();
+        for (final Method method : CommandWrapperBuilder.class.getDeclaredMethods()) {
+            if (!Modifier.isPublic(method.getModifiers()) || !CommandWrapperBuilder.class.equals(method.getReturnType())) {
+                continue;
+            }
+
+            final Object[] arguments = placeholderArguments(method.getParameterTypes());
+            if (arguments == null) {
+                continue;
+            }
+
+            final CommandWrapper wrapper;
+            try {
+                final CommandWrapperBuilder builder = new CommandWrapperBuilder();
+                method.invoke(builder, arguments);
+                wrapper = builder.build();
+            } catch (final ReflectiveOperationException | RuntimeException e) {
+                logger.debug("Command of " + method.getName() + " not validated", e);
+                continue;
+            }
+
+            // the with... methods only add details to a command
+            if (wrapper.actionName() != null && wrapper.entityName() != null && !this.registeredHandlers.containsKey(key(wrapper))) {
+                unsupportedCommands.add(wrapper.commandName());
+            }
+        }
+        return unsupportedCommands;
+    }
+
+    private static Object[] placeholderArguments(final Class<?>[] parameterTypes) {
+        final Object[] arguments = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            final Class<?> parameterType = parameterTypes[i];
+            if (Long.class.equals(parameterType) || long.class.equals(parameterType)) {
+                arguments[i] = Long.valueOf(1);
+            } else if (String.class.equals(parameterType)) {
+                arguments[i] = "placeholder";
+            } else if (CommandWrapper.class.equals(parameterType)) {
+                // resource details, of which notes take their entity
+                arguments[i] = CommandWrapper.wrap("CREATE", "CLIENTNOTE", Long.valueOf(1), null);
+            } else {
+                return null;
+            }
         }
+        return arguments;
     }
 
     @Override
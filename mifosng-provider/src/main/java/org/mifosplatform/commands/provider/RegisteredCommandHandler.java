@@ -0,0 +1,124 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.commands.provider;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.mifosplatform.commands.data.CommandHandlerStatisticsData;
+import org.mifosplatform.commands.handler.NewCommandSourceHandler;
+import org.mifosplatform.infrastructure.core.api.JsonCommand;
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Entry of the {@link CommandHandlerProvider} registry, which delegates to the
+ * handler bean and records the number of invocations and their latencies.
+ *
+ * The bean is only looked up on first use, as handlers depend on services
+ * which in turn may depend on the command processing.
+ */
+final class RegisteredCommandHandler implements NewCommandSourceHandler, Comparable<RegisteredCommandHandler> {
+
+    /**
+     * Upper bounds of the latency histogram buckets in milliseconds, followed
+     * by a bucket for all slower invocations.
+     */
+    private static final long[] LATENCY_BUCKET_BOUNDS = { 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000 };
+
+    private final ApplicationContext applicationContext;
+    private final String beanName;
+    private final String entity;
+    private final String action;
+    private volatile NewCommandSourceHandler handler;
+
+    private final AtomicLong invocations = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(LATENCY_BUCKET_BOUNDS.length + 1);
+
+    RegisteredCommandHandler(final ApplicationContext applicationContext, final String beanName, final String entity,
+            final String action) {
+        this.applicationContext = applicationContext;
+        this.beanName = beanName;
+        this.entity = entity;
+        this.action = action;
+    }
+
+    @Override
+    public CommandProcessingResult processCommand(final JsonCommand command) {
+        final long startTime = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            final CommandProcessingResult result = handler().processCommand(command);
+            succeeded = true;
+            return result;
+        } finally {
+            record(System.nanoTime() - startTime, succeeded);
+        }
+    }
+
+    private NewCommandSourceHandler handler() {
+        NewCommandSourceHandler handler = this.handler;
+        if (handler == null) {
+            handler = this.applicationContext.getBean(this.beanName, NewCommandSourceHandler.class);
+            this.handler = handler;
+        }
+        return handler;
+    }
+
+    private void record(final long elapsedNanos, final boolean succeeded) {
+        this.invocations.incrementAndGet();
+        if (!succeeded) {
+            this.failures.incrementAndGet();
+        }
+        this.totalNanos.addAndGet(elapsedNanos);
+
+        long max = this.maxNanos.get();
+        while (elapsedNanos > max && !this.maxNanos.compareAndSet(max, elapsedNanos)) {
+            max = this.maxNanos.get();
+        }
+
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        int bucket = 0;
+        while (bucket < LATENCY_BUCKET_BOUNDS.length && elapsedMillis > LATENCY_BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        this.latencyBuckets.incrementAndGet(bucket);
+    }
+
+    long getInvocations() {
+        return this.invocations.get();
+    }
+
+    String getBeanName() {
+        return this.beanName;
+    }
+
+    CommandHandlerStatisticsData toStatisticsData() {
+        final long invocationCount = this.invocations.get();
+        final long averageMillis = invocationCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(this.totalNanos.get() / invocationCount);
+
+        final Map<String, Long> latencyHistogram = new LinkedHashMap<>();
+        for (int i = 0; i < LATENCY_BUCKET_BOUNDS.length; i++) {
+            latencyHistogram.put(Long.toString(LATENCY_BUCKET_BOUNDS[i]), this.latencyBuckets.get(i));
+        }
+        latencyHistogram.put("+Inf", this.latencyBuckets.get(LATENCY_BUCKET_BOUNDS.length));
+
+        return new CommandHandlerStatisticsData(this.entity, this.action, this.beanName, invocationCount, this.failures.get(),
+                averageMillis, TimeUnit.NANOSECONDS.toMillis(this.maxNanos.get()), latencyHistogram);
+    }
+
+    @Override
+    public int compareTo(final RegisteredCommandHandler other) {
+        final int compareEntity = this.entity.compareTo(other.entity);
+        return compareEntity != 0 ? compareEntity : this.action.compareTo(other.action);
+    }
+}
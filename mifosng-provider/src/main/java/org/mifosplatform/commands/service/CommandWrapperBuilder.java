@@ -7,6 +7,7 @@ package org.mifosplatform.commands.service;
 
 import org.mifosplatform.commands.domain.CommandWrapper;
 import org.mifosplatform.infrastructure.accountnumberformat.service.AccountNumberFormatConstants;
+import org.mifosplatform.portfolio.loanaccount.rescheduleloan.RescheduleLoansApiConstants;
 import org.mifosplatform.portfolio.paymenttype.api.PaymentTypeApiResourceConstants;
 import org.mifosplatform.portfolio.savings.DepositsApiConstants;
 import org.mifosplatform.useradministration.api.PasswordPreferencesApiConstants;
@@ -955,6 +956,14 @@ public class CommandWrapperBuilder {
         return this;
     }
 
+    public CommandWrapperBuilder rebuildDailyBalancesForJournalEntry() {
+        this.actionName = "REBUILDDAILYBALANCES";
+        this.entityName = "JOURNALENTRY";
+        this.entityId = null;
+        this.href = "/journalentries/update";
+        return this;
+    }
+
     public CommandWrapperBuilder defineOpeningBalanceForJournalEntry() {
         this.actionName = "DEFINEOPENINGBALANCE";
         this.entityName = "JOURNALENTRY";
@@ -2226,25 +2235,25 @@ public class CommandWrapperBuilder {
         return this;
     }
 
-    public CommandWrapperBuilder createLoanRescheduleRequest(final String entityName) {
+    public CommandWrapperBuilder createLoanRescheduleRequest() {
         this.actionName = "CREATE";
-        this.entityName = entityName;
+        this.entityName = RescheduleLoansApiConstants.ENTITY_NAME;
         this.entityId = null;
         this.href = "/rescheduleloans";
         return this;
     }
 
-    public CommandWrapperBuilder approveLoanRescheduleRequest(final String entityName, final Long requestId) {
+    public CommandWrapperBuilder approveLoanRescheduleRequest(final Long requestId) {
         this.actionName = "APPROVE";
-        this.entityName = entityName;
+        this.entityName = RescheduleLoansApiConstants.ENTITY_NAME;
         this.entityId = requestId;
         this.href = "/rescheduleloans/" + requestId + "?command=approve";
         return this;
     }
 
-    public CommandWrapperBuilder rejectLoanRescheduleRequest(final String entityName, final Long requestId) {
+    public CommandWrapperBuilder rejectLoanRescheduleRequest(final Long requestId) {
         this.actionName = "REJECT";
-        this.entityName = entityName;
+        this.entityName = RescheduleLoansApiConstants.ENTITY_NAME;
         this.entityId = requestId;
         this.href = "/rescheduleloans/" + requestId + "?command=reject";
         return this;
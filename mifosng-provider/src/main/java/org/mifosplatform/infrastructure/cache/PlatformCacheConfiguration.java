@@ -5,15 +5,23 @@
  */
 package org.mifosplatform.infrastructure.cache;
 
+import org.mifosplatform.infrastructure.cache.service.CacheLoadRoutingInterceptor;
 import org.mifosplatform.infrastructure.cache.service.RuntimeDelegatingCacheManager;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.DefaultKeyGenerator;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
 
 @SuppressWarnings("deprecation")
 @Configuration
@@ -29,6 +37,19 @@ public class PlatformCacheConfiguration implements CachingConfigurer {
         return this.delegatingCacheManager;
     }
 
+    /**
+     * Applied to the {@link Cacheable} methods ahead of the cache and
+     * transaction interceptors.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public Advisor cacheLoadRoutingAdvisor() {
+        final DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(Cacheable.class),
+                new CacheLoadRoutingInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
     @Override
     public KeyGenerator keyGenerator() {
         return new DefaultKeyGenerator();
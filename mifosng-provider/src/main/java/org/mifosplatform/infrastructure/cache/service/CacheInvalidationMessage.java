@@ -0,0 +1,121 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Eviction of one key, or of all entries, of a cache on the node the message
+ * originates from.
+ *
+ * Messages are written in a small binary format instead of java serialization
+ * so that nothing received from the network is deserialized into arbitrary
+ * objects. Only {@link String}, {@link Long} and {@link Integer} keys, which
+ * are the keys the platform caches by, are carried over; the eviction of any
+ * other key is sent as the clearing of the whole cache.
+ */
+public final class CacheInvalidationMessage {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte CLEAR = 0;
+    private static final byte STRING_KEY = 1;
+    private static final byte LONG_KEY = 2;
+    private static final byte INTEGER_KEY = 3;
+    private static final int MAX_STRING_KEY_LENGTH = 1024;
+
+    private final String nodeId;
+    private final String cacheName;
+    private final Object key;
+
+    public static CacheInvalidationMessage evict(final String nodeId, final String cacheName, final Object key) {
+        if (isTransportable(key)) { return new CacheInvalidationMessage(nodeId, cacheName, key); }
+        return clear(nodeId, cacheName);
+    }
+
+    public static CacheInvalidationMessage clear(final String nodeId, final String cacheName) {
+        return new CacheInvalidationMessage(nodeId, cacheName, null);
+    }
+
+    public static CacheInvalidationMessage fromBytes(final byte[] bytes, final int length) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, length));
+        final byte version = in.readByte();
+        if (version != FORMAT_VERSION) { throw new IOException("Unsupported cache invalidation message format " + version); }
+
+        final String nodeId = in.readUTF();
+        final String cacheName = in.readUTF();
+        final byte keyType = in.readByte();
+        switch (keyType) {
+            case CLEAR:
+                return clear(nodeId, cacheName);
+            case STRING_KEY:
+                return new CacheInvalidationMessage(nodeId, cacheName, in.readUTF());
+            case LONG_KEY:
+                return new CacheInvalidationMessage(nodeId, cacheName, Long.valueOf(in.readLong()));
+            case INTEGER_KEY:
+                return new CacheInvalidationMessage(nodeId, cacheName, Integer.valueOf(in.readInt()));
+            default:
+                throw new IOException("Unsupported cache key type " + keyType);
+        }
+    }
+
+    private static boolean isTransportable(final Object key) {
+        if (key instanceof String) { return ((String) key).length() <= MAX_STRING_KEY_LENGTH; }
+        return key instanceof Long || key instanceof Integer;
+    }
+
+    private CacheInvalidationMessage(final String nodeId, final String cacheName, final Object key) {
+        this.nodeId = nodeId;
+        this.cacheName = cacheName;
+        this.key = key;
+    }
+
+    public byte[] toBytes() {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(FORMAT_VERSION);
+            out.writeUTF(this.nodeId);
+            out.writeUTF(this.cacheName);
+            if (this.key == null) {
+                out.writeByte(CLEAR);
+            } else if (this.key instanceof String) {
+                out.writeByte(STRING_KEY);
+                out.writeUTF((String) this.key);
+            } else if (this.key instanceof Long) {
+                out.writeByte(LONG_KEY);
+                out.writeLong((Long) this.key);
+            } else {
+                out.writeByte(INTEGER_KEY);
+                out.writeInt((Integer) this.key);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (final IOException e) {
+            // not thrown by in-memory streams
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    public String getCacheName() {
+        return this.cacheName;
+    }
+
+    public Object getKey() {
+        return this.key;
+    }
+
+    public boolean isClear() {
+        return this.key == null;
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+/**
+ * Carries the evictions of the {@link MultiNodeCacheManager} of one node to
+ * the {@link CacheInvalidationListener}s of all nodes, including its own.
+ */
+public interface CacheInvalidationTransport {
+
+    void subscribe(CacheInvalidationListener listener);
+
+    void unsubscribe(CacheInvalidationListener listener);
+
+    void publish(CacheInvalidationMessage message);
+}
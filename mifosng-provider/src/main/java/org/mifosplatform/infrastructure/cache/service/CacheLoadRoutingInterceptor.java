@@ -0,0 +1,37 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.mifosplatform.infrastructure.core.service.ReplicaReadPolicy;
+import org.mifosplatform.infrastructure.core.service.ReplicaRoutingContext;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Reads the values of {@link Cacheable} methods from the tenant database, also
+ * while processing a request whose reads go to the replica, so that they can
+ * be kept by the {@link PrimaryReadCache}. Must be applied before the cache
+ * and transaction interceptors.
+ * 
+ * A transaction keeps the connection it began with, so the methods called
+ * within one read from where the transaction reads.
+ */
+public class CacheLoadRoutingInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(final MethodInvocation invocation) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) { return invocation.proceed(); }
+
+        ReplicaRoutingContext.push(ReplicaReadPolicy.PRIMARY_ONLY);
+        try {
+            return invocation.proceed();
+        } finally {
+            ReplicaRoutingContext.pop();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Near cache of the {@link MultiNodeCacheManager}, which publishes its
+ * evictions to the other nodes.
+ */
+final class InvalidatingCache implements Cache {
+
+    private final Cache localCache;
+    private final MultiNodeCacheManager cacheManager;
+
+    InvalidatingCache(final Cache localCache, final MultiNodeCacheManager cacheManager) {
+        this.localCache = localCache;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public String getName() {
+        return this.localCache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this.localCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(final Object key) {
+        return this.localCache.get(key);
+    }
+
+    @Override
+    public <T> T get(final Object key, final Class<T> type) {
+        return this.localCache.get(key, type);
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        this.localCache.put(key, value);
+    }
+
+    @Override
+    public void evict(final Object key) {
+        this.localCache.evict(key);
+        this.cacheManager.publishEviction(getName(), key);
+    }
+
+    @Override
+    public void clear() {
+        this.localCache.clear();
+        this.cacheManager.publishClear(getName());
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Delivers invalidations synchronously to the listeners in the same JVM, which
+ * lets several {@link MultiNodeCacheManager}s act as the nodes of a cluster in
+ * tests.
+ */
+public class LoopbackCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private final List<CacheInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void subscribe(final CacheInvalidationListener listener) {
+        this.listeners.add(listener);
+    }
+
+    @Override
+    public void unsubscribe(final CacheInvalidationListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    @Override
+    public void publish(final CacheInvalidationMessage message) {
+        for (final CacheInvalidationListener listener : this.listeners) {
+            listener.onInvalidation(message);
+        }
+    }
+}
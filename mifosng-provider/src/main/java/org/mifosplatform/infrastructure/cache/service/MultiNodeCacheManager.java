@@ -0,0 +1,100 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * {@link CacheManager} for a cluster of nodes, where every node keeps its own
+ * near cache in the local cache manager and tells the other nodes through the
+ * {@link CacheInvalidationTransport} which entries it evicted.
+ *
+ * Entries are only ever loaded from the database, so putting an entry is not
+ * published; evicting or clearing it, which the platform does after changing
+ * the cached data, drops it on all nodes.
+ */
+public class MultiNodeCacheManager implements CacheManager, CacheInvalidationListener {
+
+    private final static Logger logger = LoggerFactory.getLogger(MultiNodeCacheManager.class);
+
+    private final CacheManager localCacheManager;
+    private final CacheInvalidationTransport transport;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public MultiNodeCacheManager(final CacheManager localCacheManager, final CacheInvalidationTransport transport) {
+        this.localCacheManager = localCacheManager;
+        this.transport = transport;
+    }
+
+    /**
+     * Starts receiving the invalidations of the other nodes.
+     */
+    public void start() {
+        this.transport.subscribe(this);
+    }
+
+    public void stop() {
+        this.transport.unsubscribe(this);
+    }
+
+    @Override
+    public Cache getCache(final String name) {
+        final Cache cache = this.caches.get(name);
+        if (cache != null) { return cache; }
+
+        final Cache localCache = this.localCacheManager.getCache(name);
+        if (localCache == null) { return null; }
+
+        final Cache invalidatingCache = new InvalidatingCache(localCache, this);
+        final Cache concurrentlyCreatedCache = this.caches.putIfAbsent(name, invalidatingCache);
+        return concurrentlyCreatedCache == null ? invalidatingCache : concurrentlyCreatedCache;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return this.localCacheManager.getCacheNames();
+    }
+
+    @Override
+    public void onInvalidation(final CacheInvalidationMessage message) {
+        if (this.nodeId.equals(message.getNodeId())) { return; }
+
+        final Cache localCache = this.localCacheManager.getCache(message.getCacheName());
+        if (localCache == null) { return; }
+
+        if (message.isClear()) {
+            localCache.clear();
+        } else {
+            localCache.evict(message.getKey());
+        }
+    }
+
+    void publishEviction(final String cacheName, final Object key) {
+        publish(CacheInvalidationMessage.evict(this.nodeId, cacheName, key));
+    }
+
+    void publishClear(final String cacheName) {
+        publish(CacheInvalidationMessage.clear(this.nodeId, cacheName));
+    }
+
+    private void publish(final CacheInvalidationMessage message) {
+        try {
+            this.transport.publish(message);
+        } catch (final RuntimeException e) {
+            // the change itself succeeded, other nodes may serve the old entry
+            logger.error("Could not publish eviction from cache " + message.getCacheName() + " to the other nodes", e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.MulticastSocket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link CacheInvalidationTransport} between the nodes of a local network
+ * over UDP multicast.
+ *
+ * The group and port are read from the system properties
+ * <code>mifos.cache.multicast.group</code> and
+ * <code>mifos.cache.multicast.port</code>; all nodes sharing the databases
+ * must use the same ones. The socket is only opened while a multi node cache
+ * is in use. A lost datagram leaves an entry stale on a node until it is
+ * evicted again, which is the price of not coordinating the nodes.
+ */
+@Component
+public class MulticastCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private final static Logger logger = LoggerFactory.getLogger(MulticastCacheInvalidationTransport.class);
+
+    public static final String GROUP_PROPERTY = "mifos.cache.multicast.group";
+    public static final String PORT_PROPERTY = "mifos.cache.multicast.port";
+    private static final String DEFAULT_GROUP = "230.0.0.17";
+    private static final int DEFAULT_PORT = 45588;
+    private static final int MAX_MESSAGE_SIZE = 4096;
+
+    private final List<CacheInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+    private MulticastSocket socket;
+    private InetAddress group;
+    private int port;
+
+    @Override
+    public synchronized void subscribe(final CacheInvalidationListener listener) {
+        this.listeners.add(listener);
+        if (this.socket == null) {
+            open();
+        }
+    }
+
+    @Override
+    public synchronized void unsubscribe(final CacheInvalidationListener listener) {
+        this.listeners.remove(listener);
+        if (this.listeners.isEmpty()) {
+            close();
+        }
+    }
+
+    @Override
+    public void publish(final CacheInvalidationMessage message) {
+        final MulticastSocket currentSocket;
+        final InetAddress currentGroup;
+        final int currentPort;
+        synchronized (this) {
+            currentSocket = this.socket;
+            currentGroup = this.group;
+            currentPort = this.port;
+        }
+        if (currentSocket == null) { return; }
+
+        final byte[] bytes = message.toBytes();
+        try {
+            currentSocket.send(new DatagramPacket(bytes, bytes.length, currentGroup, currentPort));
+        } catch (final IOException e) {
+            throw new IllegalStateException("Could not send cache invalidation to " + currentGroup + ":" + currentPort, e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (this.socket != null) {
+            // unblocks the receiver thread, which then ends
+            this.socket.close();
+            this.socket = null;
+        }
+    }
+
+    private void open() {
+        try {
+            this.group = InetAddress.getByName(System.getProperty(GROUP_PROPERTY, DEFAULT_GROUP));
+            this.port = Integer.parseInt(System.getProperty(PORT_PROPERTY, Integer.toString(DEFAULT_PORT)));
+
+            final MulticastSocket newSocket = new MulticastSocket(this.port);
+            newSocket.joinGroup(this.group);
+            this.socket = newSocket;
+
+            final Thread receiver = new CustomizableThreadFactory("CacheInvalidationReceiver-").newThread(new Runnable() {
+
+                @Override
+                public void run() {
+                    receive(newSocket);
+                }
+            });
+            receiver.setDaemon(true);
+            receiver.start();
+
+            logger.info("Receiving cache invalidations on " + this.group + ":" + this.port);
+        } catch (final IOException e) {
+            throw new IllegalStateException("Could not join cache invalidation group " + System.getProperty(GROUP_PROPERTY, DEFAULT_GROUP),
+                    e);
+        }
+    }
+
+    private void receive(final MulticastSocket receivingSocket) {
+        final byte[] buffer = new byte[MAX_MESSAGE_SIZE];
+        while (!receivingSocket.isClosed()) {
+            final DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            final CacheInvalidationMessage message;
+            try {
+                receivingSocket.receive(packet);
+                message = CacheInvalidationMessage.fromBytes(packet.getData(), packet.getLength());
+            } catch (final IOException e) {
+                if (!receivingSocket.isClosed()) {
+                    logger.warn("Ignored cache invalidation from " + packet.getAddress(), e);
+                }
+                continue;
+            }
+
+            for (final CacheInvalidationListener listener : this.listeners) {
+                try {
+                    listener.onInvalidation(message);
+                } catch (final RuntimeException e) {
+                    logger.error("Could not evict from cache " + message.getCacheName(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+import org.mifosplatform.infrastructure.core.service.ReplicaReadPolicy;
+import org.mifosplatform.infrastructure.core.service.ReplicaRoutingContext;
+import org.springframework.cache.Cache;
+
+/**
+ * Cache of the {@link RuntimeDelegatingCacheManager}, which only keeps values
+ * read from the tenant database. A value read from a replica may predate a
+ * change whose eviction was already processed, and would then be served for
+ * the whole time to live of the entry.
+ * 
+ * The {@link CacheLoadRoutingInterceptor} lets cached methods read from the
+ * tenant database unless they are called within a transaction reading from
+ * the replica.
+ */
+final class PrimaryReadCache implements Cache {
+
+    private final Cache cache;
+
+    PrimaryReadCache(final Cache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public String getName() {
+        return this.cache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this.cache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(final Object key) {
+        return this.cache.get(key);
+    }
+
+    @Override
+    public <T> T get(final Object key, final Class<T> type) {
+        return this.cache.get(key, type);
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        if (ReplicaRoutingContext.current() != ReplicaReadPolicy.PRIMARY_ONLY) { return; }
+        this.cache.put(key, value);
+    }
+
+    @Override
+    public void evict(final Object key) {
+        this.cache.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        this.cache.clear();
+    }
+}
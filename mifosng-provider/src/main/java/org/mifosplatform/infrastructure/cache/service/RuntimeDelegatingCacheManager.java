@@ -9,6 +9,8 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.mifosplatform.infrastructure.cache.CacheApiConstants;
 import org.mifosplatform.infrastructure.cache.CacheEnumerations;
@@ -29,23 +31,39 @@ import org.springframework.stereotype.Component;
  * By default it is {@link NoOpCacheManager} but we can change that by checking
  * some persisted configuration in the database on startup and allow user to
  * switch implementation through UI/API
+ * 
+ * The caches it hands out are {@link PrimaryReadCache}s, which do not keep
+ * values read from a replica.
  */
 @Component(value = "runtimeDelegatingCacheManager")
 public class RuntimeDelegatingCacheManager implements CacheManager {
 
     private final EhCacheCacheManager ehcacheCacheManager;
+    private final MultiNodeCacheManager multiNodeCacheManager;
+    private final TenantCacheInvalidator tenantCacheInvalidator;
     private final CacheManager noOpCacheManager = new NoOpCacheManager();
     private CacheManager currentCacheManager;
+    private final ConcurrentMap<Cache, Cache> primaryReadCaches = new ConcurrentHashMap<>();
 
     @Autowired
-    public RuntimeDelegatingCacheManager(final EhCacheCacheManager ehCacheCacheManager) {
+    public RuntimeDelegatingCacheManager(final EhCacheCacheManager ehCacheCacheManager,
+            final CacheInvalidationTransport cacheInvalidationTransport, final TenantCacheInvalidator tenantCacheInvalidator) {
         this.ehcacheCacheManager = ehCacheCacheManager;
+        this.multiNodeCacheManager = new MultiNodeCacheManager(ehCacheCacheManager, cacheInvalidationTransport);
+        this.tenantCacheInvalidator = tenantCacheInvalidator;
         this.currentCacheManager = this.noOpCacheManager;
     }
 
     @Override
     public Cache getCache(final String name) {
-        return this.currentCacheManager.getCache(name);
+        final Cache cache = this.currentCacheManager.getCache(name);
+        if (cache == null) { return null; }
+
+        final Cache primaryReadCache = this.primaryReadCaches.get(cache);
+        if (primaryReadCache != null) { return primaryReadCache; }
+        final Cache createdCache = new PrimaryReadCache(cache);
+        final Cache concurrentlyCreatedCache = this.primaryReadCaches.putIfAbsent(cache, createdCache);
+        return concurrentlyCreatedCache == null ? createdCache : concurrentlyCreatedCache;
     }
 
     @Override
@@ -57,29 +75,26 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
 
         final boolean noCacheEnabled = this.currentCacheManager instanceof NoOpCacheManager;
         final boolean ehcacheEnabled = this.currentCacheManager instanceof EhCacheCacheManager;
-
-        // final boolean distributedCacheEnabled = false;
+        final boolean distributedCacheEnabled = this.currentCacheManager instanceof MultiNodeCacheManager;
 
         final EnumOptionData noCacheType = CacheEnumerations.cacheType(CacheType.NO_CACHE);
         final EnumOptionData singleNodeCacheType = CacheEnumerations.cacheType(CacheType.SINGLE_NODE);
-        // final EnumOptionData multiNodeCacheType =
-        // CacheEnumerations.cacheType(CacheType.MULTI_NODE);
+        final EnumOptionData multiNodeCacheType = CacheEnumerations.cacheType(CacheType.MULTI_NODE);
 
         final CacheData noCache = CacheData.instance(noCacheType, noCacheEnabled);
         final CacheData singleNodeCache = CacheData.instance(singleNodeCacheType, ehcacheEnabled);
-        // final CacheData distributedCache =
-        // CacheData.instance(multiNodeCacheType, distributedCacheEnabled);
+        final CacheData distributedCache = CacheData.instance(multiNodeCacheType, distributedCacheEnabled);
 
-        final Collection<CacheData> caches = Arrays.asList(noCache, singleNodeCache);
+        final Collection<CacheData> caches = Arrays.asList(noCache, singleNodeCache, distributedCache);
         return caches;
     }
 
-    public Map<String, Object> switchToCache(final boolean ehcacheEnabled, final CacheType toCacheType) {
+    public Map<String, Object> switchToCache(final boolean ehcacheEnabled, final boolean distributedCacheEnabled,
+            final CacheType toCacheType) {
 
         final Map<String, Object> changes = new HashMap<>();
 
-        final boolean noCacheEnabled = !ehcacheEnabled;
-        final boolean distributedCacheEnabled = !ehcacheEnabled;
+        final boolean noCacheEnabled = !ehcacheEnabled && !distributedCacheEnabled;
 
         switch (toCacheType) {
             case INVALID:
@@ -88,6 +103,8 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
                 if (!noCacheEnabled) {
                     changes.put(CacheApiConstants.cacheTypeParameter, toCacheType.getValue());
                 }
+                this.multiNodeCacheManager.stop();
+                this.tenantCacheInvalidator.stop();
                 this.currentCacheManager = this.noOpCacheManager;
             break;
             case SINGLE_NODE:
@@ -95,12 +112,23 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
                     changes.put(CacheApiConstants.cacheTypeParameter, toCacheType.getValue());
                     clearEhCache();
                 }
+                this.multiNodeCacheManager.stop();
+                this.tenantCacheInvalidator.stop();
                 this.currentCacheManager = this.ehcacheCacheManager;
             break;
             case MULTI_NODE:
                 if (!distributedCacheEnabled) {
                     changes.put(CacheApiConstants.cacheTypeParameter, toCacheType.getValue());
                 }
+                if (!(this.currentCacheManager instanceof MultiNodeCacheManager)) {
+                    // the near caches missed the evictions of the other nodes
+                    clearEhCache();
+                    this.multiNodeCacheManager.start();
+                }
+                // the caches of tenant data are kept whatever the cache type,
+                // only a cluster has to invalidate them on the other nodes
+                this.tenantCacheInvalidator.start();
+                this.currentCacheManager = this.multiNodeCacheManager;
             break;
         }
 
@@ -0,0 +1,144 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.mifosplatform.infrastructure.core.service.ReplicaReadPolicy;
+import org.mifosplatform.infrastructure.core.service.ReplicaRoutingContext;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Values loaded from the database of the current tenant, kept until the
+ * tenant's data changes, see {@link TenantCacheInvalidator}.
+ *
+ * Every invalidation of a tenant advances its generation, and
+ * {@link #get(Object, Loader)} only keeps a value loaded in the generation it
+ * started in, so that a value read before a change is never put back into the
+ * cache after the change was invalidated.
+ *
+ * Values are loaded from the tenant database, never from its replica, which
+ * may not have the change yet. A loader called within a transaction reads
+ * from the connection of the transaction, so its value is only kept if the
+ * transaction reads from the tenant database.
+ *
+ * Values are shared by all requests of the tenant, so they must be immutable
+ * and must not be entities of a persistence context.
+ */
+public final class TenantCache<K, V> implements TenantCacheInvalidator.Listener {
+
+    private final String region;
+    private final long timeToLiveMillis;
+    private final TenantCacheInvalidator invalidator;
+    private final ConcurrentMap<String, TenantValues<K, V>> valuesByTenant = new ConcurrentHashMap<>();
+    /** guarded by this, like every change to {@link #valuesByTenant} */
+    private final ConcurrentMap<String, Long> generationsByTenant = new ConcurrentHashMap<>();
+
+    TenantCache(final String region, final long timeToLiveMillis, final TenantCacheInvalidator invalidator) {
+        this.region = region;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.invalidator = invalidator;
+    }
+
+    public interface Loader<V> {
+
+        V load();
+    }
+
+    /**
+     * The value kept for the key, loaded by the given loader if there is none.
+     */
+    public V get(final K key, final Loader<V> loader) {
+        final long generation = generation();
+        final V cachedValue = get(key);
+        if (cachedValue != null) { return cachedValue; }
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            final V loadedValue = loader.load();
+            if (ReplicaRoutingContext.current() != ReplicaReadPolicy.PRIMARY_ONLY) { return loadedValue; }
+            return putIfAbsent(generation, key, loadedValue);
+        }
+
+        ReplicaRoutingContext.push(ReplicaReadPolicy.PRIMARY_ONLY);
+        try {
+            return putIfAbsent(generation, key, loader.load());
+        } finally {
+            ReplicaRoutingContext.pop();
+        }
+    }
+
+    long generation() {
+        final Long generation = this.generationsByTenant.get(tenantIdentifier());
+        return generation == null ? 0 : generation;
+    }
+
+    V get(final K key) {
+        final String tenantIdentifier = tenantIdentifier();
+        final TenantValues<K, V> tenantValues = this.valuesByTenant.get(tenantIdentifier);
+        if (tenantValues == null) { return null; }
+        if (System.currentTimeMillis() - tenantValues.createdTime > this.timeToLiveMillis) {
+            synchronized (this) {
+                this.valuesByTenant.remove(tenantIdentifier, tenantValues);
+            }
+            return null;
+        }
+        return tenantValues.values.get(key);
+    }
+
+    /**
+     * Keeps the value unless the tenant was invalidated since the given
+     * generation.
+     *
+     * @return the value kept for the key, which is the given value unless
+     *         another request loaded the key meanwhile
+     */
+    V putIfAbsent(final long generation, final K key, final V value) {
+        final String tenantIdentifier = tenantIdentifier();
+        synchronized (this) {
+            final Long currentGeneration = this.generationsByTenant.get(tenantIdentifier);
+            if ((currentGeneration == null ? 0 : currentGeneration) != generation) { return value; }
+
+            TenantValues<K, V> tenantValues = this.valuesByTenant.get(tenantIdentifier);
+            if (tenantValues == null) {
+                tenantValues = new TenantValues<>();
+                this.valuesByTenant.put(tenantIdentifier, tenantValues);
+            }
+            final V concurrentlyLoadedValue = tenantValues.values.putIfAbsent(key, value);
+            return concurrentlyLoadedValue == null ? value : concurrentlyLoadedValue;
+        }
+    }
+
+    /**
+     * Invalidates the values of the current tenant on all nodes.
+     */
+    public void invalidate() {
+        this.invalidator.invalidate(this.region);
+    }
+
+    /**
+     * Drops all values of the tenant on this node; a key is not told apart.
+     */
+    @Override
+    public void invalidate(final String tenantIdentifier, @SuppressWarnings("unused") final String key) {
+        synchronized (this) {
+            final Long generation = this.generationsByTenant.get(tenantIdentifier);
+            this.generationsByTenant.put(tenantIdentifier, generation == null ? 1 : generation + 1);
+            this.valuesByTenant.remove(tenantIdentifier);
+        }
+    }
+
+    private static String tenantIdentifier() {
+        return ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+    }
+
+    private static final class TenantValues<K, V> {
+
+        private final ConcurrentMap<K, V> values = new ConcurrentHashMap<>();
+        private final long createdTime = System.currentTimeMillis();
+    }
+}
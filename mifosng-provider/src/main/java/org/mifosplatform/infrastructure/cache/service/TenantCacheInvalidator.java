@@ -0,0 +1,149 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalidates what the in-memory caches of tenant data hold for a tenant when
+ * that data changes, on this node and, while the multi node cache is in use,
+ * on all other nodes through the {@link CacheInvalidationTransport}.
+ *
+ * A change is invalidated when it is made and again once its transaction
+ * completed, as a request reading the data meanwhile still reads it as it was
+ * before; the other nodes are told once the transaction completed, so that
+ * they reload what was committed. Caches are registered under a region name
+ * that is the same on all nodes.
+ */
+@Component
+public class TenantCacheInvalidator implements CacheInvalidationListener {
+
+    private final static Logger logger = LoggerFactory.getLogger(TenantCacheInvalidator.class);
+
+    private static final String REGION_PREFIX = "tenant.";
+    private static final char KEY_SEPARATOR = '/';
+
+    /**
+     * Drops the values of a tenant, or only those of the key if one is given.
+     */
+    public interface Listener {
+
+        void invalidate(String tenantIdentifier, String key);
+    }
+
+    private final CacheInvalidationTransport transport;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, Listener> listeners = new ConcurrentHashMap<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    @Autowired
+    public TenantCacheInvalidator(final CacheInvalidationTransport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * A new cache of the region, whose values are kept at most for the given
+     * time should an invalidation from another node be lost.
+     */
+    public <K, V> TenantCache<K, V> newCache(final String region, final long timeToLiveMillis) {
+        final TenantCache<K, V> cache = new TenantCache<>(region, timeToLiveMillis, this);
+        register(region, cache);
+        return cache;
+    }
+
+    public void register(final String region, final Listener listener) {
+        if (this.listeners.putIfAbsent(region, listener) != null) { throw new IllegalStateException("Tenant cache region " + region
+                + " is already registered"); }
+    }
+
+    /**
+     * Starts receiving the invalidations of the other nodes.
+     */
+    public void start() {
+        if (this.started.compareAndSet(false, true)) {
+            this.transport.subscribe(this);
+        }
+    }
+
+    public void stop() {
+        if (this.started.compareAndSet(true, false)) {
+            this.transport.unsubscribe(this);
+        }
+    }
+
+    /**
+     * Invalidates all values of the region for the current tenant.
+     */
+    public void invalidate(final String region) {
+        invalidate(region, null);
+    }
+
+    public void invalidate(final String region, final String key) {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final Listener listener = this.listeners.get(region);
+        if (listener == null) { throw new IllegalStateException("Tenant cache region " + region + " is not registered"); }
+
+        listener.invalidate(tenantIdentifier, key);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(region, tenantIdentifier, key);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+            @Override
+            public void afterCompletion(@SuppressWarnings("unused") final int status) {
+                listener.invalidate(tenantIdentifier, key);
+                publish(region, tenantIdentifier, key);
+            }
+        });
+    }
+
+    @Override
+    public void onInvalidation(final CacheInvalidationMessage message) {
+        if (this.nodeId.equals(message.getNodeId()) || !message.getCacheName().startsWith(REGION_PREFIX)) { return; }
+        if (!(message.getKey() instanceof String)) { return; }
+
+        final Listener listener = this.listeners.get(message.getCacheName().substring(REGION_PREFIX.length()));
+        if (listener == null) { return; }
+
+        final String tenantAndKey = (String) message.getKey();
+        final int separator = tenantAndKey.indexOf(KEY_SEPARATOR);
+        if (separator < 0) {
+            listener.invalidate(tenantAndKey, null);
+        } else {
+            listener.invalidate(tenantAndKey.substring(0, separator), tenantAndKey.substring(separator + 1));
+        }
+    }
+
+    /**
+     * Tells only the other nodes, for changes this node applied itself once
+     * their transaction committed.
+     */
+    public void publish(final String region, final String tenantIdentifier, final String key) {
+        if (!this.started.get()) { return; }
+
+        final String tenantAndKey = key == null ? tenantIdentifier : tenantIdentifier + KEY_SEPARATOR + key;
+        try {
+            this.transport.publish(CacheInvalidationMessage.evict(this.nodeId, REGION_PREFIX + region, tenantAndKey));
+        } catch (final RuntimeException e) {
+            // the change itself succeeded, other nodes keep the old values
+            // until they expire
+            logger.error("Could not publish invalidation of tenant cache " + region + " to the other nodes", e);
+        }
+    }
+}
@@ -25,8 +25,16 @@ public interface ConfigurationDomainService {
 
     boolean isEhcacheEnabled();
 
+    boolean isDistributedCacheEnabled();
+
     void updateCache(CacheType cacheType);
 
+    /**
+     * Drops the configuration held in memory for the current tenant, to be
+     * called whenever a global configuration property is changed.
+     */
+    void invalidateConfigurationSnapshot();
+
     Long retrievePenaltyWaitPeriod();
 
     boolean isPasswordForcedResetEnable();
@@ -47,4 +55,6 @@ public interface ConfigurationDomainService {
 
     boolean isMeetingMandatoryForJLGLoans();
 
+    boolean isIncrementalLoanSummaryUpdateEnabled();
+
 }
\ No newline at end of file
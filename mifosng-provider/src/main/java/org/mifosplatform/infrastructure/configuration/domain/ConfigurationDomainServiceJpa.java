@@ -9,6 +9,8 @@ import org.apache.commons.lang.StringUtils;
 import org.mifosplatform.infrastructure.cache.domain.CacheType;
 import org.mifosplatform.infrastructure.cache.domain.PlatformCache;
 import org.mifosplatform.infrastructure.cache.domain.PlatformCacheRepository;
+import org.mifosplatform.infrastructure.cache.service.TenantCache;
+import org.mifosplatform.infrastructure.cache.service.TenantCacheInvalidator;
 import org.mifosplatform.useradministration.domain.Permission;
 import org.mifosplatform.useradministration.domain.PermissionRepository;
 import org.mifosplatform.useradministration.exception.PermissionNotFoundException;
@@ -16,19 +18,31 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Serves the global configuration and the cache type from an immutable
+ * snapshot per tenant, so lookups on the command paths do not go to the
+ * database. A snapshot is loaded on first use and replaced as a whole, and it
+ * is dropped on all nodes whenever the configuration of the tenant changes.
+ */
 @Service
 public class ConfigurationDomainServiceJpa implements ConfigurationDomainService {
 
+    private static final String SNAPSHOT = "snapshot";
+    private static final long SNAPSHOT_TIME_TO_LIVE_MILLIS = 5 * 60 * 1000L;
+
     private final PermissionRepository permissionRepository;
     private final GlobalConfigurationRepositoryWrapper globalConfigurationRepository;
     private final PlatformCacheRepository cacheTypeRepository;
+    private final TenantCache<String, GlobalConfigurationSnapshot> snapshots;
 
     @Autowired
     public ConfigurationDomainServiceJpa(final PermissionRepository permissionRepository,
-            final GlobalConfigurationRepositoryWrapper globalConfigurationRepository, final PlatformCacheRepository cacheTypeRepository) {
+            final GlobalConfigurationRepositoryWrapper globalConfigurationRepository, final PlatformCacheRepository cacheTypeRepository,
+            final TenantCacheInvalidator tenantCacheInvalidator) {
         this.permissionRepository = permissionRepository;
         this.globalConfigurationRepository = globalConfigurationRepository;
         this.cacheTypeRepository = cacheTypeRepository;
+        this.snapshots = tenantCacheInvalidator.newCache("configuration", SNAPSHOT_TIME_TO_LIVE_MILLIS);
     }
 
     @Override
@@ -39,23 +53,18 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
         if (thisTask == null) { throw new PermissionNotFoundException(taskPermissionCode); }
 
         final String makerCheckerConfigurationProperty = "maker-checker";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository
-                .findOneByNameWithNotFoundDetection(makerCheckerConfigurationProperty);
-
-        return thisTask.hasMakerCheckerEnabled() && property.isEnabled();
+        return thisTask.hasMakerCheckerEnabled() && snapshot().isEnabled(makerCheckerConfigurationProperty);
     }
 
     @Override
     public boolean isAmazonS3Enabled() {
-        return this.globalConfigurationRepository.findOneByNameWithNotFoundDetection("amazon-S3").isEnabled();
+        return snapshot().isEnabled("amazon-S3");
     }
 
     @Override
     public boolean isRescheduleFutureRepaymentsEnabled() {
         final String rescheduleRepaymentsConfigurationProperty = "reschedule-future-repayments";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository
-                .findOneByNameWithNotFoundDetection(rescheduleRepaymentsConfigurationProperty);
-        return property.isEnabled();
+        return snapshot().isEnabled(rescheduleRepaymentsConfigurationProperty);
     }
 
     /*
@@ -67,36 +76,35 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     @Override
     public boolean isRescheduleRepaymentsOnHolidaysEnabled() {
         final String holidaysConfigurationProperty = "reschedule-repayments-on-holidays";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository
-                .findOneByNameWithNotFoundDetection(holidaysConfigurationProperty);
-        return property.isEnabled();
+        return snapshot().isEnabled(holidaysConfigurationProperty);
     }
 
     @Override
     public boolean allowTransactionsOnHolidayEnabled() {
         final String allowTransactionsOnHolidayProperty = "allow-transactions-on-holiday";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository
-                .findOneByNameWithNotFoundDetection(allowTransactionsOnHolidayProperty);
-        return property.isEnabled();
+        return snapshot().isEnabled(allowTransactionsOnHolidayProperty);
     }
 
     @Override
     public boolean allowTransactionsOnNonWorkingDayEnabled() {
         final String propertyName = "allow-transactions-on-non_workingday";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
-        return property.isEnabled();
+        return snapshot().isEnabled(propertyName);
     }
 
     @Override
     public boolean isConstraintApproachEnabledForDatatables() {
         final String propertyName = "constraint_approach_for_datatables";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
-        return property.isEnabled();
+        return snapshot().isEnabled(propertyName);
     }
 
     @Override
     public boolean isEhcacheEnabled() {
-        return this.cacheTypeRepository.findOne(Long.valueOf(1)).isEhcacheEnabled();
+        return snapshot().isEhcacheEnabled();
+    }
+
+    @Override
+    public boolean isDistributedCacheEnabled() {
+        return snapshot().isDistributedCacheEnabled();
     }
 
     @Transactional
@@ -105,79 +113,96 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
         final PlatformCache cache = this.cacheTypeRepository.findOne(Long.valueOf(1));
         cache.update(cacheType);
         this.cacheTypeRepository.save(cache);
+        invalidateConfigurationSnapshot();
+    }
+
+    @Override
+    public void invalidateConfigurationSnapshot() {
+        this.snapshots.invalidate();
+    }
+
+    private GlobalConfigurationSnapshot snapshot() {
+        return this.snapshots.get(SNAPSHOT, new TenantCache.Loader<GlobalConfigurationSnapshot>() {
+
+            @Override
+            public GlobalConfigurationSnapshot load() {
+                final PlatformCache cache = ConfigurationDomainServiceJpa.this.cacheTypeRepository.findOne(Long.valueOf(1));
+                return new GlobalConfigurationSnapshot(ConfigurationDomainServiceJpa.this.globalConfigurationRepository.findAll(),
+                        cache.isEhcacheEnabled(), cache.isDistributedCacheEnabled());
+            }
+        });
     }
 
     @Override
     public Long retrievePenaltyWaitPeriod() {
         final String propertyName = "penalty-wait-period";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
-        return property.getValue();
+        return snapshot().getValue(propertyName);
     }
 
     @Override
     public Long retrieveGraceOnPenaltyPostingPeriod() {
         final String propertyName = "grace-on-penalty-posting";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
-        return property.getValue();
+        return snapshot().getValue(propertyName);
     }
 
     @Override
     public boolean isPasswordForcedResetEnable() {
         final String propertyName = "force-password-reset-days";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
-        return property.isEnabled();
+        return snapshot().isEnabled(propertyName);
     }
 
     @Override
     public Long retrievePasswordLiveTime() {
         final String propertyName = "force-password-reset-days";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
-        return property.getValue();
+        return snapshot().getValue(propertyName);
     }
 
     @Override
     public Long retrieveOpeningBalancesContraAccount() {
         final String propertyName = "office-opening-balances-contra-account";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
-        return property.getValue();
+        return snapshot().getValue(propertyName);
     }
 
     @Override
     public boolean isSavingsInterestPostingAtCurrentPeriodEnd() {
         final String propertyName = "savings-interest-posting-current-period-end";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
-        return property.isEnabled();
+        return snapshot().isEnabled(propertyName);
     }
 
     @Override
     public Integer retrieveFinancialYearBeginningMonth() {
         final String propertyName = "financial-year-beginning-month";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
-        if (property.isEnabled()) return property.getValue().intValue();
+        final GlobalConfigurationSnapshot snapshot = snapshot();
+        if (snapshot.isEnabled(propertyName)) return snapshot.getValue(propertyName).intValue();
         return 1;
     }
 
     @Override
     public Integer retrieveMinAllowedClientsInGroup() {
         final String propertyName = "min-clients-in-group";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
-        if (property.isEnabled()) { return property.getValue().intValue(); }
+        final GlobalConfigurationSnapshot snapshot = snapshot();
+        if (snapshot.isEnabled(propertyName)) { return snapshot.getValue(propertyName).intValue(); }
         return null;
     }
 
     @Override
     public Integer retrieveMaxAllowedClientsInGroup() {
         final String propertyName = "max-clients-in-group";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
-        if (property.isEnabled()) { return property.getValue().intValue(); }
+        final GlobalConfigurationSnapshot snapshot = snapshot();
+        if (snapshot.isEnabled(propertyName)) { return snapshot.getValue(propertyName).intValue(); }
         return null;
     }
 
     @Override
     public boolean isMeetingMandatoryForJLGLoans() {
         final String propertyName = "meetings-mandatory-for-jlg-loans";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
-        return property.isEnabled();
+        return snapshot().isEnabled(propertyName);
+    }
+
+    @Override
+    public boolean isIncrementalLoanSummaryUpdateEnabled() {
+        final String propertyName = "incremental-loan-summary-update";
+        return snapshot().isEnabled(propertyName);
     }
 
-}
\ No newline at end of file
+}
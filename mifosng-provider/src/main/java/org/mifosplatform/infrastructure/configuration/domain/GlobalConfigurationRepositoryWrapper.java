@@ -5,6 +5,8 @@
  */
 package org.mifosplatform.infrastructure.configuration.domain;
 
+import java.util.List;
+
 import org.mifosplatform.infrastructure.configuration.exception.GlobalConfigurationPropertyNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -37,6 +39,10 @@ public class GlobalConfigurationRepositoryWrapper {
         return property;
     }
 
+    public List<GlobalConfigurationProperty> findAll() {
+        return this.repository.findAll();
+    }
+
     public void save(final GlobalConfigurationProperty globalConfigurationProperty) {
         this.repository.save(globalConfigurationProperty);
     }
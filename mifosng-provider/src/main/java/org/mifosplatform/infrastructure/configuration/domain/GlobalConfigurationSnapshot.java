@@ -0,0 +1,68 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.configuration.domain;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.mifosplatform.infrastructure.configuration.exception.GlobalConfigurationPropertyNotFoundException;
+
+/**
+ * Immutable copy of the global configuration of a tenant and of its cache
+ * type, which {@link ConfigurationDomainServiceJpa} serves instead of reading
+ * the properties on every lookup.
+ */
+final class GlobalConfigurationSnapshot {
+
+    private final Map<String, PropertyValue> properties;
+    private final boolean ehcacheEnabled;
+    private final boolean distributedCacheEnabled;
+
+    GlobalConfigurationSnapshot(final Collection<GlobalConfigurationProperty> properties, final boolean ehcacheEnabled,
+            final boolean distributedCacheEnabled) {
+        final Map<String, PropertyValue> propertiesByName = new HashMap<>(properties.size() * 2);
+        for (final GlobalConfigurationProperty property : properties) {
+            propertiesByName.put(property.getName(), new PropertyValue(property.isEnabled(), property.getValue()));
+        }
+        this.properties = propertiesByName;
+        this.ehcacheEnabled = ehcacheEnabled;
+        this.distributedCacheEnabled = distributedCacheEnabled;
+    }
+
+    boolean isEnabled(final String propertyName) {
+        return property(propertyName).enabled;
+    }
+
+    Long getValue(final String propertyName) {
+        return property(propertyName).value;
+    }
+
+    boolean isEhcacheEnabled() {
+        return this.ehcacheEnabled;
+    }
+
+    boolean isDistributedCacheEnabled() {
+        return this.distributedCacheEnabled;
+    }
+
+    private PropertyValue property(final String propertyName) {
+        final PropertyValue property = this.properties.get(propertyName);
+        if (property == null) { throw new GlobalConfigurationPropertyNotFoundException(propertyName); }
+        return property;
+    }
+
+    private static final class PropertyValue {
+
+        private final boolean enabled;
+        private final Long value;
+
+        PropertyValue(final boolean enabled, final Long value) {
+            this.enabled = enabled;
+            this.value = value;
+        }
+    }
+}
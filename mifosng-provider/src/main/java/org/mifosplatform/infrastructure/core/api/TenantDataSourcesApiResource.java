@@ -0,0 +1,119 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.api;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+
+import org.apache.commons.lang.StringUtils;
+import org.mifosplatform.infrastructure.core.data.TenantDataSourceData;
+import org.mifosplatform.infrastructure.core.exception.UnrecognizedQueryParamException;
+import org.mifosplatform.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
+import org.mifosplatform.infrastructure.core.serialization.DefaultToApiJsonSerializer;
+import org.mifosplatform.infrastructure.core.service.TomcatJdbcDataSourcePerTenantService;
+import org.mifosplatform.infrastructure.security.exception.NoAuthorizationException;
+import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the per tenant connection pools held by
+ * {@link TomcatJdbcDataSourcePerTenantService} and allows pools of deleted or
+ * idle tenants to be closed.
+ */
+@Path("/datasources")
+@Consumes({ MediaType.APPLICATION_JSON })
+@Produces({ MediaType.APPLICATION_JSON })
+@Component
+@Scope("singleton")
+public class TenantDataSourcesApiResource {
+
+    private static final String COMMAND = "command";
+    private static final String COMMAND_EVICT = "evict";
+    private static final String COMMAND_EVICT_IDLE = "evictIdle";
+
+    private final Set<String> RESPONSE_DATA_PARAMETERS = new HashSet<>(Arrays.asList("tenantId", "tenantIdentifier", "poolName",
+            "size", "active", "idle", "maxActive", "waitCount", "lastAccessed", "replicaPoolName", "replicaActive", "replicaLagSeconds"));
+    private final String resourceNameForPermissions = "DATASOURCE";
+
+    private final PlatformSecurityContext context;
+    private final TomcatJdbcDataSourcePerTenantService dataSourcePerTenantService;
+    private final DefaultToApiJsonSerializer<TenantDataSourceData> toApiJsonSerializer;
+    private final ApiRequestParameterHelper apiRequestParameterHelper;
+
+    @Autowired
+    public TenantDataSourcesApiResource(final PlatformSecurityContext context,
+            final TomcatJdbcDataSourcePerTenantService dataSourcePerTenantService,
+            final DefaultToApiJsonSerializer<TenantDataSourceData> toApiJsonSerializer,
+            final ApiRequestParameterHelper apiRequestParameterHelper) {
+        this.context = context;
+        this.dataSourcePerTenantService = dataSourcePerTenantService;
+        this.toApiJsonSerializer = toApiJsonSerializer;
+        this.apiRequestParameterHelper = apiRequestParameterHelper;
+    }
+
+    @GET
+    public String retrieveAll(@Context final UriInfo uriInfo) {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+
+        final Collection<TenantDataSourceData> dataSources = this.dataSourcePerTenantService.retrieveDataSourceStatistics();
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.toApiJsonSerializer.serialize(settings, dataSources, this.RESPONSE_DATA_PARAMETERS);
+    }
+
+    @POST
+    public Response evictIdle(@QueryParam(COMMAND) final String commandParam, @QueryParam("idleMinutes") final Long idleMinutes) {
+
+        validateHasEvictPermission();
+
+        if (!is(commandParam, COMMAND_EVICT_IDLE)) { throw new UnrecognizedQueryParamException(COMMAND, commandParam); }
+        if (idleMinutes == null || idleMinutes < 0) { throw new UnrecognizedQueryParamException("idleMinutes", String.valueOf(idleMinutes)); }
+
+        this.dataSourcePerTenantService.evictIdleDataSources(idleMinutes * 60 * 1000);
+        return Response.status(202).build();
+    }
+
+    @POST
+    @Path("{tenantId}")
+    public Response evict(@PathParam("tenantId") final Long tenantId, @QueryParam(COMMAND) final String commandParam) {
+
+        validateHasEvictPermission();
+
+        if (!is(commandParam, COMMAND_EVICT)) { throw new UnrecognizedQueryParamException(COMMAND, commandParam); }
+
+        final boolean evicted = this.dataSourcePerTenantService.evictDataSource(tenantId);
+        return Response.status(evicted ? 202 : 404).build();
+    }
+
+    private void validateHasEvictPermission() {
+        final boolean hasNotPermission = this.context.authenticatedUser().hasNotPermissionForAnyOf("ALL_FUNCTIONS", "EVICT_DATASOURCE");
+        if (hasNotPermission) {
+            final String authorizationMessage = "User has no authority to evict tenant datasources";
+            throw new NoAuthorizationException(authorizationMessage);
+        }
+    }
+
+    private boolean is(final String commandParam, final String commandValue) {
+        return StringUtils.isNotBlank(commandParam) && commandParam.trim().equalsIgnoreCase(commandValue);
+    }
+}
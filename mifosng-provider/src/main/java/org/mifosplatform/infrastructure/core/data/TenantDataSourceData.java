@@ -0,0 +1,56 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.data;
+
+import java.util.Date;
+
+/**
+ * Immutable data object representing the state of a tenant's connection pool.
+ */
+public class TenantDataSourceData {
+
+    @SuppressWarnings("unused")
+    private final Long tenantId;
+    @SuppressWarnings("unused")
+    private final String tenantIdentifier;
+    @SuppressWarnings("unused")
+    private final String poolName;
+    @SuppressWarnings("unused")
+    private final int size;
+    @SuppressWarnings("unused")
+    private final int active;
+    @SuppressWarnings("unused")
+    private final int idle;
+    @SuppressWarnings("unused")
+    private final int maxActive;
+    @SuppressWarnings("unused")
+    private final int waitCount;
+    @SuppressWarnings("unused")
+    private final Date lastAccessed;
+    @SuppressWarnings("unused")
+    private final String replicaPoolName;
+    @SuppressWarnings("unused")
+    private final Integer replicaActive;
+    @SuppressWarnings("unused")
+    private final Long replicaLagSeconds;
+
+    public TenantDataSourceData(final Long tenantId, final String tenantIdentifier, final String poolName, final int size,
+            final int active, final int idle, final int maxActive, final int waitCount, final Date lastAccessed,
+            final String replicaPoolName, final Integer replicaActive, final Long replicaLagSeconds) {
+        this.tenantId = tenantId;
+        this.tenantIdentifier = tenantIdentifier;
+        this.poolName = poolName;
+        this.size = size;
+        this.active = active;
+        this.idle = idle;
+        this.maxActive = maxActive;
+        this.waitCount = waitCount;
+        this.lastAccessed = lastAccessed;
+        this.replicaPoolName = replicaPoolName;
+        this.replicaActive = replicaActive;
+        this.replicaLagSeconds = replicaLagSeconds;
+    }
+}
@@ -32,6 +32,10 @@ public class MifosPlatformTenant {
     private final int minEvictableIdleTimeMillis;
     private final int maxRetriesOnDeadlock;
     private final int maxIntervalBetweenRetries;
+    private final String replicaSchemaServer;
+    private final String replicaSchemaServerPort;
+    private final int replicaMaxLagSeconds;
+    private final int replicaReportMaxLagSeconds;
 
     public MifosPlatformTenant(final Long id, final String tenantIdentifier, final String name, final String schemaName,
             final String schemaServer, final String schemaServerPort, final String schemaUsername, final String schemaPassword,
@@ -39,7 +43,8 @@ public class MifosPlatformTenant {
             final long validationInterval, final boolean removeAbandoned, final int removeAbandonedTimeout, final boolean logAbandoned,
             final int abandonWhenPercentageFull, final int maxActive, final int minIdle, final int maxIdle, final int suspectTimeout,
             final int timeBetweenEvictionRunsMillis, final int minEvictableIdleTimeMillis, final int maxRetriesOnDeadlock,
-            final int maxIntervalBetweenRetries) {
+            final int maxIntervalBetweenRetries, final String replicaSchemaServer, final String replicaSchemaServerPort,
+            final int replicaMaxLagSeconds, final int replicaReportMaxLagSeconds) {
         this.id = id;
         this.tenantIdentifier = tenantIdentifier;
         this.name = name;
@@ -65,6 +70,10 @@ public class MifosPlatformTenant {
         this.minEvictableIdleTimeMillis = minEvictableIdleTimeMillis;
         this.maxIntervalBetweenRetries = maxIntervalBetweenRetries;
         this.maxRetriesOnDeadlock = maxRetriesOnDeadlock;
+        this.replicaSchemaServer = replicaSchemaServer;
+        this.replicaSchemaServerPort = replicaSchemaServerPort;
+        this.replicaMaxLagSeconds = replicaMaxLagSeconds;
+        this.replicaReportMaxLagSeconds = replicaReportMaxLagSeconds;
     }
 
     public String databaseURL() {
@@ -73,6 +82,22 @@ public class MifosPlatformTenant {
         return url;
     }
 
+    /**
+     * Whether a replica of the tenant database is configured that reads may
+     * be routed to; it is accessed with the credentials of the tenant
+     * database.
+     */
+    public boolean hasReplica() {
+        return this.replicaSchemaServer != null && !this.replicaSchemaServer.trim().isEmpty();
+    }
+
+    public String replicaDatabaseURL() {
+        final String port = this.replicaSchemaServerPort == null ? this.schemaServerPort : this.replicaSchemaServerPort;
+        final String url = new StringBuilder("jdbc:mysql://").append(this.replicaSchemaServer.trim()).append(':').append(port)
+                .append('/').append(this.schemaName).toString();
+        return url;
+    }
+
     public int getMaxActive() {
         return this.maxActive;
     }
@@ -165,4 +190,17 @@ public class MifosPlatformTenant {
         return maxIntervalBetweenRetries;
     }
 
-}
\ No newline at end of file
+    /**
+     * Replication lag up to which the replica serves ordinary reads.
+     */
+    public int getReplicaMaxLagSeconds() {
+        return this.replicaMaxLagSeconds;
+    }
+
+    /**
+     * Replication lag up to which the replica serves reports.
+     */
+    public int getReplicaReportMaxLagSeconds() {
+        return this.replicaReportMaxLagSeconds;
+    }
+}
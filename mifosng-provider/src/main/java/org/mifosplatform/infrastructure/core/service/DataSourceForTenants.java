@@ -5,6 +5,8 @@
  */
 package org.mifosplatform.infrastructure.core.service;
 
+import java.sql.SQLException;
+
 import javax.sql.DataSource;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,4 +31,14 @@ public class DataSourceForTenants implements RoutingDataSourceService {
         return this.tenantDataSource;
     }
 
+    @Override
+    public DataSource retrieveReplicaDataSource(@SuppressWarnings("unused") final ReplicaReadPolicy policy) {
+        return null;
+    }
+
+    @Override
+    public void replicaFailed(@SuppressWarnings("unused") final SQLException e) {
+        //
+    }
+
 }
@@ -0,0 +1,92 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+import java.nio.charset.Charset;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.google.common.io.BaseEncoding;
+
+/**
+ * Opaque position in a keyset paginated list: the sort value and id of the
+ * last row returned, plus the total number of rows counted on the first page
+ * so that following pages do not need to count again.
+ */
+final class PageCursor {
+
+    static final String FIRST_PAGE = "*";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final char SEPARATOR = '|';
+
+    private final Integer totalFilteredRecords;
+    private final Long lastId;
+    private final String lastSortValue;
+
+    public static PageCursor first() {
+        return new PageCursor(null, null, null);
+    }
+
+    public static PageCursor after(final Integer totalFilteredRecords, final Long lastId, final String lastSortValue) {
+        return new PageCursor(totalFilteredRecords, lastId, lastSortValue);
+    }
+
+    /**
+     * @return null if the token is not a valid cursor
+     */
+    public static PageCursor decode(final String token) {
+        if (FIRST_PAGE.equals(token)) { return first(); }
+        try {
+            final String decoded = new String(BaseEncoding.base64Url().omitPadding().decode(token), UTF_8);
+            final int totalEnd = decoded.indexOf(SEPARATOR);
+            final int idEnd = decoded.indexOf(SEPARATOR, totalEnd + 1);
+            if (totalEnd < 0 || idEnd < 0) { return null; }
+
+            final String total = decoded.substring(0, totalEnd);
+            final Long lastId = Long.valueOf(decoded.substring(totalEnd + 1, idEnd));
+            final String lastSortValue = idEnd + 1 < decoded.length() ? decoded.substring(idEnd + 1) : null;
+            return new PageCursor(StringUtils.isEmpty(total) ? null : Integer.valueOf(total), lastId, lastSortValue);
+        } catch (final IllegalArgumentException e) {
+            // covers malformed base64 and numbers
+            return null;
+        }
+    }
+
+    private PageCursor(final Integer totalFilteredRecords, final Long lastId, final String lastSortValue) {
+        this.totalFilteredRecords = totalFilteredRecords;
+        this.lastId = lastId;
+        this.lastSortValue = lastSortValue;
+    }
+
+    public String encode() {
+        final StringBuilder value = new StringBuilder();
+        if (this.totalFilteredRecords != null) {
+            value.append(this.totalFilteredRecords);
+        }
+        value.append(SEPARATOR).append(this.lastId).append(SEPARATOR);
+        if (this.lastSortValue != null) {
+            value.append(this.lastSortValue);
+        }
+        return BaseEncoding.base64Url().omitPadding().encode(value.toString().getBytes(UTF_8));
+    }
+
+    public boolean isFirstPage() {
+        return this.lastId == null;
+    }
+
+    public Integer getTotalFilteredRecords() {
+        return this.totalFilteredRecords;
+    }
+
+    public Long getLastId() {
+        return this.lastId;
+    }
+
+    public String getLastSortValue() {
+        return this.lastSortValue;
+    }
+}
@@ -5,13 +5,22 @@
  */
 package org.mifosplatform.infrastructure.core.service;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
+import org.mifosplatform.infrastructure.core.exception.UnrecognizedQueryParamException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 
 public class PaginationHelper<E> {
 
+    private static final String KEYSET_SORT_VALUE_COLUMN = "keysetSortValue";
+    private static final String KEYSET_ID_COLUMN = "keysetId";
+
     public Page<E> fetchPage(final JdbcTemplate jt, final String sqlCountRows, final String sqlFetchRows, final Object args[],
             final RowMapper<E> rowMapper) {
 
@@ -23,4 +32,167 @@ public class PaginationHelper<E> {
 
         return new Page<>(items, totalFilteredRecords);
     }
-}
\ No newline at end of file
+
+    /**
+     * Fetches the page of rows requested by the paging options of
+     * <code>searchParameters</code>.
+     *
+     * Without a cursor this is the usual limit/offset pagination. With a
+     * cursor, rows are sought from the last row of the previous page on the
+     * <code>sortColumns</code> entry named by <code>orderBy</code> followed by
+     * <code>idColumn</code>, which keeps deep pages as cheap as the first one.
+     * Sort columns must not be nullable. Rows are only counted when requested,
+     * and in keyset mode only on the first page; the count is handed on to the
+     * following pages through the cursor.
+     *
+     * @param sqlSchema
+     *            select list, from and where clauses without the leading
+     *            <code>select</code>
+     * @param sortColumns
+     *            columns keyset pages can be ordered by, keyed by the
+     *            <code>orderBy</code> value of the API
+     */
+    public Page<E> fetchPage(final JdbcTemplate jt, final String sqlSchema, final Object args[], final SearchParameters searchParameters,
+            final Map<String, String> sortColumns, final String idColumn, final RowMapper<E> rowMapper) {
+
+        if (!searchParameters.isKeysetPaged()) { return fetchOffsetPage(jt, sqlSchema, args, searchParameters, rowMapper); }
+
+        final PageCursor cursor = PageCursor.decode(searchParameters.getCursor());
+        if (cursor == null) { throw new UnrecognizedQueryParamException("cursor", searchParameters.getCursor()); }
+
+        String sortColumn = null;
+        if (searchParameters.isOrderByRequested()) {
+            sortColumn = sortColumns.get(searchParameters.getOrderBy());
+            if (sortColumn == null) { throw new UnrecognizedQueryParamException("orderBy", searchParameters.getOrderBy(),
+                    sortColumns.keySet().toArray()); }
+            if (sortColumn.equals(idColumn)) {
+                sortColumn = null;
+            }
+        }
+        final boolean descending = searchParameters.isSortOrderProvided() && "desc".equalsIgnoreCase(searchParameters.getSortOrder());
+        final boolean countRows = searchParameters.isCountRequested() && cursor.isFirstPage();
+
+        final StringBuilder sqlBuilder = new StringBuilder(sqlSchema.length() + 200);
+        sqlBuilder.append("select ");
+        if (countRows) {
+            sqlBuilder.append("SQL_CALC_FOUND_ROWS ");
+        }
+        if (sortColumn != null) {
+            sqlBuilder.append(sortColumn).append(" as ").append(KEYSET_SORT_VALUE_COLUMN).append(", ");
+        }
+        sqlBuilder.append(idColumn).append(" as ").append(KEYSET_ID_COLUMN).append(", ");
+        sqlBuilder.append(sqlSchema);
+
+        final List<Object> keysetArgs = new ArrayList<>(Arrays.asList(args));
+        if (!cursor.isFirstPage()) {
+            final String comparison = descending ? " < " : " > ";
+            if (sortColumn == null) {
+                sqlBuilder.append(" and ").append(idColumn).append(comparison).append('?');
+            } else {
+                final String lastSortValue = cursor.getLastSortValue() == null ? "" : cursor.getLastSortValue();
+                sqlBuilder.append(" and (").append(sortColumn).append(comparison).append("? or (").append(sortColumn).append(" = ? and ")
+                        .append(idColumn).append(comparison).append("?))");
+                keysetArgs.add(lastSortValue);
+                keysetArgs.add(lastSortValue);
+            }
+            keysetArgs.add(cursor.getLastId());
+        }
+
+        final String direction = descending ? " desc" : " asc";
+        sqlBuilder.append(" order by ");
+        if (sortColumn != null) {
+            sqlBuilder.append(sortColumn).append(direction).append(", ");
+        }
+        sqlBuilder.append(idColumn).append(direction);
+
+        final Integer limit = searchParameters.isLimited() ? searchParameters.getLimit() : null;
+        if (limit != null) {
+            // one extra row tells whether there is a next page
+            sqlBuilder.append(" limit ").append(limit + 1);
+        }
+
+        final KeysetRowMapper<E> keysetRowMapper = new KeysetRowMapper<>(rowMapper, sortColumn != null, limit);
+        final List<E> items = jt.query(sqlBuilder.toString(), keysetArgs.toArray(), keysetRowMapper);
+
+        Integer totalFilteredRecords = cursor.getTotalFilteredRecords();
+        if (countRows) {
+            @SuppressWarnings("deprecation")
+            final int foundRows = jt.queryForInt("SELECT FOUND_ROWS()");
+            totalFilteredRecords = foundRows;
+        }
+
+        String nextCursor = null;
+        if (limit != null && items.size() > limit) {
+            items.remove(items.size() - 1);
+            nextCursor = PageCursor.after(totalFilteredRecords, keysetRowMapper.getLastId(), keysetRowMapper.getLastSortValue()).encode();
+        }
+
+        return new Page<>(items, totalFilteredRecords, nextCursor);
+    }
+
+    private Page<E> fetchOffsetPage(final JdbcTemplate jt, final String sqlSchema, final Object args[],
+            final SearchParameters searchParameters, final RowMapper<E> rowMapper) {
+
+        final StringBuilder sqlBuilder = new StringBuilder(sqlSchema.length() + 100);
+        sqlBuilder.append("select ");
+        if (searchParameters.isCountRequested()) {
+            sqlBuilder.append("SQL_CALC_FOUND_ROWS ");
+        }
+        sqlBuilder.append(sqlSchema);
+
+        if (searchParameters.isOrderByRequested()) {
+            sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
+
+            if (searchParameters.isSortOrderProvided()) {
+                sqlBuilder.append(' ').append(searchParameters.getSortOrder());
+            }
+        }
+
+        if (searchParameters.isLimited()) {
+            sqlBuilder.append(" limit ").append(searchParameters.getLimit());
+            if (searchParameters.isOffset()) {
+                sqlBuilder.append(" offset ").append(searchParameters.getOffset());
+            }
+        }
+
+        if (searchParameters.isCountRequested()) { return fetchPage(jt, "SELECT FOUND_ROWS()", sqlBuilder.toString(), args, rowMapper); }
+
+        final List<E> items = jt.query(sqlBuilder.toString(), args, rowMapper);
+        return new Page<>(items, null, null);
+    }
+
+    /**
+     * Remembers the keyset columns of the last row of the requested page.
+     */
+    private static final class KeysetRowMapper<E> implements RowMapper<E> {
+
+        private final RowMapper<E> rowMapper;
+        private final boolean hasSortColumn;
+        private final Integer limit;
+        private Long lastId;
+        private String lastSortValue;
+
+        KeysetRowMapper(final RowMapper<E> rowMapper, final boolean hasSortColumn, final Integer limit) {
+            this.rowMapper = rowMapper;
+            this.hasSortColumn = hasSortColumn;
+            this.limit = limit;
+        }
+
+        @Override
+        public E mapRow(final ResultSet rs, final int rowNum) throws SQLException {
+            if (this.limit != null && rowNum == this.limit - 1) {
+                this.lastId = rs.getLong(KEYSET_ID_COLUMN);
+                this.lastSortValue = this.hasSortColumn ? rs.getString(KEYSET_SORT_VALUE_COLUMN) : null;
+            }
+            return this.rowMapper.mapRow(rs, rowNum);
+        }
+
+        Long getLastId() {
+            return this.lastId;
+        }
+
+        String getLastSortValue() {
+            return this.lastSortValue;
+        }
+    }
+}
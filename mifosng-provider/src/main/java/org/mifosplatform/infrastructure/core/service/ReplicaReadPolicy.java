@@ -0,0 +1,31 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+/**
+ * How stale the data read by the current thread may be, deciding whether
+ * {@link RoutingDataSource} hands out connections to the replica of the tenant
+ * database.
+ */
+public enum ReplicaReadPolicy {
+
+    /**
+     * Reads and writes go to the tenant database.
+     */
+    PRIMARY_ONLY,
+
+    /**
+     * Reads go to the replica while it lags by no more than the replica max
+     * lag of the tenant, unless the user made changes within that time.
+     */
+    RECENT,
+
+    /**
+     * Reads go to the replica while it lags by no more than the replica
+     * report max lag of the tenant.
+     */
+    REPORT;
+}
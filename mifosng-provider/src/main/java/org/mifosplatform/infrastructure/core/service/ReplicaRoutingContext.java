@@ -0,0 +1,54 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * The {@link ReplicaReadPolicy} of the work done by the current thread, kept in
+ * a {@link ThreadLocal} stack so that nested scopes, such as a read write
+ * transaction started while processing a read only request, take precedence
+ * over the enclosing ones until they end.
+ * 
+ * Without any scope the thread reads from the tenant database.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Deque<ReplicaReadPolicy>> policies = new ThreadLocal<>();
+
+    public static ReplicaReadPolicy current() {
+        final Deque<ReplicaReadPolicy> scopes = policies.get();
+        if (scopes == null || scopes.isEmpty()) { return ReplicaReadPolicy.PRIMARY_ONLY; }
+        return scopes.peek();
+    }
+
+    /**
+     * Starts a scope with the given policy; every call must be paired with a
+     * call to {@link #pop()} in a finally block.
+     */
+    public static void push(final ReplicaReadPolicy policy) {
+        Deque<ReplicaReadPolicy> scopes = policies.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            policies.set(scopes);
+        }
+        scopes.push(policy);
+    }
+
+    public static void pop() {
+        final Deque<ReplicaReadPolicy> scopes = policies.get();
+        if (scopes == null) { return; }
+        scopes.poll();
+        if (scopes.isEmpty()) {
+            policies.remove();
+        }
+    }
+
+    private ReplicaRoutingContext() {
+        //
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * {@link JpaTransactionManager} that keeps read write transactions on the
+ * tenant database, also when started while processing a request whose reads
+ * go to the replica, and lets read only transactions read from wherever the
+ * work they are part of reads from.
+ * 
+ * Read only transactions are not routed to the replica on their own, as
+ * Spring Data repositories load in read only transactions also the entities
+ * that are changed afterwards.
+ * 
+ * The policy is set before the transaction begins, as that is when its
+ * connection is obtained, and the commits of read write transactions are
+ * passed to the {@link TomcatJdbcDataSourcePerTenantService} so that the
+ * user reads the changes back from the tenant database.
+ */
+public class ReplicaRoutingJpaTransactionManager extends JpaTransactionManager {
+
+    private TomcatJdbcDataSourcePerTenantService dataSourcePerTenantService;
+
+    public void setDataSourcePerTenantService(final TomcatJdbcDataSourcePerTenantService dataSourcePerTenantService) {
+        this.dataSourcePerTenantService = dataSourcePerTenantService;
+    }
+
+    @Override
+    protected void doBegin(final Object transaction, final TransactionDefinition definition) {
+        ReplicaRoutingContext.push(policyOf(definition));
+        try {
+            super.doBegin(transaction, definition);
+        } catch (final RuntimeException | Error e) {
+            ReplicaRoutingContext.pop();
+            throw e;
+        }
+    }
+
+    @Override
+    protected void doCommit(final DefaultTransactionStatus status) {
+        super.doCommit(status);
+        if (!status.isReadOnly() && this.dataSourcePerTenantService != null) {
+            this.dataSourcePerTenantService.writeCommitted();
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(final Object transaction) {
+        try {
+            super.doCleanupAfterCompletion(transaction);
+        } finally {
+            ReplicaRoutingContext.pop();
+        }
+    }
+
+    private static ReplicaReadPolicy policyOf(final TransactionDefinition definition) {
+        return definition.isReadOnly() ? ReplicaRoutingContext.current() : ReplicaReadPolicy.PRIMARY_ONLY;
+    }
+}
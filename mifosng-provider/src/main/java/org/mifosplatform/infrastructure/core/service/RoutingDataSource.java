@@ -10,6 +10,7 @@ import java.sql.SQLException;
 
 import javax.sql.DataSource;
 
+import org.mifosplatform.infrastructure.metrics.service.RequestTimings;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.datasource.AbstractDataSource;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
@@ -24,6 +25,14 @@ import org.springframework.stereotype.Service;
  * 
  * The {@link RoutingDataSourceService} is responsible for returning the
  * appropriate {@link DataSource} for the tenant of this request.
+ * 
+ * Reads of the thread may go to the replica of the tenant database, as
+ * decided by the {@link ReplicaReadPolicy} in its
+ * {@link ReplicaRoutingContext}; if no connection to the replica can be
+ * obtained, the connection is taken from the tenant database instead.
+ * 
+ * The time taken to obtain connections from the pool is added to the
+ * {@link RequestTimings} of the request.
  */
 @Service(value = "routingDataSource")
 public class RoutingDataSource extends AbstractDataSource {
@@ -33,7 +42,21 @@ public class RoutingDataSource extends AbstractDataSource {
 
     @Override
     public Connection getConnection() throws SQLException {
-        return determineTargetDataSource().getConnection();
+        final RoutingDataSourceService dataSourceService = this.dataSourceServiceFactory.determineDataSourceService();
+        final long start = System.nanoTime();
+        try {
+            final DataSource replica = dataSourceService.retrieveReplicaDataSource(ReplicaRoutingContext.current());
+            if (replica != null) {
+                try {
+                    return replica.getConnection();
+                } catch (final SQLException e) {
+                    dataSourceService.replicaFailed(e);
+                }
+            }
+            return dataSourceService.retrieveDataSource().getConnection();
+        } finally {
+            RequestTimings.addPoolWaitTime(System.nanoTime() - start);
+        }
     }
 
     private DataSource determineTargetDataSource() {
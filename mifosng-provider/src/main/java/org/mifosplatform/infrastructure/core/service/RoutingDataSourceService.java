@@ -5,6 +5,8 @@
  */
 package org.mifosplatform.infrastructure.core.service;
 
+import java.sql.SQLException;
+
 import javax.sql.DataSource;
 
 /**
@@ -14,4 +16,16 @@ import javax.sql.DataSource;
 public interface RoutingDataSourceService {
 
     DataSource retrieveDataSource();
+
+    /**
+     * The replica to read from under the given policy, or null if reads are to
+     * go to the {@link #retrieveDataSource()} data source.
+     */
+    DataSource retrieveReplicaDataSource(ReplicaReadPolicy policy);
+
+    /**
+     * Stops routing reads to the replica until it is found healthy again,
+     * after obtaining a connection to it failed.
+     */
+    void replicaFailed(SQLException e);
 }
\ No newline at end of file
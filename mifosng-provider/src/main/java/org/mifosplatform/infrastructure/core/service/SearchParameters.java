@@ -28,6 +28,9 @@ public final class SearchParameters {
 
     private final Long savingsId;
 
+    private final String cursor;
+    private final boolean countRequested;
+
     public static SearchParameters from(final String sqlSearch, final Long officeId, final String externalId, final String name,
             final String hierarchy) {
         final Long staffId = null;
@@ -35,12 +38,12 @@ public final class SearchParameters {
         final Long loanId = null;
         final Long savingsId = null;
         return new SearchParameters(sqlSearch, officeId, externalId, name, hierarchy, null, null, null, null, null, null, staffId,
-                accountNo, loanId, savingsId);
+                accountNo, loanId, savingsId, null, true);
     }
 
     public static SearchParameters forClients(final String sqlSearch, final Long officeId, final String externalId,
             final String displayName, final String firstname, final String lastname, final String hierarchy, final Integer offset,
-            final Integer limit, final String orderBy, final String sortOrder) {
+            final Integer limit, final String orderBy, final String sortOrder, final String cursor, final boolean countRequested) {
 
         final Integer maxLimitAllowed = getCheckedLimit(limit);
         final Long staffId = null;
@@ -49,7 +52,7 @@ public final class SearchParameters {
         final Long savingsId = null;
 
         return new SearchParameters(sqlSearch, officeId, externalId, displayName, hierarchy, firstname, lastname, offset, maxLimitAllowed,
-                orderBy, sortOrder, staffId, accountNo, loanId, savingsId);
+                orderBy, sortOrder, staffId, accountNo, loanId, savingsId, cursor, countRequested);
     }
 
     public static SearchParameters forGroups(final String sqlSearch, final Long officeId, final Long staffId, final String externalId,
@@ -62,7 +65,7 @@ public final class SearchParameters {
         final Long savingsId = null;
 
         return new SearchParameters(sqlSearch, officeId, externalId, name, hierarchy, null, null, offset, maxLimitAllowed, orderBy,
-                sortOrder, staffId, accountNo, loanId, savingsId);
+                sortOrder, staffId, accountNo, loanId, savingsId, null, true);
     }
     
     public static SearchParameters forVillages(final String sqlSearch, final Long officeId, final String externalId, final String name, 
@@ -71,15 +74,16 @@ public final class SearchParameters {
         final Integer maxLimitAllowed = getCheckedLimit(limit);
         
         return new SearchParameters(sqlSearch,officeId, externalId, name, null, null, null, offset, maxLimitAllowed, orderBy, sortOrder, null,
-                null, null, null);
+                null, null, null, null, true);
     }
 
     public static SearchParameters forOffices(final String orderBy, final String sortOrder) {
-        return new SearchParameters(null, null, null, null, null, null, null, null, null, orderBy, sortOrder, null, null, null, null);
+        return new SearchParameters(null, null, null, null, null, null, null, null, null, orderBy, sortOrder, null, null, null, null,
+                null, true);
     }
 
     public static SearchParameters forLoans(final String sqlSearch, final String externalId, final Integer offset, final Integer limit,
-            final String orderBy, final String sortOrder, final String accountNo) {
+            final String orderBy, final String sortOrder, final String accountNo, final String cursor, final boolean countRequested) {
 
         final Integer maxLimitAllowed = getCheckedLimit(limit);
         final Long staffId = null;
@@ -87,7 +91,7 @@ public final class SearchParameters {
         final Long savingsId = null;
 
         return new SearchParameters(sqlSearch, null, externalId, null, null, null, null, offset, maxLimitAllowed, orderBy, sortOrder,
-                staffId, accountNo, loanId, savingsId);
+                staffId, accountNo, loanId, savingsId, cursor, countRequested);
     }
 
     public static SearchParameters forJournalEntries(final Long officeId, final Integer offset, final Integer limit, final String orderBy,
@@ -97,7 +101,7 @@ public final class SearchParameters {
         final Long staffId = null;
 
         return new SearchParameters(null, officeId, null, null, null, null, null, offset, maxLimitAllowed, orderBy, sortOrder, staffId,
-                null, loanId, savingsId);
+                null, loanId, savingsId, null, true);
     }
 
     public static SearchParameters forPagination(final Integer offset, final Integer limit, final String orderBy, final String sortOrder) {
@@ -108,11 +112,11 @@ public final class SearchParameters {
         final Long savingsId = null;
 
         return new SearchParameters(null, null, null, null, null, null, null, offset, maxLimitAllowed, orderBy, sortOrder, staffId, null,
-                loanId, savingsId);
+                loanId, savingsId, null, true);
     }
 
     public static SearchParameters forSavings(final String sqlSearch, final String externalId, final Integer offset, final Integer limit,
-            final String orderBy, final String sortOrder) {
+            final String orderBy, final String sortOrder, final String cursor, final boolean countRequested) {
 
         final Integer maxLimitAllowed = getCheckedLimit(limit);
         final Long staffId = null;
@@ -121,7 +125,7 @@ public final class SearchParameters {
         final Long savingsId = null;
 
         return new SearchParameters(sqlSearch, null, externalId, null, null, null, null, offset, maxLimitAllowed, orderBy, sortOrder,
-                staffId, accountNo, loanId, savingsId);
+                staffId, accountNo, loanId, savingsId, cursor, countRequested);
     }
 
     public static SearchParameters forAccountTransfer(final String sqlSearch, final String externalId, final Integer offset,
@@ -134,13 +138,13 @@ public final class SearchParameters {
         final Long savingsId = null;
 
         return new SearchParameters(sqlSearch, null, externalId, null, null, null, null, offset, maxLimitAllowed, orderBy, sortOrder,
-                staffId, accountNo, loanId, savingsId);
+                staffId, accountNo, loanId, savingsId, null, true);
     }
 
     private SearchParameters(final String sqlSearch, final Long officeId, final String externalId, final String name,
             final String hierarchy, final String firstname, final String lastname, final Integer offset, final Integer limit,
             final String orderBy, final String sortOrder, final Long staffId, final String accountNo, final Long loanId,
-            final Long savingsId) {
+            final Long savingsId, final String cursor, final boolean countRequested) {
         this.sqlSearch = sqlSearch;
         this.officeId = officeId;
         this.externalId = externalId;
@@ -156,6 +160,8 @@ public final class SearchParameters {
         this.accountNo = accountNo;
         this.loanId = loanId;
         this.savingsId = savingsId;
+        this.cursor = cursor;
+        this.countRequested = countRequested;
     }
 
     public boolean isOrderByRequested() {
@@ -194,6 +200,10 @@ public final class SearchParameters {
         return this.offset != null;
     }
 
+    public boolean isKeysetPaged() {
+        return StringUtils.isNotBlank(this.cursor);
+    }
+
     public boolean isScopedByOfficeHierarchy() {
         return StringUtils.isNotBlank(this.hierarchy);
     }
@@ -269,4 +279,12 @@ public final class SearchParameters {
     public Long getSavingsId() {
         return this.savingsId;
     }
-}
\ No newline at end of file
+
+    public String getCursor() {
+        return this.cursor;
+    }
+
+    public boolean isCountRequested() {
+        return this.countRequested;
+    }
+}
@@ -5,16 +5,41 @@
  */
 package org.mifosplatform.infrastructure.core.service;
 
-import java.util.HashMap;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.sql.DataSource;
 
+import org.apache.tomcat.jdbc.pool.ConnectionPool;
 import org.apache.tomcat.jdbc.pool.PoolConfiguration;
 import org.apache.tomcat.jdbc.pool.PoolProperties;
+import org.mifosplatform.infrastructure.cache.service.TenantCacheInvalidator;
+import org.mifosplatform.infrastructure.core.data.TenantDataSourceData;
 import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.metrics.service.StatementTimingInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 /**
@@ -24,16 +49,64 @@ import org.springframework.stereotype.Service;
  * 
  * {@link ThreadLocalContextUtil} is used to retrieve the
  * {@link MifosPlatformTenant} for the request.
+ * 
+ * Pools are created once per tenant and kept in a concurrent registry so that
+ * looking up an existing pool never blocks; only the creation of a new pool is
+ * serialized. Evicted pools are closed once no connection is being borrowed
+ * from them, as tomcat would reopen a closed pool outside of the registry;
+ * the data sources handed out borrow from the pools replacing them instead.
+ * 
+ * Tenants with a replica configured get a second pool to the replica, which
+ * serves reads according to the {@link ReplicaReadPolicy} of the thread. The
+ * replication lag of every replica is probed with
+ * <code>SHOW SLAVE STATUS</code>, which needs the REPLICATION CLIENT privilege
+ * for the tenant user on the replica; a replica whose lag is unknown, or which
+ * failed to hand out a connection since the last probe, serves no reads.
+ * Users read from the tenant database for as long as the replica may lag
+ * behind their last change. Their changes are passed on to the other nodes
+ * through the {@link TenantCacheInvalidator} while the multi node cache is in
+ * use; otherwise a user whose requests are balanced across nodes may read
+ * from a replica on another node before it has their change.
  */
 @Service
 public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceService {
 
-    private final Map<Long, DataSource> tenantToDataSourceMap = new HashMap<>(1);
+    private final static Logger logger = LoggerFactory.getLogger(TomcatJdbcDataSourcePerTenantService.class);
+
+    private static final long REPLICA_PROBE_INTERVAL_SECONDS = 5;
+    private static final long WRITE_PUBLISH_INTERVAL_MILLIS = 1000;
+    private static final String WRITE_REGION = "replicawrites";
+
+    private final ConcurrentMap<Long, TenantDataSource> tenantToDataSourceMap = new ConcurrentHashMap<>();
+    private final Object dataSourceCreationLock = new Object();
     private final DataSource tenantDataSource;
+    private final TenantCacheInvalidator tenantCacheInvalidator;
+    private final ScheduledExecutorService replicaProbeExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory(
+            "ReplicaLagProbe-"));
 
     @Autowired
-    public TomcatJdbcDataSourcePerTenantService(final @Qualifier("tenantDataSourceJndi") DataSource tenantDataSource) {
+    public TomcatJdbcDataSourcePerTenantService(final @Qualifier("tenantDataSourceJndi") DataSource tenantDataSource,
+            final TenantCacheInvalidator tenantCacheInvalidator) {
         this.tenantDataSource = tenantDataSource;
+        this.tenantCacheInvalidator = tenantCacheInvalidator;
+        this.tenantCacheInvalidator.register(WRITE_REGION, new TenantCacheInvalidator.Listener() {
+
+            @Override
+            public void invalidate(final String tenantIdentifier, final String username) {
+                writeCommittedOnOtherNode(tenantIdentifier, username);
+            }
+        });
+    }
+
+    @PostConstruct
+    public void startReplicaProbes() {
+        this.replicaProbeExecutor.scheduleWithFixedDelay(new Runnable() {
+
+            @Override
+            public void run() {
+                probeReplicas();
+            }
+        }, REPLICA_PROBE_INTERVAL_SECONDS, REPLICA_PROBE_INTERVAL_SECONDS, TimeUnit.SECONDS);
     }
 
     @Override
@@ -44,36 +117,159 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
 
         final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
         if (tenant != null) {
-            synchronized (this.tenantToDataSourceMap) {
-                // if tenant information available switch to appropriate
-                // datasource
-                // for that tenant.
-                if (this.tenantToDataSourceMap.containsKey(tenant.getId())) {
-                    tenantDataSource = this.tenantToDataSourceMap.get(tenant.getId());
-                } else {
-                    tenantDataSource = createNewDataSourceFor(tenant);
-                    this.tenantToDataSourceMap.put(tenant.getId(), tenantDataSource);
-                }
-            }
+            // if tenant information available switch to appropriate
+            // datasource for that tenant.
+            tenantDataSource = new TenantConnections(tenant, tenantDataSourceOf(tenant), false);
         }
 
         return tenantDataSource;
     }
 
-    private DataSource createNewDataSourceFor(final MifosPlatformTenant tenant) {
+    @Override
+    public DataSource retrieveReplicaDataSource(final ReplicaReadPolicy policy) {
+        if (policy == ReplicaReadPolicy.PRIMARY_ONLY) { return null; }
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (tenant == null || !tenant.hasReplica()) { return null; }
+        final TenantDataSource existing = tenantDataSourceOf(tenant);
+        if (existing.replicaFor(policy, currentUsername()) == null) { return null; }
+        return new TenantConnections(tenant, existing, true);
+    }
+
+    @Override
+    public void replicaFailed(final SQLException e) {
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (tenant == null) { return; }
+        final TenantDataSource existing = this.tenantToDataSourceMap.get(tenant.getId());
+        if (existing != null) {
+            existing.replicaFailed(e);
+        }
+    }
+
+    /**
+     * Records that the current user committed changes to the tenant
+     * database, so that their reads are not served by a replica that may not
+     * have them yet, on this node and on the other nodes.
+     */
+    public void writeCommitted() {
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (tenant == null || !tenant.hasReplica()) { return; }
+        final String username = currentUsername();
+        final TenantDataSource existing = this.tenantToDataSourceMap.get(tenant.getId());
+        if (username != null && existing != null && existing.writeCommitted(username)) {
+            this.tenantCacheInvalidator.publish(WRITE_REGION, tenant.getTenantIdentifier(), username);
+        }
+    }
+
+    private void writeCommittedOnOtherNode(final String tenantIdentifier, final String username) {
+        if (username == null) { return; }
+        for (final TenantDataSource candidate : this.tenantToDataSourceMap.values()) {
+            if (candidate.tenantIdentifier.equals(tenantIdentifier)) {
+                candidate.writeCommitted(username);
+            }
+        }
+    }
+
+    /**
+     * Closes and removes the pool of the given tenant, if one was created. A
+     * subsequent request for the tenant will create a fresh pool.
+     * 
+     * @return true if a pool existed for the tenant
+     */
+    public boolean evictDataSource(final Long tenantId) {
+        final TenantDataSource removed = this.tenantToDataSourceMap.remove(tenantId);
+        if (removed == null) { return false; }
+        if (removed.markClosed(true)) {
+            removed.close();
+        }
+        return true;
+    }
+
+    /**
+     * Closes the pools of all tenants that have not been accessed during the
+     * last <code>idleMillis</code> milliseconds and have no connections
+     * currently borrowed.
+     * 
+     * @return the number of pools evicted
+     */
+    public int evictIdleDataSources(final long idleMillis) {
+        final long idleSince = System.currentTimeMillis() - idleMillis;
+        int evicted = 0;
+        for (final Map.Entry<Long, TenantDataSource> entry : this.tenantToDataSourceMap.entrySet()) {
+            final TenantDataSource candidate = entry.getValue();
+            if (candidate.getLastAccessed() < idleSince && candidate.isUnused() && candidate.markClosed(false)) {
+                this.tenantToDataSourceMap.remove(entry.getKey(), candidate);
+                candidate.close();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public Collection<TenantDataSourceData> retrieveDataSourceStatistics() {
+        final Collection<TenantDataSourceData> statistics = new ArrayList<>(this.tenantToDataSourceMap.size());
+        for (final Map.Entry<Long, TenantDataSource> entry : this.tenantToDataSourceMap.entrySet()) {
+            statistics.add(entry.getValue().toData(entry.getKey()));
+        }
+        return statistics;
+    }
+
+    @PreDestroy
+    public void closeAllDataSources() {
+        this.replicaProbeExecutor.shutdownNow();
+        for (final Long tenantId : this.tenantToDataSourceMap.keySet()) {
+            evictDataSource(tenantId);
+        }
+    }
+
+    void probeReplicas() {
+        for (final TenantDataSource candidate : this.tenantToDataSourceMap.values()) {
+            candidate.probeReplica();
+        }
+    }
+
+    private TenantDataSource tenantDataSourceOf(final MifosPlatformTenant tenant) {
+        TenantDataSource existing = this.tenantToDataSourceMap.get(tenant.getId());
+        if (existing == null || existing.isClosed()) {
+            existing = createIfAbsent(tenant);
+        }
+        existing.markAccessed();
+        return existing;
+    }
+
+    private static String currentUsername() {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+
+    private TenantDataSource createIfAbsent(final MifosPlatformTenant tenant) {
+        synchronized (this.dataSourceCreationLock) {
+            TenantDataSource existing = this.tenantToDataSourceMap.get(tenant.getId());
+            if (existing == null || existing.isClosed()) {
+                final org.apache.tomcat.jdbc.pool.DataSource replicaDataSource = tenant.hasReplica() ? createNewDataSourceFor(tenant,
+                        tenant.replicaDatabaseURL(), tenant.getSchemaName() + "_replica_pool") : null;
+                existing = new TenantDataSource(tenant, createNewDataSourceFor(tenant, tenant.databaseURL(), tenant.getSchemaName()
+                        + "_pool"), replicaDataSource);
+                this.tenantToDataSourceMap.put(tenant.getId(), existing);
+            }
+            return existing;
+        }
+    }
+
+    private org.apache.tomcat.jdbc.pool.DataSource createNewDataSourceFor(final MifosPlatformTenant tenant, final String jdbcUrl,
+            final String poolName) {
         // see
         // http://www.tomcatexpert.com/blog/2010/04/01/configuring-jdbc-pool-high-concurrency
 
 	// see also org.mifosplatform.DataSourceProperties.setMifosDefaults()
 
-        final String jdbcUrl = tenant.databaseURL();
-
         final PoolConfiguration poolConfiguration = new PoolProperties();
         poolConfiguration.setDriverClassName("com.mysql.jdbc.Driver");
-        poolConfiguration.setName(tenant.getSchemaName() + "_pool");
+        poolConfiguration.setName(poolName);
         poolConfiguration.setUrl(jdbcUrl);
         poolConfiguration.setUsername(tenant.getSchemaUsername());
         poolConfiguration.setPassword(tenant.getSchemaPassword());
+        // lets the driver send prepared statement batches in a few round trips
+        poolConfiguration.setConnectionProperties("rewriteBatchedStatements=true");
 
         poolConfiguration.setInitialSize(tenant.getInitialSize());
 
@@ -99,8 +295,227 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
          poolConfiguration.setMinEvictableIdleTimeMillis(tenant.getMinEvictableIdleTimeMillis());
 
         poolConfiguration.setJdbcInterceptors("org.apache.tomcat.jdbc.pool.interceptor.ConnectionState;"
-                + "org.apache.tomcat.jdbc.pool.interceptor.StatementFinalizer;org.apache.tomcat.jdbc.pool.interceptor.SlowQueryReport");
+                + "org.apache.tomcat.jdbc.pool.interceptor.StatementFinalizer;org.apache.tomcat.jdbc.pool.interceptor.SlowQueryReport;"
+                + StatementTimingInterceptor.class.getName());
 
         return new org.apache.tomcat.jdbc.pool.DataSource(poolConfiguration);
     }
-}
\ No newline at end of file
+
+    /**
+     * Borrows the connections of a tenant from its pools as looked up, or from
+     * the pools replacing them once they were evicted.
+     */
+    private final class TenantConnections extends AbstractDataSource {
+
+        private final MifosPlatformTenant tenant;
+        private final TenantDataSource tenantDataSource;
+        private final boolean replica;
+
+        TenantConnections(final MifosPlatformTenant tenant, final TenantDataSource tenantDataSource, final boolean replica) {
+            this.tenant = tenant;
+            this.tenantDataSource = tenantDataSource;
+            this.replica = replica;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return getConnection(null, null);
+        }
+
+        @Override
+        public Connection getConnection(final String username, final String password) throws SQLException {
+            TenantDataSource current = this.tenantDataSource;
+            while (true) {
+                final Connection connection = current.borrowConnection(this.replica, username, password);
+                if (connection != null) { return connection; }
+                current = tenantDataSourceOf(this.tenant);
+            }
+        }
+    }
+
+    static final class TenantDataSource {
+
+        /** value of {@link #borrowing} once the pools are closed */
+        private static final int CLOSED = -1;
+
+        private final String tenantIdentifier;
+        private final org.apache.tomcat.jdbc.pool.DataSource dataSource;
+        private final org.apache.tomcat.jdbc.pool.DataSource replicaDataSource;
+        private final int replicaMaxLagSeconds;
+        private final int replicaReportMaxLagSeconds;
+        private final AtomicLong lastAccessed = new AtomicLong(System.currentTimeMillis());
+        /** negative while the lag is unknown or the replica failed */
+        private volatile long replicaLagSeconds = -1;
+        private final ConcurrentMap<String, Long> lastWriteOfUser = new ConcurrentHashMap<>();
+        /** number of connections being borrowed, or {@link #CLOSED} */
+        private final AtomicInteger borrowing = new AtomicInteger();
+
+        TenantDataSource(final MifosPlatformTenant tenant, final org.apache.tomcat.jdbc.pool.DataSource dataSource,
+                final org.apache.tomcat.jdbc.pool.DataSource replicaDataSource) {
+            this.tenantIdentifier = tenant.getTenantIdentifier();
+            this.dataSource = dataSource;
+            this.replicaDataSource = replicaDataSource;
+            this.replicaMaxLagSeconds = tenant.getReplicaMaxLagSeconds();
+            this.replicaReportMaxLagSeconds = tenant.getReplicaReportMaxLagSeconds();
+        }
+
+        /**
+         * @return a connection of the pool to the tenant database or to its
+         *         replica, or null once the pools are closed
+         */
+        Connection borrowConnection(final boolean replica, final String username, final String password) throws SQLException {
+            int current;
+            do {
+                current = this.borrowing.get();
+                if (current == CLOSED) { return null; }
+            } while (!this.borrowing.compareAndSet(current, current + 1));
+
+            try {
+                final org.apache.tomcat.jdbc.pool.DataSource pool = replica ? this.replicaDataSource : this.dataSource;
+                return username == null ? pool.getConnection() : pool.getConnection(username, password);
+            } finally {
+                this.borrowing.decrementAndGet();
+            }
+        }
+
+        /**
+         * Stops borrowing connections, so that the pools can be closed.
+         * 
+         * @param waitForBorrowing
+         *            whether to wait for the connections being borrowed
+         *            rather than to keep the pools open
+         * @return false if the pools are kept open or were closed already
+         */
+        boolean markClosed(final boolean waitForBorrowing) {
+            while (true) {
+                final int current = this.borrowing.get();
+                if (current == CLOSED) { return false; }
+                if (current == 0 && this.borrowing.compareAndSet(0, CLOSED)) { return true; }
+                if (current > 0 && !waitForBorrowing) { return false; }
+                Thread.yield();
+            }
+        }
+
+        boolean isClosed() {
+            return this.borrowing.get() == CLOSED;
+        }
+
+        org.apache.tomcat.jdbc.pool.DataSource replicaFor(final ReplicaReadPolicy policy, final String username) {
+            final long lag = this.replicaLagSeconds;
+            if (this.replicaDataSource == null || lag < 0) { return null; }
+            if (policy == ReplicaReadPolicy.REPORT) { return lag <= this.replicaReportMaxLagSeconds ? this.replicaDataSource : null; }
+            if (lag > this.replicaMaxLagSeconds || wroteRecently(username, System.currentTimeMillis())) { return null; }
+            return this.replicaDataSource;
+        }
+
+        /**
+         * @return whether the other nodes are to be told, which is at most
+         *         once per {@link #WRITE_PUBLISH_INTERVAL_MILLIS} for a user
+         */
+        boolean writeCommitted(final String username) {
+            if (this.replicaDataSource == null) { return false; }
+            final long now = System.currentTimeMillis();
+            final Long previousWrite = this.lastWriteOfUser.put(username, now);
+            return previousWrite == null || now - previousWrite >= WRITE_PUBLISH_INTERVAL_MILLIS;
+        }
+
+        void replicaFailed(final SQLException e) {
+            if (this.replicaLagSeconds >= 0) {
+                logger.warn("Reading from the tenant database of " + this.tenantIdentifier + " as its replica failed", e);
+            }
+            this.replicaLagSeconds = -1;
+        }
+
+        void probeReplica() {
+            if (this.replicaDataSource == null) { return; }
+
+            long lag;
+            try (Connection connection = borrowConnection(true, null, null)) {
+                if (connection == null) { return; }
+                lag = lagOf(connection);
+            } catch (final SQLException e) {
+                if (this.replicaLagSeconds >= 0) {
+                    logger.warn("Replica of tenant " + this.tenantIdentifier + " could not be probed", e);
+                }
+                lag = -1;
+            }
+
+            if (lag < 0 && this.replicaLagSeconds >= 0) {
+                logger.warn("Reading from the tenant database of " + this.tenantIdentifier + " until its replica is replicating again");
+            } else if (lag >= 0 && this.replicaLagSeconds < 0) {
+                logger.info("Reading from the replica of tenant " + this.tenantIdentifier + " lagging " + lag + " seconds");
+            }
+            this.replicaLagSeconds = lag;
+
+            final long now = System.currentTimeMillis();
+            for (final Map.Entry<String, Long> entry : this.lastWriteOfUser.entrySet()) {
+                if (!wroteRecently(entry.getKey(), now)) {
+                    this.lastWriteOfUser.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        private static long lagOf(final Connection connection) throws SQLException {
+            try (Statement statement = connection.createStatement(); ResultSet status = statement.executeQuery("SHOW SLAVE STATUS")) {
+                if (!status.next()) {
+                    // not replicating itself, such as a reader endpoint of a
+                    // cluster
+                    return 0;
+                }
+                final long secondsBehindMaster = status.getLong("Seconds_Behind_Master");
+                // null while replication is stopped
+                return status.wasNull() ? -1 : secondsBehindMaster;
+            }
+        }
+
+        /**
+         * Whether the user committed changes within the time the replica may
+         * lag, measured from the probe preceding the change.
+         */
+        private boolean wroteRecently(final String username, final long now) {
+            if (username == null) { return false; }
+            final Long lastWrite = this.lastWriteOfUser.get(username);
+            return lastWrite != null && now - lastWrite < (this.replicaMaxLagSeconds + REPLICA_PROBE_INTERVAL_SECONDS) * 1000;
+        }
+
+        boolean isUnused() {
+            return this.dataSource.getActive() == 0 && (this.replicaDataSource == null || this.replicaDataSource.getActive() == 0);
+        }
+
+        long getLastAccessed() {
+            return this.lastAccessed.get();
+        }
+
+        void markAccessed() {
+            // ordering with other threads is irrelevant here, avoid a full
+            // volatile write on every lookup
+            this.lastAccessed.lazySet(System.currentTimeMillis());
+        }
+
+        void close() {
+            close(this.dataSource);
+            if (this.replicaDataSource != null) {
+                close(this.replicaDataSource);
+            }
+        }
+
+        private void close(final org.apache.tomcat.jdbc.pool.DataSource pool) {
+            try {
+                pool.close();
+            } catch (final RuntimeException e) {
+                logger.warn("Failed to close connection pool " + pool.getName() + " for tenant " + this.tenantIdentifier, e);
+            }
+        }
+
+        TenantDataSourceData toData(final Long tenantId) {
+            final ConnectionPool pool = this.dataSource.getPool();
+            final int waitCount = pool == null ? 0 : pool.getWaitCount();
+            final String replicaPoolName = this.replicaDataSource == null ? null : this.replicaDataSource.getName();
+            final Integer replicaActive = this.replicaDataSource == null ? null : this.replicaDataSource.getActive();
+            final Long replicaLagSeconds = this.replicaDataSource == null ? null : this.replicaLagSeconds;
+            return new TenantDataSourceData(tenantId, this.tenantIdentifier, this.dataSource.getName(), this.dataSource.getSize(),
+                    this.dataSource.getActive(), this.dataSource.getIdle(), this.dataSource.getMaxActive(), waitCount, new Date(
+                            getLastAccessed()), replicaPoolName, replicaActive, replicaLagSeconds);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import org.apache.commons.lang.StringUtils;
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+/**
+ * Writes a resultset as CSV: a header line of quoted column names followed by
+ * one line per row, where numeric values are written as is and all other
+ * values are quoted.
+ */
+public class CsvGenericResultsetStreamHandler implements GenericResultsetStreamHandler {
+
+    private static final String doubleQuote = "\"";
+    private static final String twoDoubleQuotes = doubleQuote + doubleQuote;
+
+    private final Writer writer;
+    private List<ResultsetColumnHeaderData> columnHeaders;
+    private long rowCount = 0;
+
+    public CsvGenericResultsetStreamHandler(final Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void start(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+        this.columnHeaders = columnHeaders;
+        final int chSize = columnHeaders.size();
+        for (int i = 0; i < chSize; i++) {
+            this.writer.append('"' + columnHeaders.get(i).getColumnName() + '"');
+            if (i < (chSize - 1)) {
+                this.writer.append(",");
+            }
+        }
+        this.writer.append('\n');
+    }
+
+    @Override
+    public void row(final List<String> row) throws IOException {
+        final int rSize = row.size();
+        for (int j = 0; j < rSize; j++) {
+            final String currColType = this.columnHeaders.get(j).getColumnType();
+            final String currVal = row.get(j);
+            if (currVal != null) {
+                if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
+                        || currColType.equals("SMALLINT") || currColType.equals("INT")) {
+                    this.writer.append(currVal);
+                } else {
+                    this.writer.append('"' + StringUtils.replace(currVal, doubleQuote, twoDoubleQuotes) + '"');
+                }
+            }
+            if (j < (rSize - 1)) {
+                this.writer.append(",");
+            }
+        }
+        this.writer.append('\n');
+        this.rowCount++;
+    }
+
+    @Override
+    public void end() throws IOException {
+        this.writer.flush();
+    }
+
+    public long getRowCount() {
+        return this.rowCount;
+    }
+}
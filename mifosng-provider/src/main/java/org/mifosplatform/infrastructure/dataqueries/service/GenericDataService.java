@@ -14,6 +14,12 @@ public interface GenericDataService {
 
     GenericResultsetData fillGenericResultSet(final String sql);
 
+    /**
+     * Runs the query with a forward-only streaming cursor and passes each row
+     * to the handler as it is read, in constant memory.
+     */
+    void streamGenericResultSet(String sql, GenericResultsetStreamHandler handler);
+
     String generateJsonFromGenericResultsetData(GenericResultsetData grs);
 
     String replace(String str, String pattern, String replace);
@@ -0,0 +1,30 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+/**
+ * Receives the rows of a query one at a time from
+ * {@link GenericDataService#streamGenericResultSet(String, GenericResultsetStreamHandler)}
+ * , so that a resultset can be written out without ever holding it in memory.
+ */
+public interface GenericResultsetStreamHandler {
+
+    void start(List<ResultsetColumnHeaderData> columnHeaders) throws IOException;
+
+    /**
+     * @param row
+     *            the column values of the current row; the list is reused
+     *            for the next row and must not be kept.
+     */
+    void row(List<String> row) throws IOException;
+
+    void end() throws IOException;
+}
@@ -0,0 +1,102 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import org.apache.commons.lang.StringUtils;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+/**
+ * Writes a resultset as a JSON array with one object per row, keyed by column
+ * name (the <code>genericResultSet=false</code> representation).
+ */
+public class JsonGenericResultsetStreamHandler implements GenericResultsetStreamHandler {
+
+    private static final String doubleQuote = "\"";
+    private static final String slashDoubleQuote = "\\\"";
+
+    private final Writer writer;
+    private List<ResultsetColumnHeaderData> columnHeaders;
+    private long rowCount = 0;
+
+    public JsonGenericResultsetStreamHandler(final Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void start(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+        this.columnHeaders = columnHeaders;
+        this.writer.append("[");
+    }
+
+    @Override
+    public void row(final List<String> row) throws IOException {
+        if (this.rowCount > 0) {
+            this.writer.append(",");
+        }
+        this.writer.append("\n{");
+
+        final int rSize = row.size();
+        for (int j = 0; j < rSize; j++) {
+
+            this.writer.append(doubleQuote + this.columnHeaders.get(j).getColumnName() + doubleQuote + ": ");
+            String currColType = this.columnHeaders.get(j).getColumnDisplayType();
+            final String colType = this.columnHeaders.get(j).getColumnType();
+            if (currColType == null && colType.equalsIgnoreCase("INT")) {
+                currColType = "INTEGER";
+            }
+            if (currColType == null && colType.equalsIgnoreCase("VARCHAR")) {
+                currColType = "VARCHAR";
+            }
+            if (currColType == null && colType.equalsIgnoreCase("DATE")) {
+                currColType = "DATE";
+            }
+            final String currVal = row.get(j);
+            if (currVal != null && currColType != null) {
+                if (currColType.equals("DECIMAL") || currColType.equals("INTEGER")) {
+                    this.writer.append(currVal);
+                } else {
+                    if (currColType.equals("DATE")) {
+                        final LocalDate localDate = new LocalDate(currVal);
+                        this.writer.append("[" + localDate.getYear() + ", " + localDate.getMonthOfYear() + ", "
+                                + localDate.getDayOfMonth() + "]");
+                    } else if (currColType.equals("DATETIME")) {
+                        final LocalDateTime localDateTime = new LocalDateTime(currVal);
+                        this.writer.append("[" + localDateTime.getYear() + ", " + localDateTime.getMonthOfYear() + ", "
+                                + localDateTime.getDayOfMonth() + " " + localDateTime.getHourOfDay() + ", "
+                                + localDateTime.getMinuteOfHour() + ", " + localDateTime.getSecondOfMinute() + ", "
+                                + localDateTime.getMillisOfSecond() + "]");
+                    } else {
+                        this.writer.append(doubleQuote + StringUtils.replace(currVal, doubleQuote, slashDoubleQuote) + doubleQuote);
+                    }
+                }
+            } else {
+                this.writer.append("null");
+            }
+            if (j < (rSize - 1)) {
+                this.writer.append(",\n");
+            }
+        }
+
+        this.writer.append("}");
+        this.rowCount++;
+    }
+
+    @Override
+    public void end() throws IOException {
+        this.writer.append("\n]");
+        this.writer.flush();
+    }
+
+    public long getRowCount() {
+        return this.rowCount;
+    }
+}
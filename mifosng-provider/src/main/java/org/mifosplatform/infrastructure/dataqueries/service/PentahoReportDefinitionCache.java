@@ -0,0 +1,74 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.pentaho.reporting.engine.classic.core.DefaultReportEnvironment;
+import org.pentaho.reporting.engine.classic.core.MasterReport;
+import org.pentaho.reporting.libraries.resourceloader.ResourceException;
+import org.pentaho.reporting.libraries.resourceloader.ResourceManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Parsed Pentaho report definitions by the path of their <code>.prpt</code>
+ * file, parsed again once the file was modified.
+ * 
+ * The parsed definitions are never handed out; every report run gets a copy
+ * with its own parameter values and report environment, so that runs of the
+ * same report may proceed concurrently.
+ */
+@Component
+public class PentahoReportDefinitionCache {
+
+    private final ConcurrentMap<String, ParsedReport> reports = new ConcurrentHashMap<>();
+
+    public MasterReport retrieveReport(final String reportPath) throws ResourceException {
+        final File reportFile = new File(reportPath);
+        final long lastModified = reportFile.lastModified();
+        final long length = reportFile.length();
+
+        ParsedReport parsed = this.reports.get(reportPath);
+        if (parsed == null || !parsed.isOf(lastModified, length)) {
+            parsed = new ParsedReport(parse(reportPath), lastModified, length);
+            this.reports.put(reportPath, parsed);
+        }
+
+        final MasterReport report = (MasterReport) parsed.template.clone();
+        report.setReportEnvironment(new DefaultReportEnvironment(report.getConfiguration()));
+        return report;
+    }
+
+    private MasterReport parse(final String reportPath) throws ResourceException {
+        final ResourceManager manager = new ResourceManager();
+        manager.registerDefaults();
+        try {
+            return (MasterReport) manager.createDirectly(reportPath, MasterReport.class).getResource();
+        } catch (final ResourceException e) {
+            this.reports.remove(reportPath);
+            throw e;
+        }
+    }
+
+    private static final class ParsedReport {
+
+        private final MasterReport template;
+        private final long lastModified;
+        private final long length;
+
+        ParsedReport(final MasterReport template, final long lastModified, final long length) {
+            this.template = template;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        boolean isOf(final long fileLastModified, final long fileLength) {
+            return this.lastModified == fileLastModified && this.length == fileLength;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.mifosplatform.infrastructure.core.exception.PlatformServiceUnavailableException;
+import org.pentaho.reporting.engine.classic.core.MasterReport;
+import org.pentaho.reporting.engine.classic.core.ReportProcessingException;
+import org.pentaho.reporting.engine.classic.core.modules.output.pageable.pdf.PdfReportUtil;
+import org.pentaho.reporting.engine.classic.core.modules.output.table.csv.CSVReportUtil;
+import org.pentaho.reporting.engine.classic.core.modules.output.table.html.HtmlReportUtil;
+import org.pentaho.reporting.engine.classic.core.modules.output.table.xls.ExcelReportUtil;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Renders Pentaho reports on a fixed number of threads, so that concurrent
+ * report runs take turns instead of all competing for memory and CPU at once.
+ * 
+ * Runs beyond the number of threads wait in a bounded queue; once that is
+ * full, further runs are rejected so that clients try again later rather than
+ * piling up.
+ */
+@Component
+public class PentahoReportRenderer {
+
+    private static final int RENDER_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int QUEUED_RENDERS = RENDER_THREADS * 4;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ThreadPoolExecutor renderExecutor = new ThreadPoolExecutor(RENDER_THREADS, RENDER_THREADS, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(QUEUED_RENDERS), new CustomizableThreadFactory("PentahoReportRenderer-"));
+
+    @PreDestroy
+    public void shutdown() {
+        this.renderExecutor.shutdownNow();
+    }
+
+    /**
+     * Rejects the run of a report early, while the response can still carry
+     * the error, if it would have to wait in a full queue.
+     */
+    public void validateHasCapacity() {
+        if (this.renderExecutor.getQueue().remainingCapacity() == 0) { throw reportingBusy(); }
+    }
+
+    /**
+     * Renders the report to the stream on one of the render threads, waiting
+     * for it to finish.
+     * 
+     * @throws PlatformServiceUnavailableException
+     *             if the queue of reports waiting to be rendered is full
+     */
+    public void render(final MasterReport report, final String outputType, final OutputStream out) throws IOException,
+            ReportProcessingException {
+        final Future<Void> rendering;
+        try {
+            rendering = this.renderExecutor.submit(new Callable<Void>() {
+
+                @Override
+                public Void call() throws Exception {
+                    final OutputStream bufferedOut = new BufferedOutputStream(out, BUFFER_SIZE);
+                    write(report, outputType, bufferedOut);
+                    bufferedOut.flush();
+                    return null;
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            throw reportingBusy();
+        }
+
+        try {
+            rendering.get();
+        } catch (final InterruptedException e) {
+            rendering.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for report to be rendered", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) { throw (IOException) cause; }
+            if (cause instanceof ReportProcessingException) { throw (ReportProcessingException) cause; }
+            if (cause instanceof RuntimeException) { throw (RuntimeException) cause; }
+            if (cause instanceof Error) { throw (Error) cause; }
+            throw new ReportProcessingException("Failed to render report", cause);
+        }
+    }
+
+    private static void write(final MasterReport report, final String outputType, final OutputStream out) throws IOException,
+            ReportProcessingException {
+        if ("PDF".equalsIgnoreCase(outputType)) {
+            PdfReportUtil.createPDF(report, out);
+        } else if ("XLS".equalsIgnoreCase(outputType)) {
+            ExcelReportUtil.createXLS(report, out);
+        } else if ("CSV".equalsIgnoreCase(outputType)) {
+            CSVReportUtil.createCSV(report, out, "UTF-8");
+        } else {
+            HtmlReportUtil.createStreamHTML(report, out);
+        }
+    }
+
+    private static PlatformServiceUnavailableException reportingBusy() {
+        return new PlatformServiceUnavailableException("error.msg.reporting.busy",
+                "Too many reports are being rendered at the moment, try again later");
+    }
+}
@@ -5,13 +5,13 @@
  */
 package org.mifosplatform.infrastructure.dataqueries.service;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.ResultSet;
@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.Set;
 
 import javax.sql.DataSource;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
 
@@ -31,6 +32,9 @@ import org.apache.commons.lang.StringUtils;
 import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
 import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
 import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.mifosplatform.infrastructure.core.exception.PlatformServiceUnavailableException;
+import org.mifosplatform.infrastructure.core.exceptionmapper.PlatformDataIntegrityExceptionMapper;
+import org.mifosplatform.infrastructure.core.exceptionmapper.PlatformServiceUnavailableExceptionMapper;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.infrastructure.dataqueries.data.GenericResultsetData;
@@ -47,16 +51,10 @@ import org.pentaho.reporting.engine.classic.core.ClassicEngineBoot;
 import org.pentaho.reporting.engine.classic.core.DefaultReportEnvironment;
 import org.pentaho.reporting.engine.classic.core.MasterReport;
 import org.pentaho.reporting.engine.classic.core.ReportProcessingException;
-import org.pentaho.reporting.engine.classic.core.modules.output.pageable.pdf.PdfReportUtil;
-import org.pentaho.reporting.engine.classic.core.modules.output.table.csv.CSVReportUtil;
-import org.pentaho.reporting.engine.classic.core.modules.output.table.html.HtmlReportUtil;
-import org.pentaho.reporting.engine.classic.core.modules.output.table.xls.ExcelReportUtil;
 import org.pentaho.reporting.engine.classic.core.parameters.ParameterDefinitionEntry;
 import org.pentaho.reporting.engine.classic.core.parameters.ReportParameterDefinition;
 import org.pentaho.reporting.engine.classic.core.util.ReportParameterValues;
-import org.pentaho.reporting.libraries.resourceloader.Resource;
 import org.pentaho.reporting.libraries.resourceloader.ResourceException;
-import org.pentaho.reporting.libraries.resourceloader.ResourceManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -79,11 +77,14 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     private final DataSource dataSource;
     private final PlatformSecurityContext context;
     private final GenericDataService genericDataService;
+    private final PentahoReportDefinitionCache reportDefinitionCache;
+    private final PentahoReportRenderer reportRenderer;
     private boolean noPentaho = false;
 
     @Autowired
     public ReadReportingServiceImpl(final PlatformSecurityContext context, final RoutingDataSource dataSource,
-            final GenericDataService genericDataService) {
+            final GenericDataService genericDataService, final PentahoReportDefinitionCache reportDefinitionCache,
+            final PentahoReportRenderer reportRenderer) {
         // kick off pentaho reports server
         ClassicEngineBoot.getInstance().start();
         this.noPentaho = false;
@@ -92,87 +93,51 @@ public class ReadReportingServiceImpl implements ReadReportingService {
         this.dataSource = dataSource;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
         this.genericDataService = genericDataService;
+        this.reportDefinitionCache = reportDefinitionCache;
+        this.reportRenderer = reportRenderer;
     }
 
     @Override
     public StreamingOutput retrieveReportCSV(final String name, final String type, final Map<String, String> queryParams) {
 
+        final String sql = getSQLtoRun(name, type, queryParams);
+
         return new StreamingOutput() {
 
             @Override
-            public void write(final OutputStream out) {
-                try {
-
-                    final GenericResultsetData result = retrieveGenericResultset(name, type, queryParams);
-                    final StringBuffer sb = generateCsvFileBuffer(result);
-
-                    final InputStream in = new ByteArrayInputStream(sb.toString().getBytes("UTF-8"));
-
-                    final byte[] outputByte = new byte[4096];
-                    Integer readLen = in.read(outputByte, 0, 4096);
-
-                    while (readLen != -1) {
-                        out.write(outputByte, 0, readLen);
-                        readLen = in.read(outputByte, 0, 4096);
-                    }
-                    // in.close();
-                    // out.flush();
-                    // out.close();
-                } catch (final Exception e) {
-                    throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage());
-                }
+            public void write(final OutputStream out) throws IOException {
+                final long startTime = System.currentTimeMillis();
+                final Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+                final CsvGenericResultsetStreamHandler csvWriter = new CsvGenericResultsetStreamHandler(writer);
+                ReadReportingServiceImpl.this.genericDataService.streamGenericResultSet(sql, csvWriter);
+
+                final long elapsed = System.currentTimeMillis() - startTime;
+                logger.info("FINISHING CSV export: " + name + " - " + type + "  Rows: " + csvWriter.getRowCount() + "  Elapsed Time: "
+                        + elapsed);
             }
         };
 
     }
 
-    private StringBuffer generateCsvFileBuffer(final GenericResultsetData result) {
-        final StringBuffer writer = new StringBuffer();
+    @Override
+    public StreamingOutput retrieveReportJSON(final String name, final String type, final Map<String, String> queryParams) {
 
-        final List<ResultsetColumnHeaderData> columnHeaders = result.getColumnHeaders();
-        logger.info("NO. of Columns: " + columnHeaders.size());
-        final Integer chSize = columnHeaders.size();
-        for (int i = 0; i < chSize; i++) {
-            writer.append('"' + columnHeaders.get(i).getColumnName() + '"');
-            if (i < (chSize - 1)) {
-                writer.append(",");
-            }
-        }
-        writer.append('\n');
-
-        final List<ResultsetRowData> data = result.getData();
-        List<String> row;
-        Integer rSize;
-        // String currCol;
-        String currColType;
-        String currVal;
-        final String doubleQuote = "\"";
-        final String twoDoubleQuotes = doubleQuote + doubleQuote;
-        logger.info("NO. of Rows: " + data.size());
-        for (int i = 0; i < data.size(); i++) {
-            row = data.get(i).getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
-                // currCol = columnHeaders.get(j).getColumnName();
-                currColType = columnHeaders.get(j).getColumnType();
-                currVal = row.get(j);
-                if (currVal != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
-                            || currColType.equals("SMALLINT") || currColType.equals("INT")) {
-                        writer.append(currVal);
-                    } else {
-                        writer.append('"' + this.genericDataService.replace(currVal, doubleQuote, twoDoubleQuotes) + '"');
-                    }
+        final String sql = getSQLtoRun(name, type, queryParams);
 
-                }
-                if (j < (rSize - 1)) {
-                    writer.append(",");
-                }
-            }
-            writer.append('\n');
-        }
+        return new StreamingOutput() {
 
-        return writer;
+            @Override
+            public void write(final OutputStream out) throws IOException {
+                final long startTime = System.currentTimeMillis();
+                final Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+                final JsonGenericResultsetStreamHandler jsonWriter = new JsonGenericResultsetStreamHandler(writer);
+                ReadReportingServiceImpl.this.genericDataService.streamGenericResultSet(sql, jsonWriter);
+
+                final long elapsed = System.currentTimeMillis() - startTime;
+                logger.info("FINISHING JSON export: " + name + " - " + type + "  Rows: " + jsonWriter.getRowCount()
+                        + "  Elapsed Time: " + elapsed);
+            }
+        };
     }
 
     @Override
@@ -259,52 +224,48 @@ public class ReadReportingServiceImpl implements ReadReportingService {
                 + reportName + ".prpt";
         logger.info("Report path: " + reportPath);
 
-        // load report definition
-        final ResourceManager manager = new ResourceManager();
-        manager.registerDefaults();
-        Resource res;
+        this.reportRenderer.validateHasCapacity();
 
+        // load report definition
+        final MasterReport masterReport;
         try {
-            res = manager.createDirectly(reportPath, MasterReport.class);
-            final MasterReport masterReport = (MasterReport) res.getResource();
-            final DefaultReportEnvironment reportEnvironment = (DefaultReportEnvironment) masterReport.getReportEnvironment();
-            if (locale != null) {
-                reportEnvironment.setLocale(locale);
-            }
-            addParametersToReport(masterReport, queryParams);
+            masterReport = this.reportDefinitionCache.retrieveReport(reportPath);
+        } catch (final ResourceException e) {
+            throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
+        }
+        final DefaultReportEnvironment reportEnvironment = (DefaultReportEnvironment) masterReport.getReportEnvironment();
+        if (locale != null) {
+            reportEnvironment.setLocale(locale);
+        }
+        addParametersToReport(masterReport, queryParams);
 
-            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        // rendered straight into the response; errors can only be reported
+        // while nothing was written yet
+        final String renderedOutputType = outputType;
+        final StreamingOutput output = new StreamingOutput() {
 
-            if ("PDF".equalsIgnoreCase(outputType)) {
-                PdfReportUtil.createPDF(masterReport, baos);
-                return Response.ok().entity(baos.toByteArray()).type("application/pdf").build();
+            @Override
+            public void write(final OutputStream out) throws IOException {
+                try {
+                    ReadReportingServiceImpl.this.reportRenderer.render(masterReport, renderedOutputType, out);
+                } catch (final PlatformServiceUnavailableException e) {
+                    throw new WebApplicationException(new PlatformServiceUnavailableExceptionMapper().toResponse(e));
+                } catch (final ReportProcessingException e) {
+                    throw new WebApplicationException(new PlatformDataIntegrityExceptionMapper()
+                            .toResponse(new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage())));
+                }
             }
+        };
 
-            if ("XLS".equalsIgnoreCase(outputType)) {
-                ExcelReportUtil.createXLS(masterReport, baos);
-                return Response.ok().entity(baos.toByteArray()).type("application/vnd.ms-excel")
-                        .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".xls").build();
-            }
+        if ("PDF".equalsIgnoreCase(outputType)) { return Response.ok().entity(output).type("application/pdf").build(); }
 
-            if ("CSV".equalsIgnoreCase(outputType)) {
-                CSVReportUtil.createCSV(masterReport, baos, "UTF-8");
-                return Response.ok().entity(baos.toByteArray()).type("application/x-msdownload")
-                        .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".csv").build();
-            }
+        if ("XLS".equalsIgnoreCase(outputType)) { return Response.ok().entity(output).type("application/vnd.ms-excel")
+                .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".xls").build(); }
 
-            if ("HTML".equalsIgnoreCase(outputType)) {
-                HtmlReportUtil.createStreamHTML(masterReport, baos);
-                return Response.ok().entity(baos.toByteArray()).type("text/html").build();
-            }
-        } catch (final ResourceException e) {
-            throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
-        } catch (final ReportProcessingException e) {
-            throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
-        } catch (final IOException e) {
-            throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
-        }
+        if ("CSV".equalsIgnoreCase(outputType)) { return Response.ok().entity(output).type("application/x-msdownload")
+                .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".csv").build(); }
 
-        throw new PlatformDataIntegrityException("error.msg.invalid.outputType", "No matching Output Type: " + outputType);
+        return Response.ok().entity(output).type("text/html").build();
     }
 
     private void addParametersToReport(final MasterReport report, final Map<String, String> queryParams) {
@@ -5,7 +5,10 @@
  */
 package org.mifosplatform.infrastructure.documentmanagement.api;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Date;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -17,9 +20,14 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.commons.lang.StringUtils;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
@@ -31,13 +39,15 @@ import org.mifosplatform.infrastructure.documentmanagement.data.ImageData;
 import org.mifosplatform.infrastructure.documentmanagement.exception.InvalidEntityTypeForImageManagementException;
 import org.mifosplatform.infrastructure.documentmanagement.service.ImageReadPlatformService;
 import org.mifosplatform.infrastructure.documentmanagement.service.ImageWritePlatformService;
+import org.mifosplatform.infrastructure.documentmanagement.service.ResizedImageCache;
+import org.mifosplatform.infrastructure.documentmanagement.service.ResizedImageCache.ImageVariant;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.portfolio.client.data.ClientData;
+import org.mifosplatform.portfolio.client.exception.ImageNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
-import com.lowagie.text.pdf.codec.Base64;
 import com.sun.jersey.core.header.FormDataContentDisposition;
 import com.sun.jersey.multipart.FormDataBodyPart;
 import com.sun.jersey.multipart.FormDataParam;
@@ -51,14 +61,17 @@ public class ImagesApiResource {
     private final ImageReadPlatformService imageReadPlatformService;
     private final ImageWritePlatformService imageWritePlatformService;
     private final DefaultToApiJsonSerializer<ClientData> toApiJsonSerializer;
+    private final ResizedImageCache resizedImageCache;
 
     @Autowired
     public ImagesApiResource(final PlatformSecurityContext context, final ImageReadPlatformService readPlatformService,
-            final ImageWritePlatformService imageWritePlatformService, final DefaultToApiJsonSerializer<ClientData> toApiJsonSerializer) {
+            final ImageWritePlatformService imageWritePlatformService, final DefaultToApiJsonSerializer<ClientData> toApiJsonSerializer,
+            final ResizedImageCache resizedImageCache) {
         this.context = context;
         this.imageReadPlatformService = readPlatformService;
         this.imageWritePlatformService = imageWritePlatformService;
         this.toApiJsonSerializer = toApiJsonSerializer;
+        this.resizedImageCache = resizedImageCache;
     }
 
     /**
@@ -107,7 +120,7 @@ public class ImagesApiResource {
     @Produces({ MediaType.TEXT_PLAIN })
     public Response retrieveImage(@PathParam("entity") final String entityName, @PathParam("entityId") final Long entityId,
             @QueryParam("maxWidth") final Integer maxWidth, @QueryParam("maxHeight") final Integer maxHeight,
-            @QueryParam("output") final String output) {
+            @QueryParam("output") final String output, @Context final Request request) {
         validateEntityTypeforImage(entityName);
         if (ENTITY_TYPE_FOR_IMAGES.CLIENTS.toString().equalsIgnoreCase(entityName)) {
             this.context.authenticatedUser().validateHasReadPermission("CLIENTIMAGE");
@@ -116,7 +129,7 @@ public class ImagesApiResource {
         }
 
         if (output != null && (output.equals("octet") || output.equals("inline_octet"))) { return downloadClientImage(entityName, entityId,
-                maxWidth, maxHeight, output); }
+                maxWidth, maxHeight, output, request); }
 
         final ImageData imageData = this.imageReadPlatformService.retrieveImage(entityName, entityId);
 
@@ -128,8 +141,9 @@ public class ImagesApiResource {
             imageDataURISuffix = ContentRepositoryUtils.IMAGE_DATA_URI_SUFFIX.PNG.getValue();
         }
 
-        final String clientImageAsBase64Text = imageDataURISuffix + Base64.encodeBytes(imageData.getContentOfSize(maxWidth, maxHeight));
-        return Response.ok(clientImageAsBase64Text).build();
+        final ImageVariant variant = this.resizedImageCache.retrieveDataUriVariant(imageData, maxWidth, maxHeight, imageDataURISuffix);
+        if (variant == null) { throw new ImageNotFoundException(entityName, entityId); }
+        return cacheableResponse(request, variant).build();
     }
 
     @GET
@@ -137,7 +151,7 @@ public class ImagesApiResource {
     @Produces({ MediaType.APPLICATION_OCTET_STREAM })
     public Response downloadClientImage(@PathParam("entity") final String entityName, @PathParam("entityId") final Long entityId,
             @QueryParam("maxWidth") final Integer maxWidth, @QueryParam("maxHeight") final Integer maxHeight,
-            @QueryParam("output") String output) {
+            @QueryParam("output") String output, @Context final Request request) {
         validateEntityTypeforImage(entityName);
         if (ENTITY_TYPE_FOR_IMAGES.CLIENTS.toString().equalsIgnoreCase(entityName)) {
             this.context.authenticatedUser().validateHasReadPermission("CLIENTIMAGE");
@@ -146,18 +160,52 @@ public class ImagesApiResource {
         }
 
         final ImageData imageData = this.imageReadPlatformService.retrieveImage(entityName, entityId);
+        final ImageVariant variant = this.resizedImageCache.retrieveVariant(imageData, maxWidth, maxHeight);
+        if (variant == null) { throw new ImageNotFoundException(entityName, entityId); }
 
-        final ResponseBuilder response = Response.ok(imageData.getContentOfSize(maxWidth, maxHeight));
+        final ResponseBuilder response = cacheableResponse(request, variant);
         String dispositionType = "inline_octet".equals(output) ? "inline" : "attachment";
         response.header("Content-Disposition", dispositionType + "; filename=\"" + imageData.getEntityDisplayName()
                 + IMAGE_FILE_EXTENSION.JPEG + "\"");
 
         // TODO: Need a better way of determining image type
 
-        response.header("Content-Type", imageData.contentType());
+        response.header("Content-Type", variant.getContentType());
         return response.build();
     }
 
+    /**
+     * Response with the variant, or that the client has it already if its copy
+     * has the same etag. Clients are to check with every use, as images may be
+     * replaced any time.
+     */
+    private static ResponseBuilder cacheableResponse(final Request request, final ImageVariant variant) {
+        final EntityTag entityTag = variant.getEtag() == null ? null : new EntityTag(variant.getEtag());
+        // http dates are in whole seconds
+        final Date lastModified = variant.getLastModified() == 0 ? null : new Date(variant.getLastModified() / 1000 * 1000);
+
+        ResponseBuilder response = null;
+        if (entityTag != null && lastModified != null) {
+            response = request.evaluatePreconditions(lastModified, entityTag);
+        } else if (entityTag != null) {
+            response = request.evaluatePreconditions(entityTag);
+        }
+        if (response == null) {
+            response = Response.ok(new StreamingOutput() {
+
+                @Override
+                public void write(final OutputStream out) throws IOException {
+                    variant.writeTo(out);
+                }
+            }).header("Content-Length", variant.getLength());
+        }
+
+        final CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+        return response.tag(entityTag).lastModified(lastModified).cacheControl(cacheControl);
+    }
+
     /**
      * This method is added only for consistency with other URL patterns and for
      * maintaining consistency of usage of the HTTP "verb" at the client side
@@ -122,7 +122,9 @@ public class S3ContentRepository implements ContentRepository {
     @Override
     public ImageData fetchImage(final ImageData imageData) {
         final S3Object s3object = this.s3Client.getObject(new GetObjectRequest(this.s3BucketName, imageData.location()));
-        imageData.updateContent(s3object.getObjectContent());
+        final ObjectMetadata metadata = s3object.getObjectMetadata();
+        final long lastModified = metadata.getLastModified() == null ? 0 : metadata.getLastModified().getTime();
+        imageData.updateContent(s3object.getObjectContent(), lastModified, metadata.getETag());
         return imageData;
     }
 
@@ -9,6 +9,7 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -25,7 +26,6 @@ import org.mifosplatform.infrastructure.documentmanagement.domain.StorageType;
 
 public class ImageData {
 
-    @SuppressWarnings("unused")
     private final Long imageId;
     private final String location;
     private final Integer storageType;
@@ -34,6 +34,8 @@ public class ImageData {
     private File file;
     private ContentRepositoryUtils.IMAGE_FILE_EXTENSION fileExtension;
     private InputStream inputStream;
+    private long lastModified;
+    private String version;
 
     public ImageData(final Long imageId, final String location, final Integer storageType, final String entityDisplayName) {
         this.imageId = imageId;
@@ -69,6 +71,10 @@ public class ImageData {
             out.write(getContent());
             return;
         }
+        resizeImage(src, out, maxWidth, maxHeight);
+    }
+
+    private void resizeImage(BufferedImage src, OutputStream out, int maxWidth, int maxHeight) throws IOException {
         float widthRatio = (float) src.getWidth() / maxWidth;
         float heightRatio = (float) src.getHeight() / maxHeight;
         float scaleRatio = widthRatio > heightRatio ? widthRatio : heightRatio;
@@ -89,21 +95,19 @@ public class ImageData {
     }
 
     public byte[] getContentOfSize(Integer maxWidth, Integer maxHeight) {
-        if (maxWidth == null && maxHeight == null) { return getContent(); }
-        FileInputStream fis = null;
+        final byte[] content = getContent();
+        if (content == null || (maxWidth == null && maxHeight == null)) { return content; }
+        final int width = maxWidth != null ? maxWidth : Integer.MAX_VALUE;
+        final int height = maxHeight != null ? maxHeight : Integer.MAX_VALUE;
         try {
-            fis = new FileInputStream(this.file);
-            byte[] out = resizeImage(fis, maxWidth != null ? maxWidth : Integer.MAX_VALUE, maxHeight != null ? maxHeight
-                    : Integer.MAX_VALUE);
-            return out;
+            // content is read once, as a stream cannot be read again
+            final BufferedImage src = ImageIO.read(new ByteArrayInputStream(content));
+            if (src == null || (src.getWidth() <= width && src.getHeight() <= height)) { return content; }
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            resizeImage(src, out, width, height);
+            return out.toByteArray();
         } catch (IOException ex) {
             return null;
-        } finally {
-            if (fis != null) {
-                try {
-                    fis.close();
-                } catch (IOException ex) {}
-            }
         }
     }
 
@@ -121,11 +125,13 @@ public class ImageData {
         this.file = file;
         if (this.file != null) {
             setImageContentType(this.file.getName());
+            this.lastModified = this.file.lastModified();
+            this.version = this.lastModified + "-" + this.file.length();
         }
     }
 
     public String contentType() {
-        return ContentRepositoryUtils.IMAGE_MIME_TYPE.fromFileExtension(this.fileExtension).getValue();
+        return ContentRepositoryUtils.IMAGE_MIME_TYPE.fromFileExtension(fileExtension()).getValue();
     }
 
     public StorageType storageType() {
@@ -144,6 +150,66 @@ public class ImageData {
         this.inputStream = objectContent;
     }
 
+    /**
+     * Content read from a stream, such as of an object in a store, that may
+     * change while its location remains the same.
+     * 
+     * @param version
+     *            changes whenever the content does, such as an ETag
+     */
+    public void updateContent(final InputStream objectContent, final long lastModified, final String version) {
+        this.inputStream = objectContent;
+        this.lastModified = lastModified;
+        this.version = version;
+        if (this.location != null) {
+            setImageContentType(this.location);
+        }
+    }
+
+    /**
+     * Whether there is any content, without reading it.
+     */
+    public boolean hasContent() {
+        return this.inputStream != null || (this.file != null && this.file.isFile());
+    }
+
+    /**
+     * Releases the stream of content that turned out not to be needed.
+     */
+    public void discardContent() {
+        if (this.inputStream != null) {
+            try {
+                this.inputStream.close();
+            } catch (final IOException e) {
+                // nothing left to release
+            }
+        }
+    }
+
+    public Long imageId() {
+        return this.imageId;
+    }
+
+    /**
+     * The content itself when read from a file rather than a stream, to be
+     * sent without reading it into memory.
+     */
+    public File file() {
+        return this.inputStream == null ? this.file : null;
+    }
+
+    public long lastModified() {
+        return this.lastModified;
+    }
+
+    public String version() {
+        return this.version;
+    }
+
+    public ContentRepositoryUtils.IMAGE_FILE_EXTENSION fileExtension() {
+        return this.fileExtension != null ? this.fileExtension : ContentRepositoryUtils.IMAGE_FILE_EXTENSION.JPEG;
+    }
+
     public String getEntityDisplayName() {
         return this.entityDisplayName;
     }
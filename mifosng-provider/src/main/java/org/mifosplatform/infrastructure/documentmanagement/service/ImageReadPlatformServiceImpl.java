@@ -90,7 +90,7 @@ public class ImageReadPlatformServiceImpl implements ImageReadPlatformService {
             final ContentRepository contentRepository = this.contentRepositoryFactory.getRepository(imageData.storageType());
             final ImageData result = contentRepository.fetchImage(imageData);
 
-            if (result.getContent() == null) { throw new ImageNotFoundException(entityType, entityId); }
+            if (!result.hasContent()) { throw new ImageNotFoundException(entityType, entityId); }
 
             return result;
         } catch (final EmptyResultDataAccessException e) {
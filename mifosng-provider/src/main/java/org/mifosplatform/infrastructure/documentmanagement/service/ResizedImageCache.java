@@ -0,0 +1,349 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.documentmanagement.service;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.documentmanagement.contentrepository.FileSystemContentRepository;
+import org.mifosplatform.infrastructure.documentmanagement.data.ImageData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.lowagie.text.pdf.codec.Base64;
+
+/**
+ * Keeps the resized variants of client and staff images, so that an image is
+ * resized only the first time a size of it is asked for rather than on every
+ * request for it.
+ *
+ * Variants are kept on disk below <code>~/.mifosx/imagecache</code>, the most
+ * recently used ones up to {@link #MAX_DISK_BYTES}, and the small ones among
+ * them also in memory up to {@link #MAX_MEMORY_BYTES}. A variant is known by
+ * the version of the image it was made from, so a replaced image never gets
+ * the variants of the one it replaced; those are left for eviction.
+ */
+@Component
+public class ResizedImageCache {
+
+    private final static Logger logger = LoggerFactory.getLogger(ResizedImageCache.class);
+
+    private static final long MAX_DISK_BYTES = 512L * 1024 * 1024;
+    private static final long MAX_MEMORY_BYTES = 32L * 1024 * 1024;
+    private static final int MAX_MEMORY_ENTRY_BYTES = 256 * 1024;
+
+    private final File cacheDirectory = new File(FileSystemContentRepository.MIFOSX_BASE_DIR + File.separator + "imagecache");
+
+    /**
+     * relative path of every cached file to its length, least recently used
+     * first
+     */
+    private final LinkedHashMap<String, Long> diskEntries = new LinkedHashMap<>(256, 0.75f, true);
+    private long diskBytes;
+
+    /** content by tenant and etag, least recently used first */
+    private final LinkedHashMap<String, byte[]> memoryEntries = new LinkedHashMap<>(256, 0.75f, true);
+    private long memoryBytes;
+
+    @PostConstruct
+    public void loadDiskEntries() {
+        final List<File> files = new ArrayList<>();
+        listFiles(this.cacheDirectory, files);
+        final File[] byAge = files.toArray(new File[files.size()]);
+        Arrays.sort(byAge, new Comparator<File>() {
+
+            @Override
+            public int compare(final File first, final File second) {
+                return Long.compare(first.lastModified(), second.lastModified());
+            }
+        });
+
+        final int prefixLength = this.cacheDirectory.getPath().length() + 1;
+        synchronized (this.diskEntries) {
+            for (final File file : byAge) {
+                this.diskEntries.put(file.getPath().substring(prefixLength), file.length());
+                this.diskBytes += file.length();
+            }
+            evictDiskEntries();
+        }
+        logger.info("Resized image cache holds " + byAge.length + " images of " + this.diskBytes + " bytes");
+    }
+
+    /**
+     * The image in the given maximum size and its format, from the cache if it
+     * was resized to that size before. Without a maximum size it is the image
+     * itself.
+     */
+    public ImageVariant retrieveVariant(final ImageData image, final Integer maxWidth, final Integer maxHeight) {
+        final String etag = etag(image, maxWidth, maxHeight, "");
+        final String contentType = image.contentType();
+
+        if (maxWidth == null && maxHeight == null && image.file() != null) { return new ImageVariant(etag, image.lastModified(),
+                contentType, image.file(), null); }
+
+        if (etag == null) {
+            final byte[] content = image.getContentOfSize(maxWidth, maxHeight);
+            return content == null ? null : new ImageVariant(null, 0, contentType, null, content);
+        }
+
+        byte[] content = fromMemory(etag);
+        if (content != null) {
+            image.discardContent();
+            return new ImageVariant(etag, image.lastModified(), contentType, null, content);
+        }
+
+        final String path = path(image, maxWidth, maxHeight);
+        final File cached = fromDisk(path);
+        if (cached != null) {
+            image.discardContent();
+            if (cached.length() > MAX_MEMORY_ENTRY_BYTES) { return new ImageVariant(etag, image.lastModified(), contentType, cached,
+                    null); }
+            content = read(cached);
+            if (content != null) {
+                toMemory(etag, content);
+                return new ImageVariant(etag, image.lastModified(), contentType, null, content);
+            }
+        }
+
+        content = image.getContentOfSize(maxWidth, maxHeight);
+        if (content == null) { return null; }
+        toMemory(etag, content);
+        toDisk(path, content);
+        return new ImageVariant(etag, image.lastModified(), contentType, null, content);
+    }
+
+    /**
+     * The image in the given maximum size as the base 64 encoded content of a
+     * data URI, kept in memory like the small variants themselves.
+     */
+    public ImageVariant retrieveDataUriVariant(final ImageData image, final Integer maxWidth, final Integer maxHeight,
+            final String dataUriPrefix) {
+        final String etag = etag(image, maxWidth, maxHeight, "-base64");
+        final byte[] cached = etag == null ? null : fromMemory(etag);
+        if (cached != null) {
+            image.discardContent();
+            return new ImageVariant(etag, image.lastModified(), "text/plain", null, cached);
+        }
+
+        final ImageVariant variant = retrieveVariant(image, maxWidth, maxHeight);
+        if (variant == null) { return null; }
+        final byte[] content = (dataUriPrefix + Base64.encodeBytes(variant.getContent())).getBytes(StandardCharsets.US_ASCII);
+        if (etag != null) {
+            toMemory(etag, content);
+        }
+        return new ImageVariant(etag, variant.getLastModified(), "text/plain", null, content);
+    }
+
+    /**
+     * @return null for an image whose version is not known, which is then
+     *         neither cached nor to be validated by clients
+     */
+    private static String etag(final ImageData image, final Integer maxWidth, final Integer maxHeight, final String suffix) {
+        if (image.version() == null) { return null; }
+        return image.imageId() + "-" + size(maxWidth, maxHeight) + "-" + image.version() + suffix;
+    }
+
+    private static String path(final ImageData image, final Integer maxWidth, final Integer maxHeight) {
+        final String tenant = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final String version = image.version().replaceAll("[^A-Za-z0-9-]", "");
+        return tenant + File.separator + image.imageId() + "-" + size(maxWidth, maxHeight) + "-" + version
+                + image.fileExtension().getValue();
+    }
+
+    private static String size(final Integer maxWidth, final Integer maxHeight) {
+        return (maxWidth == null ? "" : maxWidth.toString()) + "x" + (maxHeight == null ? "" : maxHeight.toString());
+    }
+
+    /**
+     * Image ids are those of the database of a tenant, so images of different
+     * tenants are told apart by the tenant too.
+     */
+    private static String memoryKey(final String etag) {
+        return ThreadLocalContextUtil.getTenant().getTenantIdentifier() + "/" + etag;
+    }
+
+    private byte[] fromMemory(final String etag) {
+        synchronized (this.memoryEntries) {
+            return this.memoryEntries.get(memoryKey(etag));
+        }
+    }
+
+    private void toMemory(final String etag, final byte[] content) {
+        if (content.length > MAX_MEMORY_ENTRY_BYTES) { return; }
+        final String key = memoryKey(etag);
+        synchronized (this.memoryEntries) {
+            final byte[] previous = this.memoryEntries.put(key, content);
+            this.memoryBytes += content.length - (previous == null ? 0 : previous.length);
+            final Iterator<byte[]> eldest = this.memoryEntries.values().iterator();
+            while (this.memoryBytes > MAX_MEMORY_BYTES && eldest.hasNext()) {
+                this.memoryBytes -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    private File fromDisk(final String path) {
+        synchronized (this.diskEntries) {
+            if (this.diskEntries.get(path) == null) { return null; }
+        }
+        final File file = new File(this.cacheDirectory, path);
+        return file.isFile() ? file : null;
+    }
+
+    /**
+     * Writes to a temporary file first, so that concurrent requests only ever
+     * see complete variants.
+     */
+    private void toDisk(final String path, final byte[] content) {
+        final File file = new File(this.cacheDirectory, path);
+        final File temporaryFile = new File(file.getPath() + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            file.getParentFile().mkdirs();
+            try (final OutputStream out = new FileOutputStream(temporaryFile)) {
+                out.write(content);
+            }
+            if (!temporaryFile.renameTo(file)) {
+                temporaryFile.delete();
+                return;
+            }
+        } catch (final IOException e) {
+            logger.warn("Could not cache resized image " + path, e);
+            temporaryFile.delete();
+            return;
+        }
+
+        synchronized (this.diskEntries) {
+            final Long previous = this.diskEntries.put(path, (long) content.length);
+            this.diskBytes += content.length - (previous == null ? 0 : previous);
+            evictDiskEntries();
+        }
+    }
+
+    private void evictDiskEntries() {
+        final Iterator<Map.Entry<String, Long>> eldest = this.diskEntries.entrySet().iterator();
+        while (this.diskBytes > MAX_DISK_BYTES && eldest.hasNext()) {
+            final Map.Entry<String, Long> entry = eldest.next();
+            new File(this.cacheDirectory, entry.getKey()).delete();
+            this.diskBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    private static byte[] read(final File file) {
+        try (final FileInputStream in = new FileInputStream(file)) {
+            final byte[] content = new byte[(int) file.length()];
+            int read = 0;
+            while (read < content.length) {
+                final int count = in.read(content, read, content.length - read);
+                if (count < 0) { return null; }
+                read += count;
+            }
+            return content;
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    private static void listFiles(final File directory, final List<File> files) {
+        final File[] children = directory.listFiles();
+        if (children == null) { return; }
+        for (final File child : children) {
+            if (child.isDirectory()) {
+                listFiles(child, files);
+            } else if (child.getName().endsWith(".tmp")) {
+                child.delete();
+            } else {
+                files.add(child);
+            }
+        }
+    }
+
+    /**
+     * An image in one size and representation, either in memory or in a file
+     * that is sent without reading it into memory.
+     */
+    public static final class ImageVariant {
+
+        private final String etag;
+        private final long lastModified;
+        private final String contentType;
+        private final File file;
+        private final byte[] content;
+
+        ImageVariant(final String etag, final long lastModified, final String contentType, final File file, final byte[] content) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.contentType = contentType;
+            this.file = file;
+            this.content = content;
+        }
+
+        /**
+         * @return null when the version of the image is not known
+         */
+        public String getEtag() {
+            return this.etag;
+        }
+
+        /**
+         * @return milliseconds since the epoch, 0 when not known
+         */
+        public long getLastModified() {
+            return this.lastModified;
+        }
+
+        public String getContentType() {
+            return this.contentType;
+        }
+
+        public long getLength() {
+            return this.file != null ? this.file.length() : this.content.length;
+        }
+
+        byte[] getContent() {
+            return this.file != null ? read(this.file) : this.content;
+        }
+
+        /**
+         * Copies a file with {@link FileChannel#transferTo}, so that the
+         * content goes from the file system cache to the response without
+         * passing through the heap.
+         */
+        public void writeTo(final OutputStream out) throws IOException {
+            if (this.file == null) {
+                out.write(this.content);
+                return;
+            }
+            try (final FileInputStream in = new FileInputStream(this.file)) {
+                final FileChannel channel = in.getChannel();
+                final WritableByteChannel target = Channels.newChannel(out);
+                final long size = channel.size();
+                long position = 0;
+                while (position < size) {
+                    position += channel.transferTo(position, size - position, target);
+                }
+            }
+        }
+    }
+}
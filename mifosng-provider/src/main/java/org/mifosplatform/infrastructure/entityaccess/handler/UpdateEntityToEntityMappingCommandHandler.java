@@ -7,6 +7,7 @@ package org.mifosplatform.infrastructure.entityaccess.handler;
 
 import javax.transaction.Transactional;
 
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
@@ -15,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
+@CommandType(entity = "ENTITYMAPPING", action = "UPDATE")
 public class UpdateEntityToEntityMappingCommandHandler implements NewCommandSourceHandler {
     
     private final MifosEntityAccessWriteService mifosEntityAccessWriteService;
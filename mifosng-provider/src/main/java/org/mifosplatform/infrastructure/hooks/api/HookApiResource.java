@@ -30,6 +30,8 @@ import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
 import org.mifosplatform.infrastructure.core.serialization.DefaultToApiJsonSerializer;
 import org.mifosplatform.infrastructure.hooks.data.HookData;
+import org.mifosplatform.infrastructure.hooks.data.HookDeliveryStatisticsData;
+import org.mifosplatform.infrastructure.hooks.service.HookEventDispatcher;
 import org.mifosplatform.infrastructure.hooks.service.HookReadPlatformService;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -48,6 +50,8 @@ public class HookApiResource {
 	private final DefaultToApiJsonSerializer<HookData> toApiJsonSerializer;
 	private final ApiRequestParameterHelper apiRequestParameterHelper;
 	private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
+	private final HookEventDispatcher hookEventDispatcher;
+	private final DefaultToApiJsonSerializer<HookDeliveryStatisticsData> toApiJsonStatisticsSerializer;
 
 	@Autowired
 	public HookApiResource(
@@ -55,12 +59,16 @@ public class HookApiResource {
 			final HookReadPlatformService readPlatformService,
 			final DefaultToApiJsonSerializer<HookData> toApiJsonSerializer,
 			final ApiRequestParameterHelper apiRequestParameterHelper,
-			final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService) {
+			final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
+			final HookEventDispatcher hookEventDispatcher,
+			final DefaultToApiJsonSerializer<HookDeliveryStatisticsData> toApiJsonStatisticsSerializer) {
 		this.context = context;
 		this.readPlatformService = readPlatformService;
 		this.toApiJsonSerializer = toApiJsonSerializer;
 		this.apiRequestParameterHelper = apiRequestParameterHelper;
 		this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
+		this.hookEventDispatcher = hookEventDispatcher;
+		this.toApiJsonStatisticsSerializer = toApiJsonStatisticsSerializer;
 	}
 
 	@GET
@@ -117,6 +125,22 @@ public class HookApiResource {
 				RESPONSE_DATA_PARAMETERS);
 	}
 
+	@GET
+	@Path("deliverystatistics")
+	public String retrieveDeliveryStatistics(@Context final UriInfo uriInfo) {
+
+		this.context.authenticatedUser().validateHasReadPermission(
+				HOOK_RESOURCE_NAME);
+
+		final HookDeliveryStatisticsData statistics = this.hookEventDispatcher
+				.retrieveDeliveryStatistics();
+
+		final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper
+				.process(uriInfo.getQueryParameters());
+		return this.toApiJsonStatisticsSerializer.serialize(settings,
+				statistics);
+	}
+
 	@POST
 	public String createHook(final String apiRequestBodyAsJson) {
 
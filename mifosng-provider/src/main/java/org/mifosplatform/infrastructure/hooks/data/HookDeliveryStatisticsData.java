@@ -0,0 +1,46 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.hooks.data;
+
+/**
+ * Immutable data object representing hook delivery metrics of this node,
+ * together with the outbox backlog of the current tenant.
+ */
+public class HookDeliveryStatisticsData {
+
+    @SuppressWarnings("unused")
+    private final long delivered;
+    @SuppressWarnings("unused")
+    private final long retried;
+    @SuppressWarnings("unused")
+    private final long failed;
+    @SuppressWarnings("unused")
+    private final long deferred;
+    @SuppressWarnings("unused")
+    private final long averageDeliveryMillis;
+    @SuppressWarnings("unused")
+    private final int activeDeliveries;
+    @SuppressWarnings("unused")
+    private final int queuedDeliveries;
+    @SuppressWarnings("unused")
+    private final long pendingEvents;
+    @SuppressWarnings("unused")
+    private final long failedEvents;
+
+    public HookDeliveryStatisticsData(final long delivered, final long retried, final long failed, final long deferred,
+            final long averageDeliveryMillis, final int activeDeliveries, final int queuedDeliveries, final long pendingEvents,
+            final long failedEvents) {
+        this.delivered = delivered;
+        this.retried = retried;
+        this.failed = failed;
+        this.deferred = deferred;
+        this.averageDeliveryMillis = averageDeliveryMillis;
+        this.activeDeliveries = activeDeliveries;
+        this.queuedDeliveries = queuedDeliveries;
+        this.pendingEvents = pendingEvents;
+        this.failedEvents = failedEvents;
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.hooks.data;
+
+/**
+ * Immutable data object for a hook event claimed from the outbox for delivery.
+ */
+public class HookEventOutboxData {
+
+    private final Long id;
+    private final Long hookId;
+    private final String entityName;
+    private final String actionName;
+    private final String payload;
+    private final int attempts;
+
+    public HookEventOutboxData(final Long id, final Long hookId, final String entityName, final String actionName,
+            final String payload, final int attempts) {
+        this.id = id;
+        this.hookId = hookId;
+        this.entityName = entityName;
+        this.actionName = actionName;
+        this.payload = payload;
+        this.attempts = attempts;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public Long getHookId() {
+        return this.hookId;
+    }
+
+    public String getEntityName() {
+        return this.entityName;
+    }
+
+    public String getActionName() {
+        return this.actionName;
+    }
+
+    public String getPayload() {
+        return this.payload;
+    }
+
+    public int getAttempts() {
+        return this.attempts;
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.hooks.domain;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.springframework.data.jpa.domain.AbstractPersistable;
+
+/**
+ * A hook event waiting to be delivered to a single {@link Hook}.
+ * 
+ * Entries are written in the transaction of the command that raised the
+ * event, so an event is only ever delivered for commands that committed.
+ */
+@Entity
+@Table(name = "m_hook_event_outbox")
+public class HookEventOutboxEntry extends AbstractPersistable<Long> {
+
+    @Column(name = "hook_id", nullable = false)
+    private Long hookId;
+
+    @Column(name = "entity_name", nullable = false, length = 45)
+    private String entityName;
+
+    @Column(name = "action_name", nullable = false, length = 45)
+    private String actionName;
+
+    @Column(name = "payload", nullable = false)
+    private String payload;
+
+    @Column(name = "status_enum", nullable = false)
+    private Integer status;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_time", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date nextAttemptTime;
+
+    @Column(name = "created_date", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdDate;
+
+    public static HookEventOutboxEntry pending(final Hook hook, final String entityName, final String actionName, final String payload) {
+        final Date now = new Date();
+        return new HookEventOutboxEntry(hook.getId(), entityName, actionName, payload, now);
+    }
+
+    protected HookEventOutboxEntry() {
+        //
+    }
+
+    private HookEventOutboxEntry(final Long hookId, final String entityName, final String actionName, final String payload,
+            final Date createdDate) {
+        this.hookId = hookId;
+        this.entityName = entityName;
+        this.actionName = actionName;
+        this.payload = payload;
+        this.status = HookEventOutboxStatus.PENDING.getValue();
+        this.attempts = 0;
+        this.nextAttemptTime = createdDate;
+        this.createdDate = createdDate;
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.hooks.domain;
+
+/**
+ * Delivery state of a {@link HookEventOutboxEntry}.
+ */
+public enum HookEventOutboxStatus {
+
+    PENDING(100, "hookEventOutboxStatus.pending"), //
+    IN_PROGRESS(200, "hookEventOutboxStatus.inProgress"), //
+    DELIVERED(300, "hookEventOutboxStatus.delivered"), //
+    FAILED(400, "hookEventOutboxStatus.failed");
+
+    private final Integer value;
+    private final String code;
+
+    private HookEventOutboxStatus(final Integer value, final String code) {
+        this.value = value;
+        this.code = code;
+    }
+
+    public Integer getValue() {
+        return this.value;
+    }
+
+    public String getCode() {
+        return this.code;
+    }
+}
@@ -6,8 +6,13 @@
 package org.mifosplatform.infrastructure.hooks.listener;
 
 import org.mifosplatform.infrastructure.hooks.event.HookEvent;
-import org.springframework.context.ApplicationListener;
 
-public interface HookListener extends ApplicationListener<HookEvent> {
+/**
+ * Told of every processed command by the command processing service, on the
+ * thread of the command and within its transaction, so the tenant of the
+ * command is set.
+ */
+public interface HookListener {
 
+    void onHookEvent(HookEvent event);
 }
@@ -5,62 +5,63 @@
  */
 package org.mifosplatform.infrastructure.hooks.listener;
 
+import java.util.List;
+
 import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
 import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
-import org.mifosplatform.infrastructure.hooks.domain.Hook;
 import org.mifosplatform.infrastructure.hooks.event.HookEvent;
 import org.mifosplatform.infrastructure.hooks.event.HookEventSource;
-import org.mifosplatform.infrastructure.hooks.processor.HookProcessor;
-import org.mifosplatform.infrastructure.hooks.processor.HookProcessorProvider;
-import org.mifosplatform.infrastructure.hooks.service.HookReadPlatformService;
-import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
-import org.mifosplatform.useradministration.domain.AppUser;
+import org.mifosplatform.infrastructure.hooks.service.HookEventDispatcher;
+import org.mifosplatform.infrastructure.hooks.service.HookEventOutboxService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.List;
-
+/**
+ * Records hook events in the outbox as part of the command transaction and
+ * hands them to the {@link HookEventDispatcher} once it committed, so the
+ * latency of hook receivers never adds to the latency of commands.
+ */
 @Service
 public class MifosHookListener implements HookListener {
 
-    private final HookProcessorProvider hookProcessorProvider;
-    private final HookReadPlatformService hookReadPlatformService;
-    private final TenantDetailsService tenantDetailsService;
+    private final HookEventOutboxService hookEventOutboxService;
+    private final HookEventDispatcher hookEventDispatcher;
 
     @Autowired
-    public MifosHookListener(final HookProcessorProvider hookProcessorProvider,
-            final HookReadPlatformService hookReadPlatformService,
-            final TenantDetailsService tenantDetailsService) {
-        this.hookReadPlatformService = hookReadPlatformService;
-        this.hookProcessorProvider = hookProcessorProvider;
-        this.tenantDetailsService = tenantDetailsService;
+    public MifosHookListener(final HookEventOutboxService hookEventOutboxService,
+            final HookEventDispatcher hookEventDispatcher) {
+        this.hookEventOutboxService = hookEventOutboxService;
+        this.hookEventDispatcher = hookEventDispatcher;
     }
 
     @Override
-    public void onApplicationEvent(final HookEvent event) {
+    public void onHookEvent(final HookEvent event) {
 
-        final String tenantIdentifier = event.getTenantIdentifier();
-        final MifosPlatformTenant tenant = this.tenantDetailsService
-                .loadTenantById(tenantIdentifier);
-        ThreadLocalContextUtil.setTenant(tenant);
+        final HookEventSource hookEventSource = event.getSource();
+        final List<Long> eventIds = this.hookEventOutboxService.enqueue(
+                hookEventSource.getEntityName(),
+                hookEventSource.getActionName(), event.getPayload());
+        if (eventIds.isEmpty()) {
+            return;
+        }
 
-        final AppUser appUser = event.getAppUser();
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
         final String authToken = event.getAuthToken();
 
-        final HookEventSource hookEventSource = event.getSource();
-        final String entityName = hookEventSource.getEntityName();
-        final String actionName = hookEventSource.getActionName();
-        final String payload = event.getPayload();
-
-        final List<Hook> hooks = this.hookReadPlatformService
-                .retrieveHooksByEvent(hookEventSource.getEntityName(),
-                        hookEventSource.getActionName());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager
+                    .registerSynchronization(new TransactionSynchronizationAdapter() {
 
-        for (final Hook hook : hooks) {
-            final HookProcessor processor = this.hookProcessorProvider
-                    .getProcessor(hook);
-            processor.process(hook, appUser, payload, entityName, actionName,
-                    tenantIdentifier, authToken);
+                        @Override
+                        public void afterCommit() {
+                            MifosHookListener.this.hookEventDispatcher
+                                    .dispatch(tenant, eventIds, authToken);
+                        }
+                    });
+        } else {
+            this.hookEventDispatcher.dispatch(tenant, eventIds, authToken);
         }
     }
 
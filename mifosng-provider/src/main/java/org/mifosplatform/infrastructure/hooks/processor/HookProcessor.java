@@ -6,11 +6,18 @@
 package org.mifosplatform.infrastructure.hooks.processor;
 
 import org.mifosplatform.infrastructure.hooks.domain.Hook;
-import org.mifosplatform.useradministration.domain.AppUser;
 
 public interface HookProcessor {
 
-	void process(Hook hook, AppUser appUser, String payload, String entityName,
+	/**
+	 * Delivers the event to the hook's endpoint, blocking until the endpoint
+	 * responded.
+	 * 
+	 * @throws RuntimeException
+	 *             when the event could not be delivered, so that its delivery
+	 *             is retried later
+	 */
+	void process(Hook hook, String payload, String entityName,
 			String actionName, String tenantIdentifier, String authToken);
 
 }
@@ -18,9 +18,7 @@ import javax.net.ssl.X509TrustManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import retrofit.Callback;
 import retrofit.RestAdapter;
-import retrofit.RetrofitError;
 import retrofit.client.OkClient;
 import retrofit.client.Response;
 
@@ -80,21 +78,8 @@ public class ProcessorHelper {
 		return configureClient(client);
 	}
 
-	@SuppressWarnings("rawtypes")
-	public static Callback createCallback(final String url) {
-
-		return new Callback() {
-			@Override
-			public void success(final Object o, final Response response) {
-				logger.info("URL : " + url + "\tStatus : "
-						+ response.getStatus());
-			}
-
-			@Override
-			public void failure(final RetrofitError retrofitError) {
-				logger.info(retrofitError.getMessage());
-			}
-		};
+	public static void logResponse(final String url, final Response response) {
+		logger.info("URL : " + url + "\tStatus : " + response.getStatus());
 	}
 
 	public static WebHookService createWebHookService(final String url) {
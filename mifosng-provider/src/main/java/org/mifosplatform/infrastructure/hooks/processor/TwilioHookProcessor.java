@@ -16,10 +16,9 @@ import org.mifosplatform.infrastructure.hooks.processor.data.SmsProviderData;
 import org.mifosplatform.portfolio.client.domain.Client;
 import org.mifosplatform.portfolio.client.domain.ClientRepository;
 import org.mifosplatform.template.service.TemplateMergeService;
-import org.mifosplatform.useradministration.domain.AppUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import retrofit.Callback;
+import retrofit.client.Response;
 
 import java.io.IOException;
 import java.util.HashMap;
@@ -45,11 +44,9 @@ public class TwilioHookProcessor implements HookProcessor {
     }
 
     @Override
-    public void process(final Hook hook,
-            @SuppressWarnings("unused") final AppUser appUser,
-            final String payload, final String entityName,
-            final String actionName, final String tenantIdentifier,
-            final String authToken) {
+    public void process(final Hook hook, final String payload,
+            final String entityName, final String actionName,
+            final String tenantIdentifier, final String authToken) {
 
         final SmsProviderData smsProviderData = new SmsProviderData(
                 hook.getHookConfig());
@@ -58,7 +55,6 @@ public class TwilioHookProcessor implements HookProcessor {
                 tenantIdentifier, authToken, hook);
     }
 
-    @SuppressWarnings("unchecked")
     private void sendRequest(final SmsProviderData smsProviderData,
             final String payload, String entityName, String actionName,
             final String tenantIdentifier, final String authToken,
@@ -67,10 +63,6 @@ public class TwilioHookProcessor implements HookProcessor {
         final WebHookService service = ProcessorHelper
                 .createWebHookService(smsProviderData.getUrl());
 
-        @SuppressWarnings("rawtypes")
-        final Callback callback = ProcessorHelper
-                .createCallback(smsProviderData.getUrl());
-
         String apiKey = this.hookConfigurationRepository
                 .findOneByHookIdAndFieldName(hook.getId(), apiKeyName);
         if (apiKey == null) {
@@ -96,8 +88,9 @@ public class TwilioHookProcessor implements HookProcessor {
             } else {
                 json = new JsonParser().parse(payload).getAsJsonObject();
             }
-            service.sendSmsBridgeRequest(entityName, actionName,
-                    tenantIdentifier, apiKey, json, callback);
+            final Response response = service.sendSmsBridgeRequest(
+                    entityName, actionName, tenantIdentifier, apiKey, json);
+            ProcessorHelper.logResponse(smsProviderData.getUrl(), response);
         }
 
     }
@@ -116,9 +109,8 @@ public class TwilioHookProcessor implements HookProcessor {
                 final Client client = this.clientRepository.findOne(clientId);
                 final String mobileNo = client.mobileNo();
                 if (mobileNo != null && !mobileNo.isEmpty()) {
-                    this.templateMergeService.setAuthToken(authToken);
                     final String compiledMessage = this.templateMergeService
-                            .compile(hook.getUgdTemplate(), map)
+                            .compile(hook.getUgdTemplate(), map, authToken)
                             .replace("<p>", "").replace("</p>", "");
                     final Map<String, String> jsonMap = new HashMap<>();
                     jsonMap.put("mobileNo", mobileNo);
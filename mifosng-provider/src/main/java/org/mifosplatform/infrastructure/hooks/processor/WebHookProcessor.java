@@ -14,10 +14,9 @@ import java.util.Set;
 
 import org.mifosplatform.infrastructure.hooks.domain.Hook;
 import org.mifosplatform.infrastructure.hooks.domain.HookConfiguration;
-import org.mifosplatform.useradministration.domain.AppUser;
 import org.springframework.stereotype.Service;
 
-import retrofit.Callback;
+import retrofit.client.Response;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
@@ -27,11 +26,9 @@ import com.google.gson.JsonParser;
 public class WebHookProcessor implements HookProcessor {
 
 	@Override
-	public void process(final Hook hook,
-			@SuppressWarnings("unused") final AppUser appUser,
-			final String payload, final String entityName,
-			final String actionName, final String tenantIdentifier,
-			final String authToken) {
+	public void process(final Hook hook, final String payload,
+			final String entityName, final String actionName,
+			final String tenantIdentifier, final String authToken) {
 
 		final Set<HookConfiguration> config = hook.getHookConfig();
 
@@ -63,21 +60,20 @@ public class WebHookProcessor implements HookProcessor {
 		final WebHookService service = ProcessorHelper
 				.createWebHookService(url);
 
-		@SuppressWarnings("rawtypes")
-		final Callback callback = ProcessorHelper.createCallback(url);
-
+		final Response response;
 		if (contentType.equalsIgnoreCase("json")
 				|| contentType.contains("json")) {
 			final JsonObject json = new JsonParser().parse(payload)
 					.getAsJsonObject();
-			service.sendJsonRequest(entityName, actionName, tenantIdentifier,
-					mifosEndpointUrl, json, callback);
+			response = service.sendJsonRequest(entityName, actionName,
+					tenantIdentifier, mifosEndpointUrl, json);
 		} else {
 			Map<String, String> map = new HashMap<>();
 			map = new Gson().fromJson(payload, map.getClass());
-			service.sendFormRequest(entityName, actionName, tenantIdentifier,
-					mifosEndpointUrl, map, callback);
+			response = service.sendFormRequest(entityName, actionName,
+					tenantIdentifier, mifosEndpointUrl, map);
 		}
+		ProcessorHelper.logResponse(url, response);
 
 	}
 
@@ -0,0 +1,27 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.hooks.service;
+
+import java.util.List;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.hooks.data.HookDeliveryStatisticsData;
+
+/**
+ * Delivers the events recorded by {@link HookEventOutboxService} to the hooks
+ * endpoints in the background, retrying failed deliveries with backoff.
+ */
+public interface HookEventDispatcher {
+
+    /**
+     * Schedules delivery of freshly committed outbox events. The auth token is
+     * only held in memory and is not available to deliveries of events
+     * recovered after a restart.
+     */
+    void dispatch(MifosPlatformTenant tenant, List<Long> eventIds, String authToken);
+
+    HookDeliveryStatisticsData retrieveDeliveryStatistics();
+}
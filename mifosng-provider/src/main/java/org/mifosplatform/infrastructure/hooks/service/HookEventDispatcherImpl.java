@@ -0,0 +1,321 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.hooks.service;
+
+import static org.mifosplatform.infrastructure.hooks.api.HookApiConstants.payloadURLName;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.hooks.data.HookDeliveryStatisticsData;
+import org.mifosplatform.infrastructure.hooks.data.HookEventOutboxData;
+import org.mifosplatform.infrastructure.hooks.domain.Hook;
+import org.mifosplatform.infrastructure.hooks.domain.HookConfiguration;
+import org.mifosplatform.infrastructure.hooks.domain.HookEventOutboxStatus;
+import org.mifosplatform.infrastructure.hooks.domain.HookRepository;
+import org.mifosplatform.infrastructure.hooks.processor.HookProcessor;
+import org.mifosplatform.infrastructure.hooks.processor.HookProcessorProvider;
+import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link HookEventDispatcher} with a single dispatcher thread that claims due
+ * events in batches, and a bounded pool of delivery workers shared by all
+ * tenants.
+ * 
+ * A hook endpoint never receives more than
+ * {@link #MAX_CONCURRENT_DELIVERIES_PER_ENDPOINT} deliveries at a time from
+ * this node, so one slow receiver cannot occupy every worker. Events whose
+ * endpoint is busy, or that do not fit in the worker queue, are handed back to
+ * the outbox and claimed again shortly after.
+ */
+@Service
+public class HookEventDispatcherImpl implements HookEventDispatcher {
+
+    private final static Logger logger = LoggerFactory.getLogger(HookEventDispatcherImpl.class);
+
+    private static final int DELIVERY_THREAD_COUNT = 4;
+    private static final int DELIVERY_QUEUE_CAPACITY = 1000;
+    private static final int CLAIM_BATCH_SIZE = 50;
+    private static final int CLAIM_LEASE_SECONDS = 300;
+    private static final int MAX_CONCURRENT_DELIVERIES_PER_ENDPOINT = 2;
+    private static final int MAX_DELIVERY_ATTEMPTS = 8;
+    private static final long RETRY_BASE_DELAY_MILLIS = 10 * 1000L;
+    private static final long RETRY_MAX_DELAY_MILLIS = 60 * 60 * 1000L;
+    private static final long DEFERRED_DELAY_MILLIS = 1000L;
+    private static final long SWEEP_INTERVAL_SECONDS = 30;
+    private static final long DELIVERED_RETENTION_MILLIS = 7 * 24 * 60 * 60 * 1000L;
+
+    private final HookEventOutboxService hookEventOutboxService;
+    private final HookRepository hookRepository;
+    private final HookProcessorProvider hookProcessorProvider;
+    private final TenantDetailsService tenantDetailsService;
+
+    private final ThreadPoolExecutor deliveryExecutor = new ThreadPoolExecutor(DELIVERY_THREAD_COUNT, DELIVERY_THREAD_COUNT, 0L,
+            TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(DELIVERY_QUEUE_CAPACITY), new CustomizableThreadFactory(
+                    "HookDeliveryWorker-"));
+    private final ScheduledExecutorService dispatchExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory(
+            "HookEventDispatcher-"));
+
+    private final ConcurrentMap<String, Boolean> drainRequested = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Semaphore> endpointPermits = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> authTokens = new ConcurrentHashMap<>();
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong deferred = new AtomicLong();
+    private final AtomicLong totalDeliveryMillis = new AtomicLong();
+
+    @Autowired
+    public HookEventDispatcherImpl(final HookEventOutboxService hookEventOutboxService, final HookRepository hookRepository,
+            final HookProcessorProvider hookProcessorProvider, final TenantDetailsService tenantDetailsService) {
+        this.hookEventOutboxService = hookEventOutboxService;
+        this.hookRepository = hookRepository;
+        this.hookProcessorProvider = hookProcessorProvider;
+        this.tenantDetailsService = tenantDetailsService;
+    }
+
+    @PostConstruct
+    public void start() {
+        // picks up retries, expired leases and events left over by a restart
+        this.dispatchExecutor.scheduleWithFixedDelay(new Runnable() {
+
+            @Override
+            public void run() {
+                sweep();
+            }
+        }, SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.dispatchExecutor.shutdownNow();
+        this.deliveryExecutor.shutdownNow();
+    }
+
+    @Override
+    public void dispatch(final MifosPlatformTenant tenant, final List<Long> eventIds, final String authToken) {
+        if (authToken != null) {
+            for (final Long eventId : eventIds) {
+                this.authTokens.put(authTokenKey(tenant, eventId), authToken);
+            }
+        }
+        requestDrain(tenant);
+    }
+
+    @Override
+    public HookDeliveryStatisticsData retrieveDeliveryStatistics() {
+        final long deliveredCount = this.delivered.get();
+        final long averageDeliveryMillis = deliveredCount == 0 ? 0 : this.totalDeliveryMillis.get() / deliveredCount;
+        final long pendingEvents = this.hookEventOutboxService.countEvents(HookEventOutboxStatus.PENDING)
+                + this.hookEventOutboxService.countEvents(HookEventOutboxStatus.IN_PROGRESS);
+        final long failedEvents = this.hookEventOutboxService.countEvents(HookEventOutboxStatus.FAILED);
+        return new HookDeliveryStatisticsData(deliveredCount, this.retried.get(), this.failed.get(), this.deferred.get(),
+                averageDeliveryMillis, this.deliveryExecutor.getActiveCount(), this.deliveryExecutor.getQueue().size(), pendingEvents,
+                failedEvents);
+    }
+
+    private void requestDrain(final MifosPlatformTenant tenant) {
+        final String tenantIdentifier = tenant.getTenantIdentifier();
+        if (this.drainRequested.putIfAbsent(tenantIdentifier, Boolean.TRUE) != null) { return; }
+        try {
+            this.dispatchExecutor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    // cleared first so that events committed while draining
+                    // trigger another pass
+                    HookEventDispatcherImpl.this.drainRequested.remove(tenantIdentifier);
+                    drain(tenant);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            this.drainRequested.remove(tenantIdentifier);
+        }
+    }
+
+    private void requestDrainAfter(final MifosPlatformTenant tenant, final long delayMillis) {
+        try {
+            this.dispatchExecutor.schedule(new Runnable() {
+
+                @Override
+                public void run() {
+                    requestDrain(tenant);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException e) {
+            // shutting down, the events are picked up again on restart
+        }
+    }
+
+    private void sweep() {
+        final List<MifosPlatformTenant> tenants;
+        try {
+            tenants = this.tenantDetailsService.findAllTenants();
+        } catch (final RuntimeException e) {
+            // an exception would cancel the periodic sweep
+            logger.error("Loading tenants for the hook event sweep failed", e);
+            return;
+        }
+        final Date deliveredBefore = new Date(System.currentTimeMillis() - DELIVERED_RETENTION_MILLIS);
+        for (final MifosPlatformTenant tenant : tenants) {
+            drain(tenant);
+            ThreadLocalContextUtil.setTenant(tenant);
+            try {
+                this.hookEventOutboxService.purgeDeliveredEvents(deliveredBefore);
+            } catch (final RuntimeException e) {
+                logger.error("Purging delivered hook events failed for tenant " + tenant.getTenantIdentifier(), e);
+            } finally {
+                ThreadLocalContextUtil.clearTenant();
+            }
+        }
+    }
+
+    private void drain(final MifosPlatformTenant tenant) {
+        ThreadLocalContextUtil.setTenant(tenant);
+        try {
+            while (this.deliveryExecutor.getQueue().remainingCapacity() >= CLAIM_BATCH_SIZE) {
+                final List<HookEventOutboxData> events = this.hookEventOutboxService.claimDueEvents(CLAIM_BATCH_SIZE,
+                        CLAIM_LEASE_SECONDS);
+                for (final HookEventOutboxData event : events) {
+                    submitDelivery(tenant, event);
+                }
+                if (events.size() < CLAIM_BATCH_SIZE) {
+                    break;
+                }
+            }
+        } catch (final RuntimeException e) {
+            logger.error("Claiming hook events failed for tenant " + tenant.getTenantIdentifier(), e);
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    private void submitDelivery(final MifosPlatformTenant tenant, final HookEventOutboxData event) {
+        try {
+            this.deliveryExecutor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    deliver(tenant, event);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            defer(tenant, event);
+        }
+    }
+
+    private void deliver(final MifosPlatformTenant tenant, final HookEventOutboxData event) {
+        ThreadLocalContextUtil.setTenant(tenant);
+        final String authTokenKey = authTokenKey(tenant, event.getId());
+        try {
+            final Hook hook = this.hookRepository.findOne(event.getHookId());
+            final HookProcessor processor = hook == null ? null : this.hookProcessorProvider.getProcessor(hook);
+            if (processor == null) {
+                this.hookEventOutboxService.markFailed(event.getId(), event.getAttempts(), "No processor available for hook "
+                        + event.getHookId());
+                this.failed.incrementAndGet();
+                this.authTokens.remove(authTokenKey);
+                return;
+            }
+
+            final Semaphore permits = permitsFor(endpointOf(hook));
+            if (!permits.tryAcquire()) {
+                defer(tenant, event);
+                return;
+            }
+            try {
+                final long startTime = System.currentTimeMillis();
+                processor.process(hook, event.getPayload(), event.getEntityName(), event.getActionName(),
+                        tenant.getTenantIdentifier(), this.authTokens.get(authTokenKey));
+                this.totalDeliveryMillis.addAndGet(System.currentTimeMillis() - startTime);
+            } finally {
+                permits.release();
+            }
+
+            this.hookEventOutboxService.markDelivered(event.getId());
+            this.delivered.incrementAndGet();
+            this.authTokens.remove(authTokenKey);
+        } catch (final RuntimeException e) {
+            recordFailedAttempt(tenant, event, authTokenKey, e);
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    private void recordFailedAttempt(final MifosPlatformTenant tenant, final HookEventOutboxData event, final String authTokenKey,
+            final RuntimeException e) {
+        final int attempts = event.getAttempts() + 1;
+        try {
+            if (attempts >= MAX_DELIVERY_ATTEMPTS) {
+                logger.warn("Delivery of hook event " + event.getId() + " abandoned after " + attempts + " attempts: " + e.getMessage());
+                this.hookEventOutboxService.markFailed(event.getId(), attempts, e.getMessage());
+                this.failed.incrementAndGet();
+                this.authTokens.remove(authTokenKey);
+            } else {
+                final long delayMillis = Math.min(RETRY_BASE_DELAY_MILLIS << (attempts - 1), RETRY_MAX_DELAY_MILLIS);
+                logger.info("Delivery of hook event " + event.getId() + " failed, retrying in " + delayMillis / 1000 + "s: "
+                        + e.getMessage());
+                this.hookEventOutboxService.markForRetry(event.getId(), attempts, new Date(System.currentTimeMillis() + delayMillis),
+                        e.getMessage());
+                this.retried.incrementAndGet();
+                requestDrainAfter(tenant, delayMillis);
+            }
+        } catch (final RuntimeException recordingFailure) {
+            // the event is claimed again once its lease expires
+            logger.error("Recording the failed delivery of hook event " + event.getId() + " failed", recordingFailure);
+        }
+    }
+
+    private void defer(final MifosPlatformTenant tenant, final HookEventOutboxData event) {
+        this.hookEventOutboxService.release(event.getId(), new Date(System.currentTimeMillis() + DEFERRED_DELAY_MILLIS));
+        this.deferred.incrementAndGet();
+        requestDrainAfter(tenant, DEFERRED_DELAY_MILLIS);
+    }
+
+    private Semaphore permitsFor(final String endpoint) {
+        Semaphore permits = this.endpointPermits.get(endpoint);
+        if (permits == null) {
+            final Semaphore newPermits = new Semaphore(MAX_CONCURRENT_DELIVERIES_PER_ENDPOINT);
+            permits = this.endpointPermits.putIfAbsent(endpoint, newPermits);
+            if (permits == null) {
+                permits = newPermits;
+            }
+        }
+        return permits;
+    }
+
+    private static String endpointOf(final Hook hook) {
+        for (final HookConfiguration conf : hook.getHookConfig()) {
+            if (payloadURLName.equals(conf.getFieldName()) && conf.getFieldValue() != null) { return conf.getFieldValue(); }
+        }
+        return "hook-" + hook.getId();
+    }
+
+    private static String authTokenKey(final MifosPlatformTenant tenant, final Long eventId) {
+        return tenant.getTenantIdentifier() + ":" + eventId;
+    }
+}
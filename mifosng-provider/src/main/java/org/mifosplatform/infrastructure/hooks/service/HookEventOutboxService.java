@@ -0,0 +1,50 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.hooks.service;
+
+import java.util.Date;
+import java.util.List;
+
+import org.mifosplatform.infrastructure.hooks.data.HookEventOutboxData;
+import org.mifosplatform.infrastructure.hooks.domain.HookEventOutboxStatus;
+
+/**
+ * Durable store of hook events awaiting delivery, kept in the database of the
+ * current tenant.
+ */
+public interface HookEventOutboxService {
+
+    /**
+     * Records the event for every active hook listening to it, as part of the
+     * current transaction.
+     * 
+     * @return ids of the outbox entries created, empty if no hook listens to
+     *         the event
+     */
+    List<Long> enqueue(String entityName, String actionName, String payload);
+
+    /**
+     * Claims up to <code>limit</code> events that are due for delivery. A
+     * claimed event is leased for <code>leaseSeconds</code>, after which it
+     * becomes due again unless its delivery outcome was recorded.
+     */
+    List<HookEventOutboxData> claimDueEvents(int limit, int leaseSeconds);
+
+    void markDelivered(Long eventId);
+
+    void markForRetry(Long eventId, int attempts, Date nextAttemptTime, String errorMessage);
+
+    void markFailed(Long eventId, int attempts, String errorMessage);
+
+    /**
+     * Hands a claimed event back without counting a delivery attempt.
+     */
+    void release(Long eventId, Date nextAttemptTime);
+
+    int purgeDeliveredEvents(Date deliveredBefore);
+
+    long countEvents(HookEventOutboxStatus status);
+}
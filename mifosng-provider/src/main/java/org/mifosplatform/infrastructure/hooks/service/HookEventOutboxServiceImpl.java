@@ -0,0 +1,139 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.hooks.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.lang.StringUtils;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.hooks.data.HookEventOutboxData;
+import org.mifosplatform.infrastructure.hooks.domain.Hook;
+import org.mifosplatform.infrastructure.hooks.domain.HookEventOutboxEntry;
+import org.mifosplatform.infrastructure.hooks.domain.HookEventOutboxEntryRepository;
+import org.mifosplatform.infrastructure.hooks.domain.HookEventOutboxStatus;
+import org.mifosplatform.infrastructure.hooks.domain.HookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class HookEventOutboxServiceImpl implements HookEventOutboxService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HookRepository hookRepository;
+    private final HookEventOutboxEntryRepository hookEventOutboxEntryRepository;
+
+    @Autowired
+    public HookEventOutboxServiceImpl(final RoutingDataSource dataSource, final HookRepository hookRepository,
+            final HookEventOutboxEntryRepository hookEventOutboxEntryRepository) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.hookRepository = hookRepository;
+        this.hookEventOutboxEntryRepository = hookEventOutboxEntryRepository;
+    }
+
+    @Transactional
+    @Override
+    public List<Long> enqueue(final String entityName, final String actionName, final String payload) {
+        final List<Hook> hooks = this.hookRepository.findAllHooksListeningToEvent(entityName, actionName);
+        final List<Long> eventIds = new ArrayList<>(hooks.size());
+        for (final Hook hook : hooks) {
+            final HookEventOutboxEntry entry = HookEventOutboxEntry.pending(hook, entityName, actionName, payload);
+            this.hookEventOutboxEntryRepository.save(entry);
+            eventIds.add(entry.getId());
+        }
+        return eventIds;
+    }
+
+    @Override
+    public List<HookEventOutboxData> claimDueEvents(final int limit, final int leaseSeconds) {
+        final Date now = new Date();
+        final Date leaseExpiry = new Date(now.getTime() + leaseSeconds * 1000L);
+
+        final HookEventOutboxMapper rm = new HookEventOutboxMapper();
+        final String sql = "select " + rm.schema() + " where e.status_enum in (?, ?) and e.next_attempt_time <= ? "
+                + "order by e.next_attempt_time, e.id limit ?";
+        final List<HookEventOutboxData> dueEvents = this.jdbcTemplate.query(sql, rm, new Object[] {
+                HookEventOutboxStatus.PENDING.getValue(), HookEventOutboxStatus.IN_PROGRESS.getValue(), now, limit });
+
+        // the conditional update makes sure only one node claims an event
+        final String claimSql = "update m_hook_event_outbox set status_enum = ?, next_attempt_time = ? "
+                + "where id = ? and status_enum in (?, ?) and next_attempt_time <= ?";
+        final List<HookEventOutboxData> claimedEvents = new ArrayList<>(dueEvents.size());
+        for (final HookEventOutboxData event : dueEvents) {
+            final int updated = this.jdbcTemplate.update(claimSql, HookEventOutboxStatus.IN_PROGRESS.getValue(), leaseExpiry,
+                    event.getId(), HookEventOutboxStatus.PENDING.getValue(), HookEventOutboxStatus.IN_PROGRESS.getValue(), now);
+            if (updated == 1) {
+                claimedEvents.add(event);
+            }
+        }
+        return claimedEvents;
+    }
+
+    @Override
+    public void markDelivered(final Long eventId) {
+        final String sql = "update m_hook_event_outbox set status_enum = ?, attempts = attempts + 1, last_error = null, "
+                + "delivered_date = ? where id = ?";
+        this.jdbcTemplate.update(sql, HookEventOutboxStatus.DELIVERED.getValue(), new Date(), eventId);
+    }
+
+    @Override
+    public void markForRetry(final Long eventId, final int attempts, final Date nextAttemptTime, final String errorMessage) {
+        final String sql = "update m_hook_event_outbox set status_enum = ?, attempts = ?, next_attempt_time = ?, last_error = ? "
+                + "where id = ?";
+        this.jdbcTemplate.update(sql, HookEventOutboxStatus.PENDING.getValue(), attempts, nextAttemptTime,
+                StringUtils.abbreviate(errorMessage, 500), eventId);
+    }
+
+    @Override
+    public void markFailed(final Long eventId, final int attempts, final String errorMessage) {
+        final String sql = "update m_hook_event_outbox set status_enum = ?, attempts = ?, last_error = ? where id = ?";
+        this.jdbcTemplate.update(sql, HookEventOutboxStatus.FAILED.getValue(), attempts, StringUtils.abbreviate(errorMessage, 500),
+                eventId);
+    }
+
+    @Override
+    public void release(final Long eventId, final Date nextAttemptTime) {
+        final String sql = "update m_hook_event_outbox set status_enum = ?, next_attempt_time = ? where id = ?";
+        this.jdbcTemplate.update(sql, HookEventOutboxStatus.PENDING.getValue(), nextAttemptTime, eventId);
+    }
+
+    @Override
+    public int purgeDeliveredEvents(final Date deliveredBefore) {
+        final String sql = "delete from m_hook_event_outbox where status_enum = ? and delivered_date < ?";
+        return this.jdbcTemplate.update(sql, HookEventOutboxStatus.DELIVERED.getValue(), deliveredBefore);
+    }
+
+    @Override
+    public long countEvents(final HookEventOutboxStatus status) {
+        final String sql = "select count(*) from m_hook_event_outbox where status_enum = ?";
+        return this.jdbcTemplate.queryForObject(sql, Long.class, status.getValue());
+    }
+
+    private static final class HookEventOutboxMapper implements RowMapper<HookEventOutboxData> {
+
+        public String schema() {
+            return " e.id as id, e.hook_id as hookId, e.entity_name as entityName, e.action_name as actionName, "
+                    + "e.payload as payload, e.attempts as attempts from m_hook_event_outbox e ";
+        }
+
+        @Override
+        public HookEventOutboxData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final Long id = rs.getLong("id");
+            final Long hookId = rs.getLong("hookId");
+            final String entityName = rs.getString("entityName");
+            final String actionName = rs.getString("actionName");
+            final String payload = rs.getString("payload");
+            final int attempts = rs.getInt("attempts");
+            return new HookEventOutboxData(id, hookId, entityName, actionName, payload, attempts);
+        }
+    }
+}
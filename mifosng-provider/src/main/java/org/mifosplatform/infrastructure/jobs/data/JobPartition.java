@@ -0,0 +1,64 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable description of a slice of work of a batch job. A partition is an
+ * inclusive range of ids, either of the entity being processed (id range
+ * partitioning) or of an office (office partitioning, where both bounds are the
+ * office id).
+ */
+public class JobPartition {
+
+    private final String name;
+    private final Long rangeFrom;
+    private final Long rangeTo;
+
+    public static JobPartition forOffice(final Long officeId) {
+        return new JobPartition("office-" + officeId, officeId, officeId);
+    }
+
+    public static JobPartition forIdRange(final Long rangeFrom, final Long rangeTo) {
+        return new JobPartition("ids-" + rangeFrom + "-" + rangeTo, rangeFrom, rangeTo);
+    }
+
+    /**
+     * Splits the inclusive id range <code>[minId, maxId]</code> into
+     * consecutive partitions of at most <code>chunkSize</code> ids.
+     */
+    public static List<JobPartition> splitIdRange(final Long minId, final Long maxId, final long chunkSize) {
+        final List<JobPartition> partitions = new ArrayList<>();
+        if (minId == null || maxId == null) { return partitions; }
+        long from = minId;
+        while (from <= maxId) {
+            final long to = Math.min(maxId, from + chunkSize - 1);
+            partitions.add(forIdRange(from, to));
+            from = to + 1;
+        }
+        return partitions;
+    }
+
+    private JobPartition(final String name, final Long rangeFrom, final Long rangeTo) {
+        this.name = name;
+        this.rangeFrom = rangeFrom;
+        this.rangeTo = rangeTo;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public Long getRangeFrom() {
+        return this.rangeFrom;
+    }
+
+    public Long getRangeTo() {
+        return this.rangeTo;
+    }
+}
@@ -5,12 +5,17 @@
  */
 package org.mifosplatform.infrastructure.jobs.domain;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 
+import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
@@ -48,6 +53,9 @@ public class ScheduledJobRunHistory extends AbstractPersistable<Long> {
     @Column(name = "error_log")
     private String errorLog;
 
+    @OneToMany(cascade = CascadeType.ALL, mappedBy = "scheduledJobRunHistory", orphanRemoval = true)
+    private List<ScheduledJobRunPartitionHistory> partitions = new ArrayList<>();
+
     public ScheduledJobRunHistory() {
 
     }
@@ -64,4 +72,10 @@ public class ScheduledJobRunHistory extends AbstractPersistable<Long> {
         this.errorLog = errorLog;
     }
 
+    public void addPartitions(final Collection<ScheduledJobRunPartitionHistory> partitionHistories) {
+        for (final ScheduledJobRunPartitionHistory partitionHistory : partitionHistories) {
+            partitionHistory.updateRunHistory(this);
+            this.partitions.add(partitionHistory);
+        }
+    }
 }
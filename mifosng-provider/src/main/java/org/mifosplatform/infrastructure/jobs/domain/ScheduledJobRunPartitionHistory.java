@@ -0,0 +1,100 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.domain;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.apache.commons.lang.StringUtils;
+import org.mifosplatform.infrastructure.jobs.data.JobPartition;
+import org.mifosplatform.infrastructure.jobs.service.SchedulerServiceConstants;
+import org.springframework.data.jpa.domain.AbstractPersistable;
+
+@Entity
+@Table(name = "job_run_partition_history")
+public class ScheduledJobRunPartitionHistory extends AbstractPersistable<Long> {
+
+    @ManyToOne
+    @JoinColumn(name = "job_run_history_id", nullable = false)
+    private ScheduledJobRunHistory scheduledJobRunHistory;
+
+    @Column(name = "partition_name", length = 100)
+    private String partitionName;
+
+    @Column(name = "range_from")
+    private Long rangeFrom;
+
+    @Column(name = "range_to")
+    private Long rangeTo;
+
+    @Column(name = "status")
+    private String status;
+
+    @Column(name = "processed_count")
+    private Integer processedCount;
+
+    @Column(name = "start_time")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date startTime;
+
+    @Column(name = "end_time")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date endTime;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    public static ScheduledJobRunPartitionHistory success(final JobPartition partition, final int processedCount, final Date startTime,
+            final Date endTime) {
+        return new ScheduledJobRunPartitionHistory(partition, SchedulerServiceConstants.STATUS_SUCCESS, processedCount, startTime,
+                endTime, null);
+    }
+
+    public static ScheduledJobRunPartitionHistory failed(final JobPartition partition, final Date startTime, final Date endTime,
+            final String errorMessage) {
+        return new ScheduledJobRunPartitionHistory(partition, SchedulerServiceConstants.STATUS_FAILED, 0, startTime, endTime,
+                StringUtils.abbreviate(errorMessage, 500));
+    }
+
+    protected ScheduledJobRunPartitionHistory() {
+        //
+    }
+
+    private ScheduledJobRunPartitionHistory(final JobPartition partition, final String status, final int processedCount,
+            final Date startTime, final Date endTime, final String errorMessage) {
+        this.partitionName = partition.getName();
+        this.rangeFrom = partition.getRangeFrom();
+        this.rangeTo = partition.getRangeTo();
+        this.status = status;
+        this.processedCount = processedCount;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.errorMessage = errorMessage;
+    }
+
+    public void updateRunHistory(final ScheduledJobRunHistory scheduledJobRunHistory) {
+        this.scheduledJobRunHistory = scheduledJobRunHistory;
+    }
+
+    public boolean isFailed() {
+        return SchedulerServiceConstants.STATUS_FAILED.equals(this.status);
+    }
+
+    public String getPartitionName() {
+        return this.partitionName;
+    }
+
+    public String getErrorMessage() {
+        return this.errorMessage;
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.jobs.data.JobPartition;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Maps a <code>select min(id) as minId, max(id) as maxId ...</code> row into
+ * id range partitions of the given size.
+ */
+public final class IdRangePartitionMapper implements RowMapper<List<JobPartition>> {
+
+    private final long partitionSize;
+
+    public IdRangePartitionMapper(final long partitionSize) {
+        this.partitionSize = partitionSize;
+    }
+
+    @Override
+    public List<JobPartition> mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+        final Long minId = JdbcSupport.getLong(rs, "minId");
+        final Long maxId = JdbcSupport.getLong(rs, "maxId");
+        return JobPartition.splitIdRange(minId, maxId, this.partitionSize);
+    }
+}
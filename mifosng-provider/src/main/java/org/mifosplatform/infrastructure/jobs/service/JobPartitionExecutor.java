@@ -0,0 +1,26 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.util.List;
+
+import org.mifosplatform.infrastructure.jobs.data.JobPartition;
+import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
+
+public interface JobPartitionExecutor {
+
+    /**
+     * Executes the task for every partition on the shared batch worker pool
+     * with the tenant of the calling thread, and records the outcome of each
+     * partition for the run history of the current job.
+     * 
+     * @return the total number of records processed
+     * @throws JobExecutionException
+     *             if any of the partitions failed, after all partitions have
+     *             been attempted
+     */
+    int execute(String jobName, List<JobPartition> partitions, JobPartitionTask task) throws JobExecutionException;
+}
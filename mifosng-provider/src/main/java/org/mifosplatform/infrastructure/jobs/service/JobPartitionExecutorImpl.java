@@ -0,0 +1,150 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.annotation.PreDestroy;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.exception.AbstractPlatformDomainRuleException;
+import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.jobs.data.JobPartition;
+import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobRunPartitionHistory;
+import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link JobPartitionExecutor} backed by a worker pool shared by the jobs of
+ * all tenants, which bounds the total number of batch threads on the node.
+ * 
+ * A single job run never uses more workers than half of its tenant's
+ * connection pool <code>maxActive</code>, so that online requests of the
+ * tenant still get connections while its batch jobs are running.
+ */
+@Service
+public class JobPartitionExecutorImpl implements JobPartitionExecutor {
+
+    private final static Logger logger = LoggerFactory.getLogger(JobPartitionExecutorImpl.class);
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(SchedulerServiceConstants.PARTITION_THREAD_COUNT,
+            new CustomizableThreadFactory("JobPartitionWorker-"));
+
+    @Override
+    public int execute(final String jobName, final List<JobPartition> partitions, final JobPartitionTask task)
+            throws JobExecutionException {
+
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final Queue<JobPartition> pendingPartitions = new ConcurrentLinkedQueue<>(partitions);
+        final List<ScheduledJobRunPartitionHistory> partitionHistories = Collections
+                .synchronizedList(new ArrayList<ScheduledJobRunPartitionHistory>(partitions.size()));
+
+        final int parallelism = determineParallelism(tenant, partitions.size());
+        final List<Future<Integer>> workers = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            workers.add(this.executorService.submit(new Callable<Integer>() {
+
+                @Override
+                public Integer call() {
+                    return processPartitions(jobName, tenant, pendingPartitions, task, partitionHistories);
+                }
+            }));
+        }
+
+        int processed = 0;
+        try {
+            for (final Future<Integer> worker : workers) {
+                processed += worker.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (final Future<Integer> worker : workers) {
+                worker.cancel(true);
+            }
+            throw new JobExecutionException(jobName + ": interrupted while waiting for partitions to complete");
+        } catch (final ExecutionException e) {
+            // partition failures are caught by the workers, this is unexpected
+            throw new JobExecutionException(jobName + ": partition worker failed with " + e.getCause());
+        } finally {
+            JobRunPartitionContext.record(partitionHistories);
+        }
+
+        final StringBuilder errorMsg = new StringBuilder();
+        for (final ScheduledJobRunPartitionHistory partitionHistory : partitionHistories) {
+            if (partitionHistory.isFailed()) {
+                errorMsg.append("Partition ").append(partitionHistory.getPartitionName()).append(" failed with message ")
+                        .append(partitionHistory.getErrorMessage()).append(". ");
+            }
+        }
+
+        logger.info(jobName + ": " + partitions.size() + " partitions processed " + processed + " records with " + parallelism
+                + " workers");
+
+        if (errorMsg.length() > 0) { throw new JobExecutionException(errorMsg.toString()); }
+
+        return processed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executorService.shutdownNow();
+    }
+
+    private int processPartitions(final String jobName, final MifosPlatformTenant tenant, final Queue<JobPartition> pendingPartitions,
+            final JobPartitionTask task, final List<ScheduledJobRunPartitionHistory> partitionHistories) {
+        if (tenant != null) {
+            ThreadLocalContextUtil.setTenant(tenant);
+        }
+        try {
+            int processed = 0;
+            JobPartition partition = pendingPartitions.poll();
+            while (partition != null) {
+                final Date startTime = new Date();
+                try {
+                    final int count = task.execute(partition);
+                    processed += count;
+                    partitionHistories.add(ScheduledJobRunPartitionHistory.success(partition, count, startTime, new Date()));
+                } catch (final RuntimeException e) {
+                    logger.error(jobName + ": partition " + partition.getName() + " failed", e);
+                    partitionHistories.add(ScheduledJobRunPartitionHistory.failed(partition, startTime, new Date(), errorMessage(e)));
+                }
+                partition = pendingPartitions.poll();
+            }
+            return processed;
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    private String errorMessage(final RuntimeException e) {
+        // platform exceptions only carry their message as user message
+        if (e instanceof AbstractPlatformDomainRuleException) { return ((AbstractPlatformDomainRuleException) e).getDefaultUserMessage(); }
+        if (e instanceof PlatformDataIntegrityException) { return ((PlatformDataIntegrityException) e).getDefaultUserMessage(); }
+        return e.getMessage();
+    }
+
+    private int determineParallelism(final MifosPlatformTenant tenant, final int partitionCount) {
+        int parallelism = Math.min(partitionCount, SchedulerServiceConstants.PARTITION_THREAD_COUNT);
+        if (tenant != null) {
+            parallelism = Math.min(parallelism, Math.max(1, tenant.getMaxActive() / 2));
+        }
+        return Math.max(1, parallelism);
+    }
+}
@@ -0,0 +1,20 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import org.mifosplatform.infrastructure.jobs.data.JobPartition;
+
+/**
+ * Unit of work of a partitioned batch job, executed once per
+ * {@link JobPartition} by the {@link JobPartitionExecutor}.
+ */
+public interface JobPartitionTask {
+
+    /**
+     * @return the number of records processed in the partition
+     */
+    int execute(JobPartition partition);
+}
@@ -0,0 +1,42 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobRunPartitionHistory;
+
+/**
+ * Collects the outcome of the partitions executed by a job on the scheduler
+ * thread running the job, so that {@link SchedulerJobListener} can store them
+ * along with the run history once the job has finished.
+ */
+public class JobRunPartitionContext {
+
+    private static final ThreadLocal<List<ScheduledJobRunPartitionHistory>> partitionsContext = new ThreadLocal<>();
+
+    public static void record(final Collection<ScheduledJobRunPartitionHistory> partitionHistories) {
+        List<ScheduledJobRunPartitionHistory> recorded = partitionsContext.get();
+        if (recorded == null) {
+            recorded = new ArrayList<>();
+            partitionsContext.set(recorded);
+        }
+        recorded.addAll(partitionHistories);
+    }
+
+    /**
+     * Returns the partitions recorded on this thread since the last call and
+     * clears them.
+     */
+    public static List<ScheduledJobRunPartitionHistory> drain() {
+        final List<ScheduledJobRunPartitionHistory> recorded = partitionsContext.get();
+        partitionsContext.remove();
+        if (recorded == null) { return new ArrayList<>(); }
+        return recorded;
+    }
+}
@@ -45,7 +45,8 @@ public class SchedulerJobListener implements JobListener {
 
     @Override
     public void jobToBeExecuted(@SuppressWarnings("unused") final JobExecutionContext context) {
-
+        // discard partitions left behind by a previous job on this thread
+        JobRunPartitionContext.drain();
     }
 
     @Override
@@ -93,6 +94,7 @@ public class SchedulerJobListener implements JobListener {
 
         final ScheduledJobRunHistory runHistory = new ScheduledJobRunHistory(scheduledJobDetails, version, context.getFireTime(),
                 new Date(), status, errorMessage, triggerType, errorLog);
+        runHistory.addPartitions(JobRunPartitionContext.drain());
         // scheduledJobDetails.addRunHistory(runHistory);
 
         this.schedularService.saveOrUpdate(scheduledJobDetails, runHistory);
@@ -24,5 +24,7 @@ public interface SchedulerServiceConstants {
     public static final int DEFAULT_THREAD_COUNT = 7;
     public static final int GROUP_THREAD_COUNT = 1;
     public static final String SCHEDULER_NAME = "schedulerName";
+    public static final int PARTITION_THREAD_COUNT = 8;
+    public static final long DEFAULT_PARTITION_SIZE = 10000;
 
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.metrics.data;
+
+/**
+ * Immutable data object representing the latencies of the handler of one
+ * command of a tenant.
+ */
+public class CommandMetricsData {
+
+    @SuppressWarnings("unused")
+    private final String tenantIdentifier;
+    @SuppressWarnings("unused")
+    private final String entityName;
+    @SuppressWarnings("unused")
+    private final String actionName;
+    @SuppressWarnings("unused")
+    private final LatencyData latency;
+
+    public CommandMetricsData(final String tenantIdentifier, final String entityName, final String actionName,
+            final LatencyData latency) {
+        this.tenantIdentifier = tenantIdentifier;
+        this.entityName = entityName;
+        this.actionName = actionName;
+        this.latency = latency;
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.metrics.data;
+
+/**
+ * Immutable data object representing the latencies of the requests of a
+ * tenant to one resource with one http method.
+ */
+public class EndpointMetricsData {
+
+    @SuppressWarnings("unused")
+    private final String tenantIdentifier;
+    @SuppressWarnings("unused")
+    private final String resource;
+    @SuppressWarnings("unused")
+    private final String method;
+    @SuppressWarnings("unused")
+    private final LatencyData latency;
+    @SuppressWarnings("unused")
+    private final double meanDatabaseTime;
+    @SuppressWarnings("unused")
+    private final double meanPoolWaitTime;
+    @SuppressWarnings("unused")
+    private final double maxPoolWaitTime;
+    @SuppressWarnings("unused")
+    private final double meanStatements;
+
+    public EndpointMetricsData(final String tenantIdentifier, final String resource, final String method, final LatencyData latency,
+            final double meanDatabaseTime, final double meanPoolWaitTime, final double maxPoolWaitTime, final double meanStatements) {
+        this.tenantIdentifier = tenantIdentifier;
+        this.resource = resource;
+        this.method = method;
+        this.latency = latency;
+        this.meanDatabaseTime = meanDatabaseTime;
+        this.meanPoolWaitTime = meanPoolWaitTime;
+        this.maxPoolWaitTime = maxPoolWaitTime;
+        this.meanStatements = meanStatements;
+    }
+}
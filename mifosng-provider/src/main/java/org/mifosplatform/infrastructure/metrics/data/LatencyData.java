@@ -0,0 +1,38 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.metrics.data;
+
+/**
+ * Immutable data object summarising a latency distribution, in milliseconds.
+ */
+public class LatencyData {
+
+    @SuppressWarnings("unused")
+    private final long count;
+    @SuppressWarnings("unused")
+    private final double mean;
+    @SuppressWarnings("unused")
+    private final double p50;
+    @SuppressWarnings("unused")
+    private final double p90;
+    @SuppressWarnings("unused")
+    private final double p99;
+    @SuppressWarnings("unused")
+    private final double p999;
+    @SuppressWarnings("unused")
+    private final double max;
+
+    public LatencyData(final long count, final double mean, final double p50, final double p90, final double p99, final double p999,
+            final double max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.metrics.data;
+
+import java.util.Collection;
+import java.util.Date;
+
+/**
+ * Immutable data object representing the request and command metrics
+ * recorded since the given time.
+ */
+public class PlatformMetricsData {
+
+    @SuppressWarnings("unused")
+    private final Date since;
+    @SuppressWarnings("unused")
+    private final Collection<EndpointMetricsData> endpoints;
+    @SuppressWarnings("unused")
+    private final Collection<CommandMetricsData> commands;
+
+    public PlatformMetricsData(final Date since, final Collection<EndpointMetricsData> endpoints,
+            final Collection<CommandMetricsData> commands) {
+        this.since = since;
+        this.endpoints = endpoints;
+        this.commands = commands;
+    }
+}
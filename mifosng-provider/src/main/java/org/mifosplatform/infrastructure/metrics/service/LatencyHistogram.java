@@ -0,0 +1,121 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.metrics.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free histogram of latencies in microseconds, in the manner of an HDR
+ * histogram: each power of two range is split into {@link #SUB_BUCKETS}
+ * linear buckets, so any recorded value is known within 1/16th of itself
+ * whatever its magnitude, in a fixed amount of memory.
+ *
+ * Recording is a few atomic increments and may happen from any number of
+ * threads; a {@link Snapshot} is a copy of the counts that percentiles are
+ * read from without holding back recording.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** values above 2^37 micros, about 38 hours, share the last bucket */
+    private static final int MAX_EXPONENT = 36;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordNanos(final long nanos) {
+        recordMicros(nanos / 1000);
+    }
+
+    public void recordMicros(final long value) {
+        final long micros = Math.max(0, value);
+        this.counts.incrementAndGet(bucketOf(micros));
+        this.totalMicros.addAndGet(micros);
+
+        long max = this.maxMicros.get();
+        while (micros > max && !this.maxMicros.compareAndSet(max, micros)) {
+            max = this.maxMicros.get();
+        }
+    }
+
+    public Snapshot snapshot() {
+        final long[] snapshotCounts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshotCounts[i] = this.counts.get(i);
+            count += snapshotCounts[i];
+        }
+        return new Snapshot(snapshotCounts, count, this.totalMicros.get(), this.maxMicros.get());
+    }
+
+    static int bucketOf(final long micros) {
+        if (micros < SUB_BUCKETS) { return (int) micros; }
+        final int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) { return BUCKETS - 1; }
+        final int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Highest value falling into the bucket.
+     */
+    static long highestValueOf(final int bucket) {
+        if (bucket < SUB_BUCKETS) { return bucket; }
+        if (bucket == BUCKETS - 1) { return Long.MAX_VALUE; }
+        final int shift = bucket / SUB_BUCKETS - 1;
+        final long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Counts of a {@link LatencyHistogram} at one point in time.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long totalMicros;
+        private final long maxMicros;
+
+        private Snapshot(final long[] counts, final long count, final long totalMicros, final long maxMicros) {
+            this.counts = counts;
+            this.count = count;
+            this.totalMicros = totalMicros;
+            this.maxMicros = maxMicros;
+        }
+
+        public long getCount() {
+            return this.count;
+        }
+
+        public long getMaxMicros() {
+            return this.maxMicros;
+        }
+
+        public long getMeanMicros() {
+            return this.count == 0 ? 0 : this.totalMicros / this.count;
+        }
+
+        /**
+         * Value below or at which the given percentage of the recorded values
+         * lie, as the highest value of its bucket capped to the maximum.
+         */
+        public long getValueAtPercentile(final double percentile) {
+            if (this.count == 0) { return 0; }
+            final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * this.count));
+            long seen = 0;
+            for (int i = 0; i < this.counts.length; i++) {
+                seen += this.counts[i];
+                if (seen >= rank) { return Math.min(highestValueOf(i), this.maxMicros); }
+            }
+            return this.maxMicros;
+        }
+    }
+}
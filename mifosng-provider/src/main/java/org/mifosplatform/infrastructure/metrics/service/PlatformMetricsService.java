@@ -0,0 +1,39 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.metrics.service;
+
+import org.mifosplatform.infrastructure.metrics.data.PlatformMetricsData;
+
+/**
+ * Latencies of API requests per tenant, resource and http method and of
+ * command handlers per tenant and command, kept in memory of the node
+ * recording them since it started or was last reset.
+ */
+public interface PlatformMetricsService {
+
+    /**
+     * @param path
+     *            path of the request below the API root; numeric segments
+     *            are recorded as {id}
+     */
+    void recordRequest(String tenantIdentifier, String method, String path, long elapsedNanos, RequestTimings timings);
+
+    /**
+     * Whether a request that took the given time is to be logged: requests
+     * slower than the slow request threshold are, of the others only a
+     * sample.
+     */
+    boolean isRequestToBeLogged(long elapsedNanos);
+
+    /**
+     * Records the time the handler of a command of the current tenant took.
+     */
+    void recordCommand(String entityName, String actionName, long elapsedNanos);
+
+    PlatformMetricsData retrieveMetrics(String tenantIdentifier);
+
+    void reset();
+}
@@ -0,0 +1,282 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.metrics.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.metrics.data.CommandMetricsData;
+import org.mifosplatform.infrastructure.metrics.data.EndpointMetricsData;
+import org.mifosplatform.infrastructure.metrics.data.LatencyData;
+import org.mifosplatform.infrastructure.metrics.data.PlatformMetricsData;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link PlatformMetricsService} recording into a {@link LatencyHistogram} per
+ * endpoint and command, also exposed over JMX.
+ *
+ * The number of endpoints and commands tracked is bounded; once
+ * {@link #MAX_TRACKED} are, requests to further resources of a tenant are
+ * recorded under {@link #OTHER}, as are further commands.
+ */
+@Service
+@ManagedResource(objectName = "org.mifosplatform:type=Metrics,name=platformMetrics", description = "Latencies of API requests and commands")
+public class PlatformMetricsServiceImpl implements PlatformMetricsService {
+
+    private static final int MAX_TRACKED = 2000;
+    private static final String OTHER = "(other)";
+    private static final String ID_SEGMENT = "{id}";
+
+    private volatile ConcurrentMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private volatile ConcurrentMap<String, CommandMetrics> commands = new ConcurrentHashMap<>();
+    private volatile long since = System.currentTimeMillis();
+
+    private final AtomicLong requestsToLog = new AtomicLong();
+    private volatile int requestLogSampleRate = 100;
+    private volatile long slowRequestThresholdMillis = 2000;
+
+    @Override
+    public void recordRequest(final String tenantIdentifier, final String method, final String path, final long elapsedNanos,
+            final RequestTimings timings) {
+        final String resource = normalise(path);
+        final ConcurrentMap<String, EndpointMetrics> endpoints = this.endpoints;
+
+        EndpointMetrics metrics = endpoints.get(key(tenantIdentifier, method, resource));
+        if (metrics == null) {
+            final String trackedResource = endpoints.size() < MAX_TRACKED ? resource : OTHER;
+            final String key = key(tenantIdentifier, method, trackedResource);
+            final EndpointMetrics newMetrics = new EndpointMetrics(tenantIdentifier, trackedResource, method);
+            metrics = endpoints.putIfAbsent(key, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+            }
+        }
+        metrics.record(elapsedNanos, timings);
+    }
+
+    @Override
+    public boolean isRequestToBeLogged(final long elapsedNanos) {
+        if (elapsedNanos / 1000000 >= this.slowRequestThresholdMillis) { return true; }
+        final int sampleRate = this.requestLogSampleRate;
+        return sampleRate > 0 && this.requestsToLog.incrementAndGet() % sampleRate == 0;
+    }
+
+    @Override
+    public void recordCommand(final String entityName, final String actionName, final long elapsedNanos) {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final ConcurrentMap<String, CommandMetrics> commands = this.commands;
+
+        CommandMetrics metrics = commands.get(key(tenantIdentifier, entityName, actionName));
+        if (metrics == null) {
+            final boolean tracked = commands.size() < MAX_TRACKED;
+            final String trackedEntityName = tracked ? entityName : OTHER;
+            final String trackedActionName = tracked ? actionName : OTHER;
+            final String key = key(tenantIdentifier, trackedEntityName, trackedActionName);
+            final CommandMetrics newMetrics = new CommandMetrics(tenantIdentifier, trackedEntityName, trackedActionName);
+            metrics = commands.putIfAbsent(key, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+            }
+        }
+        metrics.latency.recordNanos(elapsedNanos);
+    }
+
+    @Override
+    public PlatformMetricsData retrieveMetrics(final String tenantIdentifier) {
+        final List<EndpointMetricsData> endpointData = new ArrayList<>();
+        for (final EndpointMetrics metrics : this.endpoints.values()) {
+            if (metrics.tenantIdentifier.equals(tenantIdentifier)) {
+                endpointData.add(metrics.toData());
+            }
+        }
+        final List<CommandMetricsData> commandData = new ArrayList<>();
+        for (final CommandMetrics metrics : this.commands.values()) {
+            if (metrics.tenantIdentifier.equals(tenantIdentifier)) {
+                commandData.add(metrics.toData());
+            }
+        }
+        return new PlatformMetricsData(new Date(this.since), endpointData, commandData);
+    }
+
+    @Override
+    @ManagedOperation(description = "Discards all latencies recorded so far")
+    public void reset() {
+        this.endpoints = new ConcurrentHashMap<>();
+        this.commands = new ConcurrentHashMap<>();
+        this.since = System.currentTimeMillis();
+    }
+
+    @ManagedOperation(description = "Latencies of requests per tenant, http method and resource, in milliseconds")
+    public String[] endpointLatencies() {
+        final Collection<EndpointMetrics> values = this.endpoints.values();
+        final List<String> lines = new ArrayList<>(values.size());
+        for (final EndpointMetrics metrics : values) {
+            final LatencyHistogram.Snapshot snapshot = metrics.latency.snapshot();
+            lines.add(metrics.tenantIdentifier + " " + metrics.method + " " + metrics.resource + " " + describe(snapshot) + " db="
+                    + millis(metrics.databaseMicros.get() / Math.max(1, snapshot.getCount())) + " poolWait="
+                    + millis(metrics.poolWaitMicros.get() / Math.max(1, snapshot.getCount())));
+        }
+        return lines.toArray(new String[lines.size()]);
+    }
+
+    @ManagedOperation(description = "Latencies of command handlers per tenant, entity and action, in milliseconds")
+    public String[] commandLatencies() {
+        final Collection<CommandMetrics> values = this.commands.values();
+        final List<String> lines = new ArrayList<>(values.size());
+        for (final CommandMetrics metrics : values) {
+            lines.add(metrics.tenantIdentifier + " " + metrics.actionName + " " + metrics.entityName + " "
+                    + describe(metrics.latency.snapshot()));
+        }
+        return lines.toArray(new String[lines.size()]);
+    }
+
+    @ManagedAttribute(description = "Number of tenant, http method and resource combinations tracked")
+    public int getTrackedEndpoints() {
+        return this.endpoints.size();
+    }
+
+    @ManagedAttribute(description = "Every how many requests one is logged, 0 to log only slow requests")
+    public int getRequestLogSampleRate() {
+        return this.requestLogSampleRate;
+    }
+
+    @ManagedAttribute
+    public void setRequestLogSampleRate(final int requestLogSampleRate) {
+        this.requestLogSampleRate = requestLogSampleRate;
+    }
+
+    @ManagedAttribute(description = "Requests taking at least this many milliseconds are always logged")
+    public long getSlowRequestThresholdMillis() {
+        return this.slowRequestThresholdMillis;
+    }
+
+    @ManagedAttribute
+    public void setSlowRequestThresholdMillis(final long slowRequestThresholdMillis) {
+        this.slowRequestThresholdMillis = slowRequestThresholdMillis;
+    }
+
+    /**
+     * Path without trailing slash, with numeric segments replaced by
+     * {@link #ID_SEGMENT}.
+     */
+    static String normalise(final String path) {
+        if (path == null || path.isEmpty()) { return "/"; }
+        final StringBuilder resource = new StringBuilder(path.length());
+        int start = path.charAt(0) == '/' ? 1 : 0;
+        while (start < path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (end > start) {
+                resource.append('/');
+                if (isNumeric(path, start, end)) {
+                    resource.append(ID_SEGMENT);
+                } else {
+                    resource.append(path, start, end);
+                }
+            }
+            start = end + 1;
+        }
+        return resource.length() == 0 ? "/" : resource.toString();
+    }
+
+    private static boolean isNumeric(final String path, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isDigit(path.charAt(i))) { return false; }
+        }
+        return true;
+    }
+
+    private static String key(final String first, final String second, final String third) {
+        return first + '|' + second + '|' + third;
+    }
+
+    private static String describe(final LatencyHistogram.Snapshot snapshot) {
+        return "count=" + snapshot.getCount() + " mean=" + millis(snapshot.getMeanMicros()) + " p50="
+                + millis(snapshot.getValueAtPercentile(50)) + " p99=" + millis(snapshot.getValueAtPercentile(99)) + " max="
+                + millis(snapshot.getMaxMicros());
+    }
+
+    private static LatencyData toData(final LatencyHistogram.Snapshot snapshot) {
+        return new LatencyData(snapshot.getCount(), millis(snapshot.getMeanMicros()), millis(snapshot.getValueAtPercentile(50)),
+                millis(snapshot.getValueAtPercentile(90)), millis(snapshot.getValueAtPercentile(99)),
+                millis(snapshot.getValueAtPercentile(99.9)), millis(snapshot.getMaxMicros()));
+    }
+
+    private static double millis(final long micros) {
+        return micros / 1000d;
+    }
+
+    private static final class EndpointMetrics {
+
+        private final String tenantIdentifier;
+        private final String resource;
+        private final String method;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong databaseMicros = new AtomicLong();
+        private final AtomicLong poolWaitMicros = new AtomicLong();
+        private final AtomicLong maxPoolWaitMicros = new AtomicLong();
+        private final AtomicLong statements = new AtomicLong();
+
+        EndpointMetrics(final String tenantIdentifier, final String resource, final String method) {
+            this.tenantIdentifier = tenantIdentifier;
+            this.resource = resource;
+            this.method = method;
+        }
+
+        void record(final long elapsedNanos, final RequestTimings timings) {
+            this.latency.recordNanos(elapsedNanos);
+            if (timings != null) {
+                final long poolWait = timings.getPoolWaitNanos() / 1000;
+                this.databaseMicros.addAndGet(timings.getDatabaseNanos() / 1000);
+                this.poolWaitMicros.addAndGet(poolWait);
+                this.statements.addAndGet(timings.getStatements());
+
+                long max = this.maxPoolWaitMicros.get();
+                while (poolWait > max && !this.maxPoolWaitMicros.compareAndSet(max, poolWait)) {
+                    max = this.maxPoolWaitMicros.get();
+                }
+            }
+        }
+
+        EndpointMetricsData toData() {
+            final LatencyHistogram.Snapshot snapshot = this.latency.snapshot();
+            final long count = Math.max(1, snapshot.getCount());
+            return new EndpointMetricsData(this.tenantIdentifier, this.resource, this.method, PlatformMetricsServiceImpl.toData(snapshot),
+                    millis(this.databaseMicros.get() / count), millis(this.poolWaitMicros.get() / count),
+                    millis(this.maxPoolWaitMicros.get()), (double) this.statements.get() / count);
+        }
+    }
+
+    private static final class CommandMetrics {
+
+        private final String tenantIdentifier;
+        private final String entityName;
+        private final String actionName;
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        CommandMetrics(final String tenantIdentifier, final String entityName, final String actionName) {
+            this.tenantIdentifier = tenantIdentifier;
+            this.entityName = entityName;
+            this.actionName = actionName;
+        }
+
+        CommandMetricsData toData() {
+            return new CommandMetricsData(this.tenantIdentifier, this.entityName, this.actionName,
+                    PlatformMetricsServiceImpl.toData(this.latency.snapshot()));
+        }
+    }
+}
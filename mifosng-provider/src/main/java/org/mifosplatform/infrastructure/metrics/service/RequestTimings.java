@@ -0,0 +1,67 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.metrics.service;
+
+/**
+ * Time an API request spent in the database and waiting for connections,
+ * accumulated in a {@link ThreadLocal} by the connection pool while the
+ * request is processed.
+ *
+ * Work done outside of a request, such as by jobs, is not accumulated.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> current = new ThreadLocal<>();
+
+    private long databaseNanos;
+    private long poolWaitNanos;
+    private int statements;
+
+    /**
+     * Starts accumulating the timings of the request processed by the
+     * current thread.
+     */
+    public static RequestTimings start() {
+        final RequestTimings timings = new RequestTimings();
+        current.set(timings);
+        return timings;
+    }
+
+    public static void stop() {
+        current.remove();
+    }
+
+    public static void addDatabaseTime(final long nanos) {
+        final RequestTimings timings = current.get();
+        if (timings != null) {
+            timings.databaseNanos += nanos;
+            timings.statements++;
+        }
+    }
+
+    public static void addPoolWaitTime(final long nanos) {
+        final RequestTimings timings = current.get();
+        if (timings != null) {
+            timings.poolWaitNanos += nanos;
+        }
+    }
+
+    private RequestTimings() {
+        //
+    }
+
+    public long getDatabaseNanos() {
+        return this.databaseNanos;
+    }
+
+    public long getPoolWaitNanos() {
+        return this.poolWaitNanos;
+    }
+
+    public int getStatements() {
+        return this.statements;
+    }
+}
@@ -9,6 +9,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Set;
 
+import javax.ws.rs.DELETE;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
@@ -18,6 +20,7 @@ import javax.ws.rs.core.MediaType;
 import org.mifosplatform.infrastructure.core.data.EnumOptionData;
 import org.mifosplatform.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.mifosplatform.infrastructure.security.data.AuthenticatedUserData;
+import org.mifosplatform.infrastructure.security.service.AuthenticationTokenService;
 import org.mifosplatform.infrastructure.security.service.SpringSecurityPlatformSecurityContext;
 import org.mifosplatform.useradministration.data.RoleData;
 import org.mifosplatform.useradministration.domain.AppUser;
@@ -41,15 +44,18 @@ public class AuthenticationApiResource {
     private final DaoAuthenticationProvider customAuthenticationProvider;
     private final ToApiJsonSerializer<AuthenticatedUserData> apiJsonSerializerService;
     private final SpringSecurityPlatformSecurityContext springSecurityPlatformSecurityContext;
+    private final AuthenticationTokenService authenticationTokenService;
 
     @Autowired
     public AuthenticationApiResource(
             @Qualifier("customAuthenticationProvider") final DaoAuthenticationProvider customAuthenticationProvider,
             final ToApiJsonSerializer<AuthenticatedUserData> apiJsonSerializerService,
-            final SpringSecurityPlatformSecurityContext springSecurityPlatformSecurityContext) {
+            final SpringSecurityPlatformSecurityContext springSecurityPlatformSecurityContext,
+            final AuthenticationTokenService authenticationTokenService) {
         this.customAuthenticationProvider = customAuthenticationProvider;
         this.apiJsonSerializerService = apiJsonSerializerService;
         this.springSecurityPlatformSecurityContext = springSecurityPlatformSecurityContext;
+        this.authenticationTokenService = authenticationTokenService;
     }
 
     @POST
@@ -89,12 +95,29 @@ public class AuthenticationApiResource {
                 authenticatedUserData = new AuthenticatedUserData(username, principal.getId(), new String(base64EncodedAuthenticationKey));
             } else {
 
+                // users that have to renew their password get a token once
+                // they authenticate with the new one
+                final Authentication tokenAuthentication = new UsernamePasswordAuthenticationToken(principal, null,
+                        authenticationCheck.getAuthorities());
+                final String authenticationToken = this.authenticationTokenService.issueToken(tokenAuthentication, new String(
+                        base64EncodedAuthenticationKey));
                 authenticatedUserData = new AuthenticatedUserData(username, officeId, officeName, staffId, staffDisplayName,
-                        organisationalRole, roles, permissions, principal.getId(), new String(base64EncodedAuthenticationKey));
+                        organisationalRole, roles, permissions, principal.getId(), new String(base64EncodedAuthenticationKey),
+                        authenticationToken);
             }
 
         }
 
         return this.apiJsonSerializerService.serialize(authenticatedUserData);
     }
+
+    /**
+     * Revokes the bearer token the request is authenticated with.
+     */
+    @DELETE
+    public void revokeToken(@HeaderParam("Authorization") final String authorization) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            this.authenticationTokenService.revokeToken(authorization.substring("Bearer ".length()).trim());
+        }
+    }
 }
\ No newline at end of file
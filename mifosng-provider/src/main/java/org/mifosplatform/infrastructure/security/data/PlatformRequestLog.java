@@ -11,7 +11,7 @@ import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
 
-import org.apache.commons.lang.time.StopWatch;
+import org.mifosplatform.infrastructure.metrics.service.RequestTimings;
 
 /**
  * Immutable data object representing platform API request used for
@@ -24,26 +24,37 @@ public class PlatformRequestLog {
     @SuppressWarnings("unused")
     private final long totalTime;
     @SuppressWarnings("unused")
+    private final long databaseTime;
+    @SuppressWarnings("unused")
+    private final long poolWaitTime;
+    @SuppressWarnings("unused")
+    private final int statements;
+    @SuppressWarnings("unused")
     private final String method;
     @SuppressWarnings("unused")
     private final String url;
     @SuppressWarnings("unused")
     private final Map<String, String[]> parameters;
 
-    public static PlatformRequestLog from(final StopWatch task, final HttpServletRequest request) throws IOException {
+    public static PlatformRequestLog from(final long startTime, final long elapsedNanos, final RequestTimings timings,
+            final HttpServletRequest request) throws IOException {
         final String requestUrl = request.getRequestURL().toString();
 
         final Map<String, String[]> parameters = new HashMap<>(request.getParameterMap());
         parameters.remove("password");
         parameters.remove("_");
 
-        return new PlatformRequestLog(task.getStartTime(), task.getTime(), request.getMethod(), requestUrl, parameters);
+        return new PlatformRequestLog(startTime, elapsedNanos / 1000000, timings.getDatabaseNanos() / 1000000,
+                timings.getPoolWaitNanos() / 1000000, timings.getStatements(), request.getMethod(), requestUrl, parameters);
     }
 
-    private PlatformRequestLog(final long startTime, final long time, final String method, final String requestUrl,
-            final Map<String, String[]> parameters) {
+    private PlatformRequestLog(final long startTime, final long time, final long databaseTime, final long poolWaitTime,
+            final int statements, final String method, final String requestUrl, final Map<String, String[]> parameters) {
         this.startTime = startTime;
         this.totalTime = time;
+        this.databaseTime = databaseTime;
+        this.poolWaitTime = poolWaitTime;
+        this.statements = statements;
         this.method = method;
         this.url = requestUrl;
         this.parameters = parameters;
@@ -14,20 +14,26 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.lang.time.StopWatch;
 import org.mifosplatform.infrastructure.cache.domain.CacheType;
 import org.mifosplatform.infrastructure.cache.service.CacheWritePlatformService;
 import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
 import org.mifosplatform.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.mifosplatform.infrastructure.core.service.ReplicaReadPolicy;
+import org.mifosplatform.infrastructure.core.service.ReplicaRoutingContext;
 import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.metrics.service.PlatformMetricsService;
+import org.mifosplatform.infrastructure.metrics.service.RequestTimings;
 import org.mifosplatform.infrastructure.security.data.PlatformRequestLog;
 import org.mifosplatform.infrastructure.security.exception.InvalidTenantIdentiferException;
+import org.mifosplatform.infrastructure.security.service.AuthenticationTokenService;
 import org.mifosplatform.infrastructure.security.service.BasicAuthTenantDetailsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
@@ -47,6 +53,17 @@ import org.springframework.stereotype.Service;
  * 
  * If multi-tenant and basic auth credentials are invalid, a http error response
  * is returned.
+ * 
+ * Instead of basic auth credentials, requests may carry a bearer token issued
+ * by the authentication resource, which authenticates them without loading
+ * the user or checking the password.
+ * 
+ * Once authenticated, GET requests may read from the replica of the tenant
+ * database, with the staleness allowed for reports when running reports.
+ * 
+ * The latency of every request is recorded with the
+ * {@link PlatformMetricsService}; only slow requests and a sample of the others
+ * are logged, all of them if debug logging is enabled for this filter.
  */
 @Service(value = "basicAuthenticationProcessingFilter")
 public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFilter {
@@ -58,6 +75,9 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
     private final ToApiJsonSerializer<PlatformRequestLog> toApiJsonSerializer;
     private final ConfigurationDomainService configurationDomainService;
     private final CacheWritePlatformService cacheWritePlatformService;
+    private final AuthenticationTokenService authenticationTokenService;
+    private final AuthenticationEntryPoint authenticationEntryPoint;
+    private final PlatformMetricsService metricsService;
 
     private final String tenantRequestHeader = "X-Mifos-Platform-TenantId";
     private final boolean exceptionIfHeaderMissing = true;
@@ -66,12 +86,16 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
     public TenantAwareBasicAuthenticationFilter(final AuthenticationManager authenticationManager,
             final AuthenticationEntryPoint authenticationEntryPoint, final BasicAuthTenantDetailsService basicAuthTenantDetailsService,
             final ToApiJsonSerializer<PlatformRequestLog> toApiJsonSerializer, final ConfigurationDomainService configurationDomainService,
-            final CacheWritePlatformService cacheWritePlatformService) {
+            final CacheWritePlatformService cacheWritePlatformService, final AuthenticationTokenService authenticationTokenService,
+            final PlatformMetricsService metricsService) {
         super(authenticationManager, authenticationEntryPoint);
         this.basicAuthTenantDetailsService = basicAuthTenantDetailsService;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.configurationDomainService = configurationDomainService;
         this.cacheWritePlatformService = cacheWritePlatformService;
+        this.authenticationTokenService = authenticationTokenService;
+        this.authenticationEntryPoint = authenticationEntryPoint;
+        this.metricsService = metricsService;
     }
 
     @Override
@@ -80,8 +104,10 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
         final HttpServletRequest request = (HttpServletRequest) req;
         final HttpServletResponse response = (HttpServletResponse) res;
 
-        final StopWatch task = new StopWatch();
-        task.start();
+        final long startTime = System.currentTimeMillis();
+        final long startNanos = System.nanoTime();
+        final RequestTimings timings = RequestTimings.start();
+        String recordedTenantIdentifier = null;
 
         try {
 
@@ -103,10 +129,22 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
                 final MifosPlatformTenant tenant = this.basicAuthTenantDetailsService.loadTenantById(tenantIdentifier);
 
                 ThreadLocalContextUtil.setTenant(tenant);
+                recordedTenantIdentifier = tenant.getTenantIdentifier();
                 String authToken = request.getHeader("Authorization");
 
                 if (authToken != null && authToken.startsWith("Basic ")) {
                     ThreadLocalContextUtil.setAuthToken(authToken.replaceFirst("Basic ", ""));
+                } else if (authToken != null && authToken.startsWith("Bearer ")) {
+                    final String bearerToken = authToken.substring("Bearer ".length()).trim();
+                    final Authentication authentication = this.authenticationTokenService.authenticate(bearerToken);
+                    if (authentication == null) {
+                        SecurityContextHolder.clearContext();
+                        this.authenticationEntryPoint.commence(request, response, new BadCredentialsException(
+                                "Invalid or expired authentication token"));
+                        return;
+                    }
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    ThreadLocalContextUtil.setAuthToken(this.authenticationTokenService.basicAuthenticationKeyOf(bearerToken));
                 }
 
                 if (!firstRequestProcessed) {
@@ -116,6 +154,8 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
                     final boolean ehcacheEnabled = this.configurationDomainService.isEhcacheEnabled();
                     if (ehcacheEnabled) {
                         this.cacheWritePlatformService.switchToCache(CacheType.SINGLE_NODE);
+                    } else if (this.configurationDomainService.isDistributedCacheEnabled()) {
+                        this.cacheWritePlatformService.switchToCache(CacheType.MULTI_NODE);
                     } else {
                         this.cacheWritePlatformService.switchToCache(CacheType.NO_CACHE);
                     }
@@ -123,7 +163,24 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
                 }
             }
             
-            super.doFilter(req, res, chain);
+            final ReplicaReadPolicy replicaReadPolicy = replicaReadPolicyOf(request);
+            if (replicaReadPolicy == ReplicaReadPolicy.PRIMARY_ONLY) {
+                super.doFilter(req, res, chain);
+            } else {
+                super.doFilter(req, res, new FilterChain() {
+
+                    @Override
+                    public void doFilter(final ServletRequest authenticatedRequest, final ServletResponse authenticatedResponse)
+                            throws IOException, ServletException {
+                        ReplicaRoutingContext.push(replicaReadPolicy);
+                        try {
+                            chain.doFilter(authenticatedRequest, authenticatedResponse);
+                        } finally {
+                            ReplicaRoutingContext.pop();
+                        }
+                    }
+                });
+            }
         } catch (final InvalidTenantIdentiferException e) {
             // deal with exception at low level
             SecurityContextHolder.getContext().setAuthentication(null);
@@ -131,9 +188,23 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
             response.addHeader("WWW-Authenticate", "Basic realm=\"" + "Mifos Platform API" + "\"");
             response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } finally {
-            task.stop();
-            final PlatformRequestLog log = PlatformRequestLog.from(task, request);
-            logger.info(this.toApiJsonSerializer.serialize(log));
+            RequestTimings.stop();
+            final long elapsedNanos = System.nanoTime() - startNanos;
+            if (recordedTenantIdentifier != null) {
+                final String path = request.getPathInfo() == null ? request.getServletPath() : request.getPathInfo();
+                this.metricsService.recordRequest(recordedTenantIdentifier, request.getMethod(), path, elapsedNanos, timings);
+            }
+            if (logger.isDebugEnabled() || this.metricsService.isRequestToBeLogged(elapsedNanos)) {
+                final PlatformRequestLog log = PlatformRequestLog.from(startTime, elapsedNanos, timings, request);
+                logger.info(this.toApiJsonSerializer.serialize(log));
+            }
         }
     }
+
+    private static ReplicaReadPolicy replicaReadPolicyOf(final HttpServletRequest request) {
+        if (!"GET".equalsIgnoreCase(request.getMethod())) { return ReplicaReadPolicy.PRIMARY_ONLY; }
+        final String path = request.getPathInfo();
+        if (path != null && path.startsWith("/runreports")) { return ReplicaReadPolicy.REPORT; }
+        return ReplicaReadPolicy.RECENT;
+    }
 }
\ No newline at end of file
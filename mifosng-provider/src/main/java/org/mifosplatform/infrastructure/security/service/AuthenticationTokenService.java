@@ -0,0 +1,55 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.security.service;
+
+import org.springframework.security.core.Authentication;
+
+/**
+ * Opaque bearer tokens handed out by the authentication resource, so that
+ * clients making many calls in a row are authenticated without hashing their
+ * password and loading their user for every request.
+ *
+ * Tokens are accepted by every node and survive a restart; clients
+ * authenticate again with their credentials when a token is rejected.
+ */
+public interface AuthenticationTokenService {
+
+    /**
+     * Issues a token for the authenticated user of the current tenant.
+     *
+     * @param basicAuthenticationKey
+     *            credentials the user authenticated with, passed on to the
+     *            hooks of the commands made with the token
+     */
+    String issueToken(Authentication authentication, String basicAuthenticationKey);
+
+    /**
+     * Authentication the token was issued for, or null if the token is
+     * unknown, expired or was issued for another tenant.
+     */
+    Authentication authenticate(String token);
+
+    /**
+     * The basic authentication key the token was issued with, or null if the
+     * token was issued by another node.
+     */
+    String basicAuthenticationKeyOf(String token);
+
+    void revokeToken(String token);
+
+    /**
+     * Revokes the tokens of a user of the current tenant on all nodes, along
+     * with the current transaction.
+     */
+    void revokeTokensOfUser(Long userId);
+
+    /**
+     * Revokes the tokens of all users of the current tenant, for changes to
+     * roles that may affect any of them; on all nodes, along with the current
+     * transaction.
+     */
+    void revokeTokensOfTenant();
+}
@@ -0,0 +1,366 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.security.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.mifosplatform.infrastructure.cache.service.TenantCacheInvalidator;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link AuthenticationTokenService} keeping the sessions of a tenant in its
+ * database, by the SHA-256 hash of their token, and those in use on this node
+ * in memory.
+ *
+ * A session expires once it was not used for {@link #IDLE_TIMEOUT_MILLIS} and
+ * at the latest {@link #MAX_LIFETIME_MILLIS} after it was issued. A session
+ * kept in memory is checked against the database again once it was not for
+ * {@link #REVALIDATE_INTERVAL_MILLIS}; a token issued on another node loads
+ * its user when it is first used on this node. At most {@link #MAX_SESSIONS}
+ * sessions are kept in memory, dropping those that were idle the longest.
+ *
+ * Changes to users and roles revoke the affected sessions by deleting them in
+ * the transaction of the change and dropping them from memory on all nodes
+ * through the {@link TenantCacheInvalidator}.
+ */
+@Service
+public class AuthenticationTokenServiceImpl implements AuthenticationTokenService {
+
+    private static final long IDLE_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+    private static final long MAX_LIFETIME_MILLIS = 12 * 60 * 60 * 1000L;
+    private static final long REVALIDATE_INTERVAL_MILLIS = 30 * 1000L;
+    private static final int MAX_SESSIONS = 10000;
+    private static final long SWEEP_INTERVAL_SECONDS = 60;
+    private static final int TOKEN_BYTES = 32;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final String SESSION_REGION = "authenticationtokens";
+    private static final String USER_KEY_PREFIX = "user:";
+    private static final String TOKEN_KEY_PREFIX = "token:";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformUserDetailsService userDetailsService;
+    private final TenantCacheInvalidator tenantCacheInvalidator;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final ConcurrentMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweepExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory(
+            "AuthenticationTokenSweeper-"));
+
+    @Autowired
+    public AuthenticationTokenServiceImpl(final RoutingDataSource dataSource, final PlatformUserDetailsService userDetailsService,
+            final TenantCacheInvalidator tenantCacheInvalidator) {
+        this(new JdbcTemplate(dataSource), userDetailsService, tenantCacheInvalidator);
+    }
+
+    AuthenticationTokenServiceImpl(final JdbcTemplate jdbcTemplate, final PlatformUserDetailsService userDetailsService,
+            final TenantCacheInvalidator tenantCacheInvalidator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userDetailsService = userDetailsService;
+        this.tenantCacheInvalidator = tenantCacheInvalidator;
+        this.tenantCacheInvalidator.register(SESSION_REGION, new TenantCacheInvalidator.Listener() {
+
+            @Override
+            public void invalidate(final String tenantIdentifier, final String key) {
+                removeSessions(tenantIdentifier, key);
+            }
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        this.sweepExecutor.scheduleWithFixedDelay(new Runnable() {
+
+            @Override
+            public void run() {
+                removeExpiredSessions(System.currentTimeMillis());
+            }
+        }, SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.sweepExecutor.shutdownNow();
+    }
+
+    @Override
+    public String issueToken(final Authentication authentication, final String basicAuthenticationKey) {
+        final long now = System.currentTimeMillis();
+        final Long userId = ((AppUser) authentication.getPrincipal()).getId();
+        final String token = newToken();
+        final String tokenHash = hashOf(token);
+
+        this.jdbcTemplate.update("delete from m_appuser_session where issued_date < ? or lastaccess_date < ?", new Timestamp(now
+                - MAX_LIFETIME_MILLIS), new Timestamp(now - IDLE_TIMEOUT_MILLIS));
+        this.jdbcTemplate.update("insert into m_appuser_session (token_hash, appuser_id, issued_date, lastaccess_date) values (?, ?, ?, ?)",
+                tokenHash, userId, new Timestamp(now), new Timestamp(now));
+
+        keepSession(tokenHash, new Session(ThreadLocalContextUtil.getTenant().getTenantIdentifier(), userId, authentication,
+                basicAuthenticationKey, now, now), now);
+        return token;
+    }
+
+    @Override
+    public Authentication authenticate(final String token) {
+        if (token == null) { return null; }
+        final String tokenHash = hashOf(token);
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final long now = System.currentTimeMillis();
+
+        Session session = this.sessions.get(tokenHash);
+        if (session != null && !session.tenantIdentifier.equals(tenantIdentifier)) { return null; }
+        if (session == null || session.isExpired(now) || now - session.validatedTime > REVALIDATE_INTERVAL_MILLIS) {
+            session = revalidate(tokenHash, tenantIdentifier, session, now);
+            if (session == null) { return null; }
+        }
+
+        session.lastAccessTime = now;
+        return session.authentication;
+    }
+
+    @Override
+    public String basicAuthenticationKeyOf(final String token) {
+        if (token == null) { return null; }
+        final Session session = this.sessions.get(hashOf(token));
+        if (session == null || !session.tenantIdentifier.equals(ThreadLocalContextUtil.getTenant().getTenantIdentifier())) { return null; }
+        return session.basicAuthenticationKey;
+    }
+
+    @Override
+    public void revokeToken(final String token) {
+        if (token != null) {
+            final String tokenHash = hashOf(token);
+            this.jdbcTemplate.update("delete from m_appuser_session where token_hash = ?", tokenHash);
+            this.tenantCacheInvalidator.invalidate(SESSION_REGION, TOKEN_KEY_PREFIX + tokenHash);
+        }
+    }
+
+    @Override
+    public void revokeTokensOfUser(final Long userId) {
+        this.jdbcTemplate.update("delete from m_appuser_session where appuser_id = ?", userId);
+        this.tenantCacheInvalidator.invalidate(SESSION_REGION, USER_KEY_PREFIX + userId);
+    }
+
+    @Override
+    public void revokeTokensOfTenant() {
+        this.jdbcTemplate.update("delete from m_appuser_session");
+        this.tenantCacheInvalidator.invalidate(SESSION_REGION);
+    }
+
+    /**
+     * Checks the session against the database, loading it if this node does
+     * not know it yet.
+     *
+     * @return the session, or null if it was revoked or expired
+     */
+    private Session revalidate(final String tokenHash, final String tenantIdentifier, final Session session, final long now) {
+        final List<StoredSession> storedSessions = this.jdbcTemplate.query("select s.appuser_id, u.username, s.issued_date, "
+                + "s.lastaccess_date from m_appuser_session s join m_appuser u on u.id = s.appuser_id where s.token_hash = ?",
+                new StoredSessionMapper(), tokenHash);
+        if (storedSessions.isEmpty()) {
+            removeSession(tokenHash, session);
+            return null;
+        }
+
+        final StoredSession storedSession = storedSessions.get(0);
+        final long lastAccessTime = session == null ? storedSession.lastAccessTime : Math.max(storedSession.lastAccessTime,
+                session.lastAccessTime);
+        if (now - lastAccessTime > IDLE_TIMEOUT_MILLIS || now - storedSession.issuedTime > MAX_LIFETIME_MILLIS) {
+            this.jdbcTemplate.update("delete from m_appuser_session where token_hash = ?", tokenHash);
+            removeSession(tokenHash, session);
+            return null;
+        }
+        this.jdbcTemplate.update("update m_appuser_session set lastaccess_date = ? where token_hash = ?", new Timestamp(now), tokenHash);
+
+        if (session != null) {
+            session.validatedTime = now;
+            return session;
+        }
+
+        final UserDetails user;
+        try {
+            user = this.userDetailsService.loadUserByUsername(storedSession.username);
+        } catch (final UsernameNotFoundException e) {
+            // the user was deleted or disabled meanwhile
+            this.jdbcTemplate.update("delete from m_appuser_session where token_hash = ?", tokenHash);
+            return null;
+        }
+
+        // the basic authentication key is only known to the node that issued
+        // the token
+        final Authentication authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        return keepSession(tokenHash, new Session(tenantIdentifier, storedSession.userId, authentication, null,
+                storedSession.issuedTime, now), now);
+    }
+
+    private Session keepSession(final String tokenHash, final Session session, final long now) {
+        if (this.sessions.size() >= MAX_SESSIONS) {
+            makeRoomForSession(now);
+        }
+        final Session concurrentlyLoadedSession = this.sessions.putIfAbsent(tokenHash, session);
+        return concurrentlyLoadedSession == null ? session : concurrentlyLoadedSession;
+    }
+
+    private void removeSession(final String tokenHash, final Session session) {
+        if (session != null) {
+            this.sessions.remove(tokenHash, session);
+        }
+    }
+
+    /**
+     * Removes the sessions of the tenant held on this node, only those of the
+     * user or token if the key names one.
+     */
+    private void removeSessions(final String tenantIdentifier, final String key) {
+        if (key != null && key.startsWith(TOKEN_KEY_PREFIX)) {
+            final String tokenHash = key.substring(TOKEN_KEY_PREFIX.length());
+            final Session session = this.sessions.get(tokenHash);
+            if (session != null && session.tenantIdentifier.equals(tenantIdentifier)) {
+                this.sessions.remove(tokenHash, session);
+            }
+            return;
+        }
+
+        final Long userId = key == null ? null : Long.valueOf(key.substring(USER_KEY_PREFIX.length()));
+        for (final Iterator<Session> iterator = this.sessions.values().iterator(); iterator.hasNext();) {
+            final Session session = iterator.next();
+            if (session.tenantIdentifier.equals(tenantIdentifier) && (userId == null || userId.equals(session.userId))) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void makeRoomForSession(final long now) {
+        removeExpiredSessions(now);
+        while (this.sessions.size() >= MAX_SESSIONS) {
+            String idlestTokenHash = null;
+            long idlestAccessTime = Long.MAX_VALUE;
+            for (final Map.Entry<String, Session> entry : this.sessions.entrySet()) {
+                if (entry.getValue().lastAccessTime < idlestAccessTime) {
+                    idlestTokenHash = entry.getKey();
+                    idlestAccessTime = entry.getValue().lastAccessTime;
+                }
+            }
+            if (idlestTokenHash == null) {
+                break;
+            }
+            this.sessions.remove(idlestTokenHash);
+        }
+    }
+
+    /**
+     * Sessions used on other nodes meanwhile are loaded again from the
+     * database when they are next used here.
+     */
+    private void removeExpiredSessions(final long now) {
+        for (final Iterator<Session> iterator = this.sessions.values().iterator(); iterator.hasNext();) {
+            if (iterator.next().isExpired(now)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private String newToken() {
+        final byte[] bytes = new byte[TOKEN_BYTES];
+        this.secureRandom.nextBytes(bytes);
+        return toHex(bytes);
+    }
+
+    private static String hashOf(final String token) {
+        try {
+            return toHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException e) {
+            // every java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(final byte[] bytes) {
+        final char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0f];
+            hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0f];
+        }
+        return new String(hex);
+    }
+
+    private static final class Session {
+
+        private final String tenantIdentifier;
+        private final Long userId;
+        private final Authentication authentication;
+        private final String basicAuthenticationKey;
+        private final long issuedTime;
+        private volatile long lastAccessTime;
+        private volatile long validatedTime;
+
+        private Session(final String tenantIdentifier, final Long userId, final Authentication authentication,
+                final String basicAuthenticationKey, final long issuedTime, final long validatedTime) {
+            this.tenantIdentifier = tenantIdentifier;
+            this.userId = userId;
+            this.authentication = authentication;
+            this.basicAuthenticationKey = basicAuthenticationKey;
+            this.issuedTime = issuedTime;
+            this.lastAccessTime = validatedTime;
+            this.validatedTime = validatedTime;
+        }
+
+        private boolean isExpired(final long now) {
+            return now - this.lastAccessTime > IDLE_TIMEOUT_MILLIS || now - this.issuedTime > MAX_LIFETIME_MILLIS;
+        }
+    }
+
+    private static final class StoredSession {
+
+        private final Long userId;
+        private final String username;
+        private final long issuedTime;
+        private final long lastAccessTime;
+
+        private StoredSession(final Long userId, final String username, final long issuedTime, final long lastAccessTime) {
+            this.userId = userId;
+            this.username = username;
+            this.issuedTime = issuedTime;
+            this.lastAccessTime = lastAccessTime;
+        }
+    }
+
+    private static final class StoredSessionMapper implements RowMapper<StoredSession> {
+
+        @Override
+        public StoredSession mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new StoredSession(rs.getLong("appuser_id"), rs.getString("username"), rs.getTimestamp("issued_date").getTime(), rs
+                    .getTimestamp("lastaccess_date").getTime());
+        }
+    }
+}
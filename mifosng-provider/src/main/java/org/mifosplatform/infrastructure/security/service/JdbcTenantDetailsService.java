@@ -46,7 +46,9 @@ public class JdbcTenantDetailsService implements TenantDetailsService {
                 .append(" pool_suspect_timeout as poolSuspectTimeout, pool_time_between_eviction_runs_millis as poolTimeBetweenEvictionRunsMillis, ")//
                 .append(" pool_min_evictable_idle_time_millis as poolMinEvictableIdleTimeMillis, ")//
                 .append(" deadlock_max_retries as maxRetriesOnDeadlock, ")//
-                .append(" deadlock_max_retry_interval as maxIntervalBetweenRetries ")//
+                .append(" deadlock_max_retry_interval as maxIntervalBetweenRetries, ")//
+                .append(" replica_schema_server as replicaSchemaServer, replica_schema_server_port as replicaSchemaServerPort, ")//
+                .append(" replica_max_lag_seconds as replicaMaxLagSeconds, replica_report_max_lag_seconds as replicaReportMaxLagSeconds ")//
                 .append(" from tenants t");//
 
         public String schema() {
@@ -84,11 +86,16 @@ public class JdbcTenantDetailsService implements TenantDetailsService {
 
             maxRetriesOnDeadlock = bindValueInMinMaxRange(maxRetriesOnDeadlock, 0, 15);
             maxIntervalBetweenRetries = bindValueInMinMaxRange(maxIntervalBetweenRetries, 1, 15);
+            final String replicaSchemaServer = rs.getString("replicaSchemaServer");
+            final String replicaSchemaServerPort = rs.getString("replicaSchemaServerPort");
+            final int replicaMaxLagSeconds = rs.getInt("replicaMaxLagSeconds");
+            final int replicaReportMaxLagSeconds = rs.getInt("replicaReportMaxLagSeconds");
 
             return new MifosPlatformTenant(id, tenantIdentifier, name, schemaName, schemaServer, schemaServerPort, schemaUsername,
                     schemaPassword, timezoneId, autoUpdateEnabled, initialSize, testOnBorrow, validationInterval, removeAbandoned,
                     removeAbandonedTimeout, logAbandoned, abandonWhenPercentageFull, maxActive, minIdle, maxIdle, suspectTimeout,
-                    timeBetweenEvictionRunsMillis, minEvictableIdleTimeMillis, maxRetriesOnDeadlock, maxIntervalBetweenRetries);
+                    timeBetweenEvictionRunsMillis, minEvictableIdleTimeMillis, maxRetriesOnDeadlock, maxIntervalBetweenRetries,
+                    replicaSchemaServer, replicaSchemaServerPort, replicaMaxLagSeconds, replicaReportMaxLagSeconds);
         }
 
         private int bindValueInMinMaxRange(final int value, int min, int max) {
@@ -5,6 +5,7 @@
  */
 package org.mifosplatform.infrastructure.survey.handler;
 
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
@@ -19,6 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
  */
 
 @Service
+@CommandType(entity = "SURVEY", action = "REGISTER")
 public class RegisterSurveyCommandHandler implements NewCommandSourceHandler {
 
 
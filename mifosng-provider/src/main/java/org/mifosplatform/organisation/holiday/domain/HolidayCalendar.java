@@ -0,0 +1,133 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.organisation.holiday.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.joda.time.LocalDate;
+
+/**
+ * Immutable interval index over a list of {@link Holiday}s, for adjusting many
+ * dates against the same holidays such as all due dates of a schedule.
+ *
+ * The boundaries of the holidays split the timeline into segments, each of
+ * which knows the holidays covering it, so the holidays on a date are found by
+ * a binary search instead of a scan of all holidays. The answers are the same
+ * as those of {@link org.mifosplatform.organisation.holiday.service.HolidayUtil}
+ * for the list the calendar was built from, including the order in which
+ * overlapping holidays are applied.
+ */
+public final class HolidayCalendar {
+
+    private static final int[] NO_HOLIDAYS = new int[0];
+
+    private static final HolidayCalendar EMPTY = new HolidayCalendar(new LocalDate[0], new int[0][], new LocalDate[0]);
+
+    /**
+     * First day of each segment; a segment ends the day before the next one
+     * starts and the last segment is open ended.
+     */
+    private final LocalDate[] segmentStarts;
+    /**
+     * Positions in the original list of the holidays covering each segment, in
+     * ascending order.
+     */
+    private final int[][] holidaysBySegment;
+    private final LocalDate[] repaymentsRescheduledTo;
+
+    public static HolidayCalendar of(final List<Holiday> holidays) {
+        if (holidays == null || holidays.isEmpty()) { return EMPTY; }
+
+        final int holidayCount = holidays.size();
+        final LocalDate[] fromDates = new LocalDate[holidayCount];
+        final LocalDate[] toDates = new LocalDate[holidayCount];
+        final LocalDate[] repaymentsRescheduledTo = new LocalDate[holidayCount];
+        final TreeSet<LocalDate> boundaries = new TreeSet<>();
+        for (int i = 0; i < holidayCount; i++) {
+            final Holiday holiday = holidays.get(i);
+            fromDates[i] = holiday.getFromDateLocalDate();
+            toDates[i] = holiday.getToDateLocalDate();
+            repaymentsRescheduledTo[i] = holiday.getRepaymentsRescheduledToLocalDate();
+            boundaries.add(fromDates[i]);
+            boundaries.add(toDates[i].plusDays(1));
+        }
+
+        final LocalDate[] segmentStarts = boundaries.toArray(new LocalDate[boundaries.size()]);
+        final int[][] holidaysBySegment = new int[segmentStarts.length][];
+        final List<Integer> covering = new ArrayList<>();
+        for (int segment = 0; segment < segmentStarts.length; segment++) {
+            final LocalDate segmentStart = segmentStarts[segment];
+            covering.clear();
+            for (int i = 0; i < holidayCount; i++) {
+                if (!segmentStart.isBefore(fromDates[i]) && !segmentStart.isAfter(toDates[i])) {
+                    covering.add(i);
+                }
+            }
+            holidaysBySegment[segment] = toArray(covering);
+        }
+
+        return new HolidayCalendar(segmentStarts, holidaysBySegment, repaymentsRescheduledTo);
+    }
+
+    private HolidayCalendar(final LocalDate[] segmentStarts, final int[][] holidaysBySegment, final LocalDate[] repaymentsRescheduledTo) {
+        this.segmentStarts = segmentStarts;
+        this.holidaysBySegment = holidaysBySegment;
+        this.repaymentsRescheduledTo = repaymentsRescheduledTo;
+    }
+
+    public boolean isHoliday(final LocalDate date) {
+        return holidaysOn(date).length > 0;
+    }
+
+    /**
+     * Walks the holidays in the order of the original list: a holiday the
+     * (possibly already rescheduled) date falls on moves it to the
+     * repayments-rescheduled-to date of the first holiday covering that date,
+     * and the walk carries on with the holidays after it.
+     */
+    public LocalDate getRepaymentRescheduleDateToIfHoliday(final LocalDate repaymentDate) {
+        LocalDate rescheduledDate = repaymentDate;
+        int nextHoliday = 0;
+        while (rescheduledDate != null) {
+            final int[] holidaysOnDate = holidaysOn(rescheduledDate);
+            final int matchingHoliday = firstAtOrAfter(holidaysOnDate, nextHoliday);
+            if (matchingHoliday < 0) {
+                break;
+            }
+            rescheduledDate = this.repaymentsRescheduledTo[holidaysOnDate[0]];
+            nextHoliday = matchingHoliday + 1;
+        }
+        return rescheduledDate;
+    }
+
+    private int[] holidaysOn(final LocalDate date) {
+        int segment = Arrays.binarySearch(this.segmentStarts, date);
+        if (segment < 0) {
+            segment = -segment - 2;
+        }
+        if (segment < 0) { return NO_HOLIDAYS; }
+        return this.holidaysBySegment[segment];
+    }
+
+    private static int firstAtOrAfter(final int[] holidays, final int position) {
+        for (final int holiday : holidays) {
+            if (holiday >= position) { return holiday; }
+        }
+        return -1;
+    }
+
+    private static int[] toArray(final List<Integer> values) {
+        if (values.isEmpty()) { return NO_HOLIDAYS; }
+        final int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+}
@@ -5,9 +5,16 @@
  */
 package org.mifosplatform.organisation.holiday.domain;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.mifosplatform.infrastructure.cache.service.TenantCache;
+import org.mifosplatform.infrastructure.cache.service.TenantCacheInvalidator;
 import org.mifosplatform.organisation.holiday.exception.HolidayNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -17,15 +24,37 @@ import org.springframework.stereotype.Service;
  * Wrapper for {@link HolidayRepository} that adds NULL checking and Error
  * handling capabilities
  * </p>
+ * <p>
+ * The ids and end dates of the active holidays of an office, which schedule
+ * generation and the loan commands look up for every loan, are read once per
+ * tenant and office and kept until a holiday of the tenant is saved or
+ * deleted. Only the holidays a lookup needs are then loaded, in the
+ * persistence context of the caller; none at all for the offices and dates
+ * without holidays.
+ * </p>
  */
 @Service
 public class HolidayRepositoryWrapper {
 
+    private static final long ACTIVE_HOLIDAYS_TIME_TO_LIVE_MILLIS = 15 * 60 * 1000L;
+
+    private static final Comparator<Holiday> BY_FROM_DATE = new Comparator<Holiday>() {
+
+        @Override
+        public int compare(final Holiday first, final Holiday second) {
+            final int byFromDate = first.getFromDateLocalDate().compareTo(second.getFromDateLocalDate());
+            if (byFromDate != 0) { return byFromDate; }
+            return first.getId().compareTo(second.getId());
+        }
+    };
+
     private final HolidayRepository repository;
+    private final TenantCache<Long, List<ActiveHoliday>> activeHolidays;
 
     @Autowired
-    public HolidayRepositoryWrapper(final HolidayRepository repository) {
+    public HolidayRepositoryWrapper(final HolidayRepository repository, final TenantCacheInvalidator tenantCacheInvalidator) {
         this.repository = repository;
+        this.activeHolidays = tenantCacheInvalidator.newCache("activeholidays", ACTIVE_HOLIDAYS_TIME_TO_LIVE_MILLIS);
     }
 
     public Holiday findOneWithNotFoundDetection(final Long id) {
@@ -36,25 +65,82 @@ public class HolidayRepositoryWrapper {
 
     public void save(final Holiday holiday) {
         this.repository.save(holiday);
+        this.activeHolidays.invalidate();
     }
 
     public void save(final Iterable<Holiday> holidays) {
         this.repository.save(holidays);
+        this.activeHolidays.invalidate();
     }
 
     public void saveAndFlush(final Holiday holiday) {
         this.repository.saveAndFlush(holiday);
+        this.activeHolidays.invalidate();
     }
 
     public void delete(final Holiday holiday) {
         this.repository.delete(holiday);
+        this.activeHolidays.invalidate();
     }
 
+    /**
+     * Active holidays of the office ending on or after the date, ordered by
+     * their from date.
+     */
     public List<Holiday> findByOfficeIdAndGreaterThanDate(final Long officeId, final Date date) {
-        return this.repository.findByOfficeIdAndGreaterThanDate(officeId, date, HolidayStatusType.ACTIVE.getValue());
+        final List<Long> holidayIds = new ArrayList<>();
+        for (final ActiveHoliday activeHoliday : activeHolidays(officeId)) {
+            if (!activeHoliday.toDate.before(date)) {
+                holidayIds.add(activeHoliday.id);
+            }
+        }
+        if (holidayIds.isEmpty()) { return new ArrayList<>(); }
+
+        final Map<Long, Holiday> holidaysById = new HashMap<>();
+        for (final Holiday holiday : this.repository.findAll(holidayIds)) {
+            holidaysById.put(holiday.getId(), holiday);
+        }
+        final List<Holiday> holidays = new ArrayList<>(holidayIds.size());
+        for (final Long holidayId : holidayIds) {
+            final Holiday holiday = holidaysById.get(holidayId);
+            if (holiday != null) {
+                holidays.add(holiday);
+            }
+        }
+        return holidays;
     }
 
     public List<Holiday> findUnprocessed() {
         return this.repository.findUnprocessed(HolidayStatusType.ACTIVE.getValue());
     }
-}
\ No newline at end of file
+
+    private List<ActiveHoliday> activeHolidays(final Long officeId) {
+        return this.activeHolidays.get(officeId, new TenantCache.Loader<List<ActiveHoliday>>() {
+
+            @Override
+            public List<ActiveHoliday> load() {
+                // from the earliest date a holiday can have so that every
+                // active holiday of the office is read
+                final List<Holiday> holidays = new ArrayList<>(HolidayRepositoryWrapper.this.repository.findByOfficeIdAndGreaterThanDate(
+                        officeId, new Date(0), HolidayStatusType.ACTIVE.getValue()));
+                Collections.sort(holidays, BY_FROM_DATE);
+                final List<ActiveHoliday> loadedHolidays = new ArrayList<>(holidays.size());
+                for (final Holiday holiday : holidays) {
+                    loadedHolidays.add(new ActiveHoliday(holiday.getId(), holiday.getToDateLocalDate().toDate()));
+                }
+                return Collections.unmodifiableList(loadedHolidays);
+            }
+        });
+    }
+
+    private static final class ActiveHoliday {
+
+        private final Long id;
+        private final Date toDate;
+
+        ActiveHoliday(final Long id, final Date toDate) {
+            this.id = id;
+            this.toDate = toDate;
+        }
+    }
+}
@@ -49,6 +49,11 @@ public class ApplicationCurrency extends AbstractPersistable<Long> {
                 currency.displaySymbol);
     }
 
+    public static ApplicationCurrency from(final String code, final String name, final int decimalPlaces, final Integer inMultiplesOf,
+            final String nameCode, final String displaySymbol) {
+        return new ApplicationCurrency(code, name, decimalPlaces, inMultiplesOf, nameCode, displaySymbol);
+    }
+
     private ApplicationCurrency(final String code, final String name, final int decimalPlaces, final Integer inMultiplesOf,
             final String nameCode, final String displaySymbol) {
         this.code = code;
@@ -0,0 +1,164 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.organisation.monetary.domain;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Mutable running total of {@link Money} for loops that add up many amounts,
+ * such as the charges of every schedule period or the transactions of an
+ * account.
+ *
+ * Every operation leaves the total exactly where the same operation on
+ * {@link Money} would: it is rounded to the digits of the currency (and to
+ * its multiples, where the currency has them) after each step. The total is
+ * kept in minor units of the currency as a <code>long</code> and only falls
+ * back to {@link BigDecimal} when an operand has more digits than the currency
+ * or the total no longer fits, so adding up amounts of the currency skips the
+ * intermediate {@link Money}, {@link MonetaryCurrency} and rescaled
+ * {@link BigDecimal} instances every {@link Money#plus(Money)} creates.
+ *
+ * Not thread safe; convert the total with {@link #toMoney()} before it leaves
+ * the loop.
+ */
+public final class MoneyAccumulator {
+
+    private final MonetaryCurrency currency;
+    private final int digitsAfterDecimal;
+    private final Integer inMultiplesOf;
+    private final boolean roundedToMultiples;
+
+    private long units;
+    /**
+     * The total when it does not fit into {@link #units}, otherwise null.
+     */
+    private BigDecimal overflowAmount;
+
+    public static MoneyAccumulator zero(final MonetaryCurrency currency) {
+        return new MoneyAccumulator(currency);
+    }
+
+    public static MoneyAccumulator of(final Money money) {
+        return new MoneyAccumulator(money.getCurrency()).plus(money);
+    }
+
+    private MoneyAccumulator(final MonetaryCurrency currency) {
+        this.currency = currency;
+        this.digitsAfterDecimal = currency.getDigitsAfterDecimal();
+        this.inMultiplesOf = currency.getCurrencyInMultiplesOf();
+        this.roundedToMultiples = this.inMultiplesOf != null && this.digitsAfterDecimal == 0 && this.inMultiplesOf > 0;
+    }
+
+    public MoneyAccumulator plus(final Money money) {
+        return plus(checkCurrencyEqual(money).getAmount());
+    }
+
+    public MoneyAccumulator plus(final BigDecimal amount) {
+        if (amount == null || amount.signum() == 0) { return this; }
+        add(amount, false);
+        return this;
+    }
+
+    public MoneyAccumulator minus(final Money money) {
+        return minus(checkCurrencyEqual(money).getAmount());
+    }
+
+    public MoneyAccumulator minus(final BigDecimal amount) {
+        if (amount == null || amount.signum() == 0) { return this; }
+        add(amount, true);
+        return this;
+    }
+
+    public MoneyAccumulator multipliedBy(final BigDecimal factor) {
+        if (factor.compareTo(BigDecimal.ONE) == 0) { return this; }
+        normalise(getAmount().multiply(factor));
+        return this;
+    }
+
+    public MoneyAccumulator dividedBy(final BigDecimal divisor, final RoundingMode roundingMode) {
+        if (divisor.compareTo(BigDecimal.ONE) == 0) { return this; }
+        normalise(getAmount().divide(divisor, roundingMode));
+        return this;
+    }
+
+    public boolean isZero() {
+        return signum() == 0;
+    }
+
+    public boolean isGreaterThanZero() {
+        return signum() > 0;
+    }
+
+    public boolean isLessThanZero() {
+        return signum() < 0;
+    }
+
+    public boolean isLessThan(final Money other) {
+        return getAmount().compareTo(checkCurrencyEqual(other).getAmount()) < 0;
+    }
+
+    public BigDecimal getAmount() {
+        if (this.overflowAmount != null) { return this.overflowAmount; }
+        return BigDecimal.valueOf(this.units, this.digitsAfterDecimal);
+    }
+
+    public Money toMoney() {
+        return Money.of(this.currency, getAmount());
+    }
+
+    private int signum() {
+        if (this.overflowAmount != null) { return this.overflowAmount.signum(); }
+        return Long.signum(this.units);
+    }
+
+    private void add(final BigDecimal amount, final boolean subtract) {
+        if (this.overflowAmount == null && amount.scale() == this.digitsAfterDecimal) {
+            final BigInteger amountUnits = amount.unscaledValue();
+            // one bit less than a long so that negating it cannot overflow
+            if (amountUnits.bitLength() < Long.SIZE - 1) {
+                final long operand = subtract ? -amountUnits.longValue() : amountUnits.longValue();
+                final long sum = this.units + operand;
+                // overflow if both operands have the same sign and the sum has the other one
+                if (((this.units ^ sum) & (operand ^ sum)) >= 0) {
+                    this.units = sum;
+                    if (this.roundedToMultiples && sum > 0) {
+                        normalise(BigDecimal.valueOf(sum));
+                    }
+                    return;
+                }
+            }
+        }
+        normalise(subtract ? getAmount().subtract(amount) : getAmount().add(amount));
+    }
+
+    /**
+     * Rounds the new total the way the {@link Money} constructor does.
+     */
+    private void normalise(final BigDecimal newAmount) {
+        BigDecimal amountScaled = newAmount.stripTrailingZeros();
+        if (this.roundedToMultiples && amountScaled.doubleValue() > 0) {
+            amountScaled = BigDecimal.valueOf(Money.roundToMultiplesOf(amountScaled.doubleValue(), this.inMultiplesOf));
+        }
+        amountScaled = amountScaled.setScale(this.digitsAfterDecimal, RoundingMode.HALF_EVEN);
+
+        final BigInteger amountUnits = amountScaled.unscaledValue();
+        if (amountUnits.bitLength() < Long.SIZE) {
+            this.units = amountUnits.longValue();
+            this.overflowAmount = null;
+        } else {
+            this.units = 0;
+            this.overflowAmount = amountScaled;
+        }
+    }
+
+    private Money checkCurrencyEqual(final Money money) {
+        if (!this.currency.getCode().equals(money.getCurrencyCode())) { throw new UnsupportedOperationException(
+                "currencies are different."); }
+        return money;
+    }
+}
@@ -6,6 +6,7 @@
 
 package org.mifosplatform.organisation.teller.handler;
 
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
@@ -21,6 +22,7 @@ import org.springframework.stereotype.Service;
  * @since 2.0.0
  */
 @Service
+@CommandType(entity = "TELLER", action = "CREATE")
 public class CreateTellerCommandHandler implements NewCommandSourceHandler {
 
     private final TellerWritePlatformService writePlatformService;
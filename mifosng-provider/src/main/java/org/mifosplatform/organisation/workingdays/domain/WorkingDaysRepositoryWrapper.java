@@ -7,6 +7,8 @@ package org.mifosplatform.organisation.workingdays.domain;
 
 import java.util.List;
 
+import org.mifosplatform.infrastructure.cache.service.TenantCache;
+import org.mifosplatform.infrastructure.cache.service.TenantCacheInvalidator;
 import org.mifosplatform.organisation.workingdays.exception.WorkingDaysNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -16,18 +18,44 @@ import org.springframework.stereotype.Service;
  * Wrapper for {@link WorkingDaysRepository} that adds NULL checking and Error
  * handling capabilities
  * </p>
+ * <p>
+ * The working days of a tenant are read once and kept until they are saved or
+ * deleted; every lookup gets its own copy of them.
+ * </p>
  */
 @Service
 public class WorkingDaysRepositoryWrapper {
 
+    private static final String WORKING_DAYS = "workingdays";
+    private static final long WORKING_DAYS_TIME_TO_LIVE_MILLIS = 15 * 60 * 1000L;
+
     private final WorkingDaysRepository repository;
+    private final TenantCache<String, WorkingDaysValues> workingDaysValues;
 
     @Autowired
-    public WorkingDaysRepositoryWrapper(final WorkingDaysRepository repository) {
+    public WorkingDaysRepositoryWrapper(final WorkingDaysRepository repository, final TenantCacheInvalidator tenantCacheInvalidator) {
         this.repository = repository;
+        this.workingDaysValues = tenantCacheInvalidator.newCache("workingdays", WORKING_DAYS_TIME_TO_LIVE_MILLIS);
     }
 
+    /**
+     * The working days of the tenant, as a copy that is not attached to any
+     * persistence context; use {@link #findOneForUpdate()} to change them.
+     */
     public WorkingDays findOne() {
+        final WorkingDaysValues values = this.workingDaysValues.get(WORKING_DAYS, new TenantCache.Loader<WorkingDaysValues>() {
+
+            @Override
+            public WorkingDaysValues load() {
+                final WorkingDays workingDays = findOneForUpdate();
+                return new WorkingDaysValues(workingDays.getRecurrence(), workingDays.getRepaymentReschedulingType(),
+                        workingDays.getExtendTermForDailyRepayments());
+            }
+        });
+        return new WorkingDays(values.recurrence, values.repaymentReschedulingType, values.extendTermForDailyRepayments);
+    }
+
+    public WorkingDays findOneForUpdate() {
         final List<WorkingDays> workingDaysList = this.repository.findAll();
 
         if (workingDaysList == null || workingDaysList.isEmpty()) { throw new WorkingDaysNotFoundException(); }
@@ -36,13 +64,29 @@ public class WorkingDaysRepositoryWrapper {
 
     public void save(final WorkingDays workingDays) {
         this.repository.save(workingDays);
+        this.workingDaysValues.invalidate();
     }
 
     public void saveAndFlush(final WorkingDays workingDays) {
         this.repository.saveAndFlush(workingDays);
+        this.workingDaysValues.invalidate();
     }
 
     public void delete(final WorkingDays workingDays) {
         this.repository.delete(workingDays);
+        this.workingDaysValues.invalidate();
+    }
+
+    private static final class WorkingDaysValues {
+
+        private final String recurrence;
+        private final Integer repaymentReschedulingType;
+        private final Boolean extendTermForDailyRepayments;
+
+        WorkingDaysValues(final String recurrence, final Integer repaymentReschedulingType, final Boolean extendTermForDailyRepayments) {
+            this.recurrence = recurrence;
+            this.repaymentReschedulingType = repaymentReschedulingType;
+            this.extendTermForDailyRepayments = extendTermForDailyRepayments;
+        }
     }
-}
\ No newline at end of file
+}
@@ -6,6 +6,7 @@
 package org.mifosplatform.organisation.workingdays.handler;
 
 
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
@@ -15,6 +16,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@CommandType(entity = "WORKINGDAYS", action = "UPDATE")
 public class UpdateWorkingDaysCommandHandler  implements NewCommandSourceHandler {
 
     private final WorkingDaysWritePlatformService workingDaysWritePlatformService;
@@ -6,6 +6,12 @@
 
 package org.mifosplatform.organisation.workingdays.service;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import net.fortuna.ical4j.model.Recur;
+
+import org.joda.time.DateTimeConstants;
 import org.joda.time.LocalDate;
 import org.mifosplatform.organisation.workingdays.domain.RepaymentRescheduleType;
 import org.mifosplatform.organisation.workingdays.domain.WorkingDays;
@@ -13,6 +19,13 @@ import org.mifosplatform.portfolio.calendar.service.CalendarUtils;
 
 public class WorkingDaysUtil {
 
+    /**
+     * Working days of the week by recurrence rule, indexed by the joda day of
+     * the week, for the rules where being a working day only depends on it.
+     */
+    private static final ConcurrentMap<String, boolean[]> WORKING_DAYS_OF_WEEK_BY_RECURRENCE = new ConcurrentHashMap<>();
+    private static final boolean[] NOT_BY_DAY_OF_WEEK = new boolean[0];
+
     public static LocalDate getOffSetDateIfNonWorkingDay(final LocalDate date, final LocalDate nextMeetingDate,
             final WorkingDays workingDays) {
 
@@ -38,10 +51,40 @@ public class WorkingDaysUtil {
     }
 
     public static boolean isWorkingDay(final WorkingDays workingDays, final LocalDate date) {
-        return CalendarUtils.isValidRedurringDate(workingDays.getRecurrence(), date, date);
+        final boolean[] workingDaysOfWeek = workingDaysOfWeek(workingDays.getRecurrence(), date);
+        if (workingDaysOfWeek == null) { return CalendarUtils.isValidRedurringDate(workingDays.getRecurrence(), date, date); }
+        return workingDaysOfWeek[date.getDayOfWeek()];
     }
     
     public static boolean isNonWorkingDay(final WorkingDays workingDays, final LocalDate date) {
         return !isWorkingDay(workingDays, date);
     }
+
+    /**
+     * The date is its own seed date in {@link #isWorkingDay(WorkingDays, LocalDate)},
+     * so for a weekly rule without an end or other limits the outcome is the
+     * same for every date on the same day of the week; such rules are
+     * evaluated once for each day of the week and then looked up.
+     */
+    private static boolean[] workingDaysOfWeek(final String recurrence, final LocalDate date) {
+        if (recurrence == null) { return null; }
+        final boolean[] cached = WORKING_DAYS_OF_WEEK_BY_RECURRENCE.get(recurrence);
+        if (cached != null) { return cached == NOT_BY_DAY_OF_WEEK ? null : cached; }
+
+        final Recur recur = CalendarUtils.getICalRecur(recurrence);
+        if (recur == null || !Recur.WEEKLY.equals(recur.getFrequency()) || recur.getUntil() != null || recur.getCount() > 0
+                || !recur.getMonthDayList().isEmpty() || !recur.getYearDayList().isEmpty() || !recur.getWeekNoList().isEmpty()
+                || !recur.getMonthList().isEmpty() || !recur.getSetPosList().isEmpty()) {
+            WORKING_DAYS_OF_WEEK_BY_RECURRENCE.putIfAbsent(recurrence, NOT_BY_DAY_OF_WEEK);
+            return null;
+        }
+
+        final boolean[] workingDaysOfWeek = new boolean[DateTimeConstants.SUNDAY + 1];
+        for (int day = 0; day < DateTimeConstants.DAYS_PER_WEEK; day++) {
+            final LocalDate dayOfWeek = date.plusDays(day);
+            workingDaysOfWeek[dayOfWeek.getDayOfWeek()] = CalendarUtils.isValidRecurringDate(recur, dayOfWeek, dayOfWeek);
+        }
+        WORKING_DAYS_OF_WEEK_BY_RECURRENCE.putIfAbsent(recurrence, workingDaysOfWeek);
+        return workingDaysOfWeek;
+    }
 }
@@ -57,7 +57,7 @@ public class WorkingDaysWritePlatformServiceJpaRepositoryImpl implements Working
         RRule rrule = null;
         try {
             this.fromApiJsonDeserializer.validateForUpdate(command.json());
-            final WorkingDays workingDays = this.daysRepositoryWrapper.findOne();
+            final WorkingDays workingDays = this.daysRepositoryWrapper.findOneForUpdate();
 
             recurrence = command.stringValueOfParameterNamed(WorkingDaysApiConstants.recurrence);
             rrule = new RRule(recurrence);
@@ -5,6 +5,7 @@
  */
 package org.mifosplatform.portfolio.client.handler;
 
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
@@ -15,6 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 
 @Service
+@CommandType(entity = "CLIENT", action = "WITHDRAW")
 public class WithdrawClientCommandHandler  implements NewCommandSourceHandler {
 	
 	private final ClientWritePlatformService clientWritePlatformService;
@@ -8,6 +8,7 @@ package org.mifosplatform.portfolio.loanaccount.data;
 import java.util.List;
 
 import org.mifosplatform.organisation.holiday.domain.Holiday;
+import org.mifosplatform.organisation.holiday.domain.HolidayCalendar;
 import org.mifosplatform.organisation.workingdays.domain.WorkingDays;
 
 public class HolidayDetailDTO {
@@ -17,6 +18,7 @@ public class HolidayDetailDTO {
     final WorkingDays workingDays;
     final boolean allowTransactionsOnHoliday;
     final boolean allowTransactionsOnNonWorkingDay;
+    private HolidayCalendar holidayCalendar;
 
     public HolidayDetailDTO(final boolean isHolidayEnabled, final List<Holiday> holidays, final WorkingDays workingDays) {
         this.isHolidayEnabled = isHolidayEnabled;
@@ -43,6 +45,17 @@ public class HolidayDetailDTO {
         return this.holidays;
     }
 
+    /**
+     * The {@link #getHolidays()} indexed for adjusting the dates of a whole
+     * schedule, built on first use.
+     */
+    public HolidayCalendar getHolidayCalendar() {
+        if (this.holidayCalendar == null) {
+            this.holidayCalendar = HolidayCalendar.of(this.holidays);
+        }
+        return this.holidayCalendar;
+    }
+
     public WorkingDays getWorkingDays() {
         return this.workingDays;
     }
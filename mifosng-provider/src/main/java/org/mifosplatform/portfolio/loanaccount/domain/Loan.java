@@ -52,6 +52,7 @@ import org.mifosplatform.infrastructure.core.serialization.JsonParserHelper;
 import org.mifosplatform.infrastructure.core.service.DateUtils;
 import org.mifosplatform.infrastructure.security.service.RandomPasswordGenerator;
 import org.mifosplatform.organisation.holiday.domain.Holiday;
+import org.mifosplatform.organisation.holiday.domain.HolidayCalendar;
 import org.mifosplatform.organisation.holiday.service.HolidayUtil;
 import org.mifosplatform.organisation.monetary.data.CurrencyData;
 import org.mifosplatform.organisation.monetary.domain.ApplicationCurrency;
@@ -4169,6 +4170,7 @@ public class Loan extends AbstractPersistable<Long> {
 
         LocalDate newRepaymentDate = null;
         Boolean isFirstTime = true;
+        final HolidayCalendar holidayCalendar = HolidayCalendar.of(holidays);
 
         for (final LoanRepaymentScheduleInstallment loanRepaymentScheduleInstallment : this.repaymentScheduleInstallments) {
 
@@ -4190,7 +4192,7 @@ public class Loan extends AbstractPersistable<Long> {
                 }
 
                 if (isHolidayEnabled) {
-                    newRepaymentDate = HolidayUtil.getRepaymentRescheduleDateToIfHoliday(newRepaymentDate, holidays);
+                    newRepaymentDate = holidayCalendar.getRepaymentRescheduleDateToIfHoliday(newRepaymentDate);
                 }
 
                 loanRepaymentScheduleInstallment.updateDueDate(newRepaymentDate);
@@ -4219,6 +4221,7 @@ public class Loan extends AbstractPersistable<Long> {
 
         LocalDate newRepaymentDate = null;
         LocalDate seedDate = meetingStartDate;
+        final HolidayCalendar holidayCalendar = HolidayCalendar.of(holidays);
 
         for (final LoanRepaymentScheduleInstallment loanRepaymentScheduleInstallment : this.repaymentScheduleInstallments) {
 
@@ -4240,7 +4243,7 @@ public class Loan extends AbstractPersistable<Long> {
                 }
 
                 if (isHolidayEnabled) {
-                    newRepaymentDate = HolidayUtil.getRepaymentRescheduleDateToIfHoliday(newRepaymentDate, holidays);
+                    newRepaymentDate = holidayCalendar.getRepaymentRescheduleDateToIfHoliday(newRepaymentDate);
                 }
 
                 loanRepaymentScheduleInstallment.updateDueDate(newRepaymentDate);
@@ -12,7 +12,6 @@ import org.joda.time.LocalDate;
 import org.joda.time.Months;
 import org.joda.time.Weeks;
 import org.joda.time.Years;
-import org.mifosplatform.organisation.holiday.service.HolidayUtil;
 import org.mifosplatform.organisation.workingdays.domain.RepaymentRescheduleType;
 import org.mifosplatform.organisation.workingdays.service.WorkingDaysUtil;
 import org.mifosplatform.portfolio.common.domain.DayOfWeekType;
@@ -95,7 +94,7 @@ public class DefaultScheduledDateGenerator implements ScheduledDateGenerator {
                 holidayDetailDTO.getWorkingDays());
 
         if (holidayDetailDTO.isHolidayEnabled()) {
-            adjustedDate = HolidayUtil.getRepaymentRescheduleDateToIfHoliday(adjustedDate, holidayDetailDTO.getHolidays());
+            adjustedDate = holidayDetailDTO.getHolidayCalendar().getRepaymentRescheduleDateToIfHoliday(adjustedDate);
         }
 
         return adjustedDate;
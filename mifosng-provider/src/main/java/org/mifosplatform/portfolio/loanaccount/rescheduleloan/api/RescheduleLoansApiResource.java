@@ -94,8 +94,8 @@ public class RescheduleLoansApiResource {
     @Consumes({ MediaType.APPLICATION_JSON })
     @Produces({ MediaType.APPLICATION_JSON })
     public String createLoanRescheduleRequest(final String apiRequestBodyAsJson) {
-        final CommandWrapper commandWrapper = new CommandWrapperBuilder()
-                .createLoanRescheduleRequest(RescheduleLoansApiConstants.ENTITY_NAME).withJson(apiRequestBodyAsJson).build();
+        final CommandWrapper commandWrapper = new CommandWrapperBuilder().createLoanRescheduleRequest()
+                .withJson(apiRequestBodyAsJson).build();
 
         final CommandProcessingResult commandProcessingResult = this.commandsSourceWritePlatformService.logCommandSource(commandWrapper);
 
@@ -111,12 +111,12 @@ public class RescheduleLoansApiResource {
         CommandWrapper commandWrapper = null;
 
         if (compareIgnoreCase(command, "approve")) {
-            commandWrapper = new CommandWrapperBuilder().approveLoanRescheduleRequest(RescheduleLoansApiConstants.ENTITY_NAME, requestId)
+            commandWrapper = new CommandWrapperBuilder().approveLoanRescheduleRequest(requestId)
                     .withJson(apiRequestBodyAsJson).build();
         }
 
         else if (compareIgnoreCase(command, "reject")) {
-            commandWrapper = new CommandWrapperBuilder().rejectLoanRescheduleRequest(RescheduleLoansApiConstants.ENTITY_NAME, requestId)
+            commandWrapper = new CommandWrapperBuilder().rejectLoanRescheduleRequest(requestId)
                     .withJson(apiRequestBodyAsJson).build();
         }
 
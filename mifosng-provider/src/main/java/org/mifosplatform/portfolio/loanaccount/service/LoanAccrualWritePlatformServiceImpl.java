@@ -13,6 +13,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -35,6 +36,8 @@ import org.mifosplatform.portfolio.loanaccount.data.LoanTransactionEnumData;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanTransactionType;
 import org.mifosplatform.portfolio.loanaccount.loanschedule.data.LoanSchedulePeriodData;
 import org.mifosplatform.portfolio.loanproduct.service.LoanEnumerations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.orm.jpa.JpaTransactionManager;
@@ -46,6 +49,13 @@ import org.springframework.transaction.support.DefaultTransactionDefinition;
 @Service
 public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlatformService {
 
+    private final static Logger logger = LoggerFactory.getLogger(LoanAccrualWritePlatformServiceImpl.class);
+
+    /**
+     * Number of loans whose charges and waivers are loaded together.
+     */
+    private static final int PREFETCH_CHUNK_SIZE = 500;
+
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanChargeReadPlatformService loanChargeReadPlatformService;
     private final JdbcTemplate jdbcTemplate;
@@ -74,6 +84,7 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         Map<Long, Collection<LoanChargeData>> loanChargeMap = new HashMap<>();
         Map<Long, Collection<LoanTransactionData>> loanWaiverTansactions = new HashMap<>();
         Map<Long, Collection<LoanSchedulePeriodData>> loanWaiverSchedules = new HashMap<>();
+        prefetchAccrualData(loanScheduleAccrualDatas, loanChargeMap, loanWaiverTansactions, loanWaiverSchedules);
         for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
             try {
                 if (!loansIds.contains(accrualData.getLoanId())) {
@@ -129,6 +140,7 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         Map<Long, Collection<LoanChargeData>> loanChargeMap = new HashMap<>();
         Map<Long, Collection<LoanTransactionData>> loanWaiverTansactions = new HashMap<>();
         Map<Long, Collection<LoanSchedulePeriodData>> loanWaiverSchedules = new HashMap<>();
+        prefetchAccrualData(loanScheduleAccrualDatas, loanChargeMap, loanWaiverTansactions, loanWaiverSchedules);
         for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
             try {
                 if (!loansIds.contains(accrualData.getLoanId())) {
@@ -176,6 +188,63 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         return sb.toString();
     }
 
+    /**
+     * Loads the charges and interest waivers of the loans to accrue for
+     * {@link #PREFETCH_CHUNK_SIZE} loans at a time instead of querying them
+     * loan by loan. Loans of a chunk that fails to load are left out of the
+     * maps, so that they are looked up (and fail) one by one as before.
+     */
+    private void prefetchAccrualData(final Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas,
+            final Map<Long, Collection<LoanChargeData>> loanChargeMap, final Map<Long, Collection<LoanTransactionData>> loanWaiverTansactions,
+            final Map<Long, Collection<LoanSchedulePeriodData>> loanWaiverSchedules) {
+        final Set<Long> loanIds = new LinkedHashSet<>();
+        final Set<Long> loanIdsWithWaivedInterest = new HashSet<>();
+        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
+            loanIds.add(accrualData.getLoanId());
+            if (accrualData.getWaivedInterestIncome() != null) {
+                loanIdsWithWaivedInterest.add(accrualData.getLoanId());
+            }
+        }
+
+        final List<Long> chunk = new ArrayList<>(PREFETCH_CHUNK_SIZE);
+        final List<Long> waiverChunk = new ArrayList<>();
+        final Iterator<Long> iterator = loanIds.iterator();
+        while (iterator.hasNext()) {
+            final Long loanId = iterator.next();
+            chunk.add(loanId);
+            if (loanIdsWithWaivedInterest.contains(loanId)) {
+                waiverChunk.add(loanId);
+            }
+            if (chunk.size() == PREFETCH_CHUNK_SIZE || !iterator.hasNext()) {
+                try {
+                    final Map<Long, Collection<LoanChargeData>> charges = this.loanChargeReadPlatformService
+                            .retrieveLoanChargesForAccural(chunk);
+                    final Map<Long, Collection<LoanSchedulePeriodData>> waiverSchedules = this.loanReadPlatformService
+                            .fetchWaiverInterestRepaymentData(waiverChunk);
+                    final Map<Long, Collection<LoanTransactionData>> waiverTransactions = this.loanReadPlatformService
+                            .retrieveWaiverLoanTransactions(waiverChunk);
+                    for (final Long chunkLoanId : chunk) {
+                        loanChargeMap.put(chunkLoanId, valueOrEmpty(charges, chunkLoanId));
+                    }
+                    for (final Long chunkLoanId : waiverChunk) {
+                        loanWaiverSchedules.put(chunkLoanId, valueOrEmpty(waiverSchedules, chunkLoanId));
+                        loanWaiverTansactions.put(chunkLoanId, valueOrEmpty(waiverTransactions, chunkLoanId));
+                    }
+                } catch (final RuntimeException e) {
+                    logger.warn("Failed to prefetch accrual data for loans " + chunk, e);
+                }
+                chunk.clear();
+                waiverChunk.clear();
+            }
+        }
+    }
+
+    private static <T> Collection<T> valueOrEmpty(final Map<Long, Collection<T>> valuesByLoan, final Long loanId) {
+        final Collection<T> values = valuesByLoan.get(loanId);
+        if (values == null) { return new ArrayList<T>(); }
+        return values;
+    }
+
     private void addAccrualTillSpecificDate(final LocalDate tilldate, final LoanScheduleAccrualData accrualData) throws Exception {
         LocalDate interestStartDate = accrualData.getFromDateAsLocaldate();
         if (accrualData.getInterestCalculatedFrom() != null
@@ -320,10 +389,14 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
 
             Map<LoanChargeData, BigDecimal> applicableCharges = scheduleAccrualData.getApplicableCharges();
             String chargespaidSql = "INSERT INTO m_loan_charge_paid_by (loan_transaction_id, loan_charge_id, amount,installment_number) VALUES (?,?,?,?)";
+            final List<Object[]> chargesPaidArgs = new ArrayList<>(applicableCharges.size());
             for (Map.Entry<LoanChargeData, BigDecimal> entry : applicableCharges.entrySet()) {
                 LoanChargeData chargeData = entry.getKey();
-                this.jdbcTemplate.update(chargespaidSql, transactonId, chargeData.getId(), entry.getValue(),
-                        scheduleAccrualData.getInstallmentNumber());
+                chargesPaidArgs.add(new Object[] { transactonId, chargeData.getId(), entry.getValue(),
+                        scheduleAccrualData.getInstallmentNumber() });
+            }
+            if (!chargesPaidArgs.isEmpty()) {
+                this.jdbcTemplate.batchUpdate(chargespaidSql, chargesPaidArgs);
             }
 
             Map<String, Object> transactionMap = toMapData(transactonId, amount, interestportion, feeportion, penaltyportion,
@@ -5,11 +5,12 @@
  */
 package org.mifosplatform.portfolio.loanaccount.service;
 
+import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
 import org.mifosplatform.portfolio.loanaccount.domain.Loan;
 
 public interface LoanArrearsAgingService {
 
-    void updateLoanArrearsAgeingDetails();
+    void updateLoanArrearsAgeingDetails() throws JobExecutionException;
 
     void updateLoanArrearsAgeingDetailsWithOriginalSchedule(Loan loan);
 
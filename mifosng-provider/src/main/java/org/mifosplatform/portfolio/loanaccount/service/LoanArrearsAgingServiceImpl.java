@@ -22,7 +22,13 @@ import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
+import org.mifosplatform.infrastructure.jobs.data.JobPartition;
+import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
+import org.mifosplatform.infrastructure.jobs.service.IdRangePartitionMapper;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.jobs.service.JobPartitionExecutor;
+import org.mifosplatform.infrastructure.jobs.service.JobPartitionTask;
+import org.mifosplatform.infrastructure.jobs.service.SchedulerServiceConstants;
 import org.mifosplatform.portfolio.common.BusinessEventNotificationConstants.BUSINESS_ENTITY;
 import org.mifosplatform.portfolio.common.BusinessEventNotificationConstants.BUSINESS_EVENTS;
 import org.mifosplatform.portfolio.common.service.BusinessEventListner;
@@ -41,7 +47,6 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, BusinessEventListner {
@@ -50,11 +55,14 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
     private final BusinessEventNotifierService businessEventNotifierService;
     private final DateTimeFormatter formatter = DateTimeFormat.forPattern("yyyy-MM-dd");
     private final JdbcTemplate jdbcTemplate;
+    private final JobPartitionExecutor jobPartitionExecutor;
 
     @Autowired
-    public LoanArrearsAgingServiceImpl(final RoutingDataSource dataSource, final BusinessEventNotifierService businessEventNotifierService) {
+    public LoanArrearsAgingServiceImpl(final RoutingDataSource dataSource, final BusinessEventNotifierService businessEventNotifierService,
+            final JobPartitionExecutor jobPartitionExecutor) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.businessEventNotifierService = businessEventNotifierService;
+        this.jobPartitionExecutor = jobPartitionExecutor;
     }
 
     @PostConstruct
@@ -71,10 +79,9 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
         this.businessEventNotifierService.addBusinessEventPostListners(BUSINESS_EVENTS.LOAN_DISBURSAL, new DisbursementEventListner());
     }
 
-    @Transactional
     @Override
     @CronTarget(jobName = JobName.UPDATE_LOAN_ARREARS_AGEING)
-    public void updateLoanArrearsAgeingDetails() {
+    public void updateLoanArrearsAgeingDetails() throws JobExecutionException {
 
         this.jdbcTemplate.execute("truncate table m_loan_arrears_aging");
 
@@ -104,14 +111,27 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
         updateSqlBuilder.append(" and mr.completed_derived is false ");
         updateSqlBuilder.append(" and mr.duedate < SUBDATE(CURDATE(),INTERVAL  ifnull(ml.grace_on_arrears_ageing,0) day) ");
         updateSqlBuilder.append(" and (prd.arrears_based_on_original_schedule = 0 or prd.arrears_based_on_original_schedule is null) ");
+        updateSqlBuilder.append(" and ml.id between ? and ? ");
         updateSqlBuilder.append(" GROUP BY ml.id");
 
-        List<String> insertStatements = updateLoanArrearsAgeingDetailsWithOriginalSchedule();
-        insertStatements.add(0, updateSqlBuilder.toString());
-        final int[] results = this.jdbcTemplate.batchUpdate(insertStatements.toArray(new String[0]));
-        int result = 0;
-        for (int i : results) {
-            result += i;
+        final String insertSql = updateSqlBuilder.toString();
+        final List<JobPartition> partitions = this.jdbcTemplate.queryForObject(
+                "select min(ml.id) as minId, max(ml.id) as maxId from m_loan ml where ml.loan_status_id = 300",
+                new IdRangePartitionMapper(SchedulerServiceConstants.DEFAULT_PARTITION_SIZE));
+        int result = this.jobPartitionExecutor.execute(JobName.UPDATE_LOAN_ARREARS_AGEING.name(), partitions, new JobPartitionTask() {
+
+            @Override
+            public int execute(final JobPartition partition) {
+                return LoanArrearsAgingServiceImpl.this.jdbcTemplate.update(insertSql, partition.getRangeFrom(), partition.getRangeTo());
+            }
+        });
+
+        final List<String> insertStatements = updateLoanArrearsAgeingDetailsWithOriginalSchedule();
+        if (!insertStatements.isEmpty()) {
+            final int[] results = this.jdbcTemplate.batchUpdate(insertStatements.toArray(new String[0]));
+            for (int i : results) {
+                result += i;
+            }
         }
 
         logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
@@ -6,6 +6,7 @@
 package org.mifosplatform.portfolio.loanaccount.service;
 
 import java.util.Collection;
+import java.util.Map;
 
 import org.mifosplatform.portfolio.charge.data.ChargeData;
 import org.mifosplatform.portfolio.loanaccount.data.LoanChargeData;
@@ -29,5 +30,11 @@ public interface LoanChargeReadPlatformService {
     
     Collection<LoanChargeData> retrieveLoanChargesForAccural(Long loanId);
 
+    /**
+     * Same as {@link #retrieveLoanChargesForAccural(Long)} for a chunk of
+     * loans in a fixed number of queries, by loan id.
+     */
+    Map<Long, Collection<LoanChargeData>> retrieveLoanChargesForAccural(Collection<Long> loanIds);
+
     Collection<LoanChargePaidByData> retriveLoanChargesPaidBy(Long chargeId, LoanTransactionType transactionType, Integer installmentNumber);
 }
@@ -14,6 +14,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.lang.StringUtils;
 import org.joda.time.LocalDate;
 import org.mifosplatform.infrastructure.core.data.EnumOptionData;
 import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
@@ -30,6 +31,7 @@ import org.mifosplatform.portfolio.loanaccount.data.LoanInstallmentChargeData;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanTransactionType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 
@@ -282,6 +284,66 @@ public class LoanChargeReadPlatformServiceImpl implements LoanChargeReadPlatform
         return charges;
     }
 
+    @Override
+    public Map<Long, Collection<LoanChargeData>> retrieveLoanChargesForAccural(final Collection<Long> loanIds) {
+        final Map<Long, Collection<LoanChargeData>> chargesByLoan = new HashMap<>();
+        if (loanIds.isEmpty()) { return chargesByLoan; }
+        final String loanIdList = StringUtils.join(loanIds, ",");
+
+        final LoanChargeAccrualMapper rm = new LoanChargeAccrualMapper();
+        final String sql = "select lc.loan_id as loanId, " + rm.schema() + " where lc.loan_id in (" + loanIdList
+                + ") AND lc.is_active = 1 group by  lc.id "
+                + " order by lc.loan_id ASC, lc.charge_time_enum ASC, lc.due_for_collection_as_of_date ASC, lc.is_penalty ASC";
+        final Map<Long, Long> loanIdByCharge = new HashMap<>();
+        final List<LoanChargeData> charges = new ArrayList<>();
+        this.jdbcTemplate.query(sql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final LoanChargeData chargeData = rm.mapRow(rs, 0);
+                loanIdByCharge.put(chargeData.getId(), rs.getLong("loanId"));
+                charges.add(chargeData);
+            }
+        }, LoanTransactionType.ACCRUAL.getValue());
+
+        final LoanChargeUnRecognizedIncomeMapper unrecognizedIncomeMapper = new LoanChargeUnRecognizedIncomeMapper(charges);
+        final String unrecognizedIncomeSql = "select " + unrecognizedIncomeMapper.schema() + " where lc.loan_id in (" + loanIdList
+                + ") AND lc.is_active = 1 group by  lc.id "
+                + " order by lc.loan_id ASC, lc.charge_time_enum ASC, lc.due_for_collection_as_of_date ASC, lc.is_penalty ASC";
+        final Collection<LoanChargeData> chargesWithUnrecognizedIncome = this.jdbcTemplate.query(unrecognizedIncomeSql,
+                unrecognizedIncomeMapper, new Object[] { LoanTransactionType.WAIVE_CHARGES.getValue() });
+
+        final List<Long> installmentFeeIds = new ArrayList<>();
+        for (final LoanChargeData loanChargeData : chargesWithUnrecognizedIncome) {
+            if (loanChargeData.isInstallmentFee()) {
+                installmentFeeIds.add(loanChargeData.getId());
+            } else {
+                chargesOf(chargesByLoan, loanIdByCharge.get(loanChargeData.getId())).add(loanChargeData);
+            }
+        }
+
+        // installment fees go after the other charges of the loan
+        final Map<Long, Collection<LoanInstallmentChargeData>> installmentChargesByCharge = retrieveInstallmentLoanChargesForAccrual(installmentFeeIds);
+        for (final LoanChargeData loanChargeData : chargesWithUnrecognizedIncome) {
+            if (loanChargeData.isInstallmentFee()) {
+                final LoanChargeData modifiedChargeData = new LoanChargeData(loanChargeData, installmentChargesByCharge.get(loanChargeData
+                        .getId()));
+                chargesOf(chargesByLoan, loanIdByCharge.get(loanChargeData.getId())).add(modifiedChargeData);
+            }
+        }
+
+        return chargesByLoan;
+    }
+
+    private static Collection<LoanChargeData> chargesOf(final Map<Long, Collection<LoanChargeData>> chargesByLoan, final Long loanId) {
+        Collection<LoanChargeData> charges = chargesByLoan.get(loanId);
+        if (charges == null) {
+            charges = new ArrayList<>();
+            chargesByLoan.put(loanId, charges);
+        }
+        return charges;
+    }
+
     private static final class LoanChargeAccrualMapper implements RowMapper<LoanChargeData> {
 
         private final String schemaSql;
@@ -395,6 +457,52 @@ public class LoanChargeReadPlatformServiceImpl implements LoanChargeReadPlatform
 
     }
 
+    private Map<Long, Collection<LoanInstallmentChargeData>> retrieveInstallmentLoanChargesForAccrual(final Collection<Long> loanChargeIds) {
+        final Map<Long, Collection<LoanInstallmentChargeData>> installmentChargesByCharge = new HashMap<>();
+        if (loanChargeIds.isEmpty()) { return installmentChargesByCharge; }
+        final String loanChargeIdList = StringUtils.join(loanChargeIds, ",");
+
+        final Map<Long, Map<Integer, LoanInstallmentChargeData>> installmentChargeDatasByCharge = new HashMap<>();
+        for (final Long loanChargeId : loanChargeIds) {
+            installmentChargeDatasByCharge.put(loanChargeId, new HashMap<Integer, LoanInstallmentChargeData>());
+        }
+
+        final LoanInstallmentChargeAccrualMapper rm = new LoanInstallmentChargeAccrualMapper();
+        final String sql = "select lic.loan_charge_id as loanChargeId, " + rm.schema() + " where lic.loan_charge_id in (" + loanChargeIdList
+                + ") group by lic.loan_charge_id, lsi.installment";
+        this.jdbcTemplate.query(sql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final LoanInstallmentChargeData installmentChargeData = rm.mapRow(rs, 0);
+                installmentChargeDatasByCharge.get(rs.getLong("loanChargeId")).put(installmentChargeData.getInstallmentNumber(),
+                        installmentChargeData);
+            }
+        }, LoanTransactionType.ACCRUAL.getValue());
+
+        final LoanInstallmentChargeUnRecognizedIncomeMapper unrecognizedIncomeMapper = new LoanInstallmentChargeUnRecognizedIncomeMapper(
+                new HashMap<Integer, LoanInstallmentChargeData>());
+        final String unrecognizedIncomeSql = "select cpb.loan_charge_id as loanChargeId, " + unrecognizedIncomeMapper.schema()
+                + " where cpb.loan_charge_id in (" + loanChargeIdList + ") group by cpb.loan_charge_id, cpb.installment_number";
+        this.jdbcTemplate.query(unrecognizedIncomeSql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final Map<Integer, LoanInstallmentChargeData> installmentChargeDatas = installmentChargeDatasByCharge.get(rs
+                        .getLong("loanChargeId"));
+                final Integer installmentNumber = rs.getInt("installmentNumber");
+                final BigDecimal amountUnrecognized = rs.getBigDecimal("amountUnrecognized");
+                installmentChargeDatas.put(installmentNumber, new LoanInstallmentChargeData(installmentChargeDatas.get(installmentNumber),
+                        amountUnrecognized));
+            }
+        }, LoanTransactionType.WAIVE_CHARGES.getValue());
+
+        for (final Map.Entry<Long, Map<Integer, LoanInstallmentChargeData>> entry : installmentChargeDatasByCharge.entrySet()) {
+            installmentChargesByCharge.put(entry.getKey(), entry.getValue().values());
+        }
+        return installmentChargesByCharge;
+    }
+
     private static final class LoanInstallmentChargeAccrualMapper implements RowMapper<LoanInstallmentChargeData> {
 
         private final String schemaSql;
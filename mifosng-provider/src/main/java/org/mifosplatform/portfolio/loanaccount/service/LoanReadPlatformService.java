@@ -7,6 +7,7 @@ package org.mifosplatform.portfolio.loanaccount.service;
 
 import java.util.Collection;
 import java.util.Date;
+import java.util.Map;
 
 import org.joda.time.LocalDate;
 import org.mifosplatform.infrastructure.core.service.Page;
@@ -102,6 +103,10 @@ public interface LoanReadPlatformService {
 
     Collection<LoanSchedulePeriodData> fetchWaiverInterestRepaymentData(Long loanId);
 
+    Map<Long, Collection<LoanTransactionData>> retrieveWaiverLoanTransactions(Collection<Long> loanIds);
+
+    Map<Long, Collection<LoanSchedulePeriodData>> fetchWaiverInterestRepaymentData(Collection<Long> loanIds);
+
     boolean isGuaranteeRequired(Long loanId);
 
     Date retrieveMinimumDateOfRepaymentTransaction(Long loanId);
@@ -34,8 +34,7 @@ import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.core.service.SearchParameters;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.holiday.domain.Holiday;
-import org.mifosplatform.organisation.holiday.domain.HolidayRepository;
-import org.mifosplatform.organisation.holiday.domain.HolidayStatusType;
+import org.mifosplatform.organisation.holiday.domain.HolidayRepositoryWrapper;
 import org.mifosplatform.organisation.monetary.data.CurrencyData;
 import org.mifosplatform.organisation.monetary.domain.ApplicationCurrency;
 import org.mifosplatform.organisation.monetary.domain.ApplicationCurrencyRepositoryWrapper;
@@ -109,6 +108,7 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -117,6 +117,13 @@ import org.springframework.util.CollectionUtils;
 @Service
 public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 
+    // sort columns of keyset pagination, by orderBy value
+    private static final Map<String, String> LOAN_KEYSET_SORT_COLUMNS = new HashMap<>();
+    static {
+        LOAN_KEYSET_SORT_COLUMNS.put("id", "l.id");
+        LOAN_KEYSET_SORT_COLUMNS.put("accountNo", "l.account_no");
+    }
+
     private final JdbcTemplate jdbcTemplate;
     private final PlatformSecurityContext context;
     private final LoanRepository loanRepository;
@@ -137,7 +144,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
     private final DateTimeFormatter formatter = DateTimeFormat.forPattern("yyyy-MM-dd");
     private final LoanScheduleGeneratorFactory loanScheduleFactory;
     private final CalendarInstanceRepository calendarInstanceRepository;
-    private final HolidayRepository holidayRepository;
+    private final HolidayRepositoryWrapper holidayRepository;
     private final ConfigurationDomainService configurationDomainService;
     private final WorkingDaysRepositoryWrapper workingDaysRepository;
     private final PaymentTypeReadPlatformService paymentTypeReadPlatformService;
@@ -153,7 +160,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
             final CodeValueReadPlatformService codeValueReadPlatformService, final RoutingDataSource dataSource,
             final CalendarReadPlatformService calendarReadPlatformService, final StaffReadPlatformService staffReadPlatformService,
             final LoanScheduleGeneratorFactory loanScheduleFactory, final CalendarInstanceRepository calendarInstanceRepository,
-            final HolidayRepository holidayRepository, final ConfigurationDomainService configurationDomainService,
+            final HolidayRepositoryWrapper holidayRepository, final ConfigurationDomainService configurationDomainService,
             final WorkingDaysRepositoryWrapper workingDaysRepository, PaymentTypeReadPlatformService paymentTypeReadPlatformService,
             final LoanRepaymentScheduleTransactionProcessorFactory loanRepaymentScheduleTransactionProcessorFactory) {
         this.context = context;
@@ -251,7 +258,6 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         final String hierarchySearchString = hierarchy + "%";
 
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
         sqlBuilder.append(this.loaanLoanMapper.loanSchema());
 
         // TODO - for time being this will data scope list of loans returned to
@@ -286,26 +292,10 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
             arrayPos = arrayPos + 1;
         }
 
-        if (searchParameters.isOrderByRequested()) {
-            sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
-
-            if (searchParameters.isSortOrderProvided()) {
-                sqlBuilder.append(' ').append(searchParameters.getSortOrder());
-            }
-        }
-
-        if (searchParameters.isLimited()) {
-            sqlBuilder.append(" limit ").append(searchParameters.getLimit());
-            if (searchParameters.isOffset()) {
-                sqlBuilder.append(" offset ").append(searchParameters.getOffset());
-            }
-        }
-
         final Object[] objectArray = extraCriterias.toArray();
         final Object[] finalObjectArray = Arrays.copyOf(objectArray, arrayPos);
-        final String sqlCountRows = "SELECT FOUND_ROWS()";
-        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), finalObjectArray,
-                this.loaanLoanMapper);
+        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), finalObjectArray, searchParameters,
+                LOAN_KEYSET_SORT_COLUMNS, "l.id", this.loaanLoanMapper);
     }
 
     @Override
@@ -427,7 +417,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
                     loan.loanInterestRecalculationDetailId(), CalendarEntityType.LOAN_RECALCULATION_COMPOUNDING_DETAIL.getValue());
             final boolean isHolidayEnabled = this.configurationDomainService.isRescheduleRepaymentsOnHolidaysEnabled();
             final List<Holiday> holidays = this.holidayRepository.findByOfficeIdAndGreaterThanDate(loan.getOfficeId(), loan
-                    .getDisbursementDate().toDate(), HolidayStatusType.ACTIVE.getValue());
+                    .getDisbursementDate().toDate());
             final WorkingDays workingDays = this.workingDaysRepository.findOne();
             holidayDetailDTO = new HolidayDetailDTO(isHolidayEnabled, holidays, workingDays);
         }
@@ -1745,6 +1735,30 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         }
     }
 
+    @Override
+    public Map<Long, Collection<LoanTransactionData>> retrieveWaiverLoanTransactions(final Collection<Long> loanIds) {
+        final Map<Long, Collection<LoanTransactionData>> transactionsByLoan = new HashMap<>();
+        if (loanIds.isEmpty()) { return transactionsByLoan; }
+
+        final LoanTransactionDerivedComponentMapper rm = new LoanTransactionDerivedComponentMapper();
+        final String sql = "select tr.loan_id as loanId, " + rm.schema() + " where tr.loan_id in (" + StringUtils.join(loanIds, ",")
+                + ") and tr.transaction_type_enum = ? and tr.is_reversed=0 order by tr.loan_id ASC, tr.transaction_date ASC,id ";
+        this.jdbcTemplate.query(sql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final Long loanId = rs.getLong("loanId");
+                Collection<LoanTransactionData> transactions = transactionsByLoan.get(loanId);
+                if (transactions == null) {
+                    transactions = new ArrayList<>();
+                    transactionsByLoan.put(loanId, transactions);
+                }
+                transactions.add(rm.mapRow(rs, 0));
+            }
+        }, LoanTransactionType.WAIVE_INTEREST.getValue());
+        return transactionsByLoan;
+    }
+
     @Override
     public boolean isGuaranteeRequired(final Long loanId) {
         final String sql = "select pl.hold_guarantee_funds from m_loan ml inner join m_product_loan pl on pl.id = ml.product_id where ml.id=?";
@@ -1799,6 +1813,30 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 
     }
 
+    @Override
+    public Map<Long, Collection<LoanSchedulePeriodData>> fetchWaiverInterestRepaymentData(final Collection<Long> loanIds) {
+        final Map<Long, Collection<LoanSchedulePeriodData>> periodsByLoan = new HashMap<>();
+        if (loanIds.isEmpty()) { return periodsByLoan; }
+
+        final LoanRepaymentWaiverMapper rm = new LoanRepaymentWaiverMapper();
+        final String sql = "select lrs.loan_id as loanId, " + rm.getSchema() + " where lrs.loan_id in (" + StringUtils.join(loanIds, ",")
+                + ") and lrs.interest_waived_derived is not null order by lrs.loan_id ASC, lrs.installment ASC ";
+        this.jdbcTemplate.query(sql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final Long loanId = rs.getLong("loanId");
+                Collection<LoanSchedulePeriodData> periods = periodsByLoan.get(loanId);
+                if (periods == null) {
+                    periods = new ArrayList<>();
+                    periodsByLoan.put(loanId, periods);
+                }
+                periods.add(rm.mapRow(rs, 0));
+            }
+        });
+        return periodsByLoan;
+    }
+
     private static final class LoanRepaymentWaiverMapper implements RowMapper<LoanSchedulePeriodData> {
 
         private final String sqlSchema;
@@ -0,0 +1,15 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.service;
+
+/**
+ * Keeps track of loans whose derived summary columns may be stale, so that
+ * the loan summary job can recompute only those loans.
+ */
+public interface LoanSummaryChangeLogService {
+
+    void markLoanChanged(Long loanId);
+}
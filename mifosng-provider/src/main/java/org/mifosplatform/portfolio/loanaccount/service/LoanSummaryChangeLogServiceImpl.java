@@ -0,0 +1,83 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.service;
+
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.portfolio.common.BusinessEventNotificationConstants.BUSINESS_ENTITY;
+import org.mifosplatform.portfolio.common.BusinessEventNotificationConstants.BUSINESS_EVENTS;
+import org.mifosplatform.portfolio.common.service.BusinessEventListner;
+import org.mifosplatform.portfolio.common.service.BusinessEventNotifierService;
+import org.mifosplatform.portfolio.loanaccount.domain.Loan;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanCharge;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanTransaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Records every loan touched by a loan business event in
+ * <code>m_loan_summary_dirty</code>. The insert joins the transaction of the
+ * command, so a loan is only marked when its change is committed. Marking a
+ * loan again advances the version of its mark, so the loan summary job keeps
+ * marks that changed after it read them.
+ */
+@Service
+public class LoanSummaryChangeLogServiceImpl implements LoanSummaryChangeLogService, BusinessEventListner {
+
+    private final BusinessEventNotifierService businessEventNotifierService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public LoanSummaryChangeLogServiceImpl(final RoutingDataSource dataSource,
+            final BusinessEventNotifierService businessEventNotifierService) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.businessEventNotifierService = businessEventNotifierService;
+    }
+
+    @PostConstruct
+    public void registerForNotification() {
+        for (final BUSINESS_EVENTS businessEvent : BUSINESS_EVENTS.values()) {
+            this.businessEventNotifierService.addBusinessEventPostListners(businessEvent, this);
+        }
+    }
+
+    @Override
+    public void markLoanChanged(final Long loanId) {
+        this.jdbcTemplate.update("insert into m_loan_summary_dirty (loan_id, lastmodified_date, version) values (?, now(), 1) "
+                + "on duplicate key update lastmodified_date = now(), version = version + 1", loanId);
+    }
+
+    @SuppressWarnings("unused")
+    @Override
+    public void businessEventToBeExecuted(Map<BUSINESS_ENTITY, Object> businessEventEntity) {
+        // only changes that were executed are of interest
+    }
+
+    @Override
+    public void businessEventWasExecuted(Map<BUSINESS_ENTITY, Object> businessEventEntity) {
+        Loan loan = null;
+        final Object loanEntity = businessEventEntity.get(BUSINESS_ENTITY.LOAN);
+        final Object loanTransactionEntity = businessEventEntity.get(BUSINESS_ENTITY.LOAN_TRANSACTION);
+        final Object loanAdjustTransactionEntity = businessEventEntity.get(BUSINESS_ENTITY.LOAN_ADJUSTED_TRANSACTION);
+        final Object loanChargeEntity = businessEventEntity.get(BUSINESS_ENTITY.LOAN_CHARGE);
+        if (loanEntity != null) {
+            loan = (Loan) loanEntity;
+        } else if (loanTransactionEntity != null) {
+            loan = ((LoanTransaction) loanTransactionEntity).getLoan();
+        } else if (loanAdjustTransactionEntity != null) {
+            loan = ((LoanTransaction) loanAdjustTransactionEntity).getLoan();
+        } else if (loanChargeEntity != null) {
+            loan = ((LoanCharge) loanChargeEntity).getLoan();
+        }
+        if (loan != null && loan.getId() != null) {
+            markLoanChanged(loan.getId());
+        }
+    }
+}
@@ -68,6 +68,7 @@ import org.mifosplatform.infrastructure.security.service.RandomPasswordGenerator
 import org.mifosplatform.organisation.monetary.data.CurrencyData;
 import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
 import org.mifosplatform.organisation.monetary.domain.Money;
+import org.mifosplatform.organisation.monetary.domain.MoneyAccumulator;
 import org.mifosplatform.organisation.office.domain.Office;
 import org.mifosplatform.organisation.staff.domain.Staff;
 import org.mifosplatform.portfolio.accountdetails.domain.AccountType;
@@ -860,13 +861,13 @@ public class SavingsAccount extends AbstractPersistable<Long> {
 
     public void validateAccountBalanceDoesNotBecomeNegative(final BigDecimal transactionAmount, final boolean isException) {
         final List<SavingsAccountTransaction> transactionsSortedByDate = retreiveListOfTransactions();
-        Money runningBalance = Money.zero(this.currency);
+        final MoneyAccumulator runningBalance = MoneyAccumulator.zero(this.currency);
         Money minRequiredBalance = minRequiredBalanceDerived(getCurrency());
         for (final SavingsAccountTransaction transaction : transactionsSortedByDate) {
             if (transaction.isNotReversed() && transaction.isCredit()) {
-                runningBalance = runningBalance.plus(transaction.getAmount(this.currency));
+                runningBalance.plus(transaction.getAmount(this.currency));
             } else if (transaction.isNotReversed() && transaction.isDebit()) {
-                runningBalance = runningBalance.minus(transaction.getAmount(this.currency));
+                runningBalance.minus(transaction.getAmount(this.currency));
             } else {
                 continue;
             }
@@ -875,7 +876,7 @@ public class SavingsAccount extends AbstractPersistable<Long> {
             // deal with potential minRequiredBalance and
             // enforceMinRequiredBalance
             if (!isException && transaction.canProcessBalanceCheck()) {
-                if (runningBalance.minus(minRequiredBalance).isLessThanZero()) { throw new InsufficientAccountBalanceException(
+                if (runningBalance.isLessThan(minRequiredBalance)) { throw new InsufficientAccountBalanceException(
                         "transactionAmount", getAccountBalance(), withdrawalFee, transactionAmount); }
             }
 
@@ -885,18 +886,18 @@ public class SavingsAccount extends AbstractPersistable<Long> {
     public void validateAccountBalanceDoesNotBecomeNegative(final String transactionAction) {
 
         final List<SavingsAccountTransaction> transactionsSortedByDate = retreiveListOfTransactions();
-        Money runningBalance = Money.zero(this.currency);
+        final MoneyAccumulator runningBalance = MoneyAccumulator.zero(this.currency);
         Money minRequiredBalance = minRequiredBalanceDerived(getCurrency());
         for (final SavingsAccountTransaction transaction : transactionsSortedByDate) {
             if (transaction.isNotReversed() && transaction.isCredit()) {
-                runningBalance = runningBalance.plus(transaction.getAmount(this.currency));
+                runningBalance.plus(transaction.getAmount(this.currency));
             } else if (transaction.isNotReversed() && transaction.isDebit()) {
-                runningBalance = runningBalance.minus(transaction.getAmount(this.currency));
+                runningBalance.minus(transaction.getAmount(this.currency));
             }
 
             // enforceMinRequiredBalance
             if (transaction.canProcessBalanceCheck()) {
-                if (runningBalance.minus(minRequiredBalance).isLessThanZero()) {
+                if (runningBalance.isLessThan(minRequiredBalance)) {
                     final List<ApiParameterError> dataValidationErrors = new ArrayList<>();
                     final DataValidatorBuilder baseDataValidator = new DataValidatorBuilder(dataValidationErrors)
                             .resource(depositAccountType().resourceName() + transactionAction);
@@ -35,10 +35,18 @@ import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.mifosplatform.infrastructure.core.data.DataValidatorBuilder;
 import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.mifosplatform.infrastructure.core.exception.PlatformServiceUnavailableException;
 import org.mifosplatform.infrastructure.core.service.DateUtils;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
+import org.mifosplatform.infrastructure.jobs.data.JobPartition;
+import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
+import org.mifosplatform.infrastructure.jobs.service.IdRangePartitionMapper;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.jobs.service.JobPartitionExecutor;
+import org.mifosplatform.infrastructure.jobs.service.JobPartitionTask;
+import org.mifosplatform.infrastructure.jobs.service.SchedulerServiceConstants;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.holiday.service.HolidayWritePlatformService;
 import org.mifosplatform.organisation.monetary.domain.ApplicationCurrency;
@@ -85,14 +93,24 @@ import org.mifosplatform.portfolio.savings.exception.SavingsOfficerAssignmentExc
 import org.mifosplatform.portfolio.savings.exception.SavingsOfficerUnassignmentException;
 import org.mifosplatform.portfolio.savings.exception.TransactionUpdateNotAllowedException;
 import org.mifosplatform.useradministration.domain.AppUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 
 @Service
 public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements SavingsAccountWritePlatformService {
 
+    private final static Logger logger = LoggerFactory.getLogger(SavingsAccountWritePlatformServiceJpaRepositoryImpl.class);
+
+    private static final int INTEREST_POSTING_CHUNK_SIZE = 100;
+
     private final PlatformSecurityContext context;
     private final SavingsAccountRepository savingAccountRepository;
     private final SavingsAccountDataValidator fromApiJsonDeserializer;
@@ -114,6 +132,9 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
     private final HolidayWritePlatformService holidayWritePlatformService;
     private final WorkingDaysWritePlatformService workingDaysWritePlatformService;
     private final ConfigurationDomainService configurationDomainService;
+    private final JdbcTemplate jdbcTemplate;
+    private final JobPartitionExecutor jobPartitionExecutor;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public SavingsAccountWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
@@ -132,7 +153,9 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
             final HolidayWritePlatformService holidayWritePlatformService,
             final WorkingDaysWritePlatformService workingDaysWritePlatformService,
             final SavingsAccountDataValidator fromApiJsonDeserializer, final SavingsAccountRepositoryWrapper savingsRepository,
-            final StaffRepositoryWrapper staffRepository, final ConfigurationDomainService configurationDomainService) {
+            final StaffRepositoryWrapper staffRepository, final ConfigurationDomainService configurationDomainService,
+            final RoutingDataSource dataSource, final JobPartitionExecutor jobPartitionExecutor,
+            final TransactionTemplate transactionTemplate) {
         this.context = context;
         this.savingAccountRepository = savingAccountRepository;
         this.savingsAccountTransactionRepository = savingsAccountTransactionRepository;
@@ -154,6 +177,9 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         this.savingsRepository = savingsRepository;
         this.staffRepository = staffRepository;
         this.configurationDomainService = configurationDomainService;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jobPartitionExecutor = jobPartitionExecutor;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Transactional
@@ -386,15 +412,76 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         }
     }
 
+    /**
+     * Posts interest to all active savings accounts.
+     * 
+     * Active account ids are split into id range partitions processed in
+     * parallel. Each partition reads its account ids in chunks of
+     * {@link #INTEREST_POSTING_CHUNK_SIZE} and posts the interest of every
+     * account in a transaction of its own, so the persistence context never
+     * holds more than one account. Accounts failing to post are logged and
+     * reported through the failed partition once all other accounts of the
+     * partition have been posted.
+     */
     @CronTarget(jobName = JobName.POST_INTEREST_FOR_SAVINGS)
     @Override
-    public void postInterestForAccounts() {
-        final List<SavingsAccount> savingsAccounts = this.savingAccountRepository.findSavingAccountByStatus(SavingsAccountStatusType.ACTIVE
-                .getValue());
-        for (final SavingsAccount savingsAccount : savingsAccounts) {
-            this.savingAccountAssembler.assignSavingAccountHelpers(savingsAccount);
-            postInterest(savingsAccount);
+    public void postInterestForAccounts() throws JobExecutionException {
+        final Integer activeStatus = SavingsAccountStatusType.ACTIVE.getValue();
+        final List<JobPartition> partitions = this.jdbcTemplate.queryForObject(
+                "select min(sa.id) as minId, max(sa.id) as maxId from m_savings_account sa where sa.status_enum = ?",
+                new IdRangePartitionMapper(SchedulerServiceConstants.DEFAULT_PARTITION_SIZE), activeStatus);
+
+        this.jobPartitionExecutor.execute(JobName.POST_INTEREST_FOR_SAVINGS.name(), partitions, new JobPartitionTask() {
+
+            @Override
+            public int execute(final JobPartition partition) {
+                return postInterestForAccounts(partition, activeStatus);
+            }
+        });
+    }
+
+    private int postInterestForAccounts(final JobPartition partition, final Integer activeStatus) {
+        final String accountIdsSql = "select sa.id from m_savings_account sa where sa.status_enum = ? and sa.id > ? and sa.id <= ? "
+                + "order by sa.id limit " + INTEREST_POSTING_CHUNK_SIZE;
+
+        final List<Long> failedAccountIds = new ArrayList<>();
+        int posted = 0;
+        Long lastAccountId = partition.getRangeFrom() - 1;
+        List<Long> accountIds = this.jdbcTemplate.queryForList(accountIdsSql, Long.class, activeStatus, lastAccountId,
+                partition.getRangeTo());
+        while (!accountIds.isEmpty()) {
+            for (final Long accountId : accountIds) {
+                try {
+                    postInterestForAccount(accountId);
+                    posted++;
+                } catch (final RuntimeException e) {
+                    logger.error("Posting interest for savings account " + accountId + " failed", e);
+                    failedAccountIds.add(accountId);
+                }
+            }
+            lastAccountId = accountIds.get(accountIds.size() - 1);
+            accountIds = this.jdbcTemplate.queryForList(accountIdsSql, Long.class, activeStatus, lastAccountId, partition.getRangeTo());
+        }
+
+        if (!failedAccountIds.isEmpty()) {
+            final String failedAccounts = StringUtils.abbreviate(StringUtils.join(failedAccountIds, ","), 300);
+            throw new PlatformDataIntegrityException("error.msg.savings.interest.posting.failed", "Interest posting failed for "
+                    + failedAccountIds.size() + " of " + (posted + failedAccountIds.size()) + " savings accounts: " + failedAccounts,
+                    failedAccountIds.size());
         }
+        return posted;
+    }
+
+    private void postInterestForAccount(final Long accountId) {
+        this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+            @Override
+            protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                final SavingsAccount account = SavingsAccountWritePlatformServiceJpaRepositoryImpl.this.savingAccountAssembler
+                        .assembleFrom(accountId);
+                postInterest(account);
+            }
+        });
     }
 
     @Override
@@ -0,0 +1,188 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.mifosplatform.portfolio.search.data.SearchConditions;
+import org.mifosplatform.portfolio.search.service.SearchIndexEntry.Source;
+
+/**
+ * Inverted index of the {@link SearchIndexEntry}s of one tenant by the
+ * trigrams of their lower cased search values.
+ *
+ * A term of at least three characters only looks at the entries sharing its
+ * rarest trigram, shorter terms scan all entries. Candidates are always
+ * checked against the term itself, so the postings only need to contain
+ * every match, and readers can search while entries are being replaced.
+ */
+public final class SearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private static final Comparator<SearchIndexEntry> SEARCH_ORDER = new Comparator<SearchIndexEntry>() {
+
+        @Override
+        public int compare(final SearchIndexEntry first, final SearchIndexEntry second) {
+            final int sourceOrder = first.source().compareTo(second.source());
+            if (sourceOrder != 0) { return sourceOrder; }
+            return first.entityId().compareTo(second.entityId());
+        }
+    };
+
+    private final ConcurrentMap<String, SearchIndexEntry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<SearchIndexEntry>> postings = new ConcurrentHashMap<>();
+    /**
+     * Loans, savings accounts and identifiers of each client, which show the
+     * name of the client and are scoped by its office.
+     */
+    private final ConcurrentMap<Long, Set<SearchIndexEntry>> clientDependents = new ConcurrentHashMap<>();
+    private final long createdTime = System.currentTimeMillis();
+    private volatile boolean stale;
+
+    public long createdTime() {
+        return this.createdTime;
+    }
+
+    public boolean isStale() {
+        return this.stale;
+    }
+
+    public void markStale() {
+        this.stale = true;
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    public SearchIndexEntry get(final Source source, final Long entityId) {
+        return this.entries.get(SearchIndexEntry.key(source, entityId));
+    }
+
+    public Collection<SearchIndexEntry> dependentsOfClient(final Long clientId) {
+        final Set<SearchIndexEntry> dependents = this.clientDependents.get(clientId);
+        if (dependents == null) { return Collections.emptyList(); }
+        return new ArrayList<>(dependents);
+    }
+
+    public synchronized void put(final SearchIndexEntry entry) {
+        final SearchIndexEntry replacedEntry = this.entries.put(entry.key(), entry);
+        if (replacedEntry != null) {
+            unlink(replacedEntry);
+        }
+        for (final String gram : gramsOf(entry)) {
+            Set<SearchIndexEntry> posting = this.postings.get(gram);
+            if (posting == null) {
+                posting = Collections.newSetFromMap(new ConcurrentHashMap<SearchIndexEntry, Boolean>());
+                this.postings.put(gram, posting);
+            }
+            posting.add(entry);
+        }
+        if (isClientDependent(entry) && entry.parentId() != null) {
+            Set<SearchIndexEntry> dependents = this.clientDependents.get(entry.parentId());
+            if (dependents == null) {
+                dependents = Collections.newSetFromMap(new ConcurrentHashMap<SearchIndexEntry, Boolean>());
+                this.clientDependents.put(entry.parentId(), dependents);
+            }
+            dependents.add(entry);
+        }
+    }
+
+    public synchronized void remove(final Source source, final Long entityId) {
+        final SearchIndexEntry removedEntry = this.entries.remove(SearchIndexEntry.key(source, entityId));
+        if (removedEntry != null) {
+            unlink(removedEntry);
+        }
+    }
+
+    private void unlink(final SearchIndexEntry entry) {
+        for (final String gram : gramsOf(entry)) {
+            final Set<SearchIndexEntry> posting = this.postings.get(gram);
+            if (posting != null) {
+                posting.remove(entry);
+                if (posting.isEmpty()) {
+                    this.postings.remove(gram);
+                }
+            }
+        }
+        if (isClientDependent(entry) && entry.parentId() != null) {
+            final Set<SearchIndexEntry> dependents = this.clientDependents.get(entry.parentId());
+            if (dependents != null) {
+                dependents.remove(entry);
+                if (dependents.isEmpty()) {
+                    this.clientDependents.remove(entry.parentId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Entries of the searched sources within the office hierarchy whose
+     * values match the term like the SQL search does: entries with a value
+     * equal to the term first, followed by the entries with a value only
+     * containing it; each part ordered by source and id.
+     */
+    public List<SearchIndexEntry> search(final SearchConditions searchConditions, final String hierarchy) {
+        final String term = searchConditions.getSearchQuery() == null ? "" : searchConditions.getSearchQuery().toLowerCase();
+
+        final List<SearchIndexEntry> exactMatches = new ArrayList<>();
+        final List<SearchIndexEntry> partialMatches = new ArrayList<>();
+        for (final SearchIndexEntry entry : candidates(term)) {
+            if (!entry.source().isSearched(searchConditions) || !entry.isWithinHierarchy(hierarchy)) {
+                continue;
+            }
+            if (entry.hasValueEqualTo(term)) {
+                exactMatches.add(entry);
+            } else if (entry.hasValueContaining(term)) {
+                partialMatches.add(entry);
+            }
+        }
+        Collections.sort(exactMatches, SEARCH_ORDER);
+        Collections.sort(partialMatches, SEARCH_ORDER);
+
+        final List<SearchIndexEntry> matches = new ArrayList<>(exactMatches.size() + partialMatches.size());
+        matches.addAll(exactMatches);
+        matches.addAll(partialMatches);
+        return matches;
+    }
+
+    private Collection<SearchIndexEntry> candidates(final String term) {
+        if (term.length() < GRAM_LENGTH) { return this.entries.values(); }
+
+        Set<SearchIndexEntry> rarestPosting = null;
+        for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+            final Set<SearchIndexEntry> posting = this.postings.get(term.substring(i, i + GRAM_LENGTH));
+            if (posting == null) { return Collections.emptyList(); }
+            if (rarestPosting == null || posting.size() < rarestPosting.size()) {
+                rarestPosting = posting;
+            }
+        }
+        return rarestPosting;
+    }
+
+    private static Set<String> gramsOf(final SearchIndexEntry entry) {
+        final Set<String> grams = new HashSet<>();
+        for (final String value : entry.searchValues()) {
+            for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+                grams.add(value.substring(i, i + GRAM_LENGTH));
+            }
+        }
+        return grams;
+    }
+
+    private static boolean isClientDependent(final SearchIndexEntry entry) {
+        return entry.source() == Source.LOAN || entry.source() == Source.SAVING || entry.source() == Source.CLIENTIDENTIFIER;
+    }
+}
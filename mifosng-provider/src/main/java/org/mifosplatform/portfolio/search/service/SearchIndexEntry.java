@@ -0,0 +1,191 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mifosplatform.infrastructure.core.data.EnumOptionData;
+import org.mifosplatform.portfolio.client.domain.ClientEnumerations;
+import org.mifosplatform.portfolio.group.domain.GroupingTypeEnumerations;
+import org.mifosplatform.portfolio.loanaccount.data.LoanStatusEnumData;
+import org.mifosplatform.portfolio.loanproduct.service.LoanEnumerations;
+import org.mifosplatform.portfolio.search.data.SearchConditions;
+import org.mifosplatform.portfolio.search.data.SearchData;
+import org.mifosplatform.portfolio.village.domain.VillageTypeEnumerations;
+
+/**
+ * One searchable row of the global search: a client, loan, savings account,
+ * client identifier, group or center, or village, together with the values a
+ * search term is matched against and the hierarchy of the office it belongs
+ * to.
+ */
+public final class SearchIndexEntry {
+
+    /**
+     * Tables the global search looks into, in the order their matches are
+     * listed.
+     */
+    public static enum Source {
+        CLIENT, LOAN, SAVING, CLIENTIDENTIFIER, GROUP, VILLAGE;
+
+        public boolean isSearched(final SearchConditions searchConditions) {
+            switch (this) {
+                case CLIENT:
+                    return Boolean.TRUE.equals(searchConditions.isClientSearch());
+                case LOAN:
+                    return Boolean.TRUE.equals(searchConditions.isLoanSeach());
+                case SAVING:
+                    return Boolean.TRUE.equals(searchConditions.isSavingSeach());
+                case CLIENTIDENTIFIER:
+                    return Boolean.TRUE.equals(searchConditions.isClientIdentifierSearch());
+                case GROUP:
+                    return Boolean.TRUE.equals(searchConditions.isGroupSearch());
+                case VILLAGE:
+                    return Boolean.TRUE.equals(searchConditions.isVillageSearch());
+            }
+            return false;
+        }
+    }
+
+    private final Source source;
+    private final String entityType;
+    private final Long entityId;
+    private final String entityName;
+    private final String entityExternalId;
+    private final String entityAccountNo;
+    private final Long parentId;
+    private final String parentName;
+    private final Integer entityStatusEnum;
+    private final String officeHierarchy;
+    /**
+     * Lower cased values a search term is matched against.
+     */
+    private final String[] searchValues;
+
+    public SearchIndexEntry(final Source source, final String entityType, final Long entityId, final String entityName,
+            final String entityExternalId, final String entityAccountNo, final Long parentId, final String parentName,
+            final Integer entityStatusEnum, final String officeHierarchy) {
+        this.source = source;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.entityName = entityName;
+        this.entityExternalId = entityExternalId;
+        this.entityAccountNo = entityAccountNo;
+        this.parentId = parentId;
+        this.parentName = parentName;
+        this.entityStatusEnum = entityStatusEnum;
+        this.officeHierarchy = officeHierarchy;
+        this.searchValues = searchValues(source, entityName, entityExternalId, entityAccountNo);
+    }
+
+    /**
+     * Loans and savings accounts are listed with the name of their product,
+     * which is not searched; client identifiers are listed and searched by
+     * their document key.
+     */
+    private static String[] searchValues(final Source source, final String entityName, final String entityExternalId,
+            final String entityAccountNo) {
+        final List<String> values = new ArrayList<>(3);
+        switch (source) {
+            case CLIENT:
+                addLowerCased(values, entityAccountNo);
+                addLowerCased(values, entityName);
+                addLowerCased(values, entityExternalId);
+            break;
+            case LOAN:
+            case SAVING:
+                addLowerCased(values, entityAccountNo);
+                addLowerCased(values, entityExternalId);
+            break;
+            case CLIENTIDENTIFIER:
+                addLowerCased(values, entityName);
+            break;
+            case GROUP:
+            case VILLAGE:
+                addLowerCased(values, entityName);
+                addLowerCased(values, entityExternalId);
+            break;
+        }
+        return values.toArray(new String[values.size()]);
+    }
+
+    private static void addLowerCased(final List<String> values, final String value) {
+        if (value != null) {
+            values.add(value.toLowerCase());
+        }
+    }
+
+    public static EnumOptionData entityStatus(final String entityType, final Integer entityStatusEnum) {
+        EnumOptionData entityStatus = new EnumOptionData(0L, "", "");
+
+        if (entityType.equalsIgnoreCase("client") || entityType.equalsIgnoreCase("clientidentifier")) {
+            entityStatus = ClientEnumerations.status(entityStatusEnum);
+        }
+
+        else if (entityType.equalsIgnoreCase("group") || entityType.equalsIgnoreCase("center")) {
+            entityStatus = GroupingTypeEnumerations.status(entityStatusEnum);
+        }
+
+        else if (entityType.equalsIgnoreCase("village")) {
+            entityStatus = VillageTypeEnumerations.status(entityStatusEnum);
+        }
+
+        else if (entityType.equalsIgnoreCase("loan")) {
+            LoanStatusEnumData loanStatusEnumData = LoanEnumerations.status(entityStatusEnum);
+
+            entityStatus = LoanEnumerations.status(loanStatusEnumData);
+        }
+        return entityStatus;
+    }
+
+    public String key() {
+        return key(this.source, this.entityId);
+    }
+
+    public static String key(final Source source, final Long entityId) {
+        return source.name() + ":" + entityId;
+    }
+
+    public Source source() {
+        return this.source;
+    }
+
+    public Long entityId() {
+        return this.entityId;
+    }
+
+    public Long parentId() {
+        return this.parentId;
+    }
+
+    public String[] searchValues() {
+        return this.searchValues;
+    }
+
+    public boolean isWithinHierarchy(final String hierarchy) {
+        return this.officeHierarchy != null && this.officeHierarchy.startsWith(hierarchy);
+    }
+
+    public boolean hasValueEqualTo(final String lowerCasedTerm) {
+        for (final String value : this.searchValues) {
+            if (value.equals(lowerCasedTerm)) { return true; }
+        }
+        return false;
+    }
+
+    public boolean hasValueContaining(final String lowerCasedTerm) {
+        for (final String value : this.searchValues) {
+            if (value.contains(lowerCasedTerm)) { return true; }
+        }
+        return false;
+    }
+
+    public SearchData toData() {
+        return new SearchData(this.entityId, this.entityAccountNo, this.entityExternalId, this.entityName, this.entityType, this.parentId,
+                this.parentName, entityStatus(this.entityType, this.entityStatusEnum));
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import java.util.Collection;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.portfolio.search.data.SearchConditions;
+import org.mifosplatform.portfolio.search.data.SearchData;
+
+/**
+ * Answers the global search of a tenant from a {@link SearchIndex} held in
+ * memory, which is built in the background on first use and kept up to date
+ * with the commands processed afterwards.
+ */
+public interface SearchIndexService {
+
+    /**
+     * Matches of the search within the office hierarchy, or null when the
+     * index of the tenant is not built yet or cannot answer the search, in
+     * which case the database has to be searched.
+     */
+    Collection<SearchData> search(SearchConditions searchConditions, String hierarchy);
+
+    /**
+     * Reloads the indexed rows touched by a committed command on the given
+     * entity in the background, on this node and on all other nodes.
+     */
+    void entityChanged(MifosPlatformTenant tenant, String entityName, Long entityId);
+}
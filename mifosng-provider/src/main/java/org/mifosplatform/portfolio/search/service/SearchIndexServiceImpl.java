@@ -0,0 +1,336 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.annotation.PreDestroy;
+
+import org.mifosplatform.infrastructure.cache.service.TenantCacheInvalidator;
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.portfolio.search.data.SearchConditions;
+import org.mifosplatform.portfolio.search.data.SearchData;
+import org.mifosplatform.portfolio.search.service.SearchIndexEntry.Source;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link SearchIndexService} with one background thread that builds the
+ * indexes of all tenants and applies the changes made by commands, in the
+ * order they were requested.
+ *
+ * An index is rebuilt once it is older than {@link #MAX_INDEX_AGE_MILLIS} or
+ * an office or product it shows the name of was changed, to pick up changes
+ * that were not made through commands; the previous index keeps answering
+ * searches meanwhile. Changes of tenants whose index was never built are not
+ * tracked.
+ *
+ * Every node holds its own indexes, so the changes applied here are passed on
+ * to the other nodes through the {@link TenantCacheInvalidator}, which reload
+ * the rows into their index of the tenant if they built one.
+ */
+@Service
+public class SearchIndexServiceImpl implements SearchIndexService {
+
+    private final static Logger logger = LoggerFactory.getLogger(SearchIndexServiceImpl.class);
+
+    private static final long MAX_INDEX_AGE_MILLIS = 6 * 60 * 60 * 1000L;
+    private static final String CHANGE_REGION = "searchindex";
+    private static final char CHANGE_SEPARATOR = ':';
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TenantCacheInvalidator tenantCacheInvalidator;
+    private final ExecutorService indexExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("SearchIndexBuilder-"));
+    private final ConcurrentMap<String, SearchIndex> indexes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Boolean> buildsRequested = new ConcurrentHashMap<>();
+    /** tenants whose index was requested, to apply changes of other nodes */
+    private final ConcurrentMap<String, MifosPlatformTenant> tenants = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SearchIndexServiceImpl(final RoutingDataSource dataSource, final TenantCacheInvalidator tenantCacheInvalidator) {
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.tenantCacheInvalidator = tenantCacheInvalidator;
+        this.tenantCacheInvalidator.register(CHANGE_REGION, new TenantCacheInvalidator.Listener() {
+
+            @Override
+            public void invalidate(final String tenantIdentifier, final String key) {
+                entityChangedOnOtherNode(tenantIdentifier, key);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.indexExecutor.shutdownNow();
+    }
+
+    @Override
+    public Collection<SearchData> search(final SearchConditions searchConditions, final String hierarchy) {
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final SearchIndex index = this.indexes.get(tenant.getTenantIdentifier());
+        if (index == null || index.isStale() || System.currentTimeMillis() - index.createdTime() > MAX_INDEX_AGE_MILLIS) {
+            requestBuild(tenant);
+        }
+        if (index == null || hasLikeWildcards(searchConditions.getSearchQuery())) { return null; }
+
+        final List<SearchIndexEntry> matches = index.search(searchConditions, hierarchy);
+        final Collection<SearchData> searchData = new ArrayList<>(matches.size());
+        for (final SearchIndexEntry match : matches) {
+            searchData.add(match.toData());
+        }
+        return searchData;
+    }
+
+    /**
+     * The SQL search passes the term to like as it is, so wildcards typed in
+     * the search box are honoured there.
+     */
+    private static boolean hasLikeWildcards(final String searchQuery) {
+        return searchQuery != null && (searchQuery.indexOf('%') >= 0 || searchQuery.indexOf('_') >= 0 || searchQuery.indexOf('\\') >= 0);
+    }
+
+    @Override
+    public void entityChanged(final MifosPlatformTenant tenant, final String entityName, final Long entityId) {
+        applyChange(tenant, entityName, entityId);
+        this.tenantCacheInvalidator.publish(CHANGE_REGION, tenant.getTenantIdentifier(), entityName + CHANGE_SEPARATOR
+                + (entityId == null ? "" : entityId.toString()));
+    }
+
+    private void entityChangedOnOtherNode(final String tenantIdentifier, final String change) {
+        final MifosPlatformTenant tenant = this.tenants.get(tenantIdentifier);
+        final int separator = change == null ? -1 : change.lastIndexOf(CHANGE_SEPARATOR);
+        if (tenant == null || separator < 0) { return; }
+
+        final String entityId = change.substring(separator + 1);
+        applyChange(tenant, change.substring(0, separator), entityId.isEmpty() ? null : Long.valueOf(entityId));
+    }
+
+    private void applyChange(final MifosPlatformTenant tenant, final String entityName, final Long entityId) {
+        final String tenantIdentifier = tenant.getTenantIdentifier();
+        if (!this.indexes.containsKey(tenantIdentifier) && !this.buildsRequested.containsKey(tenantIdentifier)) { return; }
+        try {
+            this.indexExecutor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    refresh(tenant, entityName, entityId);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            // shutting down, the index is built again on restart
+        }
+    }
+
+    private void requestBuild(final MifosPlatformTenant tenant) {
+        final String tenantIdentifier = tenant.getTenantIdentifier();
+        this.tenants.put(tenantIdentifier, tenant);
+        if (this.buildsRequested.putIfAbsent(tenantIdentifier, Boolean.TRUE) != null) { return; }
+        try {
+            this.indexExecutor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        build(tenant);
+                    } finally {
+                        SearchIndexServiceImpl.this.buildsRequested.remove(tenantIdentifier);
+                    }
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            this.buildsRequested.remove(tenantIdentifier);
+        }
+    }
+
+    private void build(final MifosPlatformTenant tenant) {
+        ThreadLocalContextUtil.setTenant(tenant);
+        try {
+            final long startTime = System.currentTimeMillis();
+            final SearchIndex index = new SearchIndex();
+            for (final Source source : Source.values()) {
+                this.namedParameterJdbcTemplate.query(sql(source), new MapSqlParameterSource(), new RowCallbackHandler() {
+
+                    private final SearchIndexEntryMapper mapper = new SearchIndexEntryMapper(source);
+
+                    @Override
+                    public void processRow(final ResultSet rs) throws SQLException {
+                        index.put(this.mapper.mapRow(rs, 0));
+                    }
+                });
+            }
+            this.indexes.put(tenant.getTenantIdentifier(), index);
+            logger.info("Built search index of tenant " + tenant.getTenantIdentifier() + " with " + index.size() + " entries in "
+                    + (System.currentTimeMillis() - startTime) + "ms");
+        } catch (final RuntimeException e) {
+            logger.error("Building the search index failed for tenant " + tenant.getTenantIdentifier(), e);
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    private void refresh(final MifosPlatformTenant tenant, final String entityName, final Long entityId) {
+        final SearchIndex index = this.indexes.get(tenant.getTenantIdentifier());
+        if (index == null || entityId == null) { return; }
+
+        ThreadLocalContextUtil.setTenant(tenant);
+        try {
+            if ("CLIENT".equals(entityName)) {
+                reload(index, Source.CLIENT, entityId);
+                reloadDependentsOfClient(index, entityId);
+            } else if ("CLIENTIDENTIFIER".equals(entityName)) {
+                reload(index, Source.CLIENTIDENTIFIER, entityId);
+            } else if ("LOAN".equals(entityName)) {
+                reload(index, Source.LOAN, entityId);
+            } else if ("SAVINGSACCOUNT".equals(entityName)) {
+                reload(index, Source.SAVING, entityId);
+            } else if ("GROUP".equals(entityName) || "CENTER".equals(entityName)) {
+                reload(index, Source.GROUP, entityId);
+            } else if ("VILLAGE".equals(entityName)) {
+                reload(index, Source.VILLAGE, entityId);
+            } else if ("OFFICE".equals(entityName) || "LOANPRODUCT".equals(entityName) || "SAVINGSPRODUCT".equals(entityName)) {
+                index.markStale();
+            }
+        } catch (final RuntimeException e) {
+            // left to the next rebuild rather than serving a partly updated
+            // entry for hours
+            logger.error("Updating the search index failed for " + entityName + " " + entityId + " of tenant "
+                    + tenant.getTenantIdentifier(), e);
+            index.markStale();
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    private void reload(final SearchIndex index, final Source source, final Long entityId) {
+        final List<SearchIndexEntry> entries = this.namedParameterJdbcTemplate.query(sql(source) + " where " + idColumn(source)
+                + " = :entityId", new MapSqlParameterSource("entityId", entityId), new SearchIndexEntryMapper(source));
+        if (entries.isEmpty()) {
+            index.remove(source, entityId);
+        } else {
+            index.put(entries.get(0));
+        }
+    }
+
+    /**
+     * The loans, savings accounts and identifiers of a client show its name
+     * and are scoped by its office, both of which a client command may
+     * change.
+     */
+    private void reloadDependentsOfClient(final SearchIndex index, final Long clientId) {
+        final Set<String> reloadedKeys = new HashSet<>();
+        for (final Source source : new Source[] { Source.LOAN, Source.SAVING, Source.CLIENTIDENTIFIER }) {
+            final List<SearchIndexEntry> entries = this.namedParameterJdbcTemplate.query(sql(source) + " where c.id = :clientId",
+                    new MapSqlParameterSource("clientId", clientId), new SearchIndexEntryMapper(source));
+            for (final SearchIndexEntry entry : entries) {
+                index.put(entry);
+                reloadedKeys.add(entry.key());
+            }
+        }
+        for (final SearchIndexEntry dependent : index.dependentsOfClient(clientId)) {
+            if (!reloadedKeys.contains(dependent.key())) {
+                index.remove(dependent.source(), dependent.entityId());
+            }
+        }
+    }
+
+    private static String idColumn(final Source source) {
+        switch (source) {
+            case CLIENT:
+                return "c.id";
+            case LOAN:
+                return "l.id";
+            case SAVING:
+                return "s.id";
+            case CLIENTIDENTIFIER:
+                return "ci.id";
+            case GROUP:
+                return "g.id";
+            case VILLAGE:
+                return "v.id";
+        }
+        throw new IllegalArgumentException(source.name());
+    }
+
+    /**
+     * Same rows and columns as the queries of the SQL search, without any
+     * search condition.
+     */
+    private static String sql(final Source source) {
+        switch (source) {
+            case CLIENT:
+                return "select 'CLIENT' as entityType, c.id as entityId, c.display_name as entityName, c.external_id as entityExternalId, c.account_no as entityAccountNo "
+                        + " , c.office_id as parentId, o.name as parentName, c.status_enum as entityStatusEnum, o.hierarchy as officeHierarchy "
+                        + " from m_client c join m_office o on o.id = c.office_id";
+            case LOAN:
+                return "select 'LOAN' as entityType, l.id as entityId, pl.name as entityName, l.external_id as entityExternalId, l.account_no as entityAccountNo "
+                        + " , c.id as parentId, c.display_name as parentName, l.loan_status_id as entityStatusEnum, o.hierarchy as officeHierarchy "
+                        + " from m_loan l join m_client c on l.client_id = c.id join m_office o on o.id = c.office_id join m_product_loan pl on pl.id=l.product_id";
+            case SAVING:
+                return "select 'SAVING' as entityType, s.id as entityId, sp.name as entityName, s.external_id as entityExternalId, s.account_no as entityAccountNo "
+                        + " , c.id as parentId, c.display_name as parentName, s.status_enum as entityStatusEnum, o.hierarchy as officeHierarchy "
+                        + " from m_savings_account s join m_client c on s.client_id = c.id join m_office o on o.id = c.office_id join m_savings_product sp on sp.id=s.product_id";
+            case CLIENTIDENTIFIER:
+                return "select 'CLIENTIDENTIFIER' as entityType, ci.id as entityId, ci.document_key as entityName, "
+                        + " null as entityExternalId, null as entityAccountNo, c.id as parentId, c.display_name as parentName, c.status_enum as entityStatusEnum, o.hierarchy as officeHierarchy "
+                        + " from m_client_identifier ci join m_client c on ci.client_id=c.id join m_office o on o.id = c.office_id";
+            case GROUP:
+                return "select IF(g.level_id=1,'CENTER','GROUP') as entityType, g.id as entityId, g.display_name as entityName, g.external_id as entityExternalId, NULL as entityAccountNo "
+                        + " , g.office_id as parentId, o.name as parentName, g.status_enum as entityStatusEnum, o.hierarchy as officeHierarchy "
+                        + " from m_group g join m_office o on o.id = g.office_id";
+            case VILLAGE:
+                return "select 'VILLAGE' as entityType, v.id as entityId, v.village_name as entityName, v.external_id as entityExternalId, NULL as entityAccountNo "
+                        + ", v.office_id as parentId, o.name as parentName, v.status as entityStatusEnum, o.hierarchy as officeHierarchy "
+                        + " from chai_villages v join m_office o on o.id = v.office_id";
+        }
+        throw new IllegalArgumentException(source.name());
+    }
+
+    private static final class SearchIndexEntryMapper implements RowMapper<SearchIndexEntry> {
+
+        private final Source source;
+
+        private SearchIndexEntryMapper(final Source source) {
+            this.source = source;
+        }
+
+        @Override
+        public SearchIndexEntry mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final String entityType = rs.getString("entityType");
+            final Long entityId = JdbcSupport.getLong(rs, "entityId");
+            final String entityName = rs.getString("entityName");
+            final String entityExternalId = rs.getString("entityExternalId");
+            final String entityAccountNo = rs.getString("entityAccountNo");
+            final Long parentId = JdbcSupport.getLong(rs, "parentId");
+            final String parentName = rs.getString("parentName");
+            final Integer entityStatusEnum = JdbcSupport.getInteger(rs, "entityStatusEnum");
+            final String officeHierarchy = rs.getString("officeHierarchy");
+
+            return new SearchIndexEntry(this.source, entityType, entityId, entityName, entityExternalId, entityAccountNo, parentId,
+                    parentName, entityStatusEnum, officeHierarchy);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.hooks.event.HookEvent;
+import org.mifosplatform.infrastructure.hooks.listener.HookListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Passes the entities changed by every processed command to the
+ * {@link SearchIndexService} once the command committed, so the rows it
+ * reloads include the changes. Being a {@link HookListener}, it is told of the
+ * command within its transaction and with its tenant set.
+ */
+@Service
+public class SearchIndexUpdateListener implements HookListener {
+
+    private final SearchIndexService searchIndexService;
+
+    @Autowired
+    public SearchIndexUpdateListener(final SearchIndexService searchIndexService) {
+        this.searchIndexService = searchIndexService;
+    }
+
+    @Override
+    public void onHookEvent(final HookEvent event) {
+        final String entityName = event.getSource().getEntityName();
+        final Long entityId = entityId(entityName, new JsonParser().parse(event.getPayload()).getAsJsonObject());
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    SearchIndexUpdateListener.this.searchIndexService.entityChanged(tenant, entityName, entityId);
+                }
+            });
+        } else {
+            this.searchIndexService.entityChanged(tenant, entityName, entityId);
+        }
+    }
+
+    /**
+     * Id of the changed entity within the result of the command; commands on
+     * the sub resources of an entity, such as the transactions of a loan,
+     * have the id of the sub resource as resource id.
+     */
+    private static Long entityId(final String entityName, final JsonObject result) {
+        Long entityId = null;
+        if ("CLIENT".equals(entityName)) {
+            entityId = longValue(result, "clientId");
+        } else if ("LOAN".equals(entityName)) {
+            entityId = longValue(result, "loanId");
+        } else if ("SAVINGSACCOUNT".equals(entityName)) {
+            entityId = longValue(result, "savingsId");
+        } else if ("VILLAGE".equals(entityName)) {
+            entityId = longValue(result, "villageId");
+        }
+        return entityId == null ? longValue(result, "resourceId") : entityId;
+    }
+
+    private static Long longValue(final JsonObject result, final String memberName) {
+        final JsonElement value = result.get(memberName);
+        if (value == null || value.isJsonNull()) { return null; }
+        return value.getAsLong();
+    }
+}
@@ -18,18 +18,13 @@ import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.office.data.OfficeData;
 import org.mifosplatform.organisation.office.service.OfficeReadPlatformService;
-import org.mifosplatform.portfolio.client.domain.ClientEnumerations;
-import org.mifosplatform.portfolio.group.domain.GroupingTypeEnumerations;
-import org.mifosplatform.portfolio.loanaccount.data.LoanStatusEnumData;
 import org.mifosplatform.portfolio.loanproduct.data.LoanProductData;
-import org.mifosplatform.portfolio.loanproduct.service.LoanEnumerations;
 import org.mifosplatform.portfolio.loanproduct.service.LoanProductReadPlatformService;
 import org.mifosplatform.portfolio.search.SearchConstants;
 import org.mifosplatform.portfolio.search.data.AdHocQuerySearchConditions;
 import org.mifosplatform.portfolio.search.data.AdHocSearchQueryData;
 import org.mifosplatform.portfolio.search.data.SearchConditions;
 import org.mifosplatform.portfolio.search.data.SearchData;
-import org.mifosplatform.portfolio.village.domain.VillageTypeEnumerations;
 import org.mifosplatform.useradministration.domain.AppUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.RowMapper;
@@ -44,14 +39,17 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
     private final PlatformSecurityContext context;
     private final LoanProductReadPlatformService loanProductReadPlatformService;
     private final OfficeReadPlatformService officeReadPlatformService;
+    private final SearchIndexService searchIndexService;
 
     @Autowired
     public SearchReadPlatformServiceImpl(final PlatformSecurityContext context, final RoutingDataSource dataSource,
-            final LoanProductReadPlatformService loanProductReadPlatformService, final OfficeReadPlatformService officeReadPlatformService) {
+            final LoanProductReadPlatformService loanProductReadPlatformService, final OfficeReadPlatformService officeReadPlatformService,
+            final SearchIndexService searchIndexService) {
         this.context = context;
         this.namedParameterjdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
         this.loanProductReadPlatformService = loanProductReadPlatformService;
         this.officeReadPlatformService = officeReadPlatformService;
+        this.searchIndexService = searchIndexService;
     }
 
     @Override
@@ -59,6 +57,9 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
         final AppUser currentUser = this.context.authenticatedUser();
         final String hierarchy = currentUser.getOffice().getHierarchy();
 
+        final Collection<SearchData> indexedMatches = this.searchIndexService.search(searchConditions, hierarchy);
+        if (indexedMatches != null) { return indexedMatches; }
+
         final SearchMapper rm = new SearchMapper();
 
         final MapSqlParameterSource params = new MapSqlParameterSource();
@@ -199,25 +200,7 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
             final String parentName = rs.getString("parentName");
             final Integer entityStatusEnum = JdbcSupport.getInteger(rs, "entityStatusEnum");
 
-            EnumOptionData entityStatus = new EnumOptionData(0L, "", "");
-
-            if (entityType.equalsIgnoreCase("client") || entityType.equalsIgnoreCase("clientidentifier")) {
-                entityStatus = ClientEnumerations.status(entityStatusEnum);
-            }
-
-            else if (entityType.equalsIgnoreCase("group") || entityType.equalsIgnoreCase("center")) {
-                entityStatus = GroupingTypeEnumerations.status(entityStatusEnum);
-            }
-            
-            else if (entityType.equalsIgnoreCase("village")) {
-                entityStatus = VillageTypeEnumerations.status(entityStatusEnum);
-            }
-
-            else if (entityType.equalsIgnoreCase("loan")) {
-                LoanStatusEnumData loanStatusEnumData = LoanEnumerations.status(entityStatusEnum);
-
-                entityStatus = LoanEnumerations.status(loanStatusEnumData);
-            }
+            final EnumOptionData entityStatus = SearchIndexEntry.entityStatus(entityType, entityStatusEnum);
 
             return new SearchData(entityId, entityAccountNo, entityExternalId, entityName, entityType, parentId, parentName, entityStatus);
         }
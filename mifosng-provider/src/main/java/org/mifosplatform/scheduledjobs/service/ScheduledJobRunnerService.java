@@ -9,7 +9,7 @@ import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
 
 public interface ScheduledJobRunnerService {
 
-    void updateLoanSummaryDetails();
+    void updateLoanSummaryDetails() throws JobExecutionException;
 
     void updateLoanPaidInAdvance();
 
@@ -6,6 +6,9 @@
 package org.mifosplatform.scheduledjobs.service;
 
 import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
@@ -14,14 +17,20 @@ import java.util.Map;
 import org.joda.time.LocalDate;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
+import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.mifosplatform.infrastructure.core.data.ApiParameterError;
 import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.mifosplatform.infrastructure.core.service.DateUtils;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSourceServiceFactory;
 import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
+import org.mifosplatform.infrastructure.jobs.data.JobPartition;
 import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
+import org.mifosplatform.infrastructure.jobs.service.IdRangePartitionMapper;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.jobs.service.JobPartitionExecutor;
+import org.mifosplatform.infrastructure.jobs.service.JobPartitionTask;
+import org.mifosplatform.infrastructure.jobs.service.SchedulerServiceConstants;
 import org.mifosplatform.portfolio.savings.DepositAccountType;
 import org.mifosplatform.portfolio.savings.DepositAccountUtils;
 import org.mifosplatform.portfolio.savings.data.DepositAccountData;
@@ -34,6 +43,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -43,33 +53,131 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
     private final static Logger logger = LoggerFactory.getLogger(ScheduledJobRunnerServiceImpl.class);
     private final DateTimeFormatter formatter = DateTimeFormat.forPattern("yyyy-MM-dd");
     private final DateTimeFormatter formatterWithTime = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int LOAN_SUMMARY_PAGE_SIZE = 500;
 
     private final RoutingDataSourceServiceFactory dataSourceServiceFactory;
     private final SavingsAccountWritePlatformService savingsAccountWritePlatformService;
     private final SavingsAccountChargeReadPlatformService savingsAccountChargeReadPlatformService;
     private final DepositAccountReadPlatformService depositAccountReadPlatformService;
     private final DepositAccountWritePlatformService depositAccountWritePlatformService;
+    private final JobPartitionExecutor jobPartitionExecutor;
+    private final ConfigurationDomainService configurationDomainService;
 
     @Autowired
     public ScheduledJobRunnerServiceImpl(final RoutingDataSourceServiceFactory dataSourceServiceFactory,
             final SavingsAccountWritePlatformService savingsAccountWritePlatformService,
             final SavingsAccountChargeReadPlatformService savingsAccountChargeReadPlatformService,
             final DepositAccountReadPlatformService depositAccountReadPlatformService,
-            final DepositAccountWritePlatformService depositAccountWritePlatformService) {
+            final DepositAccountWritePlatformService depositAccountWritePlatformService, final JobPartitionExecutor jobPartitionExecutor,
+            final ConfigurationDomainService configurationDomainService) {
         this.dataSourceServiceFactory = dataSourceServiceFactory;
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
         this.savingsAccountChargeReadPlatformService = savingsAccountChargeReadPlatformService;
         this.depositAccountReadPlatformService = depositAccountReadPlatformService;
         this.depositAccountWritePlatformService = depositAccountWritePlatformService;
+        this.jobPartitionExecutor = jobPartitionExecutor;
+        this.configurationDomainService = configurationDomainService;
     }
 
-    @Transactional
     @Override
     @CronTarget(jobName = JobName.UPDATE_LOAN_SUMMARY)
-    public void updateLoanSummaryDetails() {
+    public void updateLoanSummaryDetails() throws JobExecutionException {
 
         final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource());
 
+        if (this.configurationDomainService.isIncrementalLoanSummaryUpdateEnabled()) {
+            updateLoanSummaryDetailsOfChangedLoans(jdbcTemplate);
+            return;
+        }
+
+        // loans marked changed before the update started are covered by it,
+        // those marked again meanwhile stay marked for the next run
+        final List<Object[]> changedLoanVersions = new ArrayList<>();
+        List<Object[]> page = changedLoanVersions(jdbcTemplate, Long.valueOf(0));
+        while (!page.isEmpty()) {
+            changedLoanVersions.addAll(page);
+            page = changedLoanVersions(jdbcTemplate, (Long) page.get(page.size() - 1)[0]);
+        }
+
+        final List<JobPartition> partitions = jdbcTemplate.queryForObject(
+                "select min(ml.id) as minId, max(ml.id) as maxId from m_loan ml where ml.disbursedon_date is not null",
+                new IdRangePartitionMapper(SchedulerServiceConstants.DEFAULT_PARTITION_SIZE));
+
+        final String updateSql = buildLoanSummaryUpdateSql("and ml.id between ? and ? ");
+        final int result = this.jobPartitionExecutor.execute(JobName.UPDATE_LOAN_SUMMARY.name(), partitions, new JobPartitionTask() {
+
+            @Override
+            public int execute(final JobPartition partition) {
+                return jdbcTemplate.update(updateSql, partition.getRangeFrom(), partition.getRangeTo());
+            }
+        });
+
+        for (int from = 0; from < changedLoanVersions.size(); from += LOAN_SUMMARY_PAGE_SIZE) {
+            unmarkChangedLoans(jdbcTemplate,
+                    changedLoanVersions.subList(from, Math.min(from + LOAN_SUMMARY_PAGE_SIZE, changedLoanVersions.size())));
+        }
+
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+    }
+
+    /**
+     * Recomputes the summary of the loans recorded in
+     * <code>m_loan_summary_dirty</code> only, walking the change log in pages
+     * ordered by loan id.
+     */
+    private void updateLoanSummaryDetailsOfChangedLoans(final JdbcTemplate jdbcTemplate) {
+
+        int result = 0;
+        List<Object[]> changedLoanVersions = changedLoanVersions(jdbcTemplate, Long.valueOf(0));
+        while (!changedLoanVersions.isEmpty()) {
+            final StringBuilder loanCondition = new StringBuilder("and ml.id in (");
+            final Object[] loanIds = new Object[changedLoanVersions.size()];
+            for (int i = 0; i < loanIds.length; i++) {
+                loanCondition.append(i == 0 ? "?" : ",?");
+                loanIds[i] = changedLoanVersions.get(i)[0];
+            }
+            loanCondition.append(") ");
+
+            result += jdbcTemplate.update(buildLoanSummaryUpdateSql(loanCondition.toString()), loanIds);
+            unmarkChangedLoans(jdbcTemplate, changedLoanVersions);
+
+            changedLoanVersions = changedLoanVersions(jdbcTemplate, (Long) loanIds[loanIds.length - 1]);
+        }
+
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by incremental update: " + result);
+    }
+
+    /**
+     * The next page of loans marked changed, as loan id and version of the
+     * mark, after the given loan id.
+     */
+    private static List<Object[]> changedLoanVersions(final JdbcTemplate jdbcTemplate, final Long afterLoanId) {
+        return jdbcTemplate.query("select d.loan_id, d.version from m_loan_summary_dirty d where d.loan_id > ? order by d.loan_id limit "
+                + LOAN_SUMMARY_PAGE_SIZE, new RowMapper<Object[]>() {
+
+            @Override
+            public Object[] mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+                return new Object[] { rs.getLong("loan_id"), rs.getLong("version") };
+            }
+        }, afterLoanId);
+    }
+
+    /**
+     * Removes the marks of recomputed loans unless they were marked again
+     * since they were read; a change not committed yet holds the lock of its
+     * mark, so its version is compared once it committed.
+     */
+    private static void unmarkChangedLoans(final JdbcTemplate jdbcTemplate, final List<Object[]> changedLoanVersions) {
+        jdbcTemplate.batchUpdate("delete from m_loan_summary_dirty where loan_id = ? and version = ?", changedLoanVersions);
+    }
+
+    /**
+     * Builds the statement recalculating the derived summary columns of
+     * disbursed loans, restricted by the given condition on the loan
+     * <code>ml</code>.
+     */
+    private String buildLoanSummaryUpdateSql(final String loanCondition) {
+
         final StringBuilder updateSqlBuilder = new StringBuilder(900);
         updateSqlBuilder.append("update m_loan ");
         updateSqlBuilder.append("join (");
@@ -94,6 +202,7 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         updateSqlBuilder.append(" FROM m_loan ml ");
         updateSqlBuilder.append("INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
         updateSqlBuilder.append("WHERE ml.disbursedon_date is not null ");
+        updateSqlBuilder.append(loanCondition);
         updateSqlBuilder.append("GROUP BY ml.id ");
         updateSqlBuilder.append(") x on x.loanId = m_loan.id ");
 
@@ -141,9 +250,7 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         updateSqlBuilder
                 .append(" (x.penalty_charges_charged_derived - (x.penalty_charges_repaid_derived + x.penalty_charges_waived_derived + x.penalty_charges_writtenoff_derived))");
 
-        final int result = jdbcTemplate.update(updateSqlBuilder.toString());
-
-        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+        return updateSqlBuilder.toString();
     }
 
     @Transactional
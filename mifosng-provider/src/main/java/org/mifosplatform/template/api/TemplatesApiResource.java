@@ -39,6 +39,7 @@ import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
 import org.mifosplatform.infrastructure.core.serialization.DefaultToApiJsonSerializer;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.mifosplatform.template.data.MergedTemplateData;
 import org.mifosplatform.template.data.TemplateData;
 import org.mifosplatform.template.domain.Template;
 import org.mifosplatform.template.domain.TemplateEntity;
@@ -63,6 +64,7 @@ public class TemplatesApiResource {
     private final PlatformSecurityContext context;
     private final DefaultToApiJsonSerializer<Template> toApiJsonSerializer;
     private final DefaultToApiJsonSerializer<TemplateData> templateDataApiJsonSerializer;
+    private final DefaultToApiJsonSerializer<MergedTemplateData> mergedTemplateApiJsonSerializer;
     private final ApiRequestParameterHelper apiRequestParameterHelper;
     private final TemplateDomainService templateService;
     private final TemplateMergeService templateMergeService;
@@ -71,6 +73,7 @@ public class TemplatesApiResource {
     @Autowired
     public TemplatesApiResource(final PlatformSecurityContext context, final DefaultToApiJsonSerializer<Template> toApiJsonSerializer,
             final DefaultToApiJsonSerializer<TemplateData> templateDataApiJsonSerializer,
+            final DefaultToApiJsonSerializer<MergedTemplateData> mergedTemplateApiJsonSerializer,
             final ApiRequestParameterHelper apiRequestParameterHelper, final TemplateDomainService templateService,
             final TemplateMergeService templateMergeService,
             final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService) {
@@ -78,6 +81,7 @@ public class TemplatesApiResource {
         this.context = context;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.templateDataApiJsonSerializer = templateDataApiJsonSerializer;
+        this.mergedTemplateApiJsonSerializer = mergedTemplateApiJsonSerializer;
         this.apiRequestParameterHelper = apiRequestParameterHelper;
         this.templateService = templateService;
         this.templateMergeService = templateMergeService;
@@ -182,6 +186,43 @@ public class TemplatesApiResource {
         @SuppressWarnings("unchecked")
         final HashMap<String, Object> result = new ObjectMapper().readValue(apiRequestBodyAsJson, HashMap.class);
 
+        final Map<String, Object> parametersMap = parametersMap(uriInfo);
+        parametersMap.putAll(result);
+        return this.templateMergeService.compile(template, parametersMap);
+    }
+
+    /**
+     * Merges the template with each object of the JSON array of the body, on
+     * several threads, e.g. to produce the loan agreements of many loans at
+     * once. Query parameters apply to every document.
+     */
+    @POST
+    @Path("{templateId}/bulkmerge")
+    public String bulkMergeTemplate(@PathParam("templateId") final Long templateId, @Context final UriInfo uriInfo,
+            final String apiRequestBodyAsJson) throws IOException {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.RESOURCE_NAME_FOR_PERMISSION);
+
+        final Template template = this.templateService.findOneById(templateId);
+
+        @SuppressWarnings("unchecked")
+        final List<Map<String, Object>> documents = new ObjectMapper().readValue(apiRequestBodyAsJson, ArrayList.class);
+
+        final Map<String, Object> parametersMap = parametersMap(uriInfo);
+        final List<Map<String, Object>> scopesList = new ArrayList<>(documents.size());
+        for (final Map<String, Object> document : documents) {
+            final Map<String, Object> scopes = new HashMap<>(parametersMap);
+            scopes.putAll(document);
+            scopesList.add(scopes);
+        }
+
+        final List<MergedTemplateData> mergedDocuments = this.templateMergeService.compileAll(template, scopesList);
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.mergedTemplateApiJsonSerializer.serialize(settings, mergedDocuments);
+    }
+
+    private static Map<String, Object> parametersMap(final UriInfo uriInfo) {
         final MultivaluedMap<String, String> parameters = uriInfo.getQueryParameters();
         final Map<String, Object> parametersMap = new HashMap<>();
         for (final Map.Entry<String, List<String>> entry : parameters.entrySet()) {
@@ -194,7 +235,6 @@ public class TemplatesApiResource {
         }
 
         parametersMap.put("BASE_URI", uriInfo.getBaseUri());
-        parametersMap.putAll(result);
-        return this.templateMergeService.compile(template, parametersMap);
+        return parametersMap;
     }
-}
\ No newline at end of file
+}
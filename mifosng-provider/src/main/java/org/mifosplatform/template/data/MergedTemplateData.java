@@ -0,0 +1,43 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.template.data;
+
+/**
+ * Immutable data object for one document of a bulk merge of a template, the
+ * merged document or the reason it could not be merged.
+ */
+public class MergedTemplateData {
+
+    private final Integer index;
+    private final String document;
+    private final String error;
+
+    public static MergedTemplateData document(final Integer index, final String document) {
+        return new MergedTemplateData(index, document, null);
+    }
+
+    public static MergedTemplateData failure(final Integer index, final String error) {
+        return new MergedTemplateData(index, null, error);
+    }
+
+    private MergedTemplateData(final Integer index, final String document, final String error) {
+        this.index = index;
+        this.document = document;
+        this.error = error;
+    }
+
+    public Integer getIndex() {
+        return this.index;
+    }
+
+    public String getDocument() {
+        return this.document;
+    }
+
+    public String getError() {
+        return this.error;
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.template.service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.mifosplatform.infrastructure.core.serialization.DefaultToApiJsonSerializer;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.mifosplatform.organisation.office.service.OfficeReadPlatformService;
+import org.mifosplatform.organisation.staff.service.StaffReadPlatformService;
+import org.mifosplatform.portfolio.client.service.ClientReadPlatformService;
+import org.mifosplatform.portfolio.group.service.GroupReadPlatformService;
+import org.mifosplatform.portfolio.loanaccount.service.LoanReadPlatformService;
+import org.mifosplatform.portfolio.savings.service.SavingsAccountReadPlatformService;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Resolves the mappers of templates that point at a single client, group,
+ * loan, savings account, office or staff member of the platform itself
+ * through its read services, rather than through a request over http back
+ * into the platform.
+ *
+ * The data is what the api returns for the resource without any further
+ * parameters, with the read permissions of the api checked for the current
+ * user. Any other mapper is left to be fetched over http.
+ */
+@Service
+public class TemplateMapperResolver {
+
+    private static final Pattern RESOURCE_PATH = Pattern
+            .compile("^/?(clients|groups|loans|savingsaccounts|offices|staff)/(\\d+)/?(?:\\?(.*))?$");
+    private static final String TENANT_IDENTIFIER_PARAMETER = "tenantIdentifier=";
+
+    private final PlatformSecurityContext context;
+    private final ClientReadPlatformService clientReadPlatformService;
+    private final GroupReadPlatformService groupReadPlatformService;
+    private final LoanReadPlatformService loanReadPlatformService;
+    private final SavingsAccountReadPlatformService savingsAccountReadPlatformService;
+    private final OfficeReadPlatformService officeReadPlatformService;
+    private final StaffReadPlatformService staffReadPlatformService;
+    private final DefaultToApiJsonSerializer<Object> toApiJsonSerializer;
+
+    @Autowired
+    public TemplateMapperResolver(final PlatformSecurityContext context, final ClientReadPlatformService clientReadPlatformService,
+            final GroupReadPlatformService groupReadPlatformService, final LoanReadPlatformService loanReadPlatformService,
+            final SavingsAccountReadPlatformService savingsAccountReadPlatformService,
+            final OfficeReadPlatformService officeReadPlatformService, final StaffReadPlatformService staffReadPlatformService,
+            final DefaultToApiJsonSerializer<Object> toApiJsonSerializer) {
+        this.context = context;
+        this.clientReadPlatformService = clientReadPlatformService;
+        this.groupReadPlatformService = groupReadPlatformService;
+        this.loanReadPlatformService = loanReadPlatformService;
+        this.savingsAccountReadPlatformService = savingsAccountReadPlatformService;
+        this.officeReadPlatformService = officeReadPlatformService;
+        this.staffReadPlatformService = staffReadPlatformService;
+        this.toApiJsonSerializer = toApiJsonSerializer;
+    }
+
+    /**
+     * @param path
+     *            path of a resource below the root of the api
+     * @return the resource as the api would return it, or null if it is not
+     *         one to be resolved in process
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> resolve(final String path) throws IOException {
+        final Matcher matcher = RESOURCE_PATH.matcher(path);
+        if (!matcher.matches() || !isOfCurrentTenantOnly(matcher.group(3))) { return null; }
+
+        // without a user there is nobody to check permissions for
+        final AppUser currentUser = this.context.getAuthenticatedUserIfPresent();
+        if (currentUser == null) { return null; }
+
+        final String resource = matcher.group(1);
+        final Long id = Long.valueOf(matcher.group(2));
+        final Object data;
+        if ("clients".equals(resource)) {
+            currentUser.validateHasReadPermission("CLIENT");
+            data = this.clientReadPlatformService.retrieveOne(id);
+        } else if ("groups".equals(resource)) {
+            currentUser.validateHasReadPermission("GROUP");
+            data = this.groupReadPlatformService.retrieveOne(id);
+        } else if ("loans".equals(resource)) {
+            currentUser.validateHasReadPermission("LOAN");
+            data = this.loanReadPlatformService.retrieveOne(id);
+        } else if ("savingsaccounts".equals(resource)) {
+            currentUser.validateHasReadPermission("SAVINGSACCOUNT");
+            data = this.savingsAccountReadPlatformService.retrieveOne(id);
+        } else if ("offices".equals(resource)) {
+            currentUser.validateHasReadPermission("OFFICE");
+            data = this.officeReadPlatformService.retrieveOffice(id);
+        } else {
+            currentUser.validateHasReadPermission("STAFF");
+            data = this.staffReadPlatformService.retrieveStaff(id);
+        }
+
+        return new ObjectMapper().readValue(this.toApiJsonSerializer.serialize(data), HashMap.class);
+    }
+
+    /**
+     * Parameters other than the tenant change what the api returns, so only
+     * paths without any or with that of the current tenant are resolved here.
+     */
+    private static boolean isOfCurrentTenantOnly(final String query) {
+        if (query == null || query.isEmpty()) { return true; }
+        if (!query.startsWith(TENANT_IDENTIFIER_PARAMETER) || query.indexOf('&') >= 0) { return false; }
+        return ThreadLocalContextUtil.getTenant().getTenantIdentifier()
+                .equals(query.substring(TENANT_IDENTIFIER_PARAMETER.length()));
+    }
+}
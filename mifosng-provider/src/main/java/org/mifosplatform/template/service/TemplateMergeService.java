@@ -11,20 +11,44 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.StringReader;
 import java.io.StringWriter;
-import java.net.Authenticator;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
-import java.net.PasswordAuthentication;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.annotation.PreDestroy;
 
 import org.codehaus.jackson.map.ObjectMapper;
+import org.mifosplatform.infrastructure.core.data.ApiParameterError;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.exception.AbstractPlatformDomainRuleException;
+import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.template.data.MergedTemplateData;
 import org.mifosplatform.template.domain.Template;
 import org.mifosplatform.template.domain.TemplateFunctions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
@@ -32,74 +56,215 @@ import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
 import com.github.mustachejava.MustacheFactory;
 
+/**
+ * Merges templates with the data of their mappers and of the request.
+ *
+ * Templates and their mappers are compiled once per version and kept for the
+ * tenant, so merging a template many times only executes it. Mappers pointing
+ * at single resources of the platform are resolved in process by
+ * {@link TemplateMapperResolver}, any other over http with the credentials of
+ * the caller. Nothing of a merge is kept on the service itself, so it may be
+ * used by any number of threads at once.
+ */
 @Service
 public class TemplateMergeService {
 
-    // private final FromJsonHelper fromApiJsonHelper;
-    private Map<String, Object> scopes;
-    private String authToken;
+    private final static Logger logger = LoggerFactory.getLogger(TemplateMergeService.class);
+
+    private static final int MAX_CACHED_TEMPLATES = 500;
+    private static final int MAX_BULK_MERGE_DOCUMENTS = 10000;
+    private static final int MERGE_THREAD_COUNT = Math.max(2, Runtime.getRuntime().availableProcessors());
 
-    // @Autowired
-    // public TemplateMergeService(final FromJsonHelper fromApiJsonHelper) {
-    // this.fromApiJsonHelper = fromApiJsonHelper;
-    // }
+    private final TemplateMapperResolver mapperResolver;
+    private final MustacheFactory mustacheFactory = new DefaultMustacheFactory();
+    private final ConcurrentHashMap<String, CompiledTemplate> compiledTemplates = new ConcurrentHashMap<>();
+    private final ExecutorService executorService = Executors.newFixedThreadPool(MERGE_THREAD_COUNT, new CustomizableThreadFactory(
+            "TemplateMerge-"));
 
-    public void setAuthToken(final String authToken) {
-        this.authToken = authToken;
+    @Autowired
+    public TemplateMergeService(final TemplateMapperResolver mapperResolver) {
+        this.mapperResolver = mapperResolver;
     }
 
-    public String compile(final Template template, final Map<String, Object> scopes) throws MalformedURLException, IOException {
+    @PreDestroy
+    public void shutdown() {
+        this.executorService.shutdownNow();
+    }
 
-        this.scopes = scopes;
-        this.scopes.put("static", new TemplateFunctions());
+    public String compile(final Template template, final Map<String, Object> scopes) throws MalformedURLException, IOException {
+        return compile(template, scopes, null);
+    }
 
-        final MustacheFactory mf = new DefaultMustacheFactory();
-        final Mustache mustache = mf.compile(new StringReader(template.getText()), template.getName());
+    /**
+     * @param authToken
+     *            base 64 encoded credentials for mappers fetched over http,
+     *            null for those the current request authenticated with
+     */
+    public String compile(final Template template, final Map<String, Object> scopes, final String authToken)
+            throws MalformedURLException, IOException {
+        return merge(compiled(template), scopes, authToken);
+    }
 
-        final Map<String, Object> mappers = getCompiledMapFromMappers(template.getMappersAsMap());
-        this.scopes.putAll(mappers);
+    /**
+     * Merges the template with each of the given scopes on the merge threads,
+     * as the current user of the current tenant.
+     *
+     * @return a document or the reason it could not be merged for each of the
+     *         scopes, in their order
+     */
+    public List<MergedTemplateData> compileAll(final Template template, final List<Map<String, Object>> scopesList) {
+        if (scopesList.size() > MAX_BULK_MERGE_DOCUMENTS) {
+            final List<ApiParameterError> dataValidationErrors = new ArrayList<>();
+            dataValidationErrors.add(ApiParameterError.generalError("validation.msg.template.bulkmerge.too.many.documents",
+                    "At most " + MAX_BULK_MERGE_DOCUMENTS + " documents can be merged at once.", MAX_BULK_MERGE_DOCUMENTS));
+            throw new PlatformApiDataValidationException(dataValidationErrors);
+        }
 
-        final StringWriter stringWriter = new StringWriter();
-        mustache.execute(stringWriter, this.scopes);
+        final CompiledTemplate compiledTemplate = compiled(template);
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+        final String authToken = ThreadLocalContextUtil.getAuthToken();
 
-        return stringWriter.toString();
-    }
+        final Queue<Integer> pendingIndexes = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < scopesList.size(); i++) {
+            pendingIndexes.add(i);
+        }
+        final MergedTemplateData[] documents = new MergedTemplateData[scopesList.size()];
 
-    private Map<String, Object> getCompiledMapFromMappers(final Map<String, String> data) {
+        final int parallelism = Math.min(MERGE_THREAD_COUNT, scopesList.size());
+        final List<Future<Void>> workers = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            workers.add(this.executorService.submit(new Callable<Void>() {
 
-        final MustacheFactory mf = new DefaultMustacheFactory();
+                @Override
+                public Void call() {
+                    mergeDocuments(compiledTemplate, scopesList, pendingIndexes, documents, tenant, securityContext, authToken);
+                    return null;
+                }
+            }));
+        }
 
-        if (data != null) {
-            for (final Map.Entry<String, String> entry : data.entrySet()) {
+        try {
+            for (final Future<Void> worker : workers) {
+                worker.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (final Future<Void> worker : workers) {
+                worker.cancel(true);
+            }
+            throw new IllegalStateException("Interrupted while merging template " + template.getName(), e);
+        } catch (final ExecutionException e) {
+            // documents failing are recorded by the workers, this is unexpected
+            throw new IllegalStateException("Merging template " + template.getName() + " failed", e.getCause());
+        }
 
-                final Mustache mappersMustache = mf.compile(new StringReader(entry.getValue()), "");
-                final StringWriter stringWriter = new StringWriter();
+        final List<MergedTemplateData> result = new ArrayList<>(documents.length);
+        Collections.addAll(result, documents);
+        return result;
+    }
 
-                mappersMustache.execute(stringWriter, this.scopes);
-                String url = stringWriter.toString();
-                if (!url.startsWith("http")) {
-                    url = this.scopes.get("BASE_URI") + url;
-                }
+    private void mergeDocuments(final CompiledTemplate compiledTemplate, final List<Map<String, Object>> scopesList,
+            final Queue<Integer> pendingIndexes, final MergedTemplateData[] documents, final MifosPlatformTenant tenant,
+            final SecurityContext securityContext, final String authToken) {
+        ThreadLocalContextUtil.setTenant(tenant);
+        SecurityContextHolder.setContext(securityContext);
+        try {
+            Integer index = pendingIndexes.poll();
+            while (index != null) {
                 try {
-                    this.scopes.put(entry.getKey(), getMapFromUrl(url));
-                } catch (final MalformedURLException e) {
-                    e.printStackTrace();
-                } catch (final IOException e) {
-                    e.printStackTrace();
+                    documents[index] = MergedTemplateData.document(index, merge(compiledTemplate, scopesList.get(index), authToken));
+                } catch (final RuntimeException e) {
+                    logger.warn("Merging document " + index + " of template " + compiledTemplate.name + " failed", e);
+                    documents[index] = MergedTemplateData.failure(index, errorMessage(e));
                 }
+                index = pendingIndexes.poll();
+            }
+        } finally {
+            SecurityContextHolder.clearContext();
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    private static String errorMessage(final RuntimeException e) {
+        // platform exceptions only carry their message as user message
+        if (e instanceof AbstractPlatformDomainRuleException) { return ((AbstractPlatformDomainRuleException) e).getDefaultUserMessage(); }
+        return e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+    }
+
+    private String merge(final CompiledTemplate compiledTemplate, final Map<String, Object> scopes, final String authToken) {
+        final String credentials = authToken != null ? authToken : ThreadLocalContextUtil.getAuthToken();
+        // scopes of the caller are left as they were given
+        final Map<String, Object> mergeScopes = new HashMap<>(scopes);
+        mergeScopes.put("static", new TemplateFunctions());
+
+        for (final Map.Entry<String, Mustache> mapper : compiledTemplate.mappers.entrySet()) {
+            final String url = execute(mapper.getValue(), mergeScopes);
+            try {
+                mergeScopes.put(mapper.getKey(), resolveMapper(url, mergeScopes.get("BASE_URI"), credentials));
+            } catch (final IOException e) {
+                logger.warn("Could not resolve mapper " + mapper.getKey() + " of template " + compiledTemplate.name + " from " + url, e);
             }
         }
-        return this.scopes;
+
+        return execute(compiledTemplate.template, mergeScopes);
+    }
+
+    private static String execute(final Mustache mustache, final Map<String, Object> scopes) {
+        final StringWriter stringWriter = new StringWriter();
+        mustache.execute(stringWriter, scopes);
+        return stringWriter.toString();
+    }
+
+    private Map<String, Object> resolveMapper(final String mapperUrl, final Object baseUri, final String authToken)
+            throws IOException {
+        final String base = baseUri == null ? null : baseUri.toString();
+
+        String path = null;
+        if (!mapperUrl.startsWith("http")) {
+            path = mapperUrl;
+        } else if (base != null && mapperUrl.startsWith(base)) {
+            path = mapperUrl.substring(base.length());
+        }
+        if (path != null) {
+            final Map<String, Object> resolved = this.mapperResolver.resolve(path);
+            if (resolved != null) { return resolved; }
+        }
+
+        return getMapFromUrl(mapperUrl.startsWith("http") ? mapperUrl : base + mapperUrl, authToken);
+    }
+
+    /**
+     * The compiled template of the current tenant, compiled again when its
+     * text or mappers changed since it was compiled.
+     */
+    private CompiledTemplate compiled(final Template template) {
+        final String key = ThreadLocalContextUtil.getTenant().getTenantIdentifier() + ":"
+                + (template.getId() == null ? template.getName() : template.getId());
+        final LinkedHashMap<String, String> mappers = template.getMappersAsMap();
+
+        final CompiledTemplate cached = this.compiledTemplates.get(key);
+        if (cached != null && cached.isOf(template.getText(), mappers)) { return cached; }
+
+        final CompiledTemplate compiledTemplate = new CompiledTemplate(template.getName(), template.getText(), mappers,
+                this.mustacheFactory);
+        if (cached == null && this.compiledTemplates.size() >= MAX_CACHED_TEMPLATES) {
+            // templates are few, this only guards against unbounded growth
+            this.compiledTemplates.clear();
+        }
+        this.compiledTemplates.put(key, compiledTemplate);
+        return compiledTemplate;
     }
 
     @SuppressWarnings("unchecked")
-    private Map<String, Object> getMapFromUrl(final String url) throws MalformedURLException, IOException {
+    private static Map<String, Object> getMapFromUrl(final String url, final String authToken) throws MalformedURLException,
+            IOException {
 
-        final HttpURLConnection connection = getConnection(url);
+        final HttpURLConnection connection = getConnection(url, authToken);
 
         final String response = getStringFromInputStream(connection.getInputStream());
         HashMap<String, Object> result = new HashMap<>();
-        if (connection.getContentType().equals("text/plain")) {
+        if ("text/plain".equals(connection.getContentType())) {
             result.put("src", response);
         } else {
             result = new ObjectMapper().readValue(response, HashMap.class);
@@ -107,71 +272,66 @@ public class TemplateMergeService {
         return result;
     }
 
-    private HttpURLConnection getConnection(final String url) {
-
-        if (this.authToken == null) {
-            final String name = SecurityContextHolder.getContext().getAuthentication().getName();
-            final String password = SecurityContextHolder.getContext().getAuthentication().getCredentials().toString();
-
-            Authenticator.setDefault(new Authenticator() {
+    /**
+     * Credentials are set on the connection itself rather than through a
+     * default {@link java.net.Authenticator}, which would be shared by all
+     * threads of the JVM.
+     */
+    private static HttpURLConnection getConnection(final String url, final String authToken) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
 
-                @Override
-                protected PasswordAuthentication getPasswordAuthentication() {
-                    return new PasswordAuthentication(name, password.toCharArray());
-                }
-            });
+        if (authToken != null) {
+            connection.setRequestProperty("Authorization", "Basic " + authToken);
         }
-
-        HttpURLConnection connection = null;
         try {
-            connection = (HttpURLConnection) new URL(url).openConnection();
-            if (this.authToken != null) {
-                connection.setRequestProperty("Authorization", "Basic " + this.authToken);
-            }
             TrustModifier.relaxHostChecking(connection);
-
-            connection.setDoInput(true);
-
-        } catch (final MalformedURLException e) {
-            e.printStackTrace();
-        } catch (final IOException e) {
-            e.printStackTrace();
-        } catch (final KeyManagementException e) {
-            e.printStackTrace();
-        } catch (final NoSuchAlgorithmException e) {
-            e.printStackTrace();
-        } catch (final KeyStoreException e) {
-            e.printStackTrace();
+        } catch (final KeyManagementException | NoSuchAlgorithmException | KeyStoreException e) {
+            throw new IOException(e);
         }
 
+        connection.setDoInput(true);
         return connection;
     }
 
-    private static String getStringFromInputStream(final InputStream is) {
-
-        BufferedReader br = null;
+    private static String getStringFromInputStream(final InputStream is) throws IOException {
         final StringBuilder sb = new StringBuilder();
-
-        String line;
-        try {
-
-            br = new BufferedReader(new InputStreamReader(is));
+        try (final BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+            String line;
             while ((line = br.readLine()) != null) {
                 sb.append(line);
             }
+        }
+        return sb.toString();
+    }
 
-        } catch (final IOException e) {
-            // FIXME - HANDLE THIS CASE
-        } finally {
-            if (br != null) {
-                try {
-                    br.close();
-                } catch (final IOException e) {
-                    e.printStackTrace();
+    /**
+     * A template and its mappers compiled from the text and mappers they are
+     * kept with, which tell whether the template changed since.
+     */
+    private static final class CompiledTemplate {
+
+        private final String name;
+        private final String text;
+        private final Map<String, String> mapperTexts;
+        private final Mustache template;
+        private final Map<String, Mustache> mappers = new LinkedHashMap<>();
+
+        CompiledTemplate(final String name, final String text, final LinkedHashMap<String, String> mapperTexts,
+                final MustacheFactory mustacheFactory) {
+            this.name = name;
+            this.text = text;
+            this.mapperTexts = mapperTexts;
+            this.template = mustacheFactory.compile(new StringReader(text), name);
+            if (mapperTexts != null) {
+                for (final Map.Entry<String, String> mapper : mapperTexts.entrySet()) {
+                    this.mappers.put(mapper.getKey(), mustacheFactory.compile(new StringReader(mapper.getValue()), ""));
                 }
             }
         }
 
-        return sb.toString();
+        boolean isOf(final String otherText, final Map<String, String> otherMapperTexts) {
+            if (!this.text.equals(otherText)) { return false; }
+            return this.mapperTexts == null ? otherMapperTexts == null : this.mapperTexts.equals(otherMapperTexts);
+        }
     }
 }
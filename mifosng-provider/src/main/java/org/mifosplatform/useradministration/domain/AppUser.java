@@ -24,6 +24,7 @@ import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
+import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
 
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
@@ -101,6 +102,9 @@ public class AppUser extends AbstractPersistable<Long> implements PlatformUser {
     @Column(name = "password_never_expires", nullable = false)
     private boolean passwordNeverExpires;
 
+    @Transient
+    private transient volatile AppUserPermissions compiledPermissions;
+
     public static AppUser fromJson(final Office userOffice, final Staff linkedStaff, final Set<Role> allRoles, final JsonCommand command) {
 
         final String username = command.stringValueOfParameterNamed("username");
@@ -187,6 +191,7 @@ public class AppUser extends AbstractPersistable<Long> implements PlatformUser {
         if (!allRoles.isEmpty()) {
             this.roles.clear();
             this.roles = allRoles;
+            this.compiledPermissions = null;
         }
     }
 
@@ -462,27 +467,20 @@ public class AppUser extends AbstractPersistable<Long> implements PlatformUser {
     }
 
     private boolean hasPermissionTo(final String permissionCode) {
-        boolean hasPermission = hasAllFunctionsPermission();
-        if (!hasPermission) {
-            for (final Role role : this.roles) {
-                if (role.hasPermissionTo(permissionCode)) {
-                    hasPermission = true;
-                    break;
-                }
-            }
-        }
-        return hasPermission;
+        return compiledPermissions().hasPermissionTo(permissionCode);
     }
 
-    private boolean hasAllFunctionsPermission() {
-        boolean match = false;
-        for (final Role role : this.roles) {
-            if (role.hasPermissionTo("ALL_FUNCTIONS")) {
-                match = true;
-                break;
-            }
+    /**
+     * Permissions of the roles compiled on the first check, and again after
+     * the roles of the user or the permissions of any role changed.
+     */
+    private AppUserPermissions compiledPermissions() {
+        AppUserPermissions permissions = this.compiledPermissions;
+        if (permissions == null || !permissions.isCurrent()) {
+            permissions = AppUserPermissions.of(this.roles);
+            this.compiledPermissions = permissions;
         }
-        return match;
+        return permissions;
     }
 
     public boolean hasIdOf(final Long userId) {
@@ -0,0 +1,97 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.useradministration.domain;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Effective permissions of an {@link AppUser}, compiled from the permissions
+ * of all its roles into a bitset over permission codes, so that a check is a
+ * map lookup and a bit test instead of a case insensitive comparison with
+ * every permission of every role.
+ *
+ * Codes are interned upper cased into one index shared by all users, which
+ * only grows by the codes of roles. A check for a code no role has granted
+ * does not find it in the index and is denied without touching the bitset.
+ *
+ * Changing the permissions of any role makes all compiled permissions stale,
+ * so users holding that role in memory compile theirs again on the next
+ * check.
+ */
+final class AppUserPermissions {
+
+    private static final String ALL_FUNCTIONS = "ALL_FUNCTIONS";
+
+    private static final ConcurrentMap<String, Integer> CODE_INDEX = new ConcurrentHashMap<>();
+    private static final AtomicLong ROLE_PERMISSIONS_VERSION = new AtomicLong();
+
+    private final BitSet codes;
+    private final boolean allFunctions;
+    private final long version;
+
+    public static AppUserPermissions of(final Collection<Role> roles) {
+        final long version = ROLE_PERMISSIONS_VERSION.get();
+        final BitSet codes = new BitSet();
+        for (final Role role : roles) {
+            for (final Permission permission : role.getPermissions()) {
+                codes.set(indexOf(permission.getCode()));
+            }
+        }
+        return new AppUserPermissions(codes, version);
+    }
+
+    /**
+     * To be called whenever permissions are added to or removed from a role.
+     */
+    public static void rolePermissionsChanged() {
+        ROLE_PERMISSIONS_VERSION.incrementAndGet();
+    }
+
+    private AppUserPermissions(final BitSet codes, final long version) {
+        this.codes = codes;
+        this.version = version;
+        this.allFunctions = contains(ALL_FUNCTIONS);
+    }
+
+    public boolean isCurrent() {
+        return this.version == ROLE_PERMISSIONS_VERSION.get();
+    }
+
+    /**
+     * Same answer as a case insensitive match of the code against the
+     * permissions of all roles, with ALL_FUNCTIONS granting every code.
+     */
+    public boolean hasPermissionTo(final String permissionCode) {
+        return this.allFunctions || contains(permissionCode);
+    }
+
+    private boolean contains(final String permissionCode) {
+        if (permissionCode == null) { return false; }
+        Integer index = CODE_INDEX.get(permissionCode);
+        if (index == null) {
+            index = CODE_INDEX.get(permissionCode.toUpperCase(Locale.ENGLISH));
+        }
+        return index != null && this.codes.get(index);
+    }
+
+    private static int indexOf(final String permissionCode) {
+        final String code = permissionCode.toUpperCase(Locale.ENGLISH);
+        final Integer index = CODE_INDEX.get(code);
+        if (index != null) { return index; }
+        synchronized (CODE_INDEX) {
+            final Integer concurrentlyAddedIndex = CODE_INDEX.get(code);
+            if (concurrentlyAddedIndex != null) { return concurrentlyAddedIndex; }
+            final int newIndex = CODE_INDEX.size();
+            CODE_INDEX.put(code, newIndex);
+            return newIndex;
+        }
+    }
+}
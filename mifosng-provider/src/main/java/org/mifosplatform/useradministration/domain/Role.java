@@ -85,6 +85,9 @@ public class Role extends AbstractPersistable<Long> {
         } else {
             changed = removePermission(permission);
         }
+        if (changed) {
+            AppUserPermissions.rolePermissionsChanged();
+        }
 
         return changed;
     }
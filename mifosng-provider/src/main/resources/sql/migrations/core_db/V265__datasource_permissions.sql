@@ -0,0 +1,2 @@
+INSERT INTO `m_permission` (`grouping`, `code`, `entity_name`, `action_name`, `can_maker_checker`) VALUES ('configuration', 'READ_DATASOURCE', 'DATASOURCE', 'READ', 0);
+INSERT INTO `m_permission` (`grouping`, `code`, `entity_name`, `action_name`, `can_maker_checker`) VALUES ('configuration', 'EVICT_DATASOURCE', 'DATASOURCE', 'EVICT', 0);
@@ -0,0 +1,17 @@
+CREATE TABLE `job_run_partition_history` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`job_run_history_id` BIGINT(20) NOT NULL,
+	`partition_name` VARCHAR(100) NOT NULL,
+	`range_from` BIGINT(20) NULL DEFAULT NULL,
+	`range_to` BIGINT(20) NULL DEFAULT NULL,
+	`status` VARCHAR(10) NOT NULL,
+	`processed_count` INT(11) NOT NULL DEFAULT '0',
+	`start_time` DATETIME NOT NULL,
+	`end_time` DATETIME NOT NULL,
+	`error_message` VARCHAR(500) NULL DEFAULT NULL,
+	PRIMARY KEY (`id`),
+	INDEX `FK_job_run_partition_history_job_run_history` (`job_run_history_id`),
+	CONSTRAINT `FK_job_run_partition_history_job_run_history` FOREIGN KEY (`job_run_history_id`) REFERENCES `job_run_history` (`id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
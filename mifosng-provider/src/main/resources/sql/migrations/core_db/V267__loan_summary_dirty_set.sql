@@ -0,0 +1,10 @@
+CREATE TABLE `m_loan_summary_dirty` (
+	`loan_id` BIGINT(20) NOT NULL,
+	`lastmodified_date` DATETIME NOT NULL,
+	PRIMARY KEY (`loan_id`),
+	INDEX `IDX_lastmodified_date` (`lastmodified_date`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+INSERT INTO c_configuration (`name`, `value`, `enabled`, `description`) VALUES ('incremental-loan-summary-update', 0, 0, 'If enabled, the Update loan Summary job only recomputes the summary of loans changed since its last run');
@@ -0,0 +1,18 @@
+CREATE TABLE `m_hook_event_outbox` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`hook_id` BIGINT(20) NOT NULL,
+	`entity_name` VARCHAR(45) NOT NULL,
+	`action_name` VARCHAR(45) NOT NULL,
+	`payload` TEXT NOT NULL,
+	`status_enum` SMALLINT(5) NOT NULL,
+	`attempts` INT(11) NOT NULL DEFAULT '0',
+	`next_attempt_time` DATETIME NOT NULL,
+	`last_error` VARCHAR(500) NULL DEFAULT NULL,
+	`created_date` DATETIME NOT NULL,
+	`delivered_date` DATETIME NULL DEFAULT NULL,
+	PRIMARY KEY (`id`),
+	INDEX `IDX_status_next_attempt` (`status_enum`, `next_attempt_time`),
+	CONSTRAINT `FK_m_hook_event_outbox_hook` FOREIGN KEY (`hook_id`) REFERENCES `m_hook` (`id`) ON DELETE CASCADE
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
@@ -0,0 +1,11 @@
+CREATE TABLE `m_appuser_session` (
+	`token_hash` CHAR(64) NOT NULL,
+	`appuser_id` BIGINT(20) NOT NULL,
+	`issued_date` DATETIME NOT NULL,
+	`lastaccess_date` DATETIME NOT NULL,
+	PRIMARY KEY (`token_hash`),
+	INDEX `FK_appuser_session_appuser` (`appuser_id`),
+	CONSTRAINT `FK_appuser_session_appuser` FOREIGN KEY (`appuser_id`) REFERENCES `m_appuser` (`id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
@@ -0,0 +1,2 @@
+ALTER TABLE `m_loan_summary_dirty`
+	ADD COLUMN `version` BIGINT(20) NOT NULL DEFAULT '1' AFTER `lastmodified_date`;
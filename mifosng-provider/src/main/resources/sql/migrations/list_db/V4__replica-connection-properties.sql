@@ -0,0 +1,5 @@
+ALTER TABLE `tenants`
+  ADD COLUMN `replica_schema_server` varchar(100) NULL DEFAULT NULL,
+  ADD COLUMN `replica_schema_server_port` varchar(10) NULL DEFAULT NULL,
+  ADD COLUMN `replica_max_lag_seconds` int(5) DEFAULT 5,
+  ADD COLUMN `replica_report_max_lag_seconds` int(5) DEFAULT 300;
@@ -0,0 +1,130 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.service;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.accounting.glaccount.domain.GLAccount;
+import org.mifosplatform.accounting.journalentry.domain.JournalEntry;
+import org.mifosplatform.accounting.journalentry.domain.JournalEntryType;
+import org.mifosplatform.organisation.office.domain.Office;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class JournalEntryDailyBalanceWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private JournalEntryDailyBalanceWriter writer;
+
+    @Before
+    public void setUp() {
+        this.jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        this.writer = new JournalEntryDailyBalanceWriter(this.jdbcTemplate);
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void shouldSumEntriesOfTransactionPerDayAndWriteThemInKeyOrderBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.writer.add(2L, 20L, "USD", date(2015, 3, 2, 15), JournalEntryType.DEBIT, new BigDecimal("100"));
+        this.writer.add(1L, 30L, "USD", date(2015, 3, 2, 9), JournalEntryType.CREDIT, new BigDecimal("40"));
+        this.writer.add(2L, 20L, "USD", date(2015, 3, 2, 10), JournalEntryType.DEBIT, new BigDecimal("50.5"));
+        this.writer.add(2L, 20L, "USD", date(2015, 3, 2, 23), JournalEntryType.CREDIT, new BigDecimal("20"));
+        this.writer.add(1L, 30L, "KES", date(2015, 3, 3, 0), JournalEntryType.DEBIT, new BigDecimal("10"));
+        this.writer.add(1L, 30L, "USD", date(2015, 3, 1, 12), JournalEntryType.DEBIT, new BigDecimal("5"));
+        verifyZeroInteractions(this.jdbcTemplate);
+
+        final List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        Assert.assertEquals(1, synchronizations.size());
+        synchronizations.get(0).beforeCommit(false);
+
+        final ArgumentCaptor<List> batch = ArgumentCaptor.forClass(List.class);
+        verify(this.jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        final List<Object[]> rows = batch.getValue();
+        Assert.assertEquals(4, rows.size());
+        assertRow(rows.get(0), 1L, 30L, "KES", "2015-03-03", "10", "0");
+        assertRow(rows.get(1), 1L, 30L, "USD", "2015-03-01", "5", "0");
+        assertRow(rows.get(2), 1L, 30L, "USD", "2015-03-02", "0", "40");
+        assertRow(rows.get(3), 2L, 20L, "USD", "2015-03-02", "150.5", "20");
+    }
+
+    @Test
+    public void shouldUpsertEntryAtOnceWithoutTransaction() {
+        this.writer.add(1L, 30L, "USD", date(2015, 3, 2, 15), JournalEntryType.DEBIT, new BigDecimal("25"));
+        this.writer.add(1L, 30L, "USD", date(2015, 3, 2, 16), JournalEntryType.CREDIT, new BigDecimal("30"));
+
+        verify(this.jdbcTemplate).update(anyString(), eq(1L), eq(30L), eq("USD"), eq(java.sql.Date.valueOf("2015-03-02")),
+                eq(new BigDecimal("25")), eq(BigDecimal.ZERO));
+        verify(this.jdbcTemplate).update(anyString(), eq(1L), eq(30L), eq("USD"), eq(java.sql.Date.valueOf("2015-03-02")),
+                eq(BigDecimal.ZERO), eq(new BigDecimal("30")));
+    }
+
+    @Test
+    public void shouldAddJournalEntryOnSideOfItsType() {
+        this.writer.add(journalEntry(JournalEntryType.CREDIT, "12.75"));
+        this.writer.add(journalEntry(JournalEntryType.DEBIT, "7.25"));
+
+        verify(this.jdbcTemplate).update(anyString(), eq(1L), eq(30L), eq("USD"), eq(java.sql.Date.valueOf("2015-03-02")),
+                eq(BigDecimal.ZERO), eq(new BigDecimal("12.75")));
+        verify(this.jdbcTemplate).update(anyString(), eq(1L), eq(30L), eq("USD"), eq(java.sql.Date.valueOf("2015-03-02")),
+                eq(new BigDecimal("7.25")), eq(BigDecimal.ZERO));
+    }
+
+    private static JournalEntry journalEntry(final JournalEntryType type, final String amount) {
+        final Office office = Mockito.mock(Office.class);
+        when(office.getId()).thenReturn(1L);
+        final GLAccount glAccount = Mockito.mock(GLAccount.class);
+        when(glAccount.getId()).thenReturn(30L);
+        final JournalEntry journalEntry = Mockito.mock(JournalEntry.class);
+        when(journalEntry.getOffice()).thenReturn(office);
+        when(journalEntry.getGlAccount()).thenReturn(glAccount);
+        when(journalEntry.getCurrencyCode()).thenReturn("USD");
+        when(journalEntry.getTransactionDate()).thenReturn(date(2015, 3, 2, 11));
+        when(journalEntry.getType()).thenReturn(type.getValue());
+        when(journalEntry.getAmount()).thenReturn(new BigDecimal(amount));
+        return journalEntry;
+    }
+
+    private static void assertRow(final Object[] row, final Long officeId, final Long glAccountId, final String currencyCode,
+            final String entryDate, final String debit, final String credit) {
+        Assert.assertEquals(Arrays.asList(officeId, glAccountId, currencyCode, java.sql.Date.valueOf(entryDate)),
+                Arrays.asList(row).subList(0, 4));
+        Assert.assertEquals(0, new BigDecimal(debit).compareTo((BigDecimal) row[4]));
+        Assert.assertEquals(0, new BigDecimal(credit).compareTo((BigDecimal) row[5]));
+    }
+
+    private static Date date(final int year, final int month, final int day, final int hourOfDay) {
+        final Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month - 1, day, hourOfDay, 0);
+        return calendar.getTime();
+    }
+}
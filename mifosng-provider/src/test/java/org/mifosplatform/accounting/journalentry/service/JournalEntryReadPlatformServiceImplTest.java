@@ -0,0 +1,121 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.service;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.accounting.journalentry.data.TrialBalanceAccountData;
+import org.mifosplatform.accounting.journalentry.data.TrialBalanceData;
+import org.mifosplatform.organisation.office.data.OfficeData;
+import org.mifosplatform.organisation.office.service.OfficeReadPlatformService;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+public class JournalEntryReadPlatformServiceImplTest {
+
+    private OfficeReadPlatformService officeReadPlatformService;
+    private JournalEntryReadPlatformServiceImpl journalEntryReadPlatformService;
+
+    /** the query the trial balance was read with */
+    private String sql;
+    private List<Object> params;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        final ResultSet row = Mockito.mock(ResultSet.class);
+        when(row.getLong("glAccountId")).thenReturn(7L);
+        when(row.getString("glAccountName")).thenReturn("Loans to clients");
+        when(row.getString("glAccountCode")).thenReturn("10100");
+        when(row.findColumn("classification")).thenReturn(4);
+        when(row.getInt(4)).thenReturn(1);
+        when(row.getString("currencyCode")).thenReturn("USD");
+        when(row.getBigDecimal("debits")).thenReturn(new BigDecimal("150.50"));
+        when(row.getBigDecimal("credits")).thenReturn(new BigDecimal("40.25"));
+
+        final JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), Matchers.<Object> anyVararg())).thenAnswer(
+                new Answer<List<Object>>() {
+
+                    @Override
+                    public List<Object> answer(final InvocationOnMock invocation) throws Throwable {
+                        final Object[] arguments = invocation.getArguments();
+                        JournalEntryReadPlatformServiceImplTest.this.sql = (String) arguments[0];
+                        JournalEntryReadPlatformServiceImplTest.this.params = Arrays.asList(arguments).subList(2, arguments.length);
+                        return Arrays.asList(((RowMapper<Object>) arguments[1]).mapRow(row, 0));
+                    }
+                });
+
+        this.officeReadPlatformService = Mockito.mock(OfficeReadPlatformService.class);
+        this.journalEntryReadPlatformService = new JournalEntryReadPlatformServiceImpl(jdbcTemplate, null, this.officeReadPlatformService,
+                null);
+    }
+
+    @Test
+    public void shouldSumDailyBalancesOfOfficeAndItsChildrenBetweenDates() {
+        when(this.officeReadPlatformService.retrieveOffice(2L)).thenReturn(OfficeData.dropdown(2L, "Branch", "..Branch"));
+        final LocalDate from = new LocalDate(2015, 3, 1);
+        final LocalDate to = new LocalDate(2015, 3, 31);
+
+        final TrialBalanceData trialBalance = this.journalEntryReadPlatformService.retrieveTrialBalance(2L, from.toDate(), to.toDate());
+
+        Assert.assertTrue(this.sql.contains(" from acc_gl_daily_balance balance "));
+        Assert.assertTrue(this.sql.contains(" join m_office parent on parent.id = ?"));
+        Assert.assertTrue(this.sql.contains("office.hierarchy like concat(parent.hierarchy, '%')"));
+        Assert.assertTrue(this.sql.contains("where balance.entry_date <= ? and balance.entry_date >= ?"));
+        Assert.assertEquals(Arrays.<Object> asList(2L, to.toDate(), from.toDate()), this.params);
+
+        Assert.assertEquals("Branch", trialBalance.getOfficeName());
+        Assert.assertEquals(from, trialBalance.getFromDate());
+        Assert.assertEquals(to, trialBalance.getToDate());
+        final TrialBalanceAccountData account = trialBalance.getAccounts().get(0);
+        Assert.assertEquals(Long.valueOf(7), account.getGlAccountId());
+        Assert.assertEquals("USD", account.getCurrencyCode());
+        Assert.assertEquals(new BigDecimal("150.50"), account.getDebits());
+        Assert.assertEquals(new BigDecimal("40.25"), account.getCredits());
+        Assert.assertEquals(new BigDecimal("110.25"), account.getDebitBalance());
+        Assert.assertEquals(BigDecimal.ZERO, account.getCreditBalance());
+    }
+
+    @Test
+    public void shouldSumDailyBalancesOfAllOfficesFromFirstEntry() {
+        final LocalDate to = new LocalDate(2015, 3, 31);
+
+        final TrialBalanceData trialBalance = this.journalEntryReadPlatformService.retrieveTrialBalance(null, null, to.toDate());
+
+        Assert.assertFalse(this.sql.contains("m_office"));
+        Assert.assertFalse(this.sql.contains("balance.entry_date >="));
+        Assert.assertEquals(Arrays.<Object> asList(to.toDate()), this.params);
+        Assert.assertNull(trialBalance.getOfficeName());
+        Assert.assertNull(trialBalance.getFromDate());
+        Assert.assertEquals(to, trialBalance.getToDate());
+        verifyZeroInteractions(this.officeReadPlatformService);
+    }
+
+    @Test
+    public void shouldSumDailyBalancesUpToToday() {
+        final TrialBalanceData trialBalance = this.journalEntryReadPlatformService.retrieveTrialBalance(null, null, null);
+
+        Assert.assertEquals(new LocalDate(), trialBalance.getToDate());
+        Assert.assertEquals(Arrays.<Object> asList(new LocalDate().toDate()), this.params);
+    }
+}
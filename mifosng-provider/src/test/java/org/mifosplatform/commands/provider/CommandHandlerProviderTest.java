@@ -8,8 +8,10 @@ package org.mifosplatform.commands.provider;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mifosplatform.commands.domain.CommandWrapper;
 import org.mifosplatform.commands.exception.UnsupportedCommandException;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
+import org.mifosplatform.commands.service.CommandWrapperBuilder;
 import org.mifosplatform.infrastructure.configuration.spring.TestsWithoutDatabaseAndNoJobsConfiguration;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
@@ -50,4 +52,16 @@ public class CommandHandlerProviderTest {
     public void shouldThrowUnsupportedCommandException() {
         this.commandHandlerProvider.getHandler("WHATEVER", "DOSOMETHING");
     }
+
+    @Test
+    public void shouldResolveHandlerOfDatatableEntryCommand() {
+        final CommandWrapper wrapper = new CommandWrapperBuilder().updateDatatable("extra_client_details", 1L, 2L).build();
+        Assert.assertNotNull(this.commandHandlerProvider.getHandler(wrapper));
+    }
+
+    @Test(expected = UnsupportedCommandException.class)
+    public void shouldThrowUnsupportedCommandExceptionForCommandWithoutHandler() {
+        final CommandWrapper wrapper = new CommandWrapperBuilder().savingsAccountApplyAnnualFees(1L).build();
+        this.commandHandlerProvider.getHandler(wrapper);
+    }
 }
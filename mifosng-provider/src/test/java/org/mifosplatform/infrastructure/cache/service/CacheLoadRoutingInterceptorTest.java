@@ -0,0 +1,76 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+import static org.mockito.Mockito.when;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.service.ReplicaReadPolicy;
+import org.mifosplatform.infrastructure.core.service.ReplicaRoutingContext;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class CacheLoadRoutingInterceptorTest {
+
+    private final CacheLoadRoutingInterceptor interceptor = new CacheLoadRoutingInterceptor();
+    private Cache cache;
+    private MethodInvocation invocation;
+
+    @Before
+    public void setUp() throws Throwable {
+        this.cache = new PrimaryReadCache(new ConcurrentMapCache("codes"));
+        this.invocation = Mockito.mock(MethodInvocation.class);
+        // as the cache interceptor does on a miss
+        when(this.invocation.proceed()).thenAnswer(new Answer<Object>() {
+
+            @Override
+            public Object answer(final InvocationOnMock mock) {
+                final ReplicaReadPolicy policy = ReplicaRoutingContext.current();
+                CacheLoadRoutingInterceptorTest.this.cache.put("1", policy);
+                return policy;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    public void shouldLoadAndKeepValueFromTenantDatabaseWhileRequestReadsFromReplica() throws Throwable {
+        ReplicaRoutingContext.push(ReplicaReadPolicy.RECENT);
+        try {
+            Assert.assertSame(ReplicaReadPolicy.PRIMARY_ONLY, this.interceptor.invoke(this.invocation));
+            Assert.assertSame(ReplicaReadPolicy.RECENT, ReplicaRoutingContext.current());
+        } finally {
+            ReplicaRoutingContext.pop();
+        }
+
+        Assert.assertSame(ReplicaReadPolicy.PRIMARY_ONLY, this.cache.get("1").get());
+    }
+
+    @Test
+    public void shouldNotKeepValueLoadedInTransactionReadingFromReplica() throws Throwable {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        ReplicaRoutingContext.push(ReplicaReadPolicy.RECENT);
+        try {
+            Assert.assertSame(ReplicaReadPolicy.RECENT, this.interceptor.invoke(this.invocation));
+        } finally {
+            ReplicaRoutingContext.pop();
+        }
+
+        Assert.assertNull(this.cache.get("1"));
+    }
+}
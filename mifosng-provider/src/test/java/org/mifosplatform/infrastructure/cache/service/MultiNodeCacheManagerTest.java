@@ -0,0 +1,94 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+public class MultiNodeCacheManagerTest {
+
+    private MultiNodeCacheManager firstNode;
+    private MultiNodeCacheManager secondNode;
+
+    @Before
+    public void setUp() {
+        final LoopbackCacheInvalidationTransport transport = new LoopbackCacheInvalidationTransport();
+        this.firstNode = new MultiNodeCacheManager(new ConcurrentMapCacheManager("offices"), transport);
+        this.secondNode = new MultiNodeCacheManager(new ConcurrentMapCacheManager("offices"), transport);
+        this.firstNode.start();
+        this.secondNode.start();
+    }
+
+    @Test
+    public void shouldKeepEntriesPutOnOtherNode() {
+        this.secondNode.getCache("offices").put("defaultof", "Head Office");
+
+        this.firstNode.getCache("offices").put("defaultof", "Head Office");
+
+        Assert.assertNotNull(this.secondNode.getCache("offices").get("defaultof"));
+    }
+
+    @Test
+    public void shouldEvictEntryOnAllNodes() {
+        this.firstNode.getCache("offices").put("defaultof", "Head Office");
+        this.secondNode.getCache("offices").put("defaultof", "Head Office");
+
+        this.secondNode.getCache("offices").evict("defaultof");
+
+        Assert.assertNull(this.firstNode.getCache("offices").get("defaultof"));
+        Assert.assertNull(this.secondNode.getCache("offices").get("defaultof"));
+    }
+
+    @Test
+    public void shouldClearCacheOnAllNodes() {
+        final Cache firstCache = this.firstNode.getCache("offices");
+        firstCache.put(Long.valueOf(1), "Head Office");
+        firstCache.put(Long.valueOf(2), "Branch Office");
+        this.secondNode.getCache("offices").put(Long.valueOf(1), "Head Office");
+
+        this.secondNode.getCache("offices").clear();
+
+        Assert.assertNull(firstCache.get(Long.valueOf(1)));
+        Assert.assertNull(firstCache.get(Long.valueOf(2)));
+    }
+
+    @Test
+    public void shouldClearCacheOnOtherNodesWhenKeyCannotBeSent() {
+        final Cache firstCache = this.firstNode.getCache("offices");
+        firstCache.put("defaultof", "Head Office");
+
+        this.secondNode.getCache("offices").evict(new Object());
+
+        Assert.assertNull(firstCache.get("defaultof"));
+    }
+
+    @Test
+    public void shouldIgnoreEvictionsOnceStopped() {
+        final Cache firstCache = this.firstNode.getCache("offices");
+        firstCache.put("defaultof", "Head Office");
+        this.firstNode.stop();
+
+        this.secondNode.getCache("offices").evict("defaultof");
+
+        Assert.assertNotNull(firstCache.get("defaultof"));
+    }
+
+    @Test
+    public void shouldReadWrittenMessage() throws IOException {
+        final byte[] bytes = CacheInvalidationMessage.evict("node", "offices", Long.valueOf(42)).toBytes();
+
+        final CacheInvalidationMessage message = CacheInvalidationMessage.fromBytes(bytes, bytes.length);
+
+        Assert.assertEquals("node", message.getNodeId());
+        Assert.assertEquals("offices", message.getCacheName());
+        Assert.assertEquals(Long.valueOf(42), message.getKey());
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+import static org.mockito.Mockito.when;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ReplicaReadPolicy;
+import org.mifosplatform.infrastructure.core.service.ReplicaRoutingContext;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TenantCacheInvalidatorTest {
+
+    private static final long TIME_TO_LIVE_MILLIS = 60 * 1000L;
+
+    private TenantCacheInvalidator firstNode;
+    private TenantCacheInvalidator secondNode;
+    private TenantCache<String, String> firstCache;
+    private TenantCache<String, String> secondCache;
+
+    @Before
+    public void setUp() {
+        final LoopbackCacheInvalidationTransport transport = new LoopbackCacheInvalidationTransport();
+        this.firstNode = new TenantCacheInvalidator(transport);
+        this.secondNode = new TenantCacheInvalidator(transport);
+        this.firstCache = this.firstNode.newCache("offices", TIME_TO_LIVE_MILLIS);
+        this.secondCache = this.secondNode.newCache("offices", TIME_TO_LIVE_MILLIS);
+        this.firstNode.start();
+        this.secondNode.start();
+        useTenant("default");
+    }
+
+    @After
+    public void clearTenant() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void shouldNotKeepValueLoadedBeforeInvalidation() {
+        final long generation = this.firstCache.generation();
+
+        this.firstCache.invalidate();
+
+        Assert.assertEquals("Head Office", this.firstCache.putIfAbsent(generation, "1", "Head Office"));
+        Assert.assertNull(this.firstCache.get("1"));
+    }
+
+    @Test
+    public void shouldInvalidateTenantOnAllNodes() {
+        this.firstCache.putIfAbsent(this.firstCache.generation(), "1", "Head Office");
+        final long secondGeneration = this.secondCache.generation();
+        this.secondCache.putIfAbsent(secondGeneration, "1", "Head Office");
+
+        this.firstCache.invalidate();
+
+        Assert.assertNull(this.firstCache.get("1"));
+        Assert.assertNull(this.secondCache.get("1"));
+        this.secondCache.putIfAbsent(secondGeneration, "1", "Head Office");
+        Assert.assertNull(this.secondCache.get("1"));
+    }
+
+    @Test
+    public void shouldKeepValuesOfOtherTenants() {
+        this.secondCache.putIfAbsent(this.secondCache.generation(), "1", "Head Office");
+
+        useTenant("other");
+        this.firstCache.invalidate();
+
+        useTenant("default");
+        Assert.assertEquals("Head Office", this.secondCache.get("1"));
+    }
+
+    @Test
+    public void shouldIgnoreInvalidationsOnceStopped() {
+        this.secondCache.putIfAbsent(this.secondCache.generation(), "1", "Head Office");
+        this.secondNode.stop();
+
+        this.firstCache.invalidate();
+
+        Assert.assertEquals("Head Office", this.secondCache.get("1"));
+    }
+
+    @Test
+    public void shouldLoadFromTenantDatabaseWhileRequestReadsFromReplica() {
+        final PolicyRecordingLoader loader = new PolicyRecordingLoader();
+        ReplicaRoutingContext.push(ReplicaReadPolicy.RECENT);
+        try {
+            Assert.assertEquals("Head Office", this.firstCache.get("1", loader));
+            Assert.assertSame(ReplicaReadPolicy.RECENT, ReplicaRoutingContext.current());
+        } finally {
+            ReplicaRoutingContext.pop();
+        }
+
+        Assert.assertEquals("Head Office", this.firstCache.get("1"));
+        Assert.assertSame(ReplicaReadPolicy.PRIMARY_ONLY, loader.policy);
+    }
+
+    @Test
+    public void shouldNotKeepValueLoadedInTransactionReadingFromReplica() {
+        final PolicyRecordingLoader loader = new PolicyRecordingLoader();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        ReplicaRoutingContext.push(ReplicaReadPolicy.RECENT);
+        try {
+            Assert.assertEquals("Head Office", this.firstCache.get("1", loader));
+        } finally {
+            ReplicaRoutingContext.pop();
+        }
+
+        Assert.assertSame(ReplicaReadPolicy.RECENT, loader.policy);
+        Assert.assertNull(this.firstCache.get("1"));
+    }
+
+    @Test
+    public void shouldKeepValueLoadedInTransactionReadingFromTenantDatabase() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        Assert.assertEquals("Head Office", this.firstCache.get("1", new PolicyRecordingLoader()));
+
+        Assert.assertEquals("Head Office", this.firstCache.get("1"));
+    }
+
+    private static final class PolicyRecordingLoader implements TenantCache.Loader<String> {
+
+        private ReplicaReadPolicy policy;
+
+        @Override
+        public String load() {
+            this.policy = ReplicaRoutingContext.current();
+            return "Head Office";
+        }
+    }
+
+    private static void useTenant(final String tenantIdentifier) {
+        final MifosPlatformTenant tenant = Mockito.mock(MifosPlatformTenant.class);
+        when(tenant.getTenantIdentifier()).thenReturn(tenantIdentifier);
+        ThreadLocalContextUtil.setTenant(tenant);
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReplicaRoutingContextTest {
+
+    @Test
+    public void shouldReadFromTenantDatabaseWithoutScope() {
+        Assert.assertSame(ReplicaReadPolicy.PRIMARY_ONLY, ReplicaRoutingContext.current());
+
+        // an unpaired pop leaves the default in place
+        ReplicaRoutingContext.pop();
+        Assert.assertSame(ReplicaReadPolicy.PRIMARY_ONLY, ReplicaRoutingContext.current());
+    }
+
+    @Test
+    public void shouldRestoreEnclosingPolicyWhenNestedScopeEnds() {
+        ReplicaRoutingContext.push(ReplicaReadPolicy.RECENT);
+        ReplicaRoutingContext.push(ReplicaReadPolicy.PRIMARY_ONLY);
+        ReplicaRoutingContext.push(ReplicaReadPolicy.REPORT);
+        Assert.assertSame(ReplicaReadPolicy.REPORT, ReplicaRoutingContext.current());
+
+        ReplicaRoutingContext.pop();
+        Assert.assertSame(ReplicaReadPolicy.PRIMARY_ONLY, ReplicaRoutingContext.current());
+        ReplicaRoutingContext.pop();
+        Assert.assertSame(ReplicaReadPolicy.RECENT, ReplicaRoutingContext.current());
+        ReplicaRoutingContext.pop();
+        Assert.assertSame(ReplicaReadPolicy.PRIMARY_ONLY, ReplicaRoutingContext.current());
+    }
+
+    @Test
+    public void shouldKeepPolicyToCurrentThread() throws InterruptedException {
+        final AtomicReference<ReplicaReadPolicy> otherThreadPolicy = new AtomicReference<>();
+        ReplicaRoutingContext.push(ReplicaReadPolicy.RECENT);
+        try {
+            final Thread otherThread = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    otherThreadPolicy.set(ReplicaRoutingContext.current());
+                }
+            });
+            otherThread.start();
+            otherThread.join();
+        } finally {
+            ReplicaRoutingContext.pop();
+        }
+
+        Assert.assertSame(ReplicaReadPolicy.PRIMARY_ONLY, otherThreadPolicy.get());
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.PersistenceException;
+import javax.persistence.RollbackException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+public class ReplicaRoutingJpaTransactionManagerTest {
+
+    private ReplicaRoutingJpaTransactionManager transactionManager;
+    private TomcatJdbcDataSourcePerTenantService dataSourcePerTenantService;
+    private EntityTransaction entityTransaction;
+
+    @Before
+    public void setUp() {
+        final EntityManagerFactory entityManagerFactory = Mockito.mock(EntityManagerFactory.class);
+        final EntityManager entityManager = Mockito.mock(EntityManager.class);
+        this.entityTransaction = Mockito.mock(EntityTransaction.class);
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.getTransaction()).thenReturn(this.entityTransaction);
+        this.dataSourcePerTenantService = Mockito.mock(TomcatJdbcDataSourcePerTenantService.class);
+
+        this.transactionManager = new ReplicaRoutingJpaTransactionManager();
+        this.transactionManager.setEntityManagerFactory(entityManagerFactory);
+        this.transactionManager.setDataSourcePerTenantService(this.dataSourcePerTenantService);
+        ReplicaRoutingContext.push(ReplicaReadPolicy.RECENT);
+    }
+
+    @After
+    public void tearDown() {
+        ReplicaRoutingContext.pop();
+        Assert.assertSame(ReplicaReadPolicy.PRIMARY_ONLY, ReplicaRoutingContext.current());
+    }
+
+    @Test
+    public void shouldReadFromTenantDatabaseInReadWriteTransaction() {
+        final TransactionStatus status = this.transactionManager.getTransaction(definition(false));
+        Assert.assertSame(ReplicaReadPolicy.PRIMARY_ONLY, ReplicaRoutingContext.current());
+
+        this.transactionManager.commit(status);
+
+        Assert.assertSame(ReplicaReadPolicy.RECENT, ReplicaRoutingContext.current());
+        verify(this.dataSourcePerTenantService).writeCommitted();
+    }
+
+    @Test
+    public void shouldReadFromWhereRequestReadsInReadOnlyTransaction() {
+        final TransactionStatus status = this.transactionManager.getTransaction(definition(true));
+        Assert.assertSame(ReplicaReadPolicy.RECENT, ReplicaRoutingContext.current());
+
+        this.transactionManager.commit(status);
+
+        Assert.assertSame(ReplicaReadPolicy.RECENT, ReplicaRoutingContext.current());
+        verify(this.dataSourcePerTenantService, never()).writeCommitted();
+    }
+
+    @Test
+    public void shouldRestorePolicyOfRequestAfterRollback() {
+        final TransactionStatus status = this.transactionManager.getTransaction(definition(false));
+
+        this.transactionManager.rollback(status);
+
+        Assert.assertSame(ReplicaReadPolicy.RECENT, ReplicaRoutingContext.current());
+        verify(this.dataSourcePerTenantService, never()).writeCommitted();
+    }
+
+    @Test
+    public void shouldRestorePolicyOfRequestWhenCommitFails() {
+        doThrow(new RollbackException("deadlock")).when(this.entityTransaction).commit();
+        final TransactionStatus status = this.transactionManager.getTransaction(definition(false));
+
+        try {
+            this.transactionManager.commit(status);
+            Assert.fail();
+        } catch (final TransactionSystemException e) {
+            Assert.assertSame(ReplicaReadPolicy.RECENT, ReplicaRoutingContext.current());
+        }
+        verify(this.dataSourcePerTenantService, never()).writeCommitted();
+    }
+
+    @Test
+    public void shouldRestorePolicyOfRequestWhenBeginFails() {
+        doThrow(new PersistenceException("no connection")).when(this.entityTransaction).begin();
+
+        try {
+            this.transactionManager.getTransaction(definition(false));
+            Assert.fail();
+        } catch (final CannotCreateTransactionException e) {
+            Assert.assertSame(ReplicaReadPolicy.RECENT, ReplicaRoutingContext.current());
+        }
+    }
+
+    private static DefaultTransactionDefinition definition(final boolean readOnly) {
+        final DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(readOnly);
+        return definition;
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.apache.tomcat.jdbc.pool.DataSource;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.TomcatJdbcDataSourcePerTenantService.TenantDataSource;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class TenantDataSourceTest {
+
+    private static final int MAX_LAG_SECONDS = 10;
+    private static final int REPORT_MAX_LAG_SECONDS = 300;
+
+    private MifosPlatformTenant tenant;
+    private DataSource dataSource;
+    private DataSource replicaDataSource;
+    private ResultSet slaveStatus;
+    private TenantDataSource tenantDataSource;
+
+    @Before
+    public void setUp() throws SQLException {
+        this.tenant = Mockito.mock(MifosPlatformTenant.class);
+        when(this.tenant.getTenantIdentifier()).thenReturn("default");
+        when(this.tenant.getReplicaMaxLagSeconds()).thenReturn(MAX_LAG_SECONDS);
+        when(this.tenant.getReplicaReportMaxLagSeconds()).thenReturn(REPORT_MAX_LAG_SECONDS);
+
+        this.replicaDataSource = Mockito.mock(DataSource.class);
+        final Connection connection = Mockito.mock(Connection.class);
+        final Statement statement = Mockito.mock(Statement.class);
+        this.slaveStatus = Mockito.mock(ResultSet.class);
+        when(this.replicaDataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery("SHOW SLAVE STATUS")).thenReturn(this.slaveStatus);
+        when(this.slaveStatus.next()).thenReturn(true);
+
+        this.dataSource = Mockito.mock(DataSource.class);
+        this.tenantDataSource = new TenantDataSource(this.tenant, this.dataSource, this.replicaDataSource);
+    }
+
+    @Test
+    public void shouldNotReadFromReplicaWhileLagUnknown() throws SQLException {
+        Assert.assertNull(this.tenantDataSource.replicaFor(ReplicaReadPolicy.RECENT, "mifos"));
+        Assert.assertNull(this.tenantDataSource.replicaFor(ReplicaReadPolicy.REPORT, "mifos"));
+
+        // replication stopped
+        when(this.slaveStatus.wasNull()).thenReturn(true);
+        this.tenantDataSource.probeReplica();
+        Assert.assertNull(this.tenantDataSource.replicaFor(ReplicaReadPolicy.RECENT, "mifos"));
+        Assert.assertNull(this.tenantDataSource.replicaFor(ReplicaReadPolicy.REPORT, "mifos"));
+    }
+
+    @Test
+    public void shouldReadFromReplicaWithinLagOfPolicy() throws SQLException {
+        probeLag(MAX_LAG_SECONDS);
+        Assert.assertSame(this.replicaDataSource, this.tenantDataSource.replicaFor(ReplicaReadPolicy.RECENT, "mifos"));
+        Assert.assertSame(this.replicaDataSource, this.tenantDataSource.replicaFor(ReplicaReadPolicy.REPORT, "mifos"));
+
+        probeLag(MAX_LAG_SECONDS + 1);
+        Assert.assertNull(this.tenantDataSource.replicaFor(ReplicaReadPolicy.RECENT, "mifos"));
+        Assert.assertSame(this.replicaDataSource, this.tenantDataSource.replicaFor(ReplicaReadPolicy.REPORT, "mifos"));
+
+        probeLag(REPORT_MAX_LAG_SECONDS + 1);
+        Assert.assertNull(this.tenantDataSource.replicaFor(ReplicaReadPolicy.REPORT, "mifos"));
+    }
+
+    @Test
+    public void shouldNotReadFromReplicaOnceFailedUntilProbed() throws SQLException {
+        probeLag(0);
+
+        this.tenantDataSource.replicaFailed(new SQLException("Communications link failure"));
+        Assert.assertNull(this.tenantDataSource.replicaFor(ReplicaReadPolicy.RECENT, "mifos"));
+        Assert.assertNull(this.tenantDataSource.replicaFor(ReplicaReadPolicy.REPORT, "mifos"));
+
+        probeLag(0);
+        Assert.assertSame(this.replicaDataSource, this.tenantDataSource.replicaFor(ReplicaReadPolicy.RECENT, "mifos"));
+
+        when(this.replicaDataSource.getConnection()).thenThrow(new SQLException("Communications link failure"));
+        this.tenantDataSource.probeReplica();
+        Assert.assertNull(this.tenantDataSource.replicaFor(ReplicaReadPolicy.RECENT, "mifos"));
+    }
+
+    @Test
+    public void shouldReadOwnWritesFromTenantDatabase() throws SQLException {
+        probeLag(0);
+
+        Assert.assertTrue(this.tenantDataSource.writeCommitted("mifos"));
+        // other nodes are told at most once a second
+        Assert.assertFalse(this.tenantDataSource.writeCommitted("mifos"));
+
+        Assert.assertNull(this.tenantDataSource.replicaFor(ReplicaReadPolicy.RECENT, "mifos"));
+        Assert.assertSame(this.replicaDataSource, this.tenantDataSource.replicaFor(ReplicaReadPolicy.RECENT, "other"));
+        Assert.assertSame(this.replicaDataSource, this.tenantDataSource.replicaFor(ReplicaReadPolicy.RECENT, null));
+        Assert.assertSame(this.replicaDataSource, this.tenantDataSource.replicaFor(ReplicaReadPolicy.REPORT, "mifos"));
+
+        // the window lasts as long as the replica may lag, also across probes
+        probeLag(0);
+        Assert.assertNull(this.tenantDataSource.replicaFor(ReplicaReadPolicy.RECENT, "mifos"));
+    }
+
+    @Test
+    public void shouldNeverReadFromMissingReplica() {
+        final TenantDataSource withoutReplica = new TenantDataSource(this.tenant, Mockito.mock(DataSource.class), null);
+        withoutReplica.probeReplica();
+
+        Assert.assertFalse(withoutReplica.writeCommitted("mifos"));
+        Assert.assertNull(withoutReplica.replicaFor(ReplicaReadPolicy.RECENT, "mifos"));
+        Assert.assertNull(withoutReplica.replicaFor(ReplicaReadPolicy.REPORT, "mifos"));
+    }
+
+    @Test
+    public void shouldNotReopenPoolsOnceClosed() throws SQLException {
+        final Connection connection = Mockito.mock(Connection.class);
+        when(this.dataSource.getConnection()).thenReturn(connection);
+        Assert.assertSame(connection, this.tenantDataSource.borrowConnection(false, null, null));
+
+        Assert.assertTrue(this.tenantDataSource.markClosed(false));
+        Assert.assertTrue(this.tenantDataSource.isClosed());
+        Assert.assertFalse(this.tenantDataSource.markClosed(true));
+
+        Assert.assertNull(this.tenantDataSource.borrowConnection(false, null, null));
+        Assert.assertNull(this.tenantDataSource.borrowConnection(true, "mifos", "password"));
+        this.tenantDataSource.probeReplica();
+        verify(this.dataSource).getConnection();
+        verify(this.replicaDataSource, never()).getConnection();
+        verify(this.replicaDataSource, never()).getConnection("mifos", "password");
+    }
+
+    @Test
+    public void shouldKeepPoolsOpenWhileBorrowing() throws SQLException {
+        final boolean[] closedWhileBorrowing = new boolean[1];
+        when(this.dataSource.getConnection()).thenAnswer(new Answer<Connection>() {
+
+            @Override
+            public Connection answer(final InvocationOnMock invocation) {
+                closedWhileBorrowing[0] = TenantDataSourceTest.this.tenantDataSource.markClosed(false);
+                return Mockito.mock(Connection.class);
+            }
+        });
+
+        Assert.assertNotNull(this.tenantDataSource.borrowConnection(false, null, null));
+
+        Assert.assertFalse(closedWhileBorrowing[0]);
+        Assert.assertFalse(this.tenantDataSource.isClosed());
+        Assert.assertTrue(this.tenantDataSource.markClosed(true));
+    }
+
+    private void probeLag(final long lagSeconds) throws SQLException {
+        when(this.slaveStatus.getLong("Seconds_Behind_Master")).thenReturn(lagSeconds);
+        when(this.slaveStatus.wasNull()).thenReturn(false);
+        this.tenantDataSource.probeReplica();
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+public class GenericResultsetStreamHandlerTest {
+
+    private final List<ResultsetColumnHeaderData> columnHeaders = Arrays.asList(ResultsetColumnHeaderData.basic("id", "BIGINT"),
+            ResultsetColumnHeaderData.basic("name", "VARCHAR"), ResultsetColumnHeaderData.basic("amount", "DECIMAL"));
+
+    @Test
+    public void shouldWriteCsvWithQuotedTextAndPlainNumbers() throws IOException {
+        final StringWriter writer = new StringWriter();
+        final CsvGenericResultsetStreamHandler handler = new CsvGenericResultsetStreamHandler(writer);
+
+        handler.start(this.columnHeaders);
+        handler.row(Arrays.asList("1", "Say \"hi\"", "10.50"));
+        handler.row(Arrays.asList("2", null, null));
+        handler.end();
+
+        assertEquals("\"id\",\"name\",\"amount\"\n1,\"Say \"\"hi\"\"\",10.50\n2,,\n", writer.toString());
+        assertEquals(2, handler.getRowCount());
+    }
+
+    @Test
+    public void shouldWriteJsonArrayOfRows() throws IOException {
+        final StringWriter writer = new StringWriter();
+        final JsonGenericResultsetStreamHandler handler = new JsonGenericResultsetStreamHandler(writer);
+
+        handler.start(this.columnHeaders);
+        handler.row(Arrays.asList("1", "Say \"hi\"", "10.50"));
+        handler.row(Arrays.asList("2", null, null));
+        handler.end();
+
+        assertEquals("[\n{\"id\": 1,\n\"name\": \"Say \\\"hi\\\"\",\n\"amount\": 10.50},\n{\"id\": 2,\n\"name\": null,\n\"amount\": null}\n]",
+                writer.toString());
+    }
+
+    @Test
+    public void shouldWriteEmptyJsonArrayWhenThereAreNoRows() throws IOException {
+        final StringWriter writer = new StringWriter();
+        final JsonGenericResultsetStreamHandler handler = new JsonGenericResultsetStreamHandler(writer);
+
+        handler.start(this.columnHeaders);
+        handler.end();
+
+        assertEquals("[\n]", writer.toString());
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.metrics.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketsAreContiguousAndWithinOneSixteenth() {
+        int previousBucket = -1;
+        for (long micros = 0; micros < 1 << 20; micros++) {
+            final int bucket = LatencyHistogram.bucketOf(micros);
+            assertTrue(bucket == previousBucket || bucket == previousBucket + 1);
+            final long highest = LatencyHistogram.highestValueOf(bucket);
+            assertTrue(highest >= micros);
+            assertTrue(highest - micros <= micros / 16);
+            previousBucket = bucket;
+        }
+    }
+
+    @Test
+    public void percentilesOfUniformLatencies() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long millis = 1; millis <= 1000; millis++) {
+            histogram.recordNanos(millis * 1000000);
+        }
+
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(500500, snapshot.getMeanMicros());
+        assertEquals(1000000, snapshot.getMaxMicros());
+        assertWithinOneSixteenth(500000, snapshot.getValueAtPercentile(50));
+        assertWithinOneSixteenth(990000, snapshot.getValueAtPercentile(99));
+        assertEquals(1000000, snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void emptyHistogramReportsZero() {
+        final LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMeanMicros());
+        assertEquals(0, snapshot.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void hugeLatenciesShareTheLastBucket() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordMicros(Long.MAX_VALUE / 2);
+        assertEquals(Long.MAX_VALUE / 2, histogram.snapshot().getValueAtPercentile(50));
+    }
+
+    @Test
+    public void numericPathSegmentsAreNormalised() {
+        assertEquals("/loans/{id}/transactions/{id}", PlatformMetricsServiceImpl.normalise("/loans/12/transactions/345/"));
+        assertEquals("/clients", PlatformMetricsServiceImpl.normalise("/clients"));
+        assertEquals("/", PlatformMetricsServiceImpl.normalise(null));
+    }
+
+    private static void assertWithinOneSixteenth(final long expected, final long actual) {
+        assertTrue(actual + " not within 1/16 of " + expected, actual >= expected && actual - expected <= expected / 16);
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.metrics.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.support.GenericXmlApplicationContext;
+
+public class PlatformMetricsServiceImplTest {
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    @Test
+    public void metricsAreRegisteredWithPlatformMBeanServer() throws Exception {
+        final ObjectName name = new ObjectName("org.mifosplatform:type=Metrics,name=platformMetrics");
+        final GenericXmlApplicationContext context = contextWithMetrics();
+        try {
+            final PlatformMetricsServiceImpl metrics = context.getBean(PlatformMetricsServiceImpl.class);
+            assertTrue(this.server.isRegistered(name));
+
+            final MifosPlatformTenant tenant = Mockito.mock(MifosPlatformTenant.class);
+            when(tenant.getTenantIdentifier()).thenReturn("default");
+            ThreadLocalContextUtil.setTenant(tenant);
+            metrics.recordCommand("LOAN", "CREATE", 1000000);
+            this.server.setAttribute(name, new Attribute("RequestLogSampleRate", 5));
+            assertEquals(5, metrics.getRequestLogSampleRate());
+            assertEquals(1, ((String[]) this.server.invoke(name, "commandLatencies", null, null)).length);
+
+            this.server.invoke(name, "reset", null, null);
+            assertEquals(0, ((String[]) this.server.invoke(name, "commandLatencies", null, null)).length);
+            assertEquals(0, this.server.getAttribute(name, "TrackedEndpoints"));
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+            context.close();
+        }
+        assertFalse(this.server.isRegistered(name));
+    }
+
+    @Test
+    public void anotherDeploymentReplacesRegisteredMetrics() throws Exception {
+        final ObjectName name = new ObjectName("org.mifosplatform:type=Metrics,name=platformMetrics");
+        final GenericXmlApplicationContext firstDeployment = contextWithMetrics();
+        try {
+            final GenericXmlApplicationContext secondDeployment = contextWithMetrics();
+            try {
+                this.server.setAttribute(name, new Attribute("SlowRequestThresholdMillis", 500L));
+                assertEquals(500L, secondDeployment.getBean(PlatformMetricsServiceImpl.class).getSlowRequestThresholdMillis());
+                assertEquals(2000L, firstDeployment.getBean(PlatformMetricsServiceImpl.class).getSlowRequestThresholdMillis());
+            } finally {
+                secondDeployment.close();
+            }
+        } finally {
+            firstDeployment.close();
+        }
+        assertFalse(this.server.isRegistered(name));
+    }
+
+    private static GenericXmlApplicationContext contextWithMetrics() {
+        final GenericXmlApplicationContext context = new GenericXmlApplicationContext();
+        context.load("classpath:META-INF/spring/jmx.xml");
+        context.registerBeanDefinition("platformMetricsService", new RootBeanDefinition(PlatformMetricsServiceImpl.class));
+        context.refresh();
+        return context;
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.security.service;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.cache.service.LoopbackCacheInvalidationTransport;
+import org.mifosplatform.infrastructure.cache.service.TenantCacheInvalidator;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+public class AuthenticationTokenServiceImplTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private PlatformUserDetailsService userDetailsService;
+    private AuthenticationTokenServiceImpl authenticationTokenService;
+    private AuthenticationTokenServiceImpl otherNodeAuthenticationTokenService;
+
+    /** the session stored in the database, if any */
+    private String storedUsername;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        this.jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        this.userDetailsService = Mockito.mock(PlatformUserDetailsService.class);
+        when(this.jdbcTemplate.query(anyString(), any(RowMapper.class), Matchers.<Object> anyVararg())).thenAnswer(
+                new Answer<List<Object>>() {
+
+                    @Override
+                    public List<Object> answer(final InvocationOnMock invocation) throws Throwable {
+                        if (AuthenticationTokenServiceImplTest.this.storedUsername == null) { return Collections.emptyList(); }
+                        final RowMapper<Object> mapper = (RowMapper<Object>) invocation.getArguments()[1];
+                        return Arrays.asList(mapper.mapRow(storedSession(AuthenticationTokenServiceImplTest.this.storedUsername), 0));
+                    }
+                });
+        when(this.jdbcTemplate.update(anyString(), Matchers.<Object> anyVararg())).thenAnswer(new Answer<Integer>() {
+
+            @Override
+            public Integer answer(final InvocationOnMock invocation) {
+                if (((String) invocation.getArguments()[0]).startsWith("delete from m_appuser_session where appuser_id")) {
+                    AuthenticationTokenServiceImplTest.this.storedUsername = null;
+                }
+                return 1;
+            }
+        });
+
+        final LoopbackCacheInvalidationTransport transport = new LoopbackCacheInvalidationTransport();
+        final TenantCacheInvalidator invalidator = new TenantCacheInvalidator(transport);
+        final TenantCacheInvalidator otherNodeInvalidator = new TenantCacheInvalidator(transport);
+        invalidator.start();
+        otherNodeInvalidator.start();
+        this.authenticationTokenService = new AuthenticationTokenServiceImpl(this.jdbcTemplate, this.userDetailsService, invalidator);
+        this.otherNodeAuthenticationTokenService = new AuthenticationTokenServiceImpl(this.jdbcTemplate, this.userDetailsService,
+                otherNodeInvalidator);
+    }
+
+    @After
+    public void clearTenant() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void shouldAuthenticateIssuedTokenForSameTenantOnly() {
+        useTenant("default");
+        final Authentication authentication = authenticationOf(1L);
+        final String token = this.authenticationTokenService.issueToken(authentication, "bWlmb3M6cGFzc3dvcmQ=");
+
+        Assert.assertSame(authentication, this.authenticationTokenService.authenticate(token));
+        Assert.assertEquals("bWlmb3M6cGFzc3dvcmQ=", this.authenticationTokenService.basicAuthenticationKeyOf(token));
+        Assert.assertNull(this.authenticationTokenService.authenticate("unknown"));
+
+        useTenant("other");
+        Assert.assertNull(this.authenticationTokenService.authenticate(token));
+    }
+
+    @Test
+    public void shouldRevokeTokensOfUserAndTenant() {
+        useTenant("default");
+        final String firstUserToken = this.authenticationTokenService.issueToken(authenticationOf(1L), null);
+        final String secondUserToken = this.authenticationTokenService.issueToken(authenticationOf(2L), null);
+
+        this.authenticationTokenService.revokeTokensOfUser(1L);
+        verify(this.jdbcTemplate).update("delete from m_appuser_session where appuser_id = ?", 1L);
+        Assert.assertNull(this.authenticationTokenService.authenticate(firstUserToken));
+        Assert.assertNotNull(this.authenticationTokenService.authenticate(secondUserToken));
+
+        useTenant("other");
+        this.authenticationTokenService.revokeTokensOfTenant();
+        useTenant("default");
+        Assert.assertNotNull(this.authenticationTokenService.authenticate(secondUserToken));
+
+        this.authenticationTokenService.revokeTokensOfTenant();
+        Assert.assertNull(this.authenticationTokenService.authenticate(secondUserToken));
+    }
+
+    @Test
+    public void shouldAuthenticateTokenIssuedOnAnotherNode() {
+        useTenant("default");
+        final String token = this.authenticationTokenService.issueToken(authenticationOf(1L), "bWlmb3M6cGFzc3dvcmQ=");
+        final AppUser user = userOf(1L);
+        when(this.userDetailsService.loadUserByUsername("mifos")).thenReturn(user);
+        this.storedUsername = "mifos";
+
+        final Authentication authentication = this.otherNodeAuthenticationTokenService.authenticate(token);
+
+        Assert.assertSame(user, authentication.getPrincipal());
+        Assert.assertNull(this.otherNodeAuthenticationTokenService.basicAuthenticationKeyOf(token));
+    }
+
+    @Test
+    public void shouldRevokeTokensOfUserOnAllNodes() {
+        useTenant("default");
+        final String token = this.authenticationTokenService.issueToken(authenticationOf(1L), null);
+        when(this.userDetailsService.loadUserByUsername("mifos")).thenReturn(userOf(1L));
+        this.storedUsername = "mifos";
+        Assert.assertNotNull(this.otherNodeAuthenticationTokenService.authenticate(token));
+
+        this.authenticationTokenService.revokeTokensOfUser(1L);
+
+        Assert.assertNull(this.otherNodeAuthenticationTokenService.authenticate(token));
+    }
+
+    private static void useTenant(final String tenantIdentifier) {
+        final MifosPlatformTenant tenant = Mockito.mock(MifosPlatformTenant.class);
+        when(tenant.getTenantIdentifier()).thenReturn(tenantIdentifier);
+        ThreadLocalContextUtil.setTenant(tenant);
+    }
+
+    private static AppUser userOf(final Long userId) {
+        final AppUser user = Mockito.mock(AppUser.class);
+        when(user.getId()).thenReturn(userId);
+        return user;
+    }
+
+    private static Authentication authenticationOf(final Long userId) {
+        return new UsernamePasswordAuthenticationToken(userOf(userId), null, new ArrayList<GrantedAuthority>());
+    }
+
+    private static ResultSet storedSession(final String username) throws Exception {
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+        final ResultSet resultSet = Mockito.mock(ResultSet.class);
+        when(resultSet.getLong("appuser_id")).thenReturn(1L);
+        when(resultSet.getString("username")).thenReturn(username);
+        when(resultSet.getTimestamp("issued_date")).thenReturn(now);
+        when(resultSet.getTimestamp("lastaccess_date")).thenReturn(now);
+        return resultSet;
+    }
+}
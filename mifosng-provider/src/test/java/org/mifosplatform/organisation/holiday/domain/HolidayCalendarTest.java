@@ -0,0 +1,88 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.organisation.holiday.domain;
+
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.joda.time.LocalDate;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mifosplatform.organisation.holiday.service.HolidayUtil;
+import org.mockito.Mockito;
+
+/**
+ * Checks the {@link HolidayCalendar} against the list scans of
+ * {@link HolidayUtil} for random, partly overlapping holidays.
+ */
+public class HolidayCalendarTest {
+
+    private static final LocalDate START = new LocalDate(2014, 1, 1);
+
+    @Test
+    public void shouldMatchHolidayUtilForRandomHolidays() {
+        final Random random = new Random(20141001L);
+        for (int run = 0; run < 200; run++) {
+            final List<Holiday> holidays = randomHolidays(random, random.nextInt(12));
+            final HolidayCalendar holidayCalendar = HolidayCalendar.of(holidays);
+
+            for (int day = -5; day < 130; day++) {
+                final LocalDate date = START.plusDays(day);
+                Assert.assertEquals("run " + run + " isHoliday " + date, HolidayUtil.isHoliday(date, holidays),
+                        holidayCalendar.isHoliday(date));
+                Assert.assertEquals("run " + run + " rescheduled " + date, HolidayUtil.getRepaymentRescheduleDateToIfHoliday(date, holidays),
+                        holidayCalendar.getRepaymentRescheduleDateToIfHoliday(date));
+            }
+        }
+    }
+
+    @Test
+    public void shouldFollowRescheduledDateIntoLaterHoliday() {
+        final List<Holiday> holidays = new ArrayList<>();
+        holidays.add(holiday(START, START.plusDays(2), START.plusDays(10)));
+        holidays.add(holiday(START.plusDays(10), START.plusDays(11), START.plusDays(12)));
+        final HolidayCalendar holidayCalendar = HolidayCalendar.of(holidays);
+
+        Assert.assertEquals(START.plusDays(12), holidayCalendar.getRepaymentRescheduleDateToIfHoliday(START.plusDays(1)));
+        Assert.assertEquals(START.plusDays(3), holidayCalendar.getRepaymentRescheduleDateToIfHoliday(START.plusDays(3)));
+
+        // an earlier holiday in the list is not applied again
+        Collections.reverse(holidays);
+        Assert.assertEquals(START.plusDays(10), HolidayCalendar.of(holidays).getRepaymentRescheduleDateToIfHoliday(START.plusDays(1)));
+    }
+
+    @Test
+    public void shouldHaveNoHolidaysWithoutHolidays() {
+        final HolidayCalendar holidayCalendar = HolidayCalendar.of(new ArrayList<Holiday>());
+
+        Assert.assertFalse(holidayCalendar.isHoliday(START));
+        Assert.assertEquals(START, holidayCalendar.getRepaymentRescheduleDateToIfHoliday(START));
+    }
+
+    private static List<Holiday> randomHolidays(final Random random, final int count) {
+        final List<Holiday> holidays = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final LocalDate fromDate = START.plusDays(random.nextInt(100));
+            final LocalDate toDate = fromDate.plusDays(random.nextInt(6));
+            final LocalDate rescheduledTo = random.nextBoolean() ? toDate.plusDays(1 + random.nextInt(10)) : fromDate.minusDays(1 + random
+                    .nextInt(10));
+            holidays.add(holiday(fromDate, toDate, rescheduledTo));
+        }
+        return holidays;
+    }
+
+    private static Holiday holiday(final LocalDate fromDate, final LocalDate toDate, final LocalDate repaymentsRescheduledTo) {
+        final Holiday holiday = Mockito.mock(Holiday.class);
+        when(holiday.getFromDateLocalDate()).thenReturn(fromDate);
+        when(holiday.getToDateLocalDate()).thenReturn(toDate);
+        when(holiday.getRepaymentsRescheduledToLocalDate()).thenReturn(repaymentsRescheduledTo);
+        return holiday;
+    }
+}
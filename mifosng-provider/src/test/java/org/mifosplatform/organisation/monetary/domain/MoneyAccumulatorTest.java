@@ -0,0 +1,132 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.organisation.monetary.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Runs the same random operations on {@link Money} and on a
+ * {@link MoneyAccumulator} and expects the very same amounts, scale included.
+ */
+public class MoneyAccumulatorTest {
+
+    private static final int OPERATIONS = 20000;
+
+    private static final MonetaryCurrency[] CURRENCIES = { new MonetaryCurrency("USD", 2, null), new MonetaryCurrency("JPY", 0, null),
+            new MonetaryCurrency("KWD", 3, null), new MonetaryCurrency("XOF", 0, 50), new MonetaryCurrency("UGX", 0, 100),
+            new MonetaryCurrency("BTC", 6, null) };
+
+    @Test
+    public void shouldMatchMoneyForRandomOperations() {
+        for (final MonetaryCurrency currency : CURRENCIES) {
+            final Random random = new Random(currency.getCode().hashCode());
+            Money money = Money.zero(currency);
+            final MoneyAccumulator accumulator = MoneyAccumulator.zero(currency);
+
+            for (int i = 0; i < OPERATIONS; i++) {
+                final BigDecimal operand = randomAmount(random);
+                final String operation;
+                switch (random.nextInt(7)) {
+                    case 0:
+                        operation = "plus(Money " + operand + ")";
+                        money = money.plus(Money.of(currency, operand));
+                        accumulator.plus(Money.of(currency, operand));
+                    break;
+                    case 1:
+                        operation = "minus(Money " + operand + ")";
+                        money = money.minus(Money.of(currency, operand));
+                        accumulator.minus(Money.of(currency, operand));
+                    break;
+                    case 2:
+                        operation = "minus(" + operand + ")";
+                        money = money.minus(operand);
+                        accumulator.minus(operand);
+                    break;
+                    case 3:
+                        final BigDecimal factor = BigDecimal.valueOf(random.nextInt(2000), 3);
+                        operation = "multipliedBy(" + factor + ")";
+                        money = money.multipliedBy(factor);
+                        accumulator.multipliedBy(factor);
+                    break;
+                    case 4:
+                        final BigDecimal divisor = BigDecimal.valueOf(1 + random.nextInt(36));
+                        final RoundingMode roundingMode = random.nextBoolean() ? RoundingMode.HALF_EVEN : RoundingMode.HALF_UP;
+                        operation = "dividedBy(" + divisor + ", " + roundingMode + ")";
+                        money = money.dividedBy(divisor, roundingMode);
+                        accumulator.dividedBy(divisor, roundingMode);
+                    break;
+                    default:
+                        operation = "plus(" + operand + ")";
+                        money = money.plus(operand);
+                        accumulator.plus(operand);
+                    break;
+                }
+                assertSameAmount(currency.getCode() + " operation " + i + " " + operation, money, accumulator);
+            }
+        }
+    }
+
+    @Test
+    public void shouldMatchMoneyBeyondLongRange() {
+        final MonetaryCurrency currency = CURRENCIES[0];
+        final BigDecimal nearlyMaxLong = BigDecimal.valueOf(Long.MAX_VALUE - 10, 2);
+        Money money = Money.of(currency, nearlyMaxLong);
+        final MoneyAccumulator accumulator = MoneyAccumulator.of(money);
+
+        money = money.plus(nearlyMaxLong);
+        accumulator.plus(nearlyMaxLong);
+        assertSameAmount("overflowed", money, accumulator);
+
+        money = money.minus(nearlyMaxLong).minus(nearlyMaxLong).minus(new BigDecimal("0.01"));
+        accumulator.minus(nearlyMaxLong).minus(nearlyMaxLong).minus(new BigDecimal("0.01"));
+        assertSameAmount("back within range", money, accumulator);
+        Assert.assertTrue(accumulator.isLessThanZero());
+    }
+
+    @Test
+    public void shouldRoundEveryStepToMultiples() {
+        final MonetaryCurrency currency = new MonetaryCurrency("XOF", 0, 50);
+        Money money = Money.zero(currency);
+        final MoneyAccumulator accumulator = MoneyAccumulator.zero(currency);
+
+        for (final String amount : new String[] { "-30", "100", "24", "26", "-80" }) {
+            money = money.plus(new BigDecimal(amount));
+            accumulator.plus(new BigDecimal(amount));
+            assertSameAmount("after " + amount, money, accumulator);
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldRejectOtherCurrency() {
+        MoneyAccumulator.zero(CURRENCIES[0]).plus(Money.zero(CURRENCIES[1]));
+    }
+
+    private static BigDecimal randomAmount(final Random random) {
+        final int scale = random.nextInt(9) - 1;
+        switch (random.nextInt(4)) {
+            case 0:
+                return BigDecimal.valueOf(random.nextInt(1000), scale);
+            case 1:
+                return BigDecimal.valueOf(random.nextLong() / 1000, scale);
+            case 2:
+                return BigDecimal.ZERO;
+            default:
+                return BigDecimal.valueOf(random.nextInt(100000000) - 50000000, scale);
+        }
+    }
+
+    private static void assertSameAmount(final String message, final Money expected, final MoneyAccumulator actual) {
+        Assert.assertEquals(message, expected.getAmount(), actual.getAmount());
+        Assert.assertEquals(message, expected.getAmount(), actual.toMoney().getAmount());
+        Assert.assertEquals(message, expected.isZero(), actual.isZero());
+        Assert.assertEquals(message, expected.isGreaterThanZero(), actual.isGreaterThanZero());
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mifosplatform.portfolio.search.data.SearchConditions;
+import org.mifosplatform.portfolio.search.service.SearchIndexEntry.Source;
+
+public class SearchIndexTest {
+
+    @Test
+    public void shouldListExactMatchesBeforePartialMatches() {
+        final SearchIndex index = new SearchIndex();
+        index.put(client(1L, "John Smith", "000000001", ".1."));
+        index.put(loan(7L, 1L, "000000077", ".1."));
+        index.put(client(2L, "Smith", "000000002", ".1."));
+        index.put(client(3L, "Jane Doe", "000000003", ".1."));
+
+        Assert.assertEquals(keys("CLIENT:2", "CLIENT:1"), keys(index.search(conditions("SMITH"), ".1.")));
+        Assert.assertEquals(keys("LOAN:7"), keys(index.search(conditions("000000077"), ".1.")));
+        Assert.assertEquals(keys("CLIENT:1", "CLIENT:2", "CLIENT:3", "LOAN:7"), keys(index.search(conditions("0000000"), ".1.")));
+    }
+
+    @Test
+    public void shouldMatchShortTermsAndIgnoreCase() {
+        final SearchIndex index = new SearchIndex();
+        index.put(client(1L, "Ann", "A-1", ".1."));
+        index.put(client(2L, "Joanna", "A-2", ".1."));
+
+        Assert.assertEquals(keys("CLIENT:1", "CLIENT:2"), keys(index.search(conditions("aN"), ".1.")));
+        Assert.assertEquals(keys("CLIENT:2"), keys(index.search(conditions("j"), ".1.")));
+    }
+
+    @Test
+    public void shouldOnlyFindEntriesWithinHierarchyAndSearchedResources() {
+        final SearchIndex index = new SearchIndex();
+        index.put(client(1L, "Smith", "1", ".1.2."));
+        index.put(client(2L, "Smith", "2", ".1.3."));
+        index.put(loan(3L, 2L, "Smith", ".1.3."));
+
+        Assert.assertEquals(keys("CLIENT:2", "LOAN:3"), keys(index.search(conditions("smith"), ".1.3.")));
+        Assert.assertEquals(keys("LOAN:3"), keys(index.search(new SearchConditions("smith", "loans"), ".1.")));
+    }
+
+    @Test
+    public void shouldForgetReplacedAndRemovedValues() {
+        final SearchIndex index = new SearchIndex();
+        index.put(client(1L, "John Smith", "1", ".1."));
+        index.put(loan(2L, 1L, "000000002", ".1."));
+        index.put(client(1L, "John Miller", "1", ".1."));
+
+        Assert.assertTrue(index.search(conditions("smith"), ".1.").isEmpty());
+        Assert.assertEquals(keys("CLIENT:1"), keys(index.search(conditions("miller"), ".1.")));
+        Assert.assertEquals(1, index.dependentsOfClient(1L).size());
+
+        index.remove(Source.LOAN, 2L);
+        Assert.assertTrue(index.search(conditions("000000002"), ".1.").isEmpty());
+        Assert.assertTrue(index.dependentsOfClient(1L).isEmpty());
+        Assert.assertEquals(1, index.size());
+    }
+
+    private static SearchConditions conditions(final String query) {
+        return new SearchConditions(query, null);
+    }
+
+    private static SearchIndexEntry client(final Long id, final String name, final String accountNo, final String hierarchy) {
+        return new SearchIndexEntry(Source.CLIENT, "CLIENT", id, name, null, accountNo, 1L, "Head Office", 300, hierarchy);
+    }
+
+    private static SearchIndexEntry loan(final Long id, final Long clientId, final String accountNo, final String hierarchy) {
+        return new SearchIndexEntry(Source.LOAN, "LOAN", id, "Product", null, accountNo, clientId, "Client", 300, hierarchy);
+    }
+
+    private static List<String> keys(final String... keys) {
+        final List<String> list = new ArrayList<>();
+        for (final String key : keys) {
+            list.add(key);
+        }
+        return list;
+    }
+
+    private static List<String> keys(final List<SearchIndexEntry> entries) {
+        final List<String> list = new ArrayList<>();
+        for (final SearchIndexEntry entry : entries) {
+            list.add(entry.key());
+        }
+        return list;
+    }
+}
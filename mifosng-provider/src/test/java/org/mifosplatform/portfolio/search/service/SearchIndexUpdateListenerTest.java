@@ -0,0 +1,81 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.hooks.event.HookEvent;
+import org.mifosplatform.infrastructure.hooks.event.HookEventSource;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class SearchIndexUpdateListenerTest {
+
+    private SearchIndexService searchIndexService;
+    private SearchIndexUpdateListener listener;
+    private MifosPlatformTenant tenant;
+
+    @Before
+    public void setUp() {
+        this.searchIndexService = Mockito.mock(SearchIndexService.class);
+        this.listener = new SearchIndexUpdateListener(this.searchIndexService);
+        this.tenant = Mockito.mock(MifosPlatformTenant.class);
+        when(this.tenant.getTenantIdentifier()).thenReturn("default");
+        ThreadLocalContextUtil.setTenant(this.tenant);
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void shouldPassChangedEntityOnceCommandCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.listener.onHookEvent(event("LOAN", "{\"resourceId\":7,\"loanId\":3}"));
+        verifyZeroInteractions(this.searchIndexService);
+
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        verify(this.searchIndexService).entityChanged(this.tenant, "LOAN", 3L);
+    }
+
+    @Test
+    public void shouldNotPassChangesOfRolledBackCommand() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.listener.onHookEvent(event("CLIENT", "{\"resourceId\":5,\"clientId\":5}"));
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        verifyZeroInteractions(this.searchIndexService);
+    }
+
+    @Test
+    public void shouldPassResourceIdAtOnceWithoutTransaction() {
+        this.listener.onHookEvent(event("GROUP", "{\"resourceId\":4,\"officeId\":1}"));
+
+        verify(this.searchIndexService).entityChanged(this.tenant, "GROUP", 4L);
+    }
+
+    private static HookEvent event(final String entityName, final String payload) {
+        return new HookEvent(new HookEventSource(entityName, "UPDATE"), payload, "default", null, null);
+    }
+}
@@ -6,36 +6,156 @@
 package org.mifosplatform.template;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.when;
 
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.joda.time.LocalDate;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
 import org.mifosplatform.portfolio.loanaccount.LoanScheduleTestDataHelper;
 import org.mifosplatform.portfolio.loanaccount.MonetaryCurrencyBuilder;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
+import org.mifosplatform.template.data.MergedTemplateData;
 import org.mifosplatform.template.domain.Template;
+import org.mifosplatform.template.domain.TemplateMapper;
+import org.mifosplatform.template.service.TemplateMapperResolver;
 import org.mifosplatform.template.service.TemplateMergeService;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 public class TemplateMergeServiceTest {
 
     private Template template;
     private final static String TEST_FILE = "src/test/resources/template.mustache";
     private static TemplateMergeService tms;
+    private static TemplateMapperResolver mapperResolver;
+    private static MifosPlatformTenant tenant;
 
     @BeforeClass
     public static void init() {
-        tms = new TemplateMergeService(
-//                new FromJsonHelper()
-                );
+        mapperResolver = Mockito.mock(TemplateMapperResolver.class);
+        tms = new TemplateMergeService(mapperResolver);
+        tenant = Mockito.mock(MifosPlatformTenant.class);
+        when(tenant.getTenantIdentifier()).thenReturn("default");
+    }
+
+    @AfterClass
+    public static void shutdown() {
+        tms.shutdown();
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        ThreadLocalContextUtil.setTenant(tenant);
+        Mockito.reset(mapperResolver);
+        // clients/{id} resolves to a client named after its id, except
+        // client 13 which cannot be read
+        when(mapperResolver.resolve(anyString())).thenAnswer(new Answer<Map<String, Object>>() {
+
+            @Override
+            public Map<String, Object> answer(final InvocationOnMock invocation) {
+                final String path = (String) invocation.getArguments()[0];
+                if ("clients/13".equals(path)) { throw new IllegalStateException("Client 13 cannot be read"); }
+                final Map<String, Object> client = new HashMap<>();
+                client.put("displayName", "Client " + path.substring("clients/".length()));
+                return client;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void shouldMergeCompiledTemplateConcurrentlyWithDifferentScopes() throws Exception {
+        final Template letter = letterTemplate();
+        final int threads = 8;
+        final int mergesPerThread = 200;
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Void>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                results.add(executor.submit(new Callable<Void>() {
+
+                    @Override
+                    public Void call() throws Exception {
+                        ThreadLocalContextUtil.setTenant(tenant);
+                        try {
+                            for (int i = 0; i < mergesPerThread; i++) {
+                                final long clientId = thread * 1000L + i;
+                                assertEquals("Dear Client " + clientId + ", your loan " + i + " was approved.",
+                                        tms.compile(letter, scopes(clientId, i)));
+                            }
+                        } finally {
+                            ThreadLocalContextUtil.clearTenant();
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (final Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldReturnOneResultPerDocumentOfBulkMerge() {
+        final List<Map<String, Object>> scopesList = Arrays.asList(scopes(12L, 1), scopes(13L, 2), scopes(14L, 3));
+
+        final List<MergedTemplateData> documents = tms.compileAll(letterTemplate(), scopesList);
+
+        assertEquals(3, documents.size());
+        assertEquals(Integer.valueOf(0), documents.get(0).getIndex());
+        assertEquals("Dear Client 12, your loan 1 was approved.", documents.get(0).getDocument());
+        assertNull(documents.get(0).getError());
+        assertEquals(Integer.valueOf(1), documents.get(1).getIndex());
+        assertNull(documents.get(1).getDocument());
+        assertEquals("Client 13 cannot be read", documents.get(1).getError());
+        assertEquals(Integer.valueOf(2), documents.get(2).getIndex());
+        assertEquals("Dear Client 14, your loan 3 was approved.", documents.get(2).getDocument());
+    }
+
+    private static Template letterTemplate() {
+        return new Template("Approval letter", "Dear {{client.displayName}}, your loan {{loanId}} was approved.", null, null,
+                Collections.singletonList(new TemplateMapper(0, "client", "clients/{{clientId}}")));
+    }
+
+    private static Map<String, Object> scopes(final Long clientId, final int loanId) {
+        final Map<String, Object> scopes = new HashMap<>();
+        scopes.put("clientId", clientId);
+        scopes.put("loanId", loanId);
+        return scopes;
     }
 
     @Ignore
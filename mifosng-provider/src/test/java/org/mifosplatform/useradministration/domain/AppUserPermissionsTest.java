@@ -0,0 +1,53 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.useradministration.domain;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AppUserPermissionsTest {
+
+    @Test
+    public void shouldMatchPermissionCodesIgnoringCase() {
+        final Role role = new Role("Loan officer", "");
+        role.updatePermission(new Permission("portfolio", "CLIENT", "READ"), true);
+        role.updatePermission(new Permission("datatable", "extra_client_details", "READ"), true);
+        final AppUserPermissions permissions = AppUserPermissions.of(Arrays.asList(role));
+
+        Assert.assertTrue(permissions.hasPermissionTo("READ_CLIENT"));
+        Assert.assertTrue(permissions.hasPermissionTo("read_client"));
+        Assert.assertTrue(permissions.hasPermissionTo("READ_extra_client_details"));
+        Assert.assertFalse(permissions.hasPermissionTo("CREATE_CLIENT"));
+        Assert.assertFalse(permissions.hasPermissionTo("ALL_FUNCTIONS_READ"));
+    }
+
+    @Test
+    public void shouldGrantEveryCodeWithAllFunctions() {
+        final Role role = new Role("Super user", "");
+        role.updatePermission(new Permission("special", "FUNCTIONS", "ALL"), true);
+        final AppUserPermissions permissions = AppUserPermissions.of(Arrays.asList(role));
+
+        Assert.assertTrue(permissions.hasPermissionTo("DISBURSE_LOAN"));
+        Assert.assertTrue(permissions.hasPermissionTo("SOME_CODE_NO_ROLE_HAS"));
+    }
+
+    @Test
+    public void shouldCompileAgainAfterRolePermissionsChanged() {
+        final Role role = new Role("Teller", "");
+        final Permission repayment = new Permission("transaction_loan", "LOAN", "REPAYMENT");
+        role.updatePermission(repayment, true);
+        final AppUser user = new AppUser();
+        user.updateRoles(new HashSet<>(Arrays.asList(role)));
+
+        Assert.assertFalse(user.hasNotPermissionForAnyOf("REPAYMENT_LOAN"));
+
+        role.updatePermission(repayment, false);
+        Assert.assertTrue(user.hasNotPermissionForAnyOf("REPAYMENT_LOAN"));
+    }
+}